@@ -5,6 +5,12 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import com.example.mcp.adapter.in.mcp.handler.McpPromptHandler;
 import com.example.mcp.adapter.in.mcp.handler.McpResourceHandler;
@@ -17,12 +23,22 @@ import com.google.gson.JsonSyntaxException;
 /**
  * MCP protocol server implementing JSON-RPC over stdio.
  * This is the driving adapter that translates MCP protocol into application use cases.
+ * Requests are read one after another; a request waiting on the network or following a file
+ * or directory is answered when its result arrives, while the requests after it are already
+ * being served.
+ * Log notifications less severe than the level last set by {@code logging/setLevel} are dropped.
  */
 public final class McpServer {
+    /** RFC 5424 severities as named by the protocol, least severe first. */
+    private static final List<String> LOG_LEVELS =
+        List.of("debug", "info", "notice", "warning", "error", "critical", "alert", "emergency");
+
     private final Gson gson = new GsonBuilder().create();
     private final McpToolHandler toolHandler;
     private final McpResourceHandler resourceHandler;
     private final McpPromptHandler promptHandler;
+    /** Index into {@link #LOG_LEVELS} of the least severe log notification the client wants. */
+    private volatile int logLevel = 0;
 
     public McpServer(McpToolHandler toolHandler,
                      McpResourceHandler resourceHandler,
@@ -34,12 +50,14 @@ public final class McpServer {
 
     /**
      * Runs the MCP server, reading JSON-RPC requests from stdin and writing responses to stdout.
-     * Logs go to stderr to avoid interfering with the protocol.
+     * Logs go to stderr to avoid interfering with the protocol. Returns once stdin is closed
+     * and every pending response has been written.
      */
     public void run() {
         BufferedReader reader = new BufferedReader(
             new InputStreamReader(System.in, StandardCharsets.UTF_8));
         PrintWriter writer = new PrintWriter(System.out, true);
+        Set<CompletableFuture<Void>> pending = ConcurrentHashMap.newKeySet();
 
         System.err.println("[MCP] Starting MCP demo server (hexagonal architecture)");
 
@@ -48,8 +66,16 @@ public final class McpServer {
             while ((line = reader.readLine()) != null) {
                 try {
                     JsonObject request = gson.fromJson(line, JsonObject.class);
-                    JsonObject response = handleRequest(request);
-                    writer.println(gson.toJson(response));
+                    CompletableFuture<Void> reply = handleRequest(request, notification -> {
+                        if (isWanted(notification)) {
+                            writer.println(gson.toJson(notification));
+                        }
+                    })
+                        .thenAccept(response -> writer.println(gson.toJson(response)));
+                    if (!reply.isDone()) {
+                        pending.add(reply);
+                        reply.whenComplete((ignored, failure) -> pending.remove(reply));
+                    }
                 } catch (JsonSyntaxException e) {
                     System.err.println("[MCP] Invalid JSON: " + e.getMessage());
                 } catch (Exception e) {
@@ -61,9 +87,10 @@ public final class McpServer {
             System.err.println("[MCP] IO error: " + e.getMessage());
             System.exit(1);
         }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
     }
 
-    private JsonObject handleRequest(JsonObject request) {
+    private CompletableFuture<JsonObject> handleRequest(JsonObject request, Consumer<JsonObject> notifications) {
         String method = request.has("method") ? request.get("method").getAsString() : "";
         JsonObject params = request.has("params") ? request.getAsJsonObject("params") : new JsonObject();
 
@@ -74,7 +101,7 @@ public final class McpServer {
             if ("notifications/initialized".equals(method)) {
                 System.err.println("[MCP] Server initialization complete");
             }
-            return new JsonObject(); // Empty response for notifications
+            return CompletableFuture.completedFuture(new JsonObject()); // Empty response for notifications
         }
 
         // Handle requests (response required)
@@ -82,34 +109,74 @@ public final class McpServer {
         response.addProperty("jsonrpc", "2.0");
         response.add("id", request.get("id"));
 
+        CompletableFuture<JsonObject> result;
         try {
-            JsonObject result = switch (method) {
-                case "initialize" -> handleInitialize();
-                case "tools/list" -> toolHandler.listTools();
-                case "tools/call" -> toolHandler.callTool(params);
-                case "resources/list" -> resourceHandler.listResources();
-                case "resources/read" -> resourceHandler.readResource(params);
-                case "prompts/list" -> promptHandler.listPrompts();
-                case "prompts/get" -> promptHandler.getPrompt(params);
-                default -> throw new IllegalArgumentException("Method not found: " + method);
-            };
-            
-            response.add("result", result);
-            
-        } catch (IllegalArgumentException e) {
-            JsonObject error = new JsonObject();
-            error.addProperty("code", -32601);
-            error.addProperty("message", e.getMessage());
-            response.add("error", error);
+            result = dispatch(method, params, notifications);
         } catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        return result.handle((value, failure) -> {
+            if (failure == null) {
+                response.add("result", value);
+                return response;
+            }
+            Throwable e = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
             JsonObject error = new JsonObject();
-            error.addProperty("code", -32603);
-            error.addProperty("message", "Internal error: " + e.getMessage());
+            if (e instanceof IllegalArgumentException) {
+                error.addProperty("code", -32601);
+                error.addProperty("message", e.getMessage());
+            } else {
+                error.addProperty("code", -32603);
+                error.addProperty("message", "Internal error: " + e.getMessage());
+                e.printStackTrace(System.err);
+            }
             response.add("error", error);
-            e.printStackTrace(System.err);
+            return response;
+        });
+    }
+
+    private CompletableFuture<JsonObject> dispatch(String method, JsonObject params,
+                                                   Consumer<JsonObject> notifications) {
+        if ("tools/call".equals(method)) {
+            return toolHandler.callToolAsync(params, notifications);
+        }
+        JsonObject result = switch (method) {
+            case "initialize" -> handleInitialize();
+            case "tools/list" -> toolHandler.listTools();
+            case "resources/list" -> resourceHandler.listResources();
+            case "resources/read" -> resourceHandler.readResource(params);
+            case "prompts/list" -> promptHandler.listPrompts();
+            case "prompts/get" -> promptHandler.getPrompt(params);
+            case "logging/setLevel" -> handleSetLevel(params);
+            default -> throw new IllegalArgumentException("Method not found: " + method);
+        };
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private JsonObject handleSetLevel(JsonObject params) {
+        String level = params.has("level") ? params.get("level").getAsString() : "";
+        int index = LOG_LEVELS.indexOf(level);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown log level: " + level);
         }
+        logLevel = index;
+        System.err.println("[MCP] Log level set to " + level);
+        return new JsonObject();
+    }
 
-        return response;
+    /**
+     * Whether a notification should be sent: anything but a log message, or a log message
+     * at least as severe as the level the client set.
+     */
+    private boolean isWanted(JsonObject notification) {
+        if (!"notifications/message".equals(notification.get("method").getAsString())) {
+            return true;
+        }
+        JsonObject params = notification.getAsJsonObject("params");
+        int level = LOG_LEVELS.indexOf(params.get("level").getAsString());
+        return level < 0 || level >= logLevel;
     }
 
     private JsonObject handleInitialize() {
@@ -125,6 +192,7 @@ public final class McpServer {
         capabilities.add("tools", new JsonObject());
         capabilities.add("resources", new JsonObject());
         capabilities.add("prompts", new JsonObject());
+        capabilities.add("logging", new JsonObject());
         result.add("capabilities", capabilities);
 
         System.err.println("[MCP] Initialized with protocol version 2024-11-05");
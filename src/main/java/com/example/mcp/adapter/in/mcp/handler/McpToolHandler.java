@@ -1,21 +1,42 @@
 package com.example.mcp.adapter.in.mcp.handler;
 
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import com.example.mcp.application.port.in.CalculationUseCase;
 import com.example.mcp.application.port.in.FileOperationUseCase;
 import com.example.mcp.application.port.in.NoteManagementUseCase;
 import com.example.mcp.application.port.in.WeatherQueryUseCase;
 import com.example.mcp.domain.model.Calculation;
-import com.example.mcp.domain.model.FileMetadata;
+import com.example.mcp.domain.model.DirectoryChange;
+import com.example.mcp.domain.model.DirectoryChanges;
+import com.example.mcp.domain.model.DirectoryListing;
+import com.example.mcp.domain.model.FileChunk;
+import com.example.mcp.domain.model.FileHashReport;
+import com.example.mcp.domain.model.FileSearchResult;
+import com.example.mcp.domain.model.FileTail;
 import com.example.mcp.domain.model.Note;
-import com.example.mcp.domain.model.Weather;
 import com.example.mcp.domain.valueobject.CityName;
 import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.ListingCursor;
+import com.example.mcp.domain.valueobject.ListingSort;
 import com.example.mcp.domain.valueobject.Operation;
+import com.example.mcp.domain.valueobject.ReadCursor;
+import com.example.mcp.domain.valueobject.ReadRange;
+import com.example.mcp.domain.valueobject.TailCursor;
+import com.example.mcp.domain.valueobject.WatchCursor;
+import com.example.mcp.domain.valueobject.WriteMode;
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 /**
@@ -23,11 +44,25 @@ import com.google.gson.JsonObject;
  * Translates JSON-RPC tool requests into application use case calls.
  */
 public final class McpToolHandler {
+    private static final int DEFAULT_LISTING_LIMIT = 1000;
+    private static final int DEFAULT_SEARCH_LIMIT = 200;
+    private static final long DEFAULT_BATCH_READ_BUDGET = 1024 * 1024;
+    private static final int DEFAULT_HASH_LIMIT = 1000;
+    private static final int DEFAULT_USAGE_SUBTREES = 10;
+    private static final int DEFAULT_TAIL_LINES = 10;
+    private static final int DEFAULT_FORECAST_DAYS = 3;
+    private static final int DEFAULT_FORECAST_WINDOW_HOURS = 6;
+    private static final int MAX_FOLLOW_SECONDS = 60;
+    private static final long FOLLOW_POLL_MILLIS = 250;
+    /** Tools that block for their follow_seconds when asked to follow. */
+    private static final Set<String> FOLLOWING_TOOLS = Set.of("tail_file", "watch_directory");
+
     private final Gson gson = new Gson();
     private final CalculationUseCase calculationUseCase;
     private final NoteManagementUseCase noteManagement;
     private final WeatherQueryUseCase weatherQuery;
     private final FileOperationUseCase fileOperation;
+    private final ExecutorService followers = Executors.newVirtualThreadPerTaskExecutor();
 
     public McpToolHandler(CalculationUseCase calculationUseCase,
                           NoteManagementUseCase noteManagement,
@@ -52,47 +87,130 @@ public final class McpToolHandler {
         
         // Weather tool
         tools.add(createWeatherTool());
+        tools.add(createWeatherBatchTool());
+        tools.add(createForecastTool());
         
         // File tools
         tools.add(createReadFileTool());
+        tools.add(createReadFilesTool());
+        tools.add(createTailFileTool());
         tools.add(createWriteFileTool());
+        tools.add(createTransferTool("copy_file",
+            "Copy a file or directory tree without sending its content through the conversation (binary safe)"));
+        tools.add(createTransferTool("move_file", "Move or rename a file or directory"));
         tools.add(createListDirectoryTool());
+        tools.add(createSearchFilesTool("search_files",
+            "Recursively find files by glob and optionally search their contents with a regular expression", false));
+        tools.add(createSearchFilesTool("indexed_search",
+            "Search file contents with a regular expression using a trigram index of the tree; "
+            + "much faster than search_files for repeated searches of a large tree", true));
+        tools.add(createHashFilesTool());
+        tools.add(createDiskUsageTool());
+        tools.add(createWatchDirectoryTool());
 
         result.add("tools", gson.toJsonTree(tools));
         return result;
     }
 
     public JsonObject callTool(JsonObject params) {
+        return callTool(params, notification -> { });
+    }
+
+    /**
+     * Calls a tool, letting long-running tools push JSON-RPC notifications while they work.
+     *
+     * @param params The tools/call parameters
+     * @param notifications Receives notifications to send to the client before the result
+     * @return The tool result
+     */
+    public JsonObject callTool(JsonObject params, Consumer<JsonObject> notifications) {
         String name = params.get("name").getAsString();
         JsonObject args = params.has("arguments") ? params.getAsJsonObject("arguments") : new JsonObject();
-        
-        JsonObject result = new JsonObject();
-        List<JsonObject> content = new ArrayList<>();
 
         try {
-            String responseText = switch (name) {
-                case "calculate" -> handleCalculate(args);
-                case "create_note" -> handleCreateNote(args);
-                case "list_notes" -> handleListNotes();
-                case "get_weather" -> handleGetWeather(args);
-                case "read_file" -> handleReadFile(args);
-                case "write_file" -> handleWriteFile(args);
-                case "list_directory" -> handleListDirectory(args);
+            List<String> responseTexts = switch (name) {
+                case "calculate" -> List.of(handleCalculate(args));
+                case "create_note" -> List.of(handleCreateNote(args));
+                case "list_notes" -> List.of(handleListNotes());
+                case "get_weather" -> List.of(handleGetWeather(args).join());
+                case "get_weather_batch" -> handleGetWeatherBatch(args).join();
+                case "get_forecast" -> List.of(handleGetForecast(args).join());
+                case "read_file" -> List.of(handleReadFile(args));
+                case "read_files" -> handleReadFiles(args);
+                case "tail_file" -> handleTailFile(args, notifications);
+                case "write_file" -> List.of(handleWriteFile(args));
+                case "copy_file" -> List.of(handleCopyFile(args));
+                case "move_file" -> List.of(handleMoveFile(args));
+                case "list_directory" -> List.of(handleListDirectory(args));
+                case "search_files" -> List.of(handleSearchFiles(args, false));
+                case "indexed_search" -> List.of(handleSearchFiles(args, true));
+                case "hash_files" -> List.of(handleHashFiles(args));
+                case "disk_usage" -> List.of(handleDiskUsage(args));
+                case "watch_directory" -> handleWatchDirectory(args, notifications);
                 default -> throw new IllegalArgumentException("Unknown tool: " + name);
             };
-            
-            content.add(createTextContent(responseText));
-            result.add("content", gson.toJsonTree(content));
-            
+            return toolResult(responseTexts);
+        } catch (Exception e) {
+            return errorResult(e);
+        }
+    }
+
+    /**
+     * Calls a tool without waiting for tools that wait on the network or follow a file or
+     * directory; their result completes when the answer arrives or the follow ends. Other
+     * tools run on the calling thread.
+     *
+     * @param params The tools/call parameters
+     * @param notifications Receives notifications to send to the client before the result
+     * @return The tool result
+     */
+    public CompletableFuture<JsonObject> callToolAsync(JsonObject params, Consumer<JsonObject> notifications) {
+        String name = params.get("name").getAsString();
+        JsonObject args = params.has("arguments") ? params.getAsJsonObject("arguments") : new JsonObject();
+
+        if (FOLLOWING_TOOLS.contains(name) && args.has("follow_seconds") && args.get("follow_seconds").getAsInt() > 0) {
+            // Following blocks for up to a minute, so it runs apart from the requests after it
+            return CompletableFuture.supplyAsync(() -> callTool(params, notifications), followers);
+        }
+
+        try {
+            CompletableFuture<List<String>> responseTexts = switch (name) {
+                case "get_weather" -> handleGetWeather(args).thenApply(List::of);
+                case "get_weather_batch" -> handleGetWeatherBatch(args);
+                case "get_forecast" -> handleGetForecast(args).thenApply(List::of);
+                default -> null;
+            };
+            if (responseTexts == null) {
+                return CompletableFuture.completedFuture(callTool(params, notifications));
+            }
+            return responseTexts.handle((texts, failure) ->
+                failure == null ? toolResult(texts) : errorResult(unwrap(failure)));
         } catch (Exception e) {
-            result.addProperty("isError", true);
-            content.add(createTextContent("Error: " + e.getMessage()));
-            result.add("content", gson.toJsonTree(content));
+            return CompletableFuture.completedFuture(errorResult(e));
         }
+    }
 
+    private JsonObject toolResult(List<String> responseTexts) {
+        List<JsonObject> content = new ArrayList<>();
+        for (String responseText : responseTexts) {
+            content.add(createTextContent(responseText));
+        }
+        JsonObject result = new JsonObject();
+        result.add("content", gson.toJsonTree(content));
         return result;
     }
 
+    private JsonObject errorResult(Throwable e) {
+        JsonObject result = new JsonObject();
+        result.addProperty("isError", true);
+        result.add("content", gson.toJsonTree(List.of(createTextContent("Error: " + e.getMessage()))));
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
     // Tool handlers
     
     private String handleCalculate(JsonObject args) {
@@ -132,16 +250,46 @@ public final class McpToolHandler {
         return sb.toString().trim();
     }
 
-    private String handleGetWeather(JsonObject args) {
+    private CompletableFuture<String> handleGetWeather(JsonObject args) {
         String cityStr = args.get("city").getAsString();
         CityName city = new CityName(cityStr);
-        
-        try {
-            Weather weather = weatherQuery.getWeatherForCity(city);
-            return weather.format();
-        } catch (WeatherQueryUseCase.WeatherServiceException e) {
-            return "Error fetching weather: " + e.getMessage();
+
+        return weatherQuery.getWeatherForCityAsync(city).handle((weather, failure) ->
+            failure == null ? weather.format() : "Error fetching weather: " + unwrap(failure).getMessage());
+    }
+
+    private CompletableFuture<List<String>> handleGetWeatherBatch(JsonObject args) {
+        List<CityName> cities = new ArrayList<>();
+        for (JsonElement element : args.getAsJsonArray("cities")) {
+            cities.add(new CityName(element.getAsString()));
         }
+
+        return weatherQuery.getWeatherForCitiesAsync(cities).thenApply(results -> {
+            if (results.isEmpty()) {
+                return List.of("No cities given");
+            }
+            List<String> texts = new ArrayList<>(results.size());
+            for (WeatherQueryUseCase.CityWeatherResult cityResult : results) {
+                texts.add(cityResult.isError()
+                    ? "Error fetching weather for " + cityResult.city() + ": " + cityResult.error()
+                    : cityResult.weather().format());
+            }
+            return texts;
+        });
+    }
+
+    private CompletableFuture<String> handleGetForecast(JsonObject args) {
+        CityName city = new CityName(args.get("city").getAsString());
+        int days = args.has("days") ? args.get("days").getAsInt() : DEFAULT_FORECAST_DAYS;
+        int windowHours = args.has("window_hours")
+            ? args.get("window_hours").getAsInt() : DEFAULT_FORECAST_WINDOW_HOURS;
+        if (windowHours < 1 || windowHours > 24) {
+            throw new IllegalArgumentException("window_hours must be between 1 and 24, got: " + windowHours);
+        }
+
+        return weatherQuery.getForecastForCityAsync(city, days).handle((forecast, failure) -> failure == null
+            ? forecast.format(Instant.now().getEpochSecond(), windowHours)
+            : "Error fetching forecast: " + unwrap(failure).getMessage());
     }
 
     private String handleReadFile(JsonObject args) {
@@ -149,22 +297,133 @@ public final class McpToolHandler {
         FilePath path = new FilePath(pathStr);
         
         try {
-            String content = fileOperation.readFile(path);
-            return "File contents of " + pathStr + ":\n\n" + content;
+            FileChunk chunk;
+            if (args.has("cursor")) {
+                chunk = fileOperation.readFile(path, ReadCursor.parse(args.get("cursor").getAsString()));
+            } else {
+                ReadRange.Unit unit = args.has("unit")
+                    ? ReadRange.Unit.fromString(args.get("unit").getAsString())
+                    : ReadRange.Unit.BYTES;
+                long offset = args.has("offset") ? args.get("offset").getAsLong() : 0;
+                long length = args.has("length") ? args.get("length").getAsLong() : ReadRange.UNBOUNDED;
+                chunk = fileOperation.readFile(path, ReadRange.of(unit, offset, length));
+            }
+            return chunk.format();
         } catch (FileOperationUseCase.FileOperationException e) {
             return "Error: " + e.getMessage();
         }
     }
 
+    private List<String> handleReadFiles(JsonObject args) throws FileOperationUseCase.FileOperationException {
+        long budget = args.has("max_total_bytes") ? args.get("max_total_bytes").getAsLong() : DEFAULT_BATCH_READ_BUDGET;
+        
+        List<FileOperationUseCase.FileReadResult> results;
+        if (args.has("file_paths")) {
+            List<FilePath> paths = new ArrayList<>();
+            for (JsonElement element : args.getAsJsonArray("file_paths")) {
+                paths.add(new FilePath(element.getAsString()));
+            }
+            results = fileOperation.readFiles(paths, budget);
+        } else if (args.has("glob")) {
+            String rootStr = args.has("root") ? args.get("root").getAsString() : ".";
+            results = fileOperation.readFiles(new FilePath(rootStr), args.get("glob").getAsString(), budget);
+        } else {
+            throw new IllegalArgumentException("Either file_paths or glob is required");
+        }
+        
+        if (results.isEmpty()) {
+            return List.of("No files matched");
+        }
+        
+        List<String> texts = new ArrayList<>(results.size());
+        for (FileOperationUseCase.FileReadResult fileResult : results) {
+            texts.add(fileResult.isError()
+                ? "Error reading " + fileResult.path() + ": " + fileResult.error()
+                : fileResult.chunk().format());
+        }
+        return texts;
+    }
+
+    private List<String> handleTailFile(JsonObject args, Consumer<JsonObject> notifications)
+            throws FileOperationUseCase.FileOperationException, InterruptedException {
+        FilePath path = new FilePath(args.get("file_path").getAsString());
+        int followSeconds = args.has("follow_seconds") ? args.get("follow_seconds").getAsInt() : 0;
+        if (followSeconds < 0 || followSeconds > MAX_FOLLOW_SECONDS) {
+            throw new IllegalArgumentException("follow_seconds must be between 0 and " + MAX_FOLLOW_SECONDS);
+        }
+
+        FileTail tail = args.has("cursor")
+            ? fileOperation.tailFile(path, TailCursor.parse(args.get("cursor").getAsString()))
+            : fileOperation.tailFile(path, args.has("lines") ? args.get("lines").getAsInt() : DEFAULT_TAIL_LINES);
+        if (followSeconds == 0) {
+            return List.of(tail.format());
+        }
+
+        // Each poll is a stat plus a read of whatever was appended, so idle files cost next to nothing
+        TailCursor cursor = tail.getCursor();
+        long sent = 0;
+        long deadline = System.nanoTime() + followSeconds * 1_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(FOLLOW_POLL_MILLIS);
+            FileTail update = fileOperation.tailFile(path, cursor);
+            if (!update.isEmpty() || update.isRestarted()) {
+                String data = update.isRestarted()
+                    ? "[" + path + " was truncated or replaced]\n" + update.getContent()
+                    : update.getContent();
+                notifications.accept(createLogNotification("tail_file", data));
+                sent += update.getEndOffset() - update.getStartOffset();
+            }
+            cursor = update.getCursor();
+        }
+
+        String summary = "Followed " + path + " for " + followSeconds + " seconds; " + sent +
+            " bytes of new content were sent as log notifications.\n\n[Call tail_file again with cursor \"" +
+            cursor.encode() + "\" to get content appended after this point.]";
+        return List.of(tail.format(), summary);
+    }
+
     private String handleWriteFile(JsonObject args) {
         String pathStr = args.get("file_path").getAsString();
         String content = args.get("content").getAsString();
+        WriteMode mode = args.has("mode")
+            ? WriteMode.fromString(args.get("mode").getAsString())
+            : WriteMode.OVERWRITE;
         
         FilePath path = new FilePath(pathStr);
         
         try {
-            fileOperation.writeFile(path, content);
-            return "File written successfully: " + pathStr;
+            long bytes = fileOperation.writeFile(path, content, mode);
+            return mode == WriteMode.APPEND
+                ? "Appended " + bytes + " bytes to: " + pathStr
+                : "File written successfully: " + pathStr;
+        } catch (FileOperationUseCase.FileOperationException e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+
+    private String handleCopyFile(JsonObject args) {
+        String sourceStr = args.get("source_path").getAsString();
+        String targetStr = args.get("target_path").getAsString();
+        boolean overwrite = args.has("overwrite") && args.get("overwrite").getAsBoolean();
+        
+        try {
+            FileOperationUseCase.CopyResult copied =
+                fileOperation.copyFile(new FilePath(sourceStr), new FilePath(targetStr), overwrite);
+            return "Copied " + copied.files() + (copied.files() == 1 ? " file" : " files") +
+                " (" + copied.bytes() + " bytes) from " + sourceStr + " to " + targetStr;
+        } catch (FileOperationUseCase.FileOperationException e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+
+    private String handleMoveFile(JsonObject args) {
+        String sourceStr = args.get("source_path").getAsString();
+        String targetStr = args.get("target_path").getAsString();
+        boolean overwrite = args.has("overwrite") && args.get("overwrite").getAsBoolean();
+        
+        try {
+            fileOperation.moveFile(new FilePath(sourceStr), new FilePath(targetStr), overwrite);
+            return "Moved " + sourceStr + " to " + targetStr;
         } catch (FileOperationUseCase.FileOperationException e) {
             return "Error: " + e.getMessage();
         }
@@ -175,19 +434,107 @@ public final class McpToolHandler {
         FilePath path = new FilePath(pathStr);
         
         try {
-            List<FileMetadata> entries = fileOperation.listDirectory(path);
+            ListingCursor cursor = args.has("cursor")
+                ? ListingCursor.parse(args.get("cursor").getAsString())
+                : null;
+            ListingSort sort = args.has("sort")
+                ? ListingSort.fromString(args.get("sort").getAsString())
+                : ListingSort.NAME;
+            boolean descending = args.has("order")
+                ? parseDescending(args.get("order").getAsString())
+                : sort.isDescendingByDefault();
+            int limit = args.has("limit") ? args.get("limit").getAsInt() : DEFAULT_LISTING_LIMIT;
             
-            StringBuilder result = new StringBuilder("Contents of ").append(pathStr).append(":\n\n");
-            for (FileMetadata entry : entries) {
-                result.append(entry.formatListEntry()).append("\n");
-            }
-            
-            return result.toString();
+            DirectoryListing listing = fileOperation.listDirectory(path, sort, descending, limit, cursor);
+            return listing.format();
+        } catch (FileOperationUseCase.FileOperationException e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+
+    private String handleSearchFiles(JsonObject args, boolean indexed) {
+        String rootStr = args.has("root") ? args.get("root").getAsString() : ".";
+        String glob = args.get("glob").getAsString();
+        String regex = args.has("regex") ? args.get("regex").getAsString() : null;
+        int limit = args.has("limit") ? args.get("limit").getAsInt() : DEFAULT_SEARCH_LIMIT;
+        
+        try {
+            FileSearchResult result = indexed
+                ? fileOperation.indexedSearch(new FilePath(rootStr), glob, regex, limit)
+                : fileOperation.searchFiles(new FilePath(rootStr), glob, regex, limit);
+            return result.format();
         } catch (FileOperationUseCase.FileOperationException e) {
             return "Error: " + e.getMessage();
         }
     }
 
+    private String handleHashFiles(JsonObject args) throws FileOperationUseCase.FileOperationException {
+        FileHashReport report;
+        if (args.has("file_paths")) {
+            List<FilePath> paths = new ArrayList<>();
+            for (JsonElement element : args.getAsJsonArray("file_paths")) {
+                paths.add(new FilePath(element.getAsString()));
+            }
+            report = fileOperation.hashFiles(paths);
+        } else {
+            String rootStr = args.has("root") ? args.get("root").getAsString() : ".";
+            String glob = args.has("glob") ? args.get("glob").getAsString() : "*";
+            int limit = args.has("limit") ? args.get("limit").getAsInt() : DEFAULT_HASH_LIMIT;
+            report = fileOperation.hashFiles(new FilePath(rootStr), glob, limit);
+        }
+        return report.format();
+    }
+
+    private String handleDiskUsage(JsonObject args) throws FileOperationUseCase.FileOperationException {
+        String pathStr = args.has("path") ? args.get("path").getAsString() : ".";
+        int top = args.has("top") ? args.get("top").getAsInt() : DEFAULT_USAGE_SUBTREES;
+        boolean refresh = args.has("refresh") && args.get("refresh").getAsBoolean();
+        return fileOperation.diskUsage(new FilePath(pathStr), top, refresh).format();
+    }
+
+    private List<String> handleWatchDirectory(JsonObject args, Consumer<JsonObject> notifications)
+            throws FileOperationUseCase.FileOperationException {
+        FilePath path = new FilePath(args.get("path").getAsString());
+        boolean recursive = args.has("recursive") && args.get("recursive").getAsBoolean();
+        int followSeconds = args.has("follow_seconds") ? args.get("follow_seconds").getAsInt() : 0;
+        if (followSeconds < 0 || followSeconds > MAX_FOLLOW_SECONDS) {
+            throw new IllegalArgumentException("follow_seconds must be between 0 and " + MAX_FOLLOW_SECONDS);
+        }
+        WatchCursor cursor = args.has("cursor") ? WatchCursor.parse(args.get("cursor").getAsString()) : null;
+
+        DirectoryChanges changes = fileOperation.watchDirectory(path, recursive, cursor, 0);
+        if (followSeconds == 0) {
+            return List.of(changes.format());
+        }
+
+        // The watcher thread wakes us once per debounced batch, so there is no polling
+        WatchCursor next = changes.getCursor();
+        long sent = 0;
+        long deadline = System.nanoTime() + followSeconds * 1_000_000_000L;
+        long remaining;
+        while ((remaining = (deadline - System.nanoTime()) / 1_000_000) > 0) {
+            DirectoryChanges update = fileOperation.watchDirectory(path, recursive, next, remaining);
+            if (!update.isEmpty() || update.isResync()) {
+                notifications.accept(createResourceUpdatedNotification(path, update));
+                sent += update.getChanges().size();
+            }
+            next = update.getCursor();
+        }
+
+        String summary = "Watched " + path + " for " + followSeconds + " seconds; " + sent +
+            " changes were sent as notifications/resources/updated notifications.\n\n" +
+            "[Call watch_directory again with cursor \"" + next.encode() + "\" to get the changes after this point.]";
+        return List.of(changes.format(), summary);
+    }
+
+    private static boolean parseDescending(String order) {
+        return switch (order.toLowerCase()) {
+            case "asc" -> false;
+            case "desc" -> true;
+            default -> throw new IllegalArgumentException("Unknown order: " + order);
+        };
+    }
+
     // Tool schema definitions
     
     private JsonObject createCalculateTool() {
@@ -282,10 +629,71 @@ public final class McpToolHandler {
         return tool;
     }
 
+    private JsonObject createWeatherBatchTool() {
+        JsonObject tool = new JsonObject();
+        tool.addProperty("name", "get_weather_batch");
+        tool.addProperty("description",
+            "Get real weather information for many cities at once, one content item per city");
+        
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        
+        JsonObject props = new JsonObject();
+        JsonObject citiesProp = new JsonObject();
+        citiesProp.addProperty("type", "array");
+        JsonObject itemsProp = new JsonObject();
+        itemsProp.addProperty("type", "string");
+        citiesProp.add("items", itemsProp);
+        citiesProp.addProperty("description", "The city names (at most 100)");
+        props.add("cities", citiesProp);
+        
+        schema.add("properties", props);
+        schema.add("required", gson.toJsonTree(Arrays.asList("cities")));
+        tool.add("inputSchema", schema);
+        
+        return tool;
+    }
+
+    private JsonObject createForecastTool() {
+        JsonObject tool = new JsonObject();
+        tool.addProperty("name", "get_forecast");
+        tool.addProperty("description",
+            "Get the hourly and daily forecast for a city, summarized: when precipitation starts, the next 24 hours, "
+                + "each day, and min/max/mean over fixed windows");
+        
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        
+        JsonObject props = new JsonObject();
+        JsonObject cityProp = new JsonObject();
+        cityProp.addProperty("type", "string");
+        cityProp.addProperty("description", "The city name");
+        props.add("city", cityProp);
+        
+        JsonObject daysProp = new JsonObject();
+        daysProp.addProperty("type", "integer");
+        daysProp.addProperty("description",
+            "Days to forecast, today included, 1 to 16 (default " + DEFAULT_FORECAST_DAYS + ")");
+        props.add("days", daysProp);
+        
+        JsonObject windowProp = new JsonObject();
+        windowProp.addProperty("type", "integer");
+        windowProp.addProperty("description",
+            "Hours per summarized window, 1 to 24 (default " + DEFAULT_FORECAST_WINDOW_HOURS + ")");
+        props.add("window_hours", windowProp);
+        
+        schema.add("properties", props);
+        schema.add("required", gson.toJsonTree(Arrays.asList("city")));
+        tool.add("inputSchema", schema);
+        
+        return tool;
+    }
+
     private JsonObject createReadFileTool() {
         JsonObject tool = new JsonObject();
         tool.addProperty("name", "read_file");
-        tool.addProperty("description", "Read the contents of a text file");
+        tool.addProperty("description",
+            "Read the contents of a text file. Large files are returned in pages with a continuation cursor");
         
         JsonObject schema = new JsonObject();
         schema.addProperty("type", "object");
@@ -296,6 +704,106 @@ public final class McpToolHandler {
         pathProp.addProperty("description", "The path to the file to read");
         props.add("file_path", pathProp);
         
+        JsonObject offsetProp = new JsonObject();
+        offsetProp.addProperty("type", "integer");
+        offsetProp.addProperty("description", "Where to start reading: a byte offset, or a zero-based line number when unit is 'lines' (default 0)");
+        props.add("offset", offsetProp);
+        
+        JsonObject lengthProp = new JsonObject();
+        lengthProp.addProperty("type", "integer");
+        lengthProp.addProperty("description", "How many bytes or lines to read (defaults to the rest of the file)");
+        props.add("length", lengthProp);
+        
+        JsonObject unitProp = new JsonObject();
+        unitProp.addProperty("type", "string");
+        unitProp.addProperty("description", "Unit of offset and length (default 'bytes')");
+        unitProp.add("enum", gson.toJsonTree(Arrays.asList("bytes", "lines")));
+        props.add("unit", unitProp);
+        
+        JsonObject cursorProp = new JsonObject();
+        cursorProp.addProperty("type", "string");
+        cursorProp.addProperty("description", "Continuation cursor from a previous read_file response; overrides offset, length and unit");
+        props.add("cursor", cursorProp);
+        
+        schema.add("properties", props);
+        schema.add("required", gson.toJsonTree(Arrays.asList("file_path")));
+        tool.add("inputSchema", schema);
+        
+        return tool;
+    }
+
+    private JsonObject createReadFilesTool() {
+        JsonObject tool = new JsonObject();
+        tool.addProperty("name", "read_files");
+        tool.addProperty("description",
+            "Read several text files at once, given as a list of paths or a glob. Returns one content item per file");
+        
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        
+        JsonObject props = new JsonObject();
+        JsonObject pathsProp = new JsonObject();
+        pathsProp.addProperty("type", "array");
+        JsonObject itemsProp = new JsonObject();
+        itemsProp.addProperty("type", "string");
+        pathsProp.add("items", itemsProp);
+        pathsProp.addProperty("description", "The paths of the files to read");
+        props.add("file_paths", pathsProp);
+        
+        JsonObject rootProp = new JsonObject();
+        rootProp.addProperty("type", "string");
+        rootProp.addProperty("description", "Directory to apply the glob to (defaults to current directory)");
+        props.add("root", rootProp);
+        
+        JsonObject globProp = new JsonObject();
+        globProp.addProperty("type", "string");
+        globProp.addProperty("description", "Glob selecting the files to read, used when file_paths is not given");
+        props.add("glob", globProp);
+        
+        JsonObject budgetProp = new JsonObject();
+        budgetProp.addProperty("type", "integer");
+        budgetProp.addProperty("description",
+            "Total bytes to return across all files (default " + DEFAULT_BATCH_READ_BUDGET + "); larger files are truncated with a cursor");
+        props.add("max_total_bytes", budgetProp);
+        
+        schema.add("properties", props);
+        tool.add("inputSchema", schema);
+        
+        return tool;
+    }
+
+    private JsonObject createTailFileTool() {
+        JsonObject tool = new JsonObject();
+        tool.addProperty("name", "tail_file");
+        tool.addProperty("description",
+            "Read the last lines of a text file, or only what was appended since a previous call's cursor");
+        
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        
+        JsonObject props = new JsonObject();
+        JsonObject pathProp = new JsonObject();
+        pathProp.addProperty("type", "string");
+        pathProp.addProperty("description", "The path of the file to tail");
+        props.add("file_path", pathProp);
+        
+        JsonObject linesProp = new JsonObject();
+        linesProp.addProperty("type", "integer");
+        linesProp.addProperty("description", "Number of trailing lines to return (default " + DEFAULT_TAIL_LINES + ")");
+        props.add("lines", linesProp);
+        
+        JsonObject cursorProp = new JsonObject();
+        cursorProp.addProperty("type", "string");
+        cursorProp.addProperty("description",
+            "Cursor from a previous tail_file call; returns only content appended since then");
+        props.add("cursor", cursorProp);
+        
+        JsonObject followProp = new JsonObject();
+        followProp.addProperty("type", "integer");
+        followProp.addProperty("description",
+            "Keep watching for up to this many seconds (max " + MAX_FOLLOW_SECONDS + "), sending new content as log notifications");
+        props.add("follow_seconds", followProp);
+        
         schema.add("properties", props);
         schema.add("required", gson.toJsonTree(Arrays.asList("file_path")));
         tool.add("inputSchema", schema);
@@ -303,10 +811,121 @@ public final class McpToolHandler {
         return tool;
     }
 
+    private JsonObject createHashFilesTool() {
+        JsonObject tool = new JsonObject();
+        tool.addProperty("name", "hash_files");
+        tool.addProperty("description",
+            "Compute SHA-256 digests of files, given as a list of paths or a directory tree, to check whether they changed");
+        
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        
+        JsonObject props = new JsonObject();
+        JsonObject pathsProp = new JsonObject();
+        pathsProp.addProperty("type", "array");
+        JsonObject itemsProp = new JsonObject();
+        itemsProp.addProperty("type", "string");
+        pathsProp.add("items", itemsProp);
+        pathsProp.addProperty("description", "The paths of the files to hash");
+        props.add("file_paths", pathsProp);
+        
+        JsonObject rootProp = new JsonObject();
+        rootProp.addProperty("type", "string");
+        rootProp.addProperty("description", "Directory to hash recursively when file_paths is not given (defaults to current directory)");
+        props.add("root", rootProp);
+        
+        JsonObject globProp = new JsonObject();
+        globProp.addProperty("type", "string");
+        globProp.addProperty("description", "Glob selecting files under root (default '*', every file)");
+        props.add("glob", globProp);
+        
+        JsonObject limitProp = new JsonObject();
+        limitProp.addProperty("type", "integer");
+        limitProp.addProperty("description", "Maximum number of files to hash under root (default " + DEFAULT_HASH_LIMIT + ")");
+        props.add("limit", limitProp);
+        
+        schema.add("properties", props);
+        tool.add("inputSchema", schema);
+        
+        return tool;
+    }
+
+    private JsonObject createDiskUsageTool() {
+        JsonObject tool = new JsonObject();
+        tool.addProperty("name", "disk_usage");
+        tool.addProperty("description",
+            "Measure the space and file count of a directory tree and list its largest subtrees, like du; "
+            + "repeat calls only re-list directories that changed");
+        
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        
+        JsonObject props = new JsonObject();
+        JsonObject pathProp = new JsonObject();
+        pathProp.addProperty("type", "string");
+        pathProp.addProperty("description", "The directory to measure (defaults to current directory)");
+        props.add("path", pathProp);
+        
+        JsonObject topProp = new JsonObject();
+        topProp.addProperty("type", "integer");
+        topProp.addProperty("description", "How many of the largest subtrees to list (default " + DEFAULT_USAGE_SUBTREES + ")");
+        props.add("top", topProp);
+        
+        JsonObject refreshProp = new JsonObject();
+        refreshProp.addProperty("type", "boolean");
+        refreshProp.addProperty("description",
+            "List every directory again instead of reusing unchanged ones, to catch files that grew in place (default false)");
+        props.add("refresh", refreshProp);
+        
+        schema.add("properties", props);
+        tool.add("inputSchema", schema);
+        
+        return tool;
+    }
+
+    private JsonObject createWatchDirectoryTool() {
+        JsonObject tool = new JsonObject();
+        tool.addProperty("name", "watch_directory");
+        tool.addProperty("description",
+            "Report files created, modified or deleted in a directory since a previous call's cursor, "
+            + "instead of listing it again; the first call starts watching and returns a cursor");
+        
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        
+        JsonObject props = new JsonObject();
+        JsonObject pathProp = new JsonObject();
+        pathProp.addProperty("type", "string");
+        pathProp.addProperty("description", "The directory to watch");
+        props.add("path", pathProp);
+        
+        JsonObject recursiveProp = new JsonObject();
+        recursiveProp.addProperty("type", "boolean");
+        recursiveProp.addProperty("description", "Include changes in subdirectories (default false)");
+        props.add("recursive", recursiveProp);
+        
+        JsonObject cursorProp = new JsonObject();
+        cursorProp.addProperty("type", "string");
+        cursorProp.addProperty("description", "Cursor from a previous watch_directory call; returns only changes since then");
+        props.add("cursor", cursorProp);
+        
+        JsonObject followProp = new JsonObject();
+        followProp.addProperty("type", "integer");
+        followProp.addProperty("description",
+            "Keep watching for up to this many seconds (max " + MAX_FOLLOW_SECONDS + "), sending each batch of changes as a resource update notification");
+        props.add("follow_seconds", followProp);
+        
+        schema.add("properties", props);
+        schema.add("required", gson.toJsonTree(Arrays.asList("path")));
+        tool.add("inputSchema", schema);
+        
+        return tool;
+    }
+
     private JsonObject createWriteFileTool() {
         JsonObject tool = new JsonObject();
         tool.addProperty("name", "write_file");
-        tool.addProperty("description", "Write content to a text file (creates or overwrites)");
+        tool.addProperty("description", "Write content to a text file (creates, overwrites or appends)");
         
         JsonObject schema = new JsonObject();
         schema.addProperty("type", "object");
@@ -322,6 +941,13 @@ public final class McpToolHandler {
         contentProp.addProperty("description", "The content to write to the file");
         props.add("content", contentProp);
         
+        JsonObject modeProp = new JsonObject();
+        modeProp.addProperty("type", "string");
+        modeProp.addProperty("description",
+            "'overwrite' replaces the file atomically (default), 'append' adds to the end, 'create_new' fails if the file exists");
+        modeProp.add("enum", gson.toJsonTree(Arrays.asList("overwrite", "append", "create_new")));
+        props.add("mode", modeProp);
+        
         schema.add("properties", props);
         schema.add("required", gson.toJsonTree(Arrays.asList("file_path", "content")));
         tool.add("inputSchema", schema);
@@ -329,6 +955,37 @@ public final class McpToolHandler {
         return tool;
     }
 
+    private JsonObject createTransferTool(String name, String description) {
+        JsonObject tool = new JsonObject();
+        tool.addProperty("name", name);
+        tool.addProperty("description", description);
+        
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        
+        JsonObject props = new JsonObject();
+        JsonObject sourceProp = new JsonObject();
+        sourceProp.addProperty("type", "string");
+        sourceProp.addProperty("description", "The file or directory to " + (name.startsWith("copy") ? "copy" : "move"));
+        props.add("source_path", sourceProp);
+        
+        JsonObject targetProp = new JsonObject();
+        targetProp.addProperty("type", "string");
+        targetProp.addProperty("description", "The full destination path, including the new name");
+        props.add("target_path", targetProp);
+        
+        JsonObject overwriteProp = new JsonObject();
+        overwriteProp.addProperty("type", "boolean");
+        overwriteProp.addProperty("description", "Replace an existing target file (default false)");
+        props.add("overwrite", overwriteProp);
+        
+        schema.add("properties", props);
+        schema.add("required", gson.toJsonTree(Arrays.asList("source_path", "target_path")));
+        tool.add("inputSchema", schema);
+        
+        return tool;
+    }
+
     private JsonObject createListDirectoryTool() {
         JsonObject tool = new JsonObject();
         tool.addProperty("name", "list_directory");
@@ -343,12 +1000,104 @@ public final class McpToolHandler {
         pathProp.addProperty("description", "The directory path to list (defaults to current directory)");
         props.add("directory_path", pathProp);
         
+        JsonObject sortProp = new JsonObject();
+        sortProp.addProperty("type", "string");
+        sortProp.addProperty("description", "Sort entries by name, size or modification time (default 'name')");
+        sortProp.add("enum", gson.toJsonTree(Arrays.asList("name", "size", "mtime")));
+        props.add("sort", sortProp);
+        
+        JsonObject orderProp = new JsonObject();
+        orderProp.addProperty("type", "string");
+        orderProp.addProperty("description", "Sort direction (defaults to 'asc' for name, 'desc' for size and mtime)");
+        orderProp.add("enum", gson.toJsonTree(Arrays.asList("asc", "desc")));
+        props.add("order", orderProp);
+        
+        JsonObject limitProp = new JsonObject();
+        limitProp.addProperty("type", "integer");
+        limitProp.addProperty("description", "Maximum number of entries to return (default " + DEFAULT_LISTING_LIMIT + ")");
+        props.add("limit", limitProp);
+        
+        JsonObject cursorProp = new JsonObject();
+        cursorProp.addProperty("type", "string");
+        cursorProp.addProperty("description", "Continuation cursor from a previous list_directory response");
+        props.add("cursor", cursorProp);
+        
         schema.add("properties", props);
         tool.add("inputSchema", schema);
         
         return tool;
     }
 
+    private JsonObject createSearchFilesTool(String name, String description, boolean regexRequired) {
+        JsonObject tool = new JsonObject();
+        tool.addProperty("name", name);
+        tool.addProperty("description", description);
+        
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        
+        JsonObject props = new JsonObject();
+        JsonObject rootProp = new JsonObject();
+        rootProp.addProperty("type", "string");
+        rootProp.addProperty("description", "The directory to search (defaults to current directory)");
+        props.add("root", rootProp);
+        
+        JsonObject globProp = new JsonObject();
+        globProp.addProperty("type", "string");
+        globProp.addProperty("description",
+            "Glob selecting files, e.g. '*.java'; globs containing '/' match the path relative to root, e.g. 'src/**/*.java'");
+        props.add("glob", globProp);
+        
+        JsonObject regexProp = new JsonObject();
+        regexProp.addProperty("type", "string");
+        regexProp.addProperty("description", regexRequired
+            ? "Regular expression to search for in file contents"
+            : "Regular expression to search for in file contents; omit to list matching files only");
+        props.add("regex", regexProp);
+        
+        JsonObject limitProp = new JsonObject();
+        limitProp.addProperty("type", "integer");
+        limitProp.addProperty("description", "Maximum number of matches to return (default " + DEFAULT_SEARCH_LIMIT + ")");
+        props.add("limit", limitProp);
+        
+        schema.add("properties", props);
+        schema.add("required", gson.toJsonTree(regexRequired ? Arrays.asList("glob", "regex") : Arrays.asList("glob")));
+        tool.add("inputSchema", schema);
+        
+        return tool;
+    }
+
+    private JsonObject createLogNotification(String logger, String data) {
+        JsonObject params = new JsonObject();
+        params.addProperty("level", "info");
+        params.addProperty("logger", logger);
+        params.addProperty("data", data);
+
+        JsonObject notification = new JsonObject();
+        notification.addProperty("jsonrpc", "2.0");
+        notification.addProperty("method", "notifications/message");
+        notification.add("params", params);
+        return notification;
+    }
+
+    private JsonObject createResourceUpdatedNotification(FilePath directory, DirectoryChanges changes) {
+        JsonObject params = new JsonObject();
+        params.addProperty("uri", Paths.get(directory.getValue()).toAbsolutePath().normalize().toUri().toString());
+        List<String> lines = new ArrayList<>();
+        for (DirectoryChange change : changes.getChanges()) {
+            lines.add(change.format());
+        }
+        params.add("changes", gson.toJsonTree(lines));
+        params.addProperty("resync", changes.isResync());
+        params.addProperty("cursor", changes.getCursor().encode());
+
+        JsonObject notification = new JsonObject();
+        notification.addProperty("jsonrpc", "2.0");
+        notification.addProperty("method", "notifications/resources/updated");
+        notification.add("params", params);
+        return notification;
+    }
+
     private JsonObject createTextContent(String text) {
         JsonObject content = new JsonObject();
         content.addProperty("type", "text");
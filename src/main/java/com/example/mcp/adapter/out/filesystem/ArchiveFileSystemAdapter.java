@@ -0,0 +1,820 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AccessDeniedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.ProviderNotFoundException;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipException;
+
+import com.example.mcp.application.port.out.CacheMetricsPort;
+import com.example.mcp.application.port.out.FileSystemPort;
+import com.example.mcp.domain.model.FileMetadata;
+import com.example.mcp.domain.model.SearchMatch;
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.FileSize;
+import com.example.mcp.domain.valueobject.WriteMode;
+
+/**
+ * Archive file system adapter.
+ * Decorates another file system port with read-only access to the entries of ZIP and JAR
+ * files, addressed as {@code lib.jar!/META-INF/MANIFEST.MF}. Archives are mounted through
+ * the JDK zip file system, which reads only the central directory, and mounts are kept in
+ * a small LRU so repeated access does not re-read it. Entries are read by streaming
+ * inflation, so reading one entry costs that entry's decompression however large the
+ * archive is. Paging through a large entry by region is the exception: the first region
+ * further in than its start inflates the whole entry once to a temporary file, kept with
+ * the mount, and that and every later region are read from the file through the delegate,
+ * which maps it. All other paths go straight to the delegate.
+ */
+public final class ArchiveFileSystemAdapter implements FileSystemPort, CacheMetricsPort, AutoCloseable {
+    private static final Pattern ARCHIVE_PATH = Pattern.compile("(?i)^(.+?\\.(?:zip|jar))!(/.*)?$");
+    private static final int MAX_MOUNTS = 8;
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    /** Longer tails are found in two passes instead of remembering every line start. */
+    private static final int MAX_TAIL_RING = 1 << 16;
+    /** Smaller entries are cheap enough to inflate afresh for every region. */
+    private static final long SPILL_THRESHOLD = 1024 * 1024;
+    private static final int MAX_SPILLS_PER_MOUNT = 4;
+
+    private final FileSystemPort delegate;
+    private final DirectBufferPool bufferPool = new DirectBufferPool(IO_BUFFER_SIZE, 8);
+    private final ForkJoinPool searchPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private final LinkedHashMap<Path, Mount> mounts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Mount> eldest) {
+            if (size() > MAX_MOUNTS) {
+                retire(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesInflated = new LongAdder();
+
+    /**
+     * A path split into the archive file and the absolute entry path inside it.
+     */
+    private record ArchivePath(String archive, String entry) {
+        FilePath child(Object entryPath) {
+            return new FilePath(archive + "!" + entryPath);
+        }
+    }
+
+    /**
+     * One mounted archive. A mount replaced or evicted while in use is closed by its last user.
+     * Users and the retired flag are guarded by the mount map's monitor.
+     */
+    private static final class Mount {
+        private final Path archive;
+        private final FileSystem fileSystem;
+        private final long size;
+        private final long modified;
+        /** Temporary files holding inflated entries, by entry path; deleted when the mount closes. */
+        private final Map<String, Path> spills = new ConcurrentHashMap<>();
+        private int users;
+        private boolean retired;
+
+        Mount(Path archive, FileSystem fileSystem, long size, long modified) {
+            this.archive = archive;
+            this.fileSystem = fileSystem;
+            this.size = size;
+            this.modified = modified;
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryAction<T> {
+        T apply(Path entry, Mount mount) throws IOException;
+    }
+
+    /**
+     * @param delegate The file system port that handles everything outside archives
+     */
+    public ArchiveFileSystemAdapter(FileSystemPort delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean exists(FilePath path) {
+        ArchivePath archived = parse(path);
+        if (archived == null) {
+            return delegate.exists(path);
+        }
+        return test(archived, entry -> Files.exists(entry));
+    }
+
+    @Override
+    public boolean isRegularFile(FilePath path) {
+        ArchivePath archived = parse(path);
+        if (archived == null) {
+            return delegate.isRegularFile(path);
+        }
+        return test(archived, entry -> Files.isRegularFile(entry));
+    }
+
+    @Override
+    public boolean isDirectory(FilePath path) {
+        ArchivePath archived = parse(path);
+        if (archived == null) {
+            return delegate.isDirectory(path);
+        }
+        return test(archived, entry -> Files.isDirectory(entry));
+    }
+
+    @Override
+    public byte[] readAllBytes(FilePath path) throws FileSystemException {
+        ArchivePath archived = parse(path);
+        if (archived == null) {
+            return delegate.readAllBytes(path);
+        }
+        try {
+            return withEntry(archived, (entry, mount) -> {
+                byte[] content = Files.readAllBytes(entry);
+                bytesInflated.add(content.length);
+                return content;
+            });
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to read file: " + path, e);
+        }
+    }
+
+    @Override
+    public ByteBuffer readRegion(FilePath path, long position, int length) throws FileSystemException {
+        ArchivePath archived = parse(path);
+        if (archived == null) {
+            return delegate.readRegion(path, position, length);
+        }
+        try {
+            return withEntry(archived, (entry, mount) -> {
+                long size = Files.size(entry);
+                long start = Math.min(Math.max(position, 0), size);
+                int count = (int) Math.min(Math.max(length, 0), size - start);
+                Path spill = start > 0 ? spill(entry, mount, size) : null;
+                if (spill != null) {
+                    try {
+                        return delegate.readRegion(new FilePath(spill.toString()), start, count);
+                    } catch (FileSystemException e) {
+                        throw new IOException(e.getMessage(), e);
+                    }
+                }
+                try (InputStream in = Files.newInputStream(entry)) {
+                    skipFully(in, start);
+                    byte[] region = in.readNBytes(count);
+                    bytesInflated.add(start + region.length);
+                    return ByteBuffer.wrap(region).asReadOnlyBuffer();
+                }
+            });
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to read file region: " + path, e);
+        }
+    }
+
+    @Override
+    public TextChunk readText(FilePath path, long position, int maxBytes, long maxLines) throws FileSystemException {
+        ArchivePath archived = parse(path);
+        if (archived == null) {
+            return delegate.readText(path, position, maxBytes, maxLines);
+        }
+        try {
+            return withEntry(archived, (entry, mount) -> {
+                long size = Files.size(entry);
+                try (InputStream in = Files.newInputStream(entry)) {
+                    long start = Math.min(Math.max(position, 0), size);
+                    skipFully(in, start);
+                    return readText(new BufferedInputStream(in, IO_BUFFER_SIZE), size, start, maxBytes, maxLines);
+                }
+            });
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to read file: " + path, e);
+        }
+    }
+
+    @Override
+    public long skipLines(FilePath path, long position, long lines) throws FileSystemException {
+        ArchivePath archived = parse(path);
+        if (archived == null) {
+            return delegate.skipLines(path, position, lines);
+        }
+        if (lines <= 0) {
+            return position;
+        }
+        try {
+            return withEntry(archived, (entry, mount) -> {
+                long size = Files.size(entry);
+                long pos = Math.min(Math.max(position, 0), size);
+                byte[] buffer = new byte[IO_BUFFER_SIZE];
+                long remaining = lines;
+                try (InputStream in = Files.newInputStream(entry)) {
+                    skipFully(in, pos);
+                    int read;
+                    while ((read = in.read(buffer)) > 0) {
+                        for (int i = 0; i < read; i++) {
+                            if (buffer[i] == '\n' && --remaining == 0) {
+                                bytesInflated.add(pos + i + 1);
+                                return pos + i + 1;
+                            }
+                        }
+                        pos += read;
+                    }
+                }
+                bytesInflated.add(pos);
+                return pos;
+            });
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to read file: " + path, e);
+        }
+    }
+
+    @Override
+    public long findLastLines(FilePath path, long lines) throws FileSystemException {
+        ArchivePath archived = parse(path);
+        if (archived == null) {
+            return delegate.findLastLines(path, lines);
+        }
+        try {
+            return withEntry(archived, (entry, mount) -> {
+                long size = Files.size(entry);
+                if (lines <= 0 || size == 0) {
+                    return size;
+                }
+                // Entries can only be read forwards, so remember where the most recent lines start
+                if (lines < MAX_TAIL_RING) {
+                    long[] ring = new long[(int) lines + 1];
+                    long[] count = new long[1];
+                    scanNewlines(entry, offset -> ring[(int) (count[0]++ % ring.length)] = offset);
+                    long boundaries = boundaries(count[0], ring[(int) ((count[0] + ring.length - 1) % ring.length)], size);
+                    return boundaries < lines ? 0 : ring[(int) ((boundaries - lines) % ring.length)] + 1;
+                }
+
+                long[] last = new long[2];
+                scanNewlines(entry, offset -> {
+                    last[0]++;
+                    last[1] = offset;
+                });
+                long boundaries = boundaries(last[0], last[1], size);
+                if (boundaries < lines) {
+                    return 0L;
+                }
+                long target = boundaries - lines;
+                long[] seen = new long[] {0, 0};
+                scanNewlines(entry, offset -> {
+                    if (seen[0]++ == target) {
+                        seen[1] = offset + 1;
+                    }
+                });
+                return seen[1];
+            });
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to read file: " + path, e);
+        }
+    }
+
+    @Override
+    public FileState fileState(FilePath path) throws FileSystemException {
+        ArchivePath archived = parse(path);
+        if (archived == null) {
+            return delegate.fileState(path);
+        }
+        try {
+            return withEntry(archived, (entry, mount) -> {
+                // A rewritten archive or a changed entry is a different file
+                String key = mount.archive + "@" + mount.modified + "!" + entry + "@" + Files.getAttribute(entry, "zip:crc");
+                return new FileState(Integer.toHexString(key.hashCode()), Files.size(entry));
+            });
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to read file attributes: " + path, e);
+        }
+    }
+
+    @Override
+    public void writeAllBytes(FilePath path, byte[] content) throws FileSystemException {
+        requireWritable(path);
+        delegate.writeAllBytes(path, content);
+    }
+
+    @Override
+    public long writeText(FilePath path, CharSequence content, WriteMode mode) throws FileSystemException {
+        requireWritable(path);
+        return delegate.writeText(path, content, mode);
+    }
+
+    @Override
+    public CopyResult copy(FilePath source, FilePath target, boolean overwrite, Predicate<FilePath> pathFilter)
+            throws FileSystemException {
+        requireWritable(target);
+        ArchivePath archived = parse(source);
+        if (archived == null) {
+            return delegate.copy(source, target, overwrite, pathFilter);
+        }
+        Path to = Paths.get(target.getValue());
+        try {
+            return withEntry(archived, (entry, mount) -> {
+                if (!Files.isDirectory(entry)) {
+                    return new CopyResult(1, extract(entry, to, overwrite));
+                }
+                try (Stream<Path> entries = Files.walk(entry)) {
+                    Path denied = entries.filter(e -> !pathFilter.test(archived.child(e))).findFirst().orElse(null);
+                    if (denied != null) {
+                        throw new AccessDeniedException(archived.child(denied).getValue(), null,
+                            "not allowed by the path policy");
+                    }
+                }
+                long[] totals = new long[2];
+                Files.walkFileTree(entry, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                        Files.createDirectories(to.resolve(entry.relativize(dir).toString()));
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                        totals[1] += extract(file, to.resolve(entry.relativize(file).toString()), overwrite);
+                        totals[0]++;
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+                return new CopyResult(totals[0], totals[1]);
+            });
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to copy " + source + " to " + target, e);
+        }
+    }
+
+    @Override
+    public void move(FilePath source, FilePath target, boolean overwrite, Predicate<FilePath> pathFilter)
+            throws FileSystemException {
+        requireWritable(source);
+        requireWritable(target);
+        delegate.move(source, target, overwrite, pathFilter);
+    }
+
+    @Override
+    public List<FileMetadata> listDirectory(FilePath path) throws FileSystemException {
+        if (parse(path) == null) {
+            return delegate.listDirectory(path);
+        }
+        List<FileMetadata> results = new ArrayList<>();
+        scanDirectory(path, results::add);
+        return results;
+    }
+
+    @Override
+    public void scanDirectory(FilePath path, Consumer<FileMetadata> visitor) throws FileSystemException {
+        ArchivePath archived = parse(path);
+        if (archived == null) {
+            delegate.scanDirectory(path, visitor);
+            return;
+        }
+        try {
+            withEntry(archived, (dir, mount) -> {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                    for (Path entry : stream) {
+                        BasicFileAttributes attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                        boolean isDir = attrs.isDirectory();
+                        visitor.accept(new FileMetadata(
+                            archived.child(entry),
+                            entry.getFileName().toString().replace("/", ""),
+                            FileSize.ofBytes(isDir ? 0 : attrs.size()),
+                            isDir,
+                            attrs.lastModifiedTime().toInstant()
+                        ));
+                    }
+                }
+                return null;
+            });
+        } catch (IOException | DirectoryIteratorException e) {
+            throw new FileSystemException("Failed to list directory: " + path, e);
+        }
+    }
+
+    @Override
+    public void searchFiles(FilePath root, String glob, Pattern contentPattern,
+                            Predicate<FilePath> pathFilter, Predicate<SearchMatch> sink) throws FileSystemException {
+        ArchivePath archived = parse(root);
+        if (archived == null) {
+            delegate.searchFiles(root, glob, contentPattern, pathFilter, sink);
+            return;
+        }
+        searchArchive(archived, root, glob, contentPattern, pathFilter, sink);
+    }
+
+    @Override
+    public void indexedSearch(FilePath root, String glob, Pattern contentPattern,
+                              Predicate<FilePath> pathFilter, Predicate<SearchMatch> sink) throws FileSystemException {
+        ArchivePath archived = parse(root);
+        if (archived == null) {
+            delegate.indexedSearch(root, glob, contentPattern, pathFilter, sink);
+            return;
+        }
+        // Archives are not indexed; a scan of one costs no more than the entries it inflates
+        searchArchive(archived, root, glob, contentPattern, pathFilter, sink);
+    }
+
+    @Override
+    public long getFileSize(FilePath path) throws FileSystemException {
+        ArchivePath archived = parse(path);
+        if (archived == null) {
+            return delegate.getFileSize(path);
+        }
+        try {
+            return withEntry(archived, (entry, mount) -> Files.size(entry));
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to get file size: " + path, e);
+        }
+    }
+
+    @Override
+    public CacheStats cacheStats() {
+        long entries;
+        long sizeBytes = 0;
+        synchronized (mounts) {
+            entries = mounts.size();
+            for (Mount mount : mounts.values()) {
+                sizeBytes += mount.size;
+            }
+        }
+        return new CacheStats("archive-mounts", hits.sum(), misses.sum(), entries, sizeBytes, bytesInflated.sum());
+    }
+
+    @Override
+    public void close() {
+        synchronized (mounts) {
+            for (Mount mount : mounts.values()) {
+                retire(mount);
+            }
+            mounts.clear();
+        }
+        searchPool.shutdown();
+    }
+
+    /**
+     * Splits a path into archive and entry, or returns null if it does not point into an archive.
+     */
+    private static ArchivePath parse(FilePath path) {
+        if (path.getValue().indexOf('!') < 0) {
+            return null;
+        }
+        Matcher m = ARCHIVE_PATH.matcher(path.getValue());
+        if (!m.matches()) {
+            return null;
+        }
+        String entry = m.group(2);
+        return new ArchivePath(m.group(1), entry == null ? "/" : entry);
+    }
+
+    /**
+     * Returns the archive file a path points into, or null if it does not point into an archive.
+     * The rest of the path after the archive is {@code "!"} followed by the entry, if any.
+     */
+    static String archiveFile(String path) {
+        if (path.indexOf('!') < 0) {
+            return null;
+        }
+        Matcher m = ARCHIVE_PATH.matcher(path);
+        return m.matches() ? m.group(1) : null;
+    }
+
+    private static void requireWritable(FilePath path) throws FileSystemException {
+        if (parse(path) != null) {
+            throw new FileSystemException("Archive entries are read-only: " + path);
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryTest {
+        boolean test(Path entry) throws IOException;
+    }
+
+    private boolean test(ArchivePath archived, EntryTest test) {
+        try {
+            return withEntry(archived, (entry, mount) -> test.test(entry));
+        } catch (IOException | InvalidPathException e) {
+            return false;
+        }
+    }
+
+    private <T> T withEntry(ArchivePath archived, EntryAction<T> action) throws IOException {
+        Mount mount = acquire(archived.archive());
+        try {
+            return action.apply(mount.fileSystem.getPath(archived.entry()), mount);
+        } finally {
+            release(mount);
+        }
+    }
+
+    /**
+     * Returns the current mount of an archive, remounting it if the file has changed since.
+     * The central directory is read outside the mount map's monitor, so mounting one archive
+     * never holds up callers of the others; of two callers mounting the same one, the first
+     * to finish publishes its mount and the other closes its own and uses that.
+     */
+    private Mount acquire(String archive) throws IOException {
+        Path real = Paths.get(archive).toRealPath();
+        BasicFileAttributes attrs = Files.readAttributes(real, BasicFileAttributes.class);
+        if (!attrs.isRegularFile()) {
+            throw new NoSuchFileException(archive, null, "Not an archive file");
+        }
+
+        synchronized (mounts) {
+            Mount mount = mounts.get(real);
+            if (isCurrent(mount, attrs)) {
+                hits.increment();
+                mount.users++;
+                return mount;
+            }
+        }
+
+        misses.increment();
+        FileSystem fileSystem;
+        try {
+            // Only the central directory is read here; entries are inflated on demand
+            fileSystem = FileSystems.newFileSystem(real, Map.of());
+        } catch (ProviderNotFoundException | ZipException e) {
+            throw new IOException("Not a readable archive: " + archive, e);
+        }
+        Mount mounted = new Mount(real, fileSystem, attrs.size(), attrs.lastModifiedTime().toMillis());
+
+        Mount published;
+        synchronized (mounts) {
+            published = mounts.get(real);
+            if (!isCurrent(published, attrs)) {
+                if (published != null) {
+                    mounts.remove(real);
+                    retire(published);
+                }
+                mounted.users++;
+                mounts.put(real, mounted);
+                return mounted;
+            }
+            published.users++;
+        }
+        closeQuietly(mounted);
+        return published;
+    }
+
+    private static boolean isCurrent(Mount mount, BasicFileAttributes attrs) {
+        return mount != null && mount.size == attrs.size() && mount.modified == attrs.lastModifiedTime().toMillis();
+    }
+
+    private void release(Mount mount) {
+        synchronized (mounts) {
+            if (--mount.users == 0 && mount.retired) {
+                closeQuietly(mount);
+            }
+        }
+    }
+
+    /**
+     * Called with the mount map's monitor held.
+     */
+    private static void retire(Mount mount) {
+        mount.retired = true;
+        if (mount.users == 0) {
+            closeQuietly(mount);
+        }
+    }
+
+    private static void closeQuietly(Mount mount) {
+        try {
+            mount.fileSystem.close();
+        } catch (IOException e) {
+            // Nothing was written, so nothing is lost
+        }
+        for (Path spill : mount.spills.values()) {
+            try {
+                Files.deleteIfExists(spill);
+            } catch (IOException e) {
+                // Left for the exit hook registered when it was created
+            }
+        }
+    }
+
+    /**
+     * Returns the temporary file holding a large entry inflated, inflating it on first use,
+     * or null if the entry is small or the mount already holds as many as it may.
+     */
+    private Path spill(Path entry, Mount mount, long size) throws IOException {
+        String key = entry.toString();
+        Path spill = mount.spills.get(key);
+        if (spill != null || size < SPILL_THRESHOLD || mount.spills.size() >= MAX_SPILLS_PER_MOUNT) {
+            return spill;
+        }
+        try {
+            return mount.spills.computeIfAbsent(key, k -> {
+                try {
+                    Path file = Files.createTempFile("mcp-archive-", ".entry");
+                    file.toFile().deleteOnExit();
+                    extract(entry, file, true);
+                    return file;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void searchArchive(ArchivePath archived, FilePath root, String glob, Pattern contentPattern,
+                               Predicate<FilePath> pathFilter, Predicate<SearchMatch> sink) throws FileSystemException {
+        boolean searched;
+        try {
+            searched = withEntry(archived, (dir, mount) -> {
+                if (!Files.isDirectory(dir)) {
+                    return false;
+                }
+                // The tree search names entries by their path inside the archive
+                Predicate<FilePath> filter = entry -> pathFilter.test(archived.child(entry.getValue()));
+                Predicate<SearchMatch> named = match -> sink.test(new SearchMatch(
+                    archived.child(match.getPath().getValue()), match.getLineNumber(), match.getSnippet()));
+                new FileTreeSearch(dir, glob, contentPattern, filter, named, bufferPool, delegate)
+                    .run(searchPool);
+                return true;
+            });
+        } catch (IllegalArgumentException e) {
+            throw new FileSystemException("Invalid glob: " + glob, e);
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to search archive: " + root, e);
+        }
+        if (!searched) {
+            throw new FileSystemException("Not a directory: " + root);
+        }
+    }
+
+    /**
+     * Streams one entry to a file, through a temporary sibling so readers never see it partially written.
+     */
+    private long extract(Path entry, Path target, boolean overwrite) throws IOException {
+        if (!overwrite && Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+        Path dir = target.toAbsolutePath().getParent();
+        if (dir != null && !Files.isDirectory(dir)) {
+            Files.createDirectories(dir);
+        }
+        Path temp = target.resolveSibling("." + target.getFileName() + "."
+            + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            long bytes;
+            try (InputStream in = Files.newInputStream(entry)) {
+                bytes = Files.copy(in, temp);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            bytesInflated.add(bytes);
+            return bytes;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads text from a stream positioned at the given offset of an entry, with the same
+     * character-boundary and limit semantics as a text read of a regular file.
+     */
+    private TextChunk readText(InputStream in, long size, long position, int maxBytes, long maxLines)
+            throws IOException {
+        long start = position;
+        if (start > 0 && start < size) {
+            // Step over continuation bytes so decoding starts on a character
+            in.mark(3);
+            int skip = 0;
+            for (int b; skip < 3 && (b = in.read()) >= 0 && (b & 0xC0) == 0x80; ) {
+                skip++;
+            }
+            in.reset();
+            skipFully(in, skip);
+            start += skip;
+        }
+
+        int budget = (int) Math.min(Math.max(maxBytes, 0), size - start);
+        byte[] data = new byte[Math.min(budget, IO_BUFFER_SIZE)];
+        int length = 0;
+        long lines = 0;
+        boolean lineLimitReached = false;
+
+        while (length < budget && !lineLimitReached) {
+            if (length == data.length) {
+                data = Arrays.copyOf(data, (int) Math.min(budget, 2L * data.length));
+            }
+            int read = in.read(data, length, data.length - length);
+            if (read < 0) {
+                break;
+            }
+            // '\n' never occurs inside a multi-byte UTF-8 sequence, so raw bytes can be scanned
+            for (int i = length; i < length + read; i++) {
+                if (data[i] == '\n' && ++lines == maxLines) {
+                    read = i + 1 - length;
+                    lineLimitReached = true;
+                    break;
+                }
+            }
+            length += read;
+        }
+
+        if (!lineLimitReached && start + length < size && length > 0) {
+            // Stop before a character the budget cuts through, or finish it if it is the only one
+            int lead = length - 1;
+            while (lead > 0 && length - lead < 4 && (data[lead] & 0xC0) == 0x80) {
+                lead--;
+            }
+            int b = data[lead] & 0xFF;
+            int width = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+            if (lead + width > length) {
+                if (lead > 0) {
+                    length = lead;
+                } else {
+                    data = Arrays.copyOf(data, width);
+                    length += in.readNBytes(data, length, width - length);
+                }
+            }
+        }
+
+        bytesInflated.add(start + length);
+        String text = new String(data, 0, length, StandardCharsets.UTF_8);
+        return new TextChunk(text, start, start + length, size, lines);
+    }
+
+    /**
+     * Skips by reading: zip entry streams inflate skipped bytes anyway, and skipping
+     * within stored entries does not reliably advance the stream.
+     */
+    private static void skipFully(InputStream in, long bytes) throws IOException {
+        byte[] discard = new byte[(int) Math.min(bytes, IO_BUFFER_SIZE)];
+        long remaining = bytes;
+        while (remaining > 0) {
+            int read = in.read(discard, 0, (int) Math.min(remaining, discard.length));
+            if (read < 0) {
+                throw new EOFException();
+            }
+            remaining -= read;
+        }
+    }
+
+    @FunctionalInterface
+    private interface NewlineVisitor {
+        void visit(long offset);
+    }
+
+    private void scanNewlines(Path entry, NewlineVisitor visitor) throws IOException {
+        byte[] buffer = new byte[IO_BUFFER_SIZE];
+        long pos = 0;
+        try (InputStream in = Files.newInputStream(entry)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        visitor.visit(pos + i);
+                    }
+                }
+                pos += read;
+            }
+        }
+        bytesInflated.add(pos);
+    }
+
+    /**
+     * Returns the number of newlines that start a following line; the terminator of the last line does not.
+     */
+    private static long boundaries(long newlines, long lastNewline, long size) {
+        return newlines > 0 && lastNewline == size - 1 ? newlines - 1 : newlines;
+    }
+}
@@ -0,0 +1,410 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.example.mcp.application.port.out.CacheMetricsPort;
+import com.example.mcp.application.port.out.FileSystemPort;
+import com.example.mcp.domain.model.FileMetadata;
+import com.example.mcp.domain.model.SearchMatch;
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.WriteMode;
+
+/**
+ * Caching file system adapter.
+ * Decorates another file system port with an LRU cache of decoded whole-file
+ * contents, bounded by a byte budget and keyed by real path. Every hit is validated
+ * with a single attribute read: the entry is served only while the file's size,
+ * modification time and file key are those it was read with, so external changes,
+ * including a file replaced by a rename, are seen at once. Parent directories of
+ * cached files are also watched with a {@link WatchService}, which drops the entries
+ * of a changed directory early rather than leaving them to take up the budget until
+ * next asked for. Writes made through this adapter invalidate immediately.
+ */
+public final class CachingFileSystemAdapter implements FileSystemPort, CacheMetricsPort, AutoCloseable {
+    private static final long DEFAULT_BUDGET_BYTES = 64L * 1024 * 1024;
+    private static final int MAX_WATCHED_DIRECTORIES = 256;
+
+    private final FileSystemPort delegate;
+    private final long budgetBytes;
+    private final long maxEntryBytes;
+
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    private final Map<Path, WatchKey> watches = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private volatile boolean closed;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+
+    private record Entry(TextChunk chunk, long size, FileTime modified, Object fileKey) {
+        boolean isCurrent(BasicFileAttributes attrs) {
+            return attrs != null && attrs.isRegularFile()
+                && attrs.size() == size
+                && attrs.lastModifiedTime().equals(modified)
+                && Objects.equals(attrs.fileKey(), fileKey);
+        }
+    }
+
+    public CachingFileSystemAdapter(FileSystemPort delegate) {
+        this(delegate, DEFAULT_BUDGET_BYTES);
+    }
+
+    /**
+     * @param delegate The file system port to read through
+     * @param budgetBytes Total size of cached file contents, in bytes
+     */
+    public CachingFileSystemAdapter(FileSystemPort delegate, long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("Cache budget must be positive: " + budgetBytes);
+        }
+        this.delegate = delegate;
+        this.budgetBytes = budgetBytes;
+        this.maxEntryBytes = Math.max(1, budgetBytes / 8);
+    }
+
+    @Override
+    public boolean exists(FilePath path) {
+        return delegate.exists(path);
+    }
+
+    @Override
+    public boolean isRegularFile(FilePath path) {
+        return delegate.isRegularFile(path);
+    }
+
+    @Override
+    public boolean isDirectory(FilePath path) {
+        return delegate.isDirectory(path);
+    }
+
+    @Override
+    public byte[] readAllBytes(FilePath path) throws FileSystemException {
+        return delegate.readAllBytes(path);
+    }
+
+    @Override
+    public ByteBuffer readRegion(FilePath path, long position, int length) throws FileSystemException {
+        return delegate.readRegion(path, position, length);
+    }
+
+    @Override
+    public TextChunk readText(FilePath path, long position, int maxBytes, long maxLines) throws FileSystemException {
+        // Only whole-file reads are cacheable
+        if (position != 0 || maxLines != 0) {
+            return delegate.readText(path, position, maxBytes, maxLines);
+        }
+
+        Path real = realPath(path);
+        if (real == null) {
+            return delegate.readText(path, position, maxBytes, maxLines);
+        }
+
+        Entry entry = lookup(real);
+        if (entry != null && entry.size() <= maxBytes) {
+            hits.increment();
+            bytesServed.add(entry.size());
+            return entry.chunk();
+        }
+
+        misses.increment();
+        return load(path, real, maxBytes);
+    }
+
+    @Override
+    public long skipLines(FilePath path, long position, long lines) throws FileSystemException {
+        return delegate.skipLines(path, position, lines);
+    }
+
+    @Override
+    public long findLastLines(FilePath path, long lines) throws FileSystemException {
+        return delegate.findLastLines(path, lines);
+    }
+
+    @Override
+    public FileState fileState(FilePath path) throws FileSystemException {
+        return delegate.fileState(path);
+    }
+
+    @Override
+    public void writeAllBytes(FilePath path, byte[] content) throws FileSystemException {
+        try {
+            delegate.writeAllBytes(path, content);
+        } finally {
+            Path real = realPath(path);
+            if (real != null) {
+                invalidate(real);
+            }
+        }
+    }
+
+    @Override
+    public long writeText(FilePath path, CharSequence content, WriteMode mode) throws FileSystemException {
+        try {
+            return delegate.writeText(path, content, mode);
+        } finally {
+            Path real = realPath(path);
+            if (real != null) {
+                invalidate(real);
+            }
+        }
+    }
+
+    @Override
+    public CopyResult copy(FilePath source, FilePath target, boolean overwrite, Predicate<FilePath> pathFilter)
+            throws FileSystemException {
+        try {
+            return delegate.copy(source, target, overwrite, pathFilter);
+        } finally {
+            Path real = realPath(target);
+            if (real != null) {
+                invalidateTree(real);
+            }
+        }
+    }
+
+    @Override
+    public void move(FilePath source, FilePath target, boolean overwrite, Predicate<FilePath> pathFilter)
+            throws FileSystemException {
+        // The source stops resolving once moved, so remember where it was
+        Path realSource = realPath(source);
+        try {
+            delegate.move(source, target, overwrite, pathFilter);
+        } finally {
+            if (realSource != null) {
+                invalidateTree(realSource);
+            }
+            Path realTarget = realPath(target);
+            if (realTarget != null) {
+                invalidateTree(realTarget);
+            }
+        }
+    }
+
+    @Override
+    public List<FileMetadata> listDirectory(FilePath path) throws FileSystemException {
+        return delegate.listDirectory(path);
+    }
+
+    @Override
+    public void scanDirectory(FilePath path, Consumer<FileMetadata> visitor) throws FileSystemException {
+        delegate.scanDirectory(path, visitor);
+    }
+
+    @Override
+    public void searchFiles(FilePath root, String glob, Pattern contentPattern,
+                            Predicate<FilePath> pathFilter, Predicate<SearchMatch> sink) throws FileSystemException {
+        delegate.searchFiles(root, glob, contentPattern, pathFilter, sink);
+    }
+
+    @Override
+    public void indexedSearch(FilePath root, String glob, Pattern contentPattern,
+                              Predicate<FilePath> pathFilter, Predicate<SearchMatch> sink) throws FileSystemException {
+        delegate.indexedSearch(root, glob, contentPattern, pathFilter, sink);
+    }
+
+    @Override
+    public long getFileSize(FilePath path) throws FileSystemException {
+        return delegate.getFileSize(path);
+    }
+
+    @Override
+    public CacheStats cacheStats() {
+        synchronized (entries) {
+            return new CacheStats("file-content", hits.sum(), misses.sum(),
+                entries.size(), cachedBytes, bytesServed.sum());
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
+
+    private TextChunk load(FilePath path, Path real, int maxBytes) throws FileSystemException {
+        BasicFileAttributes before = attributes(real);
+        if (before == null || !before.isRegularFile() || before.size() > maxEntryBytes || before.size() > maxBytes) {
+            return delegate.readText(path, 0, maxBytes, 0);
+        }
+
+        watch(real.getParent());
+        TextChunk chunk = delegate.readText(path, 0, maxBytes, 0);
+
+        // Kept only if the file did not change while it was read
+        Entry entry = new Entry(chunk, before.size(), before.lastModifiedTime(), before.fileKey());
+        if (chunk.start() == 0 && chunk.end() == chunk.fileSize() && chunk.fileSize() == before.size()
+                && entry.isCurrent(attributes(real))) {
+            store(real, entry);
+        }
+        return chunk;
+    }
+
+    private Entry lookup(Path real) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(real);
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isCurrent(attributes(real))) {
+            return entry;
+        }
+        invalidate(real);
+        return null;
+    }
+
+    private void store(Path real, Entry entry) {
+        synchronized (entries) {
+            Entry previous = entries.put(real, entry);
+            if (previous != null) {
+                cachedBytes -= previous.size();
+            }
+            cachedBytes += entry.size();
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (cachedBytes > budgetBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    private void invalidate(Path real) {
+        synchronized (entries) {
+            Entry removed = entries.remove(real);
+            if (removed != null) {
+                cachedBytes -= removed.size();
+            }
+        }
+    }
+
+    /**
+     * Drops the entry for a path and, if it is a directory, every entry below it.
+     */
+    private void invalidateTree(Path real) {
+        synchronized (entries) {
+            Iterator<Map.Entry<Path, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Path, Entry> cached = it.next();
+                if (cached.getKey().startsWith(real)) {
+                    cachedBytes -= cached.getValue().size();
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the entries of the files directly inside a directory.
+     */
+    private void invalidateChildren(Path dir) {
+        synchronized (entries) {
+            Iterator<Map.Entry<Path, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Path, Entry> cached = it.next();
+                if (dir.equals(cached.getKey().getParent())) {
+                    cachedBytes -= cached.getValue().size();
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private void watch(Path dir) {
+        if (dir == null || closed) {
+            return;
+        }
+        WatchKey existing = watches.get(dir);
+        if ((existing != null && existing.isValid()) || watches.size() >= MAX_WATCHED_DIRECTORIES) {
+            return;
+        }
+        try {
+            // Registering an already watched directory returns the same key
+            watches.put(dir, dir.register(watchService(),
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY));
+        } catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+            // Entries there are still validated on every hit
+        }
+    }
+
+    private synchronized WatchService watchService() throws IOException {
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+            Thread watcher = new Thread(this::processEvents, "file-cache-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        return watchService;
+    }
+
+    private void processEvents() {
+        while (!closed) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            // Any event, including OVERFLOW, drops every entry in the directory at once
+            key.pollEvents();
+            Path dir = (Path) key.watchable();
+            invalidateChildren(dir);
+            if (!key.reset()) {
+                watches.remove(dir, key);
+            }
+        }
+    }
+
+    private static Path realPath(FilePath path) {
+        try {
+            return Paths.get(path.getValue()).toRealPath();
+        } catch (IOException | InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private static BasicFileAttributes attributes(Path real) {
+        try {
+            return Files.readAttributes(real, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
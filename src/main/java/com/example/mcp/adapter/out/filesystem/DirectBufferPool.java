@@ -0,0 +1,43 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Small pool of fixed-size direct byte buffers used for channel I/O.
+ * Buffers are allocated lazily and at most {@code maxPooled} of them are retained.
+ */
+final class DirectBufferPool {
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> pool;
+
+    DirectBufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.pool = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Takes a cleared buffer from the pool, allocating a new one if the pool is empty.
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = pool.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Returns a buffer to the pool. Buffers beyond the pool capacity are dropped.
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.isDirect() && buffer.capacity() == bufferSize) {
+            pool.offer(buffer.clear());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import com.example.mcp.application.port.out.FileSystemPort;
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * One parallel recursive copy of a directory tree into a directory that does not exist yet.
+ * Each directory is a fork/join task and its files are copied in batches, so wide and deep
+ * trees are both spread across workers. File data moves with {@link FileChannel#transferTo},
+ * which lets the kernel copy it without passing through the Java heap.
+ * Symbolic links are recreated rather than followed. The copy stops at the first failure,
+ * which includes meeting an entry the path filter rejects.
+ */
+final class DirectoryCopy {
+    private static final int FILES_PER_TASK = 32;
+
+    private final Path source;
+    private final Path target;
+    private final Predicate<FilePath> pathFilter;
+    private final LongAdder files = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    DirectoryCopy(Path source, Path target, Predicate<FilePath> pathFilter) {
+        this.source = source;
+        this.target = target;
+        this.pathFilter = pathFilter;
+    }
+
+    /**
+     * Runs the copy.
+     *
+     * @return The number of files and bytes copied
+     * @throws IOException the first error encountered; the partial copy is left in place
+     */
+    FileSystemPort.CopyResult run(ForkJoinPool pool) throws IOException {
+        pool.invoke(new DirectoryTask(source));
+        IOException error = failure.get();
+        if (error != null) {
+            throw error;
+        }
+        return new FileSystemPort.CopyResult(files.sum(), bytes.sum());
+    }
+
+    /**
+     * Copies one regular file's content with kernel transfers.
+     *
+     * @return The number of bytes copied
+     */
+    static long transfer(FileChannel from, FileChannel to) throws IOException {
+        long size = from.size();
+        long position = 0;
+        while (position < size) {
+            long sent = from.transferTo(position, size - position, to);
+            if (sent <= 0) {
+                break;
+            }
+            position += sent;
+        }
+        return position;
+    }
+
+    private final class DirectoryTask extends RecursiveAction {
+        private final Path dir;
+
+        DirectoryTask(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected void compute() {
+            List<RecursiveAction> subtasks = new ArrayList<>();
+            List<Path> batch = new ArrayList<>();
+
+            try {
+                Files.createDirectory(targetOf(dir));
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                    for (Path entry : stream) {
+                        if (failure.get() != null) {
+                            return;
+                        }
+                        if (!pathFilter.test(new FilePath(entry.toString()))) {
+                            throw new AccessDeniedException(entry.toString(), null, "not allowed by the path policy");
+                        }
+                        BasicFileAttributes attrs =
+                            Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        if (attrs.isDirectory()) {
+                            subtasks.add(new DirectoryTask(entry));
+                        } else if (attrs.isSymbolicLink()) {
+                            Files.createSymbolicLink(targetOf(entry), Files.readSymbolicLink(entry));
+                        } else if (attrs.isRegularFile()) {
+                            batch.add(entry);
+                            if (batch.size() == FILES_PER_TASK) {
+                                subtasks.add(new FileBatchTask(batch));
+                                batch = new ArrayList<>();
+                            }
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                failure.compareAndSet(null, e);
+                return;
+            } catch (DirectoryIteratorException e) {
+                failure.compareAndSet(null, e.getCause());
+                return;
+            }
+
+            if (!batch.isEmpty()) {
+                subtasks.add(new FileBatchTask(batch));
+            }
+            invokeAll(subtasks);
+        }
+    }
+
+    private final class FileBatchTask extends RecursiveAction {
+        private final List<Path> batch;
+
+        FileBatchTask(List<Path> batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        protected void compute() {
+            for (Path file : batch) {
+                if (failure.get() != null) {
+                    return;
+                }
+                try (FileChannel from = FileChannel.open(file, StandardOpenOption.READ);
+                     FileChannel to = FileChannel.open(targetOf(file),
+                         StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                    bytes.add(transfer(from, to));
+                    files.increment();
+                } catch (IOException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
+    }
+
+    private Path targetOf(Path path) {
+        return target.resolve(source.relativize(path));
+    }
+}
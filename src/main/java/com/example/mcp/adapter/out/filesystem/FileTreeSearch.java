@@ -0,0 +1,398 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.example.mcp.application.port.out.FileSystemPort;
+import com.example.mcp.domain.model.SearchMatch;
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * One parallel recursive search over a directory tree.
+ * Each directory is a fork/join task; matching files are scanned in batches so
+ * large directories are spread across workers too. Symbolic links are not followed.
+ * The search stops as soon as the sink declines further matches. Archive entries are
+ * scanned as streams and files too large for one region in windows, so no file is held
+ * whole in memory.
+ */
+final class FileTreeSearch {
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of(".git", ".hg", ".svn");
+    private static final int FILES_PER_TASK = 32;
+    static final int BINARY_SNIFF_BYTES = 8000;
+    private static final int SEGMENT_BYTES = 1024 * 1024;
+    /** Files past this size cannot be read as one region and are scanned in windows. */
+    private static final long MAX_REGION_BYTES = Integer.MAX_VALUE;
+    private static final int WINDOW_BYTES = 256 * 1024 * 1024;
+    private static final int MAX_SNIPPET_CHARS = 200;
+
+    private final Path root;
+    private final PathMatcher matcher;
+    private final boolean matchFileNameOnly;
+    private final Pattern contentPattern;
+    private final Predicate<FilePath> pathFilter;
+    private final Predicate<SearchMatch> sink;
+    private final DirectBufferPool bufferPool;
+    private final FileSystemPort files;
+    private final boolean streamed;
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    FileTreeSearch(Path root, String glob, Pattern contentPattern, Predicate<FilePath> pathFilter,
+                   Predicate<SearchMatch> sink, DirectBufferPool bufferPool, FileSystemPort files) {
+        this.root = root;
+        this.matcher = root.getFileSystem().getPathMatcher("glob:" + glob);
+        // A glob without separators is matched against file names, like a shell pattern
+        this.matchFileNameOnly = !glob.contains("/");
+        this.contentPattern = contentPattern;
+        this.pathFilter = pathFilter;
+        this.sink = sink;
+        this.bufferPool = bufferPool;
+        this.files = files;
+        // Archive file systems cannot position or map channels over entries
+        this.streamed = root.getFileSystem() != FileSystems.getDefault();
+    }
+
+    void run(ForkJoinPool pool) {
+        pool.invoke(new DirectoryTask(root));
+    }
+
+    /**
+     * Scans an explicit list of regular files under the root, such as index candidates,
+     * instead of walking the tree. Files not matching the glob are skipped.
+     */
+    void run(List<Path> candidates, ForkJoinPool pool) {
+        List<RecursiveAction> batches = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        for (Path file : candidates) {
+            if (matches(file)) {
+                files.add(file);
+                if (files.size() == FILES_PER_TASK) {
+                    batches.add(new FileBatchTask(files));
+                    files = new ArrayList<>();
+                }
+            }
+        }
+        if (!files.isEmpty()) {
+            batches.add(new FileBatchTask(files));
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(batches);
+            }
+        });
+    }
+
+    private final class DirectoryTask extends RecursiveAction {
+        private final Path dir;
+
+        DirectoryTask(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected void compute() {
+            List<RecursiveAction> subtasks = new ArrayList<>();
+            List<Path> files = new ArrayList<>();
+
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path entry : stream) {
+                    if (stopped.get()) {
+                        return;
+                    }
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        continue;
+                    }
+
+                    if (attrs.isDirectory()) {
+                        if (!SKIPPED_DIRECTORIES.contains(entry.getFileName().toString())) {
+                            subtasks.add(new DirectoryTask(entry));
+                        }
+                    } else if (attrs.isRegularFile() && matches(entry)) {
+                        files.add(entry);
+                        if (files.size() == FILES_PER_TASK) {
+                            subtasks.add(new FileBatchTask(files));
+                            files = new ArrayList<>();
+                        }
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                // Unreadable directories are skipped, like find(1) does
+                return;
+            }
+
+            if (!files.isEmpty()) {
+                subtasks.add(new FileBatchTask(files));
+            }
+            invokeAll(subtasks);
+        }
+    }
+
+    private final class FileBatchTask extends RecursiveAction {
+        private final List<Path> files;
+
+        FileBatchTask(List<Path> files) {
+            this.files = files;
+        }
+
+        @Override
+        protected void compute() {
+            for (Path file : files) {
+                if (stopped.get()) {
+                    return;
+                }
+                FilePath filePath = new FilePath(file.toString());
+                if (!pathFilter.test(filePath)) {
+                    continue;
+                }
+                if (contentPattern == null) {
+                    emit(SearchMatch.ofPath(filePath));
+                } else {
+                    scanFile(file, filePath);
+                }
+            }
+        }
+    }
+
+    private boolean matches(Path entry) {
+        return matchFileNameOnly ? matcher.matches(entry.getFileName()) : matcher.matches(root.relativize(entry));
+    }
+
+    private void emit(SearchMatch match) {
+        if (!stopped.get() && !sink.test(match)) {
+            stopped.set(true);
+        }
+    }
+
+    private void scanFile(Path file, FilePath filePath) {
+        if (streamed) {
+            try (InputStream in = Files.newInputStream(file)) {
+                scanStream(in, filePath);
+            } catch (IOException e) {
+                // Entries that cannot be inflated are skipped
+            }
+            return;
+        }
+
+        ByteBuffer pooled = null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize == 0) {
+                return;
+            }
+            if (fileSize > MAX_REGION_BYTES) {
+                scanWindows(filePath, fileSize);
+                return;
+            }
+            int size = (int) fileSize;
+
+            ByteBuffer data;
+            if (size <= bufferPool.bufferSize()) {
+                data = pooled = bufferPool.acquire();
+                data.limit(size);
+                while (data.hasRemaining()) {
+                    if (channel.read(data, data.position()) <= 0) {
+                        break;
+                    }
+                }
+                data.flip();
+            } else {
+                // Mapped rather than copied once the file is large enough
+                data = files.readRegion(new FilePath(file.toString()), 0, size);
+            }
+
+            if (!isBinary(data)) {
+                scanContent(data, filePath, 1);
+            }
+        } catch (IOException | FileSystemPort.FileSystemException e) {
+            // Files that vanish or cannot be read are skipped
+        } finally {
+            bufferPool.release(pooled);
+        }
+    }
+
+    /**
+     * Whether content is treated as binary and left unsearched: a NUL byte near the start.
+     * {@link IndexedFileSystemAdapter} classifies files with the same check.
+     */
+    static boolean isBinary(ByteBuffer data) {
+        int end = Math.min(data.limit(), BINARY_SNIFF_BYTES);
+        for (int i = 0; i < end; i++) {
+            if (data.get(i) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scans a file too large for one region in newline-aligned windows read through the port.
+     */
+    private void scanWindows(FilePath filePath, long size) throws FileSystemPort.FileSystemException,
+            CharacterCodingException {
+        long position = 0;
+        long lineNumber = 1;
+        while (position < size && !stopped.get()) {
+            ByteBuffer window = files.readRegion(filePath, position, (int) Math.min(WINDOW_BYTES, size - position));
+            if (!window.hasRemaining() || position == 0 && isBinary(window)) {
+                return;
+            }
+            int limit = window.limit();
+            int end = position + limit < size ? segmentEnd(window, 0, limit, limit) : limit;
+            lineNumber = scanContent(window.slice(0, end), filePath, lineNumber);
+            position += end;
+        }
+    }
+
+    /**
+     * Scans a stream, such as an archive entry, one newline-aligned segment at a time, so
+     * that an entry of any size is never held whole on the heap.
+     */
+    private void scanStream(InputStream in, FilePath filePath) throws IOException {
+        byte[] buffer = new byte[SEGMENT_BYTES];
+        int filled = 0;
+        long lineNumber = 1;
+        boolean first = true;
+        while (!stopped.get()) {
+            filled += in.readNBytes(buffer, filled, buffer.length - filled);
+            boolean last = filled < buffer.length;
+            ByteBuffer data = ByteBuffer.wrap(buffer, 0, filled);
+            if (first && (filled == 0 || isBinary(data))) {
+                return;
+            }
+            first = false;
+            int end = last ? filled : segmentEnd(data, 0, filled, filled);
+            lineNumber = scanContent(data.slice(0, end), filePath, lineNumber);
+            if (last) {
+                return;
+            }
+            System.arraycopy(buffer, end, buffer, 0, filled - end);
+            filled -= end;
+        }
+    }
+
+    /**
+     * Decodes content in newline-aligned segments so memory stays bounded for large files,
+     * and returns the line number following it.
+     */
+    private long scanContent(ByteBuffer data, FilePath filePath, long firstLine) throws CharacterCodingException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        int limit = data.limit();
+        int position = 0;
+        long lineNumber = firstLine;
+        while (position < limit && !stopped.get()) {
+            int end = Math.min(limit, position + SEGMENT_BYTES);
+            if (end < limit) {
+                end = segmentEnd(data, position, end, limit);
+            }
+            CharBuffer text = decoder.decode(data.slice(position, end - position));
+            lineNumber = scanSegment(text, lineNumber, filePath);
+            position = end;
+        }
+        return lineNumber;
+    }
+
+    /**
+     * Pulls a segment end back to just after the last newline, or pushes it to the next one.
+     */
+    private static int segmentEnd(ByteBuffer data, int start, int end, int limit) {
+        for (int i = end - 1; i >= start; i--) {
+            if (data.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        for (int i = end; i < limit; i++) {
+            if (data.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Reports at most one match per line and returns the line number following the segment.
+     */
+    private long scanSegment(CharBuffer text, long firstLine, FilePath filePath) {
+        Matcher m = contentPattern.matcher(text);
+        int length = text.length();
+        long line = firstLine;
+        int lineStart = 0;
+        int counted = 0;
+        int from = 0;
+
+        while (from <= length && m.find(from)) {
+            int start = m.start();
+            for (; counted < start; counted++) {
+                if (text.charAt(counted) == '\n') {
+                    line++;
+                    lineStart = counted + 1;
+                }
+            }
+
+            int lineEnd = start;
+            while (lineEnd < length && text.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            emit(new SearchMatch(filePath, line, snippet(text, lineStart, lineEnd, start)));
+            if (stopped.get() || lineEnd >= length) {
+                return line;
+            }
+
+            // Resume on the next line
+            line++;
+            lineStart = lineEnd + 1;
+            counted = lineEnd + 1;
+            from = lineEnd + 1;
+        }
+
+        for (; counted < length; counted++) {
+            if (text.charAt(counted) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    private static String snippet(CharBuffer text, int lineStart, int lineEnd, int matchStart) {
+        int end = lineEnd;
+        if (end > lineStart && text.charAt(end - 1) == '\r') {
+            end--;
+        }
+        int start = lineStart;
+        if (end - start > MAX_SNIPPET_CHARS) {
+            start = Math.max(lineStart, Math.min(matchStart - MAX_SNIPPET_CHARS / 4, end - MAX_SNIPPET_CHARS));
+            end = start + MAX_SNIPPET_CHARS;
+        }
+        return text.subSequence(start, end).toString().strip();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces concurrent fsync requests for the same file or directory.
+ * A caller that finds a flush already running waits for the next one; that
+ * next flush is performed once, by whichever waiter leads it, on behalf of
+ * everyone who queued up in the meantime. A burst of N writers therefore costs
+ * about two disk flushes per key instead of N. A key's state is kept only while
+ * callers for it are in flight, so syncing many distinct files leaves nothing behind.
+ */
+final class GroupCommitSyncer {
+
+    /**
+     * Forces previously written data to stable storage.
+     */
+    @FunctionalInterface
+    interface SyncAction {
+        void sync() throws IOException;
+    }
+
+    private final ConcurrentHashMap<Path, Group> groups = new ConcurrentHashMap<>();
+
+    private static final class Group {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition flushed = lock.newCondition();
+        private long requested;
+        private long completed;
+        private boolean flushing;
+        /** Callers inside {@link #sync}; the group is retired when the last one leaves. */
+        private int callers;
+        private boolean retired;
+        /** Failed flushes by first ticket, kept until every caller they covered has seen them. */
+        private final NavigableMap<Long, Failure> failures = new TreeMap<>();
+    }
+
+    /**
+     * A failed flush and how many of the callers it covered have yet to be told.
+     */
+    private static final class Failure {
+        private final long to;
+        private final IOException error;
+        private long unreported;
+
+        Failure(long from, long to, IOException error) {
+            this.to = to;
+            this.error = error;
+            this.unreported = to - from + 1;
+        }
+    }
+
+    /**
+     * Returns once every write that completed before this call is durable.
+     *
+     * @param key Identifies the file or directory being synced
+     * @param action Forces the data; may be run on behalf of other callers
+     * @throws IOException if the flush covering this request failed
+     */
+    void sync(Path key, SyncAction action) throws IOException {
+        Group group = join(key);
+        try {
+            long ticket = ++group.requested;
+            while (group.completed < ticket) {
+                if (group.flushing) {
+                    group.flushed.awaitUninterruptibly();
+                    continue;
+                }
+
+                // Lead the next flush for everyone who has requested so far
+                group.flushing = true;
+                long from = group.completed + 1;
+                long upTo = group.requested;
+                IOException error = null;
+                group.lock.unlock();
+                try {
+                    action.sync();
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    group.lock.lock();
+                }
+                if (error != null) {
+                    group.failures.put(from, new Failure(from, upTo, error));
+                }
+                group.completed = upTo;
+                group.flushing = false;
+                group.flushed.signalAll();
+            }
+
+            Map.Entry<Long, Failure> failed = group.failures.floorEntry(ticket);
+            if (failed != null && ticket <= failed.getValue().to) {
+                if (--failed.getValue().unreported == 0) {
+                    group.failures.remove(failed.getKey());
+                }
+                throw new IOException("Flush failed for " + key, failed.getValue().error);
+            }
+        } finally {
+            if (--group.callers == 0) {
+                group.retired = true;
+                groups.remove(key, group);
+            }
+            group.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the key's group, locked and counting the caller. A group retired between
+     * being looked up and being locked is left for a fresh one.
+     */
+    private Group join(Path key) {
+        while (true) {
+            Group group = groups.computeIfAbsent(key, k -> new Group());
+            group.lock.lock();
+            if (!group.retired) {
+                group.callers++;
+                return group;
+            }
+            group.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of keys with callers in flight.
+     */
+    int activeKeys() {
+        return groups.size();
+    }
+}
@@ -0,0 +1,655 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.example.mcp.application.port.out.CacheMetricsPort;
+import com.example.mcp.application.port.out.FileSystemPort;
+import com.example.mcp.domain.model.FileMetadata;
+import com.example.mcp.domain.model.SearchMatch;
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.WriteMode;
+
+/**
+ * Indexing file system adapter.
+ * Decorates another file system port with trigram indexes of the directory trees that
+ * {@link #indexedSearch} is used on. Only files containing every trigram the pattern
+ * requires are scanned with the real pattern, so selective searches over large trees
+ * read a small fraction of the files. Each tree is watched recursively; changes are
+ * queued by the watcher thread and applied to the index at the start of the next query,
+ * and a lost event triggers one metadata rescan. Indexes are persisted between runs,
+ * so a restart costs a metadata walk plus reading the files that changed.
+ */
+public final class IndexedFileSystemAdapter implements FileSystemPort, CacheMetricsPort, AutoCloseable {
+    private static final int MAX_WORKSPACES = 4;
+    private static final int MAX_WATCHED_DIRECTORIES = 8192;
+    /** Beyond this many queued changes a full rescan is cheaper than handling each one. */
+    private static final int MAX_PENDING_CHANGES = 256;
+    private static final long MAX_INDEXED_FILE_BYTES = 8L * 1024 * 1024;
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of(".git", ".hg", ".svn");
+    /** Files modified this recently may change again within the same timestamp tick. */
+    private static final long RACY_WINDOW_MILLIS = 2000;
+
+    private final FileSystemPort delegate;
+    private final Path indexDirectory;
+    private final DirectBufferPool bufferPool = new DirectBufferPool(64 * 1024, 16);
+    private final ForkJoinPool searchPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private final LinkedHashMap<Path, Workspace> workspaces = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Workspace> eldest) {
+            if (size() > MAX_WORKSPACES) {
+                release(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final Map<WatchKey, Workspace> watchKeys = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private volatile boolean closed;
+
+    private final LongAdder filesSkipped = new LongAdder();
+    private final LongAdder filesScanned = new LongAdder();
+
+    /**
+     * One indexed directory tree. The index is guarded by the workspace's monitor;
+     * the watcher thread only touches the concurrent fields.
+     */
+    private static final class Workspace {
+        private final Path root;
+        private final TrigramIndex index;
+        private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+        private final Set<WatchKey> keys = ConcurrentHashMap.newKeySet();
+        private volatile boolean rescan = true;
+        private boolean unwatched;
+
+        Workspace(Path root, TrigramIndex index) {
+            this.root = root;
+            this.index = index;
+        }
+    }
+
+    /**
+     * @param delegate The file system port to read through
+     * @param indexDirectory Where indexes are persisted, one file per tree; created on first save
+     */
+    public IndexedFileSystemAdapter(FileSystemPort delegate, Path indexDirectory) {
+        this.delegate = delegate;
+        this.indexDirectory = indexDirectory;
+    }
+
+    /**
+     * Returns the default index directory under the user's cache directory.
+     */
+    public static Path defaultIndexDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".cache", "mcp-demo-server", "trigram");
+    }
+
+    @Override
+    public boolean exists(FilePath path) {
+        return delegate.exists(path);
+    }
+
+    @Override
+    public boolean isRegularFile(FilePath path) {
+        return delegate.isRegularFile(path);
+    }
+
+    @Override
+    public boolean isDirectory(FilePath path) {
+        return delegate.isDirectory(path);
+    }
+
+    @Override
+    public byte[] readAllBytes(FilePath path) throws FileSystemException {
+        return delegate.readAllBytes(path);
+    }
+
+    @Override
+    public ByteBuffer readRegion(FilePath path, long position, int length) throws FileSystemException {
+        return delegate.readRegion(path, position, length);
+    }
+
+    @Override
+    public TextChunk readText(FilePath path, long position, int maxBytes, long maxLines) throws FileSystemException {
+        return delegate.readText(path, position, maxBytes, maxLines);
+    }
+
+    @Override
+    public long skipLines(FilePath path, long position, long lines) throws FileSystemException {
+        return delegate.skipLines(path, position, lines);
+    }
+
+    @Override
+    public long findLastLines(FilePath path, long lines) throws FileSystemException {
+        return delegate.findLastLines(path, lines);
+    }
+
+    @Override
+    public FileState fileState(FilePath path) throws FileSystemException {
+        return delegate.fileState(path);
+    }
+
+    // Changes made through this adapter are queued right away rather than waiting for the watcher
+
+    @Override
+    public void writeAllBytes(FilePath path, byte[] content) throws FileSystemException {
+        try {
+            delegate.writeAllBytes(path, content);
+        } finally {
+            changed(realPath(path));
+        }
+    }
+
+    @Override
+    public long writeText(FilePath path, CharSequence content, WriteMode mode) throws FileSystemException {
+        try {
+            return delegate.writeText(path, content, mode);
+        } finally {
+            changed(realPath(path));
+        }
+    }
+
+    @Override
+    public CopyResult copy(FilePath source, FilePath target, boolean overwrite, Predicate<FilePath> pathFilter)
+            throws FileSystemException {
+        try {
+            return delegate.copy(source, target, overwrite, pathFilter);
+        } finally {
+            changed(realPath(target));
+        }
+    }
+
+    @Override
+    public void move(FilePath source, FilePath target, boolean overwrite, Predicate<FilePath> pathFilter)
+            throws FileSystemException {
+        Path realSource = realPath(source);
+        try {
+            delegate.move(source, target, overwrite, pathFilter);
+        } finally {
+            changed(realSource);
+            changed(realPath(target));
+        }
+    }
+
+    @Override
+    public List<FileMetadata> listDirectory(FilePath path) throws FileSystemException {
+        return delegate.listDirectory(path);
+    }
+
+    @Override
+    public void scanDirectory(FilePath path, Consumer<FileMetadata> visitor) throws FileSystemException {
+        delegate.scanDirectory(path, visitor);
+    }
+
+    @Override
+    public void searchFiles(FilePath root, String glob, Pattern contentPattern,
+                            Predicate<FilePath> pathFilter, Predicate<SearchMatch> sink) throws FileSystemException {
+        delegate.searchFiles(root, glob, contentPattern, pathFilter, sink);
+    }
+
+    @Override
+    public void indexedSearch(FilePath root, String glob, Pattern contentPattern,
+                              Predicate<FilePath> pathFilter, Predicate<SearchMatch> sink) throws FileSystemException {
+        Path searchRoot = Paths.get(root.getValue());
+        Path real = realPath(root);
+        if (real == null || !Files.exists(real)) {
+            // Paths that do not resolve here, such as archive entries, are the delegate's to handle
+            delegate.indexedSearch(root, glob, contentPattern, pathFilter, sink);
+            return;
+        }
+        if (!Files.isDirectory(real)) {
+            throw new FileSystemException("Not a directory: " + root);
+        }
+        Workspace workspace = workspace(real);
+        if (contentPattern == null || workspace == null) {
+            delegate.searchFiles(root, glob, contentPattern, pathFilter, sink);
+            return;
+        }
+
+        // Matches are reported relative to the root as given, exactly like a full search
+        Path prefix = workspace.root.relativize(real);
+        boolean whole = prefix.toString().isEmpty();
+        int[] required = TrigramQuery.requiredTrigrams(queryText(contentPattern));
+        List<Path> candidates = new ArrayList<>();
+        int indexed;
+        synchronized (workspace) {
+            refresh(workspace, pathFilter);
+            indexed = workspace.index.size();
+            for (int id : workspace.index.candidates(required)) {
+                Path relative = Paths.get(workspace.index.docAt(id).path());
+                if (whole) {
+                    candidates.add(searchRoot.resolve(relative));
+                } else if (relative.startsWith(prefix)) {
+                    candidates.add(searchRoot.resolve(prefix.relativize(relative)));
+                }
+            }
+        }
+        filesScanned.add(candidates.size());
+        if (whole) {
+            filesSkipped.add(indexed - candidates.size());
+        }
+
+        try {
+            new FileTreeSearch(searchRoot, glob, contentPattern, pathFilter, sink, bufferPool, delegate)
+                .run(candidates, searchPool);
+        } catch (IllegalArgumentException e) {
+            throw new FileSystemException("Invalid glob: " + glob, e);
+        }
+    }
+
+    @Override
+    public long getFileSize(FilePath path) throws FileSystemException {
+        return delegate.getFileSize(path);
+    }
+
+    @Override
+    public CacheStats cacheStats() {
+        long entries = 0;
+        long sizeBytes = 0;
+        synchronized (workspaces) {
+            for (Workspace workspace : workspaces.values()) {
+                synchronized (workspace) {
+                    entries += workspace.index.size();
+                }
+                try {
+                    sizeBytes += Files.size(indexFile(workspace.root));
+                } catch (IOException e) {
+                    // Not saved yet
+                }
+            }
+        }
+        return new CacheStats("trigram-index", filesSkipped.sum(), filesScanned.sum(), entries, sizeBytes, 0);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (workspaces) {
+            for (Workspace workspace : workspaces.values()) {
+                release(workspace);
+            }
+            workspaces.clear();
+        }
+        synchronized (this) {
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the workspace covering a directory, opening one rooted at it if none does,
+     * or null if the directory lies inside a tree the index never covers or is too broad to index.
+     */
+    private Workspace workspace(Path real) {
+        synchronized (workspaces) {
+            for (Workspace workspace : workspaces.values()) {
+                if (real.startsWith(workspace.root)) {
+                    // Touch it for the LRU order
+                    workspaces.get(workspace.root);
+                    for (Path part : workspace.root.relativize(real)) {
+                        if (SKIPPED_DIRECTORIES.contains(part.toString())) {
+                            return null;
+                        }
+                    }
+                    return workspace;
+                }
+            }
+            if (tooBroad(real)) {
+                return null;
+            }
+            Workspace workspace = new Workspace(real, TrigramIndex.open(real, indexFile(real)));
+            workspaces.put(real, workspace);
+            return workspace;
+        }
+    }
+
+    /**
+     * Whether a directory is too broad to index: a file system root or the home directory,
+     * whose indexes would copy the whole disk or every personal file into the cache.
+     */
+    private static boolean tooBroad(Path real) {
+        if (real.getParent() == null) {
+            return true;
+        }
+        try {
+            return real.equals(Paths.get(System.getProperty("user.home")).toRealPath());
+        } catch (IOException | InvalidPathException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Brings a workspace's index up to date with the disk. Called with the workspace locked.
+     * Entries the path filter rejects are neither indexed nor watched.
+     */
+    private void refresh(Workspace workspace, Predicate<FilePath> pathFilter) {
+        boolean full = workspace.rescan || workspace.unwatched || workspace.pending.size() > MAX_PENDING_CHANGES;
+        if (full) {
+            workspace.rescan = false;
+            workspace.pending.clear();
+            scan(workspace, workspace.root, pathFilter);
+        } else {
+            List<Path> changes = new ArrayList<>();
+            for (Iterator<Path> it = workspace.pending.iterator(); it.hasNext(); ) {
+                changes.add(it.next());
+                it.remove();
+            }
+            for (Path change : changes) {
+                scan(workspace, change, pathFilter);
+            }
+        }
+
+        if (full ? workspace.index.hasChanges() : workspace.index.needsCompaction()) {
+            try {
+                workspace.index.save();
+            } catch (IOException e) {
+                // The index stays usable in memory; the next save retries
+            }
+        }
+    }
+
+    /**
+     * Compares a file or subtree against the index, registering watches on directories
+     * found and re-indexing files whose size or modification time changed. Denied entries
+     * are left out, and dropped from the index if an earlier policy let them in.
+     */
+    private void scan(Workspace workspace, Path start, Predicate<FilePath> pathFilter) {
+        if (!start.startsWith(workspace.root)) {
+            return;
+        }
+        TrigramIndex index = workspace.index;
+        String prefix = workspace.root.relativize(start).toString();
+        Set<String> seen = new HashSet<>();
+        List<TrigramIndex.Doc> stale = new ArrayList<>();
+
+        BasicFileAttributes startAttrs = attributes(start);
+        if (startAttrs != null && startAttrs.isDirectory()) {
+            try {
+                Files.walkFileTree(start, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        if (!dir.equals(workspace.root) && SKIPPED_DIRECTORIES.contains(dir.getFileName().toString())) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        if (!pathFilter.test(new FilePath(dir.toString()))) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        watch(workspace, dir);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile() && pathFilter.test(new FilePath(file.toString()))) {
+                            String path = workspace.root.relativize(file).toString();
+                            seen.add(path);
+                            checkCurrent(index, path, attrs, stale);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                // Whatever was walked is still applied
+            }
+        } else if (startAttrs != null && startAttrs.isRegularFile()) {
+            if (pathFilter.test(new FilePath(start.toString()))) {
+                seen.add(prefix);
+                checkCurrent(index, prefix, startAttrs, stale);
+            } else {
+                index.remove(prefix);
+            }
+        }
+
+        // Files directly named by an event need no search for vanished descendants
+        if (startAttrs == null || startAttrs.isDirectory()) {
+            String below = prefix.isEmpty() ? "" : prefix + start.getFileSystem().getSeparator();
+            for (String path : index.paths()) {
+                if ((prefix.isEmpty() || path.equals(prefix) || path.startsWith(below)) && !seen.contains(path)) {
+                    index.remove(path);
+                }
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            List<Indexed> results = searchPool.submit(() ->
+                stale.parallelStream().map(doc -> read(workspace.root, doc)).toList()).join();
+            for (Indexed result : results) {
+                if (result.doc() == null) {
+                    index.remove(result.path());
+                } else {
+                    index.put(result.doc(), result.trigrams());
+                }
+            }
+        }
+    }
+
+    private record Indexed(String path, TrigramIndex.Doc doc, int[] trigrams) {}
+
+    private static void checkCurrent(TrigramIndex index, String path, BasicFileAttributes attrs,
+                                     List<TrigramIndex.Doc> stale) {
+        long modified = attrs.lastModifiedTime().toMillis();
+        TrigramIndex.Doc doc = index.doc(path);
+        if (doc == null || doc.size() != attrs.size() || doc.modified() != modified) {
+            stale.add(new TrigramIndex.Doc(path, attrs.size(), modified, null));
+        }
+    }
+
+    /**
+     * Reads a file and extracts its trigrams. A null doc means the file could not be read.
+     */
+    private static Indexed read(Path root, TrigramIndex.Doc found) {
+        Path file = root.resolve(found.path());
+        // Racily modified files are recorded with an impossible time so the next scan re-reads them
+        long modified = System.currentTimeMillis() - found.modified() < RACY_WINDOW_MILLIS ? -1 : found.modified();
+        try {
+            if (found.size() > MAX_INDEXED_FILE_BYTES) {
+                byte[] head;
+                try (InputStream in = Files.newInputStream(file)) {
+                    head = in.readNBytes(FileTreeSearch.BINARY_SNIFF_BYTES);
+                }
+                TrigramIndex.Kind kind = FileTreeSearch.isBinary(ByteBuffer.wrap(head))
+                    ? TrigramIndex.Kind.BINARY : TrigramIndex.Kind.UNINDEXED;
+                return new Indexed(found.path(), new TrigramIndex.Doc(found.path(), found.size(), modified, kind), null);
+            }
+
+            byte[] content = Files.readAllBytes(file);
+            // Classified exactly as the search does, so no candidate is dropped or scanned in vain
+            boolean text = !FileTreeSearch.isBinary(ByteBuffer.wrap(content));
+            TrigramIndex.Kind kind = text ? TrigramIndex.Kind.TEXT : TrigramIndex.Kind.BINARY;
+            return new Indexed(found.path(), new TrigramIndex.Doc(found.path(), content.length, modified, kind),
+                text ? TrigramIndex.trigramsOf(content) : null);
+        } catch (IOException | IllegalArgumentException e) {
+            return new Indexed(found.path(), null, null);
+        }
+    }
+
+    /**
+     * The pattern text whose literals every match contains, or an empty string if unknown.
+     */
+    private static String queryText(Pattern pattern) {
+        if ((pattern.flags() & Pattern.COMMENTS) != 0) {
+            return "";
+        }
+        if ((pattern.flags() & Pattern.LITERAL) != 0) {
+            return Pattern.quote(pattern.pattern());
+        }
+        return pattern.pattern();
+    }
+
+    private void watch(Workspace workspace, Path dir) {
+        if (closed || workspace.unwatched) {
+            return;
+        }
+        if (workspace.keys.size() >= MAX_WATCHED_DIRECTORIES) {
+            // Too large to watch: every query rescans metadata instead
+            workspace.unwatched = true;
+            return;
+        }
+        try {
+            WatchKey key = dir.register(watchService(),
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+            workspace.keys.add(key);
+            watchKeys.put(key, workspace);
+        } catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+            workspace.unwatched = true;
+        }
+    }
+
+    private synchronized WatchService watchService() throws IOException {
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+            Thread watcher = new Thread(this::processEvents, "workspace-index-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        return watchService;
+    }
+
+    private void processEvents() {
+        while (!closed) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Workspace workspace = watchKeys.get(key);
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (workspace == null) {
+                    continue;
+                }
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    workspace.rescan = true;
+                } else {
+                    workspace.pending.add(dir.resolve((Path) event.context()));
+                }
+            }
+            if (!key.reset()) {
+                watchKeys.remove(key);
+                if (workspace != null) {
+                    workspace.keys.remove(key);
+                    // The directory itself is gone or moved
+                    workspace.pending.add(dir);
+                }
+            }
+        }
+    }
+
+    private void changed(Path real) {
+        if (real == null) {
+            return;
+        }
+        synchronized (workspaces) {
+            for (Workspace workspace : workspaces.values()) {
+                if (real.startsWith(workspace.root)) {
+                    workspace.pending.add(real);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops watching a workspace and saves any unsaved changes to its index.
+     */
+    private void release(Workspace workspace) {
+        for (WatchKey key : workspace.keys) {
+            key.cancel();
+            watchKeys.remove(key);
+        }
+        synchronized (workspace) {
+            if (workspace.index.hasChanges()) {
+                try {
+                    workspace.index.save();
+                } catch (IOException e) {
+                    // Rebuilt from the disk next time
+                }
+            }
+        }
+    }
+
+    private Path indexFile(Path root) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(root.toString().getBytes(StandardCharsets.UTF_8));
+            return indexDirectory.resolve(HexFormat.of().formatHex(digest, 0, 16) + ".idx");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Resolves a path to its real location, or for a path that no longer exists,
+     * to where it was inside its real parent directory.
+     */
+    private static Path realPath(FilePath path) {
+        try {
+            Path p = Paths.get(path.getValue()).toAbsolutePath().normalize();
+            try {
+                return p.toRealPath();
+            } catch (IOException e) {
+                Path parent = p.getParent();
+                return parent != null && p.getFileName() != null
+                    ? parent.toRealPath().resolve(p.getFileName())
+                    : null;
+            }
+        } catch (IOException | InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private static BasicFileAttributes attributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -1,23 +1,91 @@
 package com.example.mcp.adapter.out.filesystem;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryIteratorException;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import com.example.mcp.application.port.out.FileSystemPort;
 import com.example.mcp.domain.model.FileMetadata;
+import com.example.mcp.domain.model.SearchMatch;
 import com.example.mcp.domain.valueobject.FilePath;
 import com.example.mcp.domain.valueobject.FileSize;
+import com.example.mcp.domain.valueobject.WriteMode;
 
 /**
  * Java NIO file system adapter.
  * Implements file system port using java.nio.file APIs.
  */
 public final class JavaNioFileSystemAdapter implements FileSystemPort {
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 16;
+    private static final int CHAR_BUFFER_SIZE = 8 * 1024;
+    private static final long DEFAULT_MAPPED_READ_THRESHOLD = 1024 * 1024;
+    private static final int LINE_INDEX_STRIDE = 1024;
+    private static final int MAX_LINE_INDEXES = 32;
+
+    private final DirectBufferPool bufferPool = new DirectBufferPool(IO_BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final ForkJoinPool walkPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final GroupCommitSyncer syncer = new GroupCommitSyncer();
+    private final Map<Path, LineIndex> lineIndexes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, LineIndex> eldest) {
+            return size() > MAX_LINE_INDEXES;
+        }
+    };
+    private final long mappedReadThreshold;
+    private final WriteDurability durability;
+
+    public JavaNioFileSystemAdapter() {
+        this(DEFAULT_MAPPED_READ_THRESHOLD, WriteDurability.NONE);
+    }
+
+    public JavaNioFileSystemAdapter(long mappedReadThreshold) {
+        this(mappedReadThreshold, WriteDurability.NONE);
+    }
+
+    /**
+     * @param mappedReadThreshold Region size in bytes at or above which reads are memory-mapped
+     * @param durability Whether writes are forced to disk before returning
+     */
+    public JavaNioFileSystemAdapter(long mappedReadThreshold, WriteDurability durability) {
+        if (mappedReadThreshold < 0) {
+            throw new IllegalArgumentException("Mapped read threshold cannot be negative: " + mappedReadThreshold);
+        }
+        this.mappedReadThreshold = mappedReadThreshold;
+        this.durability = durability;
+    }
 
     @Override
     public boolean exists(FilePath path) {
@@ -43,51 +111,313 @@ public final class JavaNioFileSystemAdapter implements FileSystemPort {
         }
     }
 
+    @Override
+    public ByteBuffer readRegion(FilePath path, long position, int length) throws FileSystemException {
+        try (FileChannel channel = FileChannel.open(toPath(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = Math.min(Math.max(position, 0), size);
+            int count = (int) Math.min(Math.max(length, 0), size - start);
+
+            if (count >= mappedReadThreshold) {
+                // The mapping stays valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_ONLY, start, count);
+            }
+
+            ByteBuffer heap = ByteBuffer.allocate(count);
+            while (heap.hasRemaining()) {
+                if (channel.read(heap, start + heap.position()) <= 0) {
+                    break;
+                }
+            }
+            return heap.flip().asReadOnlyBuffer();
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to read file region: " + path, e);
+        }
+    }
+
+    @Override
+    public TextChunk readText(FilePath path, long position, int maxBytes, long maxLines) throws FileSystemException {
+        ByteBuffer buffer = bufferPool.acquire();
+        try (FileChannel channel = FileChannel.open(toPath(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = alignToCharBoundary(channel, Math.min(position, size), size, buffer);
+            long budget = Math.min(maxBytes, size - start);
+
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+            StringBuilder text = new StringBuilder((int) Math.min(budget, Integer.MAX_VALUE - 8));
+
+            long readPos = start;
+            long consumed = start;
+            long lines = 0;
+            boolean lineLimitReached = false;
+            boolean budgetStretched = false;
+
+            buffer.clear();
+            while (!lineLimitReached) {
+                long unread = budget - (readPos - start);
+                if (unread <= 0) {
+                    // Always make progress: finish the first character even if it straddles the budget
+                    if (consumed == start && buffer.position() > 0 && readPos < size && !budgetStretched) {
+                        budget = Math.min(size - start, budget + 3);
+                        budgetStretched = true;
+                        continue;
+                    }
+                    break;
+                }
+
+                buffer.limit(buffer.position() + (int) Math.min(buffer.remaining(), unread));
+                int scanFrom = buffer.position();
+                int read = channel.read(buffer, readPos);
+                if (read <= 0) {
+                    break;
+                }
+                readPos += read;
+                buffer.flip();
+
+                // '\n' never occurs inside a multi-byte UTF-8 sequence, so raw bytes can be scanned
+                for (int i = scanFrom; i < buffer.limit(); i++) {
+                    if (buffer.get(i) == '\n' && ++lines == maxLines) {
+                        buffer.limit(i + 1);
+                        lineLimitReached = true;
+                        break;
+                    }
+                }
+
+                consumed += decodeInto(decoder, buffer, chars, text, false);
+                buffer.compact();
+            }
+
+            if (!lineLimitReached && readPos >= size) {
+                // End of file: flush any trailing malformed bytes as replacement characters
+                buffer.flip();
+                consumed += decodeInto(decoder, buffer, chars, text, true);
+                decoder.flush(chars);
+                chars.flip();
+                text.append(chars);
+            }
+
+            return new TextChunk(text.toString(), start, consumed, size, lines);
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to read file: " + path, e);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    @Override
+    public long skipLines(FilePath path, long position, long lines) throws FileSystemException {
+        if (lines <= 0) {
+            return position;
+        }
+
+        Path file = toPath(path);
+        ByteBuffer buffer = bufferPool.acquire();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long pos = Math.min(position, size);
+
+            // Short hops are cheaper to scan than to look up; long ones on big files go through the index
+            if (lines <= LINE_INDEX_STRIDE || size < mappedReadThreshold) {
+                return scanLines(channel, buffer, pos, size, lines);
+            }
+
+            LineIndex index = lineIndex(path, file);
+            long base = index.checkpointLineAtOrBefore(pos);
+            long line = base + countLines(channel, buffer, index.offsetOf(base), pos);
+            long target = line + lines;
+            long checkpoint = index.checkpointLine(target);
+            return scanLines(channel, buffer, index.offsetOf(checkpoint), size, target - checkpoint);
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to read file: " + path, e);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    @Override
+    public long findLastLines(FilePath path, long lines) throws FileSystemException {
+        ByteBuffer buffer = bufferPool.acquire();
+        try (FileChannel channel = FileChannel.open(toPath(path), StandardOpenOption.READ)) {
+            long end = channel.size();
+            if (lines <= 0) {
+                return end;
+            }
+            long remaining = lines;
+            // The terminator of the last line is not a line boundary of interest
+            boolean skipTerminator = true;
+
+            while (end > 0) {
+                long start = Math.max(0, end - buffer.capacity());
+                buffer.clear().limit((int) (end - start));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) <= 0) {
+                        throw new IOException("File shrank while reading: " + path);
+                    }
+                }
+                for (int i = (int) (end - start) - 1; i >= 0; i--) {
+                    if (buffer.get(i) != '\n') {
+                        skipTerminator = false;
+                    } else if (skipTerminator) {
+                        skipTerminator = false;
+                    } else if (--remaining == 0) {
+                        return start + i + 1;
+                    }
+                }
+                end = start;
+            }
+            return 0;
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to read file: " + path, e);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    @Override
+    public FileState fileState(FilePath path) throws FileSystemException {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(toPath(path), BasicFileAttributes.class);
+            // Not every file system exposes a file key; creation time is the next best identity
+            Object key = attrs.fileKey() != null ? attrs.fileKey() : attrs.creationTime().toMillis();
+            return new FileState(Integer.toHexString(key.toString().hashCode()), attrs.size());
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to read file attributes: " + path, e);
+        }
+    }
+
     @Override
     public void writeAllBytes(FilePath path, byte[] content) throws FileSystemException {
         try {
-            Path nioPath = toPath(path);
-            Path parent = nioPath.getParent();
-            
-            // Create parent directories if they don't exist
-            if (parent != null && !Files.exists(parent)) {
-                Files.createDirectories(parent);
-            }
-            
-            Files.write(nioPath, content);
+            write(toPath(path), WriteMode.OVERWRITE, channel -> {
+                ByteBuffer data = ByteBuffer.wrap(content);
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                return content.length;
+            });
         } catch (IOException e) {
             throw new FileSystemException("Failed to write file: " + path, e);
         }
     }
 
     @Override
-    public List<FileMetadata> listDirectory(FilePath path) throws FileSystemException {
+    public long writeText(FilePath path, CharSequence content, WriteMode mode) throws FileSystemException {
+        try {
+            return write(toPath(path), mode, channel -> encodeTo(channel, content));
+        } catch (FileAlreadyExistsException e) {
+            throw new FileSystemException("File already exists: " + path, e);
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to write file: " + path, e);
+        }
+    }
+
+    @Override
+    public CopyResult copy(FilePath source, FilePath target, boolean overwrite, Predicate<FilePath> pathFilter)
+            throws FileSystemException {
+        Path from = toPath(source);
+        Path to = toPath(target);
+        try {
+            if (Files.isDirectory(from, LinkOption.NOFOLLOW_LINKS)) {
+                requirePermitted(from, pathFilter);
+                return copyTree(from, to, pathFilter);
+            }
+            try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ)) {
+                long bytes = write(to, overwrite ? WriteMode.OVERWRITE : WriteMode.CREATE_NEW,
+                    out -> DirectoryCopy.transfer(in, out));
+                return new CopyResult(1, bytes);
+            }
+        } catch (IOException e) {
+            throw new FileSystemException("Failed to copy " + source + " to " + target, e);
+        }
+    }
+
+    @Override
+    public void move(FilePath source, FilePath target, boolean overwrite, Predicate<FilePath> pathFilter)
+            throws FileSystemException {
+        Path from = toPath(source);
+        Path to = toPath(target);
         try {
-            List<FileMetadata> results = new ArrayList<>();
-            Path nioPath = toPath(path);
-            
-            try (DirectoryStream<Path> stream = Files.newDirectoryStream(nioPath)) {
-                for (Path entry : stream) {
-                    String name = entry.getFileName().toString();
-                    boolean isDir = Files.isDirectory(entry);
-                    long size = isDir ? 0 : Files.size(entry);
-                    
-                    FileMetadata metadata = new FileMetadata(
-                        new FilePath(entry.toString()),
-                        name,
-                        FileSize.ofBytes(size),
-                        isDir
-                    );
-                    results.add(metadata);
-                }
-            }
-            
-            return results;
+            if (Files.isDirectory(from, LinkOption.NOFOLLOW_LINKS)) {
+                requirePermitted(from, pathFilter);
+            }
+            // An atomic rename may silently replace the target, so refuse up front
+            if (!overwrite && Files.exists(to, LinkOption.NOFOLLOW_LINKS)) {
+                throw new FileAlreadyExistsException(to.toString());
+            }
+            Path dir = to.toAbsolutePath().getParent();
+            if (dir != null && !Files.isDirectory(dir)) {
+                Files.createDirectories(dir);
+            }
+
+            try {
+                Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // Different file stores: copy, then remove the original
+                if (Files.isDirectory(from, LinkOption.NOFOLLOW_LINKS)) {
+                    copyTree(from, to, pathFilter);
+                    deleteTree(from);
+                } else if (overwrite) {
+                    Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    Files.move(from, to);
+                }
+            }
+
+            if (durability == WriteDurability.FSYNC) {
+                syncDirectory(from.toAbsolutePath().getParent());
+                syncDirectory(dir);
+            }
         } catch (IOException e) {
+            throw new FileSystemException("Failed to move " + source + " to " + target, e);
+        }
+    }
+
+    @Override
+    public List<FileMetadata> listDirectory(FilePath path) throws FileSystemException {
+        List<FileMetadata> results = new ArrayList<>();
+        scanDirectory(path, results::add);
+        return results;
+    }
+
+    @Override
+    public void scanDirectory(FilePath path, Consumer<FileMetadata> visitor) throws FileSystemException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(toPath(path))) {
+            for (Path entry : stream) {
+                FileMetadata metadata = toMetadata(entry);
+                if (metadata != null) {
+                    visitor.accept(metadata);
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
             throw new FileSystemException("Failed to list directory: " + path, e);
         }
     }
 
+    @Override
+    public void searchFiles(FilePath root, String glob, Pattern contentPattern,
+                            Predicate<FilePath> pathFilter, Predicate<SearchMatch> sink) throws FileSystemException {
+        Path rootPath = toPath(root);
+        if (!Files.isDirectory(rootPath)) {
+            throw new FileSystemException("Not a directory: " + root);
+        }
+        try {
+            new FileTreeSearch(rootPath, glob, contentPattern, pathFilter, sink, bufferPool, this)
+                .run(walkPool);
+        } catch (IllegalArgumentException e) {
+            throw new FileSystemException("Invalid glob: " + glob, e);
+        }
+    }
+
+    @Override
+    public void indexedSearch(FilePath root, String glob, Pattern contentPattern,
+                              Predicate<FilePath> pathFilter, Predicate<SearchMatch> sink) throws FileSystemException {
+        // No index at this level
+        searchFiles(root, glob, contentPattern, pathFilter, sink);
+    }
+
     @Override
     public long getFileSize(FilePath path) throws FileSystemException {
         try {
@@ -97,6 +427,334 @@ public final class JavaNioFileSystemAdapter implements FileSystemPort {
         }
     }
 
+    /**
+     * Produces the content of a write into an open channel.
+     */
+    @FunctionalInterface
+    private interface ContentWriter {
+        long writeTo(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * Writes a file so that readers never observe partial content.
+     * Overwrites and new files are written to a temporary sibling and renamed into place;
+     * appends go straight to the target since readers expect it to grow.
+     */
+    private long write(Path target, WriteMode mode, ContentWriter writer) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        if (dir != null && !Files.isDirectory(dir)) {
+            Files.createDirectories(dir);
+        }
+        boolean durable = durability == WriteDurability.FSYNC;
+
+        if (mode == WriteMode.APPEND) {
+            boolean created = durable && !Files.exists(target);
+            long written;
+            try (FileChannel channel = FileChannel.open(target,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                written = writer.writeTo(channel);
+                if (durable) {
+                    syncer.sync(target.toAbsolutePath(), () -> channel.force(true));
+                }
+            }
+            if (created) {
+                syncDirectory(dir);
+            }
+            return written;
+        }
+
+        if (mode == WriteMode.CREATE_NEW && Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+
+        Path temp = target.resolveSibling("." + target.getFileName() + "."
+            + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            long written;
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                written = writer.writeTo(channel);
+                if (durable) {
+                    // Each temp file is private to its writer, so there is nothing to coalesce
+                    channel.force(true);
+                }
+            }
+
+            if (mode == WriteMode.CREATE_NEW) {
+                publishNew(temp, target);
+            } else {
+                copyPermissions(target, temp);
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+
+            if (durable) {
+                syncDirectory(dir);
+            }
+            return written;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Refuses a tree holding an entry the filter rejects, before any of it is copied or moved.
+     * Symbolic links are checked as entries and not followed.
+     */
+    private static void requirePermitted(Path root, Predicate<FilePath> pathFilter) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                check(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                check(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            private void check(Path entry) throws AccessDeniedException {
+                if (!pathFilter.test(new FilePath(entry.toString()))) {
+                    throw new AccessDeniedException(entry.toString(), null, "not allowed by the path policy");
+                }
+            }
+        });
+    }
+
+    private CopyResult copyTree(Path from, Path to, Predicate<FilePath> pathFilter) throws IOException {
+        if (Files.exists(to, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileAlreadyExistsException(to.toString());
+        }
+        if (to.toAbsolutePath().normalize().startsWith(from.toAbsolutePath().normalize())) {
+            throw new IOException("Cannot copy a directory into itself: " + to);
+        }
+        Path dir = to.toAbsolutePath().getParent();
+        if (dir != null && !Files.isDirectory(dir)) {
+            Files.createDirectories(dir);
+        }
+        return new DirectoryCopy(from, to, pathFilter).run(walkPool);
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Moves a finished temporary file to a target that must not exist yet.
+     * A hard link fails atomically if the target appeared in the meantime.
+     */
+    private static void publishNew(Path temp, Path target) throws IOException {
+        try {
+            Files.createLink(target, temp);
+        } catch (UnsupportedOperationException | java.nio.file.FileSystemException e) {
+            if (e instanceof FileAlreadyExistsException) {
+                throw (FileAlreadyExistsException) e;
+            }
+            Files.move(temp, target);
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) {
+        try {
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(from);
+            Files.setPosixFilePermissions(to, permissions);
+        } catch (IOException | UnsupportedOperationException e) {
+            // New target, or no POSIX permissions to preserve
+        }
+    }
+
+    private void syncDirectory(Path dir) throws IOException {
+        if (dir == null) {
+            return;
+        }
+        syncer.sync(dir, () -> {
+            try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+                channel.force(true);
+            } catch (IOException e) {
+                // Some platforms cannot open directories; the rename is still atomic there
+            }
+        });
+    }
+
+    /**
+     * Encodes text as UTF-8 through a pooled direct buffer, without materialising a byte array.
+     */
+    private long encodeTo(FileChannel channel, CharSequence content) throws IOException {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.wrap(content);
+        ByteBuffer buffer = bufferPool.acquire();
+        long written = 0;
+        try {
+            boolean done = false;
+            while (!done) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isUnderflow()) {
+                    result = encoder.flush(buffer);
+                    done = result.isUnderflow();
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer);
+                }
+                buffer.clear();
+            }
+            return written;
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Builds entry metadata from a single attribute read.
+     * Dangling symbolic links are described by the link itself; entries deleted mid-scan are skipped.
+     */
+    private static FileMetadata toMetadata(Path entry) throws IOException {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            try {
+                attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException gone) {
+                return null;
+            }
+        }
+
+        boolean isDir = attrs.isDirectory();
+        return new FileMetadata(
+            new FilePath(entry.toString()),
+            entry.getFileName().toString(),
+            FileSize.ofBytes(isDir ? 0 : attrs.size()),
+            isDir,
+            attrs.lastModifiedTime().toInstant()
+        );
+    }
+
+    /**
+     * Returns the current line index of a file, rebuilding it if the file has changed.
+     */
+    private LineIndex lineIndex(FilePath path, Path file) throws IOException, FileSystemException {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        LineIndex index;
+        synchronized (lineIndexes) {
+            index = lineIndexes.get(key);
+        }
+        if (index == null || !index.isCurrent(attrs)) {
+            index = LineIndex.build(this, path, attrs, LINE_INDEX_STRIDE);
+            synchronized (lineIndexes) {
+                lineIndexes.put(key, index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the offset just past the given number of line terminators, or the end of the file.
+     */
+    private static long scanLines(FileChannel channel, ByteBuffer buffer, long position, long size, long lines)
+            throws IOException {
+        if (lines <= 0) {
+            return position;
+        }
+        long pos = position;
+        long remaining = lines;
+        while (pos < size) {
+            buffer.clear();
+            int read = channel.read(buffer, pos);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n' && --remaining == 0) {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+        return pos;
+    }
+
+    /**
+     * Counts the line terminators between two offsets.
+     */
+    private static long countLines(FileChannel channel, ByteBuffer buffer, long from, long to) throws IOException {
+        long count = 0;
+        long pos = from;
+        while (pos < to) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), to - pos));
+            int read = channel.read(buffer, pos);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    count++;
+                }
+            }
+            pos += read;
+        }
+        return count;
+    }
+
+    /**
+     * Moves a position forward past UTF-8 continuation bytes so decoding starts on a character.
+     */
+    private static long alignToCharBoundary(FileChannel channel, long position, long size,
+                                            ByteBuffer buffer) throws IOException {
+        if (position == 0 || position >= size) {
+            return position;
+        }
+        buffer.clear().limit(3);
+        int read = channel.read(buffer, position);
+        buffer.clear();
+        for (int i = 0; i < read; i++) {
+            if ((buffer.get(i) & 0xC0) != 0x80) {
+                return position + i;
+            }
+        }
+        return position + Math.max(read, 0);
+    }
+
+    /**
+     * Decodes as much of {@code in} as forms complete characters and returns the number of bytes consumed.
+     */
+    private static int decodeInto(CharsetDecoder decoder, ByteBuffer in, CharBuffer out,
+                                  StringBuilder text, boolean endOfInput) {
+        int before = in.position();
+        CoderResult result;
+        do {
+            result = decoder.decode(in, out, endOfInput);
+            out.flip();
+            text.append(out);
+            out.clear();
+        } while (result.isOverflow());
+        return in.position() - before;
+    }
+
     private Path toPath(FilePath filePath) {
         return Paths.get(filePath.getValue());
     }
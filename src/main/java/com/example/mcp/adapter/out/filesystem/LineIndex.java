@@ -0,0 +1,104 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.nio.ByteBuffer;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.example.mcp.application.port.out.FileSystemPort;
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Sparse index of line start offsets for one version of a file.
+ * Records the byte offset of every {@code stride}-th line, so locating any line
+ * costs one array lookup plus a scan over at most {@code stride - 1} lines.
+ * An index is only valid for the file key, size and modification time it was built from.
+ */
+final class LineIndex {
+    private static final long MAP_WINDOW_BYTES = 64L * 1024 * 1024;
+
+    private final Object fileKey;
+    private final long size;
+    private final FileTime lastModified;
+    private final int stride;
+    private final long[] checkpoints;
+    private final int checkpointCount;
+
+    private LineIndex(BasicFileAttributes attrs, int stride, long[] checkpoints, int checkpointCount) {
+        this.fileKey = attrs.fileKey();
+        this.size = attrs.size();
+        this.lastModified = attrs.lastModifiedTime();
+        this.stride = stride;
+        this.checkpoints = checkpoints;
+        this.checkpointCount = checkpointCount;
+    }
+
+    /**
+     * Scans the file in region reads, memory-mapped for a large file, and records every
+     * {@code stride}-th line start.
+     *
+     * @param files Reads the file's regions
+     * @param path The file
+     * @param attrs The attributes of the file read just before indexing
+     * @param stride Number of lines between checkpoints
+     */
+    static LineIndex build(FileSystemPort files, FilePath path, BasicFileAttributes attrs, int stride)
+            throws FileSystemPort.FileSystemException {
+        long size = attrs.size();
+        long[] checkpoints = new long[16];
+        checkpoints[0] = 0;
+        int count = 1;
+        long line = 0;
+
+        for (long windowStart = 0; windowStart < size; windowStart += MAP_WINDOW_BYTES) {
+            ByteBuffer window = files.readRegion(path, windowStart, (int) Math.min(MAP_WINDOW_BYTES, size - windowStart));
+            // A file that shrank since its attributes were read ends early
+            int length = window.remaining();
+            for (int i = 0; i < length; i++) {
+                if (window.get(i) == '\n' && ++line % stride == 0) {
+                    if (count == checkpoints.length) {
+                        checkpoints = Arrays.copyOf(checkpoints, count * 2);
+                    }
+                    checkpoints[count++] = windowStart + i + 1;
+                }
+            }
+            if (length < MAP_WINDOW_BYTES) {
+                break;
+            }
+        }
+        return new LineIndex(attrs, stride, checkpoints, count);
+    }
+
+    /**
+     * Whether this index still describes the file with the given attributes.
+     */
+    boolean isCurrent(BasicFileAttributes attrs) {
+        return attrs.size() == size &&
+               attrs.lastModifiedTime().equals(lastModified) &&
+               Objects.equals(attrs.fileKey(), fileKey);
+    }
+
+    /**
+     * Number of the last checkpointed line at or before the given byte offset.
+     */
+    long checkpointLineAtOrBefore(long position) {
+        int i = Arrays.binarySearch(checkpoints, 0, checkpointCount, position);
+        int slot = i >= 0 ? i : -i - 2;
+        return (long) slot * stride;
+    }
+
+    /**
+     * Number of the last checkpointed line at or before the given line number.
+     */
+    long checkpointLine(long line) {
+        return Math.min(line / stride, checkpointCount - 1) * stride;
+    }
+
+    /**
+     * Start offset of a checkpointed line, as returned by the other lookups.
+     */
+    long offsetOf(long checkpointLine) {
+        return checkpoints[(int) (checkpointLine / stride)];
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import com.example.mcp.application.port.out.CacheMetricsPort;
+import com.example.mcp.application.port.out.DiskUsagePort;
+import com.example.mcp.domain.model.DirectoryUsage;
+import com.example.mcp.domain.model.DiskUsageReport;
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.FileSize;
+
+/**
+ * Parallel disk usage adapter.
+ * Walks a tree with one fork/join task per directory and remembers, for each directory,
+ * the modification time it had together with the total size and count of the files
+ * directly in it and the names of its subdirectories. Adding, removing or renaming an
+ * entry changes the directory's modification time, so a directory whose time is unchanged
+ * is answered from memory and only its subdirectories are checked; a repeat query costs
+ * one attribute read per directory plus listing the directories that changed. Files that
+ * grow in place do not touch their directory and are picked up by a refresh. Directories
+ * modified in the last couple of seconds are not remembered, since a further change
+ * within the same timestamp tick would go unnoticed.
+ */
+public final class ParallelDiskUsageAdapter implements DiskUsagePort, CacheMetricsPort {
+    /** Past this many directories the cache is dropped rather than evicted entry by entry. */
+    private static final int MAX_CACHED_DIRECTORIES = 500_000;
+    /** Directories modified this recently may change again within the same timestamp tick. */
+    private static final long RACY_WINDOW_MILLIS = TimeUnit.SECONDS.toMillis(2);
+    private static final String[] NO_NAMES = new String[0];
+
+    private final ForkJoinPool walkPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final Map<Path, Listing> listings = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+
+    /**
+     * What a directory contained when it was last listed.
+     */
+    private record Listing(long modified, long bytes, long files, String[] subdirectories) {}
+
+    /**
+     * The measured totals of one directory and of the subtrees below it.
+     */
+    private static final class Usage {
+        private final Path path;
+        private final List<Usage> children = new ArrayList<>();
+        private long bytes;
+        private long files;
+        private long directories;
+
+        Usage(Path path) {
+            this.path = path;
+        }
+
+        DirectoryUsage toDirectoryUsage() {
+            return new DirectoryUsage(new FilePath(path.toString()), FileSize.ofBytes(bytes), files, directories);
+        }
+    }
+
+    @Override
+    public DiskUsageReport usage(FilePath root, int top, Predicate<FilePath> pathFilter, boolean refresh)
+            throws DiskUsageException {
+        Path rootPath = Paths.get(root.getValue());
+        if (!Files.isDirectory(rootPath)) {
+            throw new DiskUsageException("Not a directory: " + root);
+        }
+
+        Walk walk = new Walk(pathFilter, refresh, System.currentTimeMillis());
+        Usage total = walkPool.invoke(walk.new DirectoryTask(rootPath));
+        if (listings.size() > MAX_CACHED_DIRECTORIES) {
+            listings.clear();
+        }
+
+        // Keep the largest subtrees in a min-heap of the requested size; of equal ones, ancestors rank first
+        Comparator<Usage> smallestFirst = Comparator.<Usage>comparingLong(u -> u.bytes)
+            .thenComparingInt(u -> -u.path.getNameCount());
+        PriorityQueue<Usage> largest = new PriorityQueue<>(smallestFirst);
+        List<Usage> pending = new ArrayList<>(total.children);
+        while (!pending.isEmpty() && top > 0) {
+            Usage usage = pending.remove(pending.size() - 1);
+            pending.addAll(usage.children);
+            if (largest.size() < top) {
+                largest.add(usage);
+            } else if (smallestFirst.compare(usage, largest.peek()) > 0) {
+                largest.poll();
+                largest.add(usage);
+            }
+        }
+        List<DirectoryUsage> ranked = new ArrayList<>(largest.size());
+        while (!largest.isEmpty()) {
+            ranked.add(0, largest.poll().toDirectoryUsage());
+        }
+
+        return new DiskUsageReport(total.toDirectoryUsage(), ranked, walk.listed.sum(), walk.reused.sum());
+    }
+
+    @Override
+    public CacheStats cacheStats() {
+        return new CacheStats("disk-usage", hits.sum(), misses.sum(), listings.size(), 0, bytesServed.sum());
+    }
+
+    /**
+     * State shared by the tasks of one query.
+     */
+    private final class Walk {
+        private final Predicate<FilePath> pathFilter;
+        private final boolean refresh;
+        private final long startedMillis;
+        private final LongAdder listed = new LongAdder();
+        private final LongAdder reused = new LongAdder();
+
+        Walk(Predicate<FilePath> pathFilter, boolean refresh, long startedMillis) {
+            this.pathFilter = pathFilter;
+            this.refresh = refresh;
+            this.startedMillis = startedMillis;
+        }
+
+        private final class DirectoryTask extends RecursiveTask<Usage> {
+            private final Path dir;
+
+            DirectoryTask(Path dir) {
+                this.dir = dir;
+            }
+
+            @Override
+            protected Usage compute() {
+                Usage usage = new Usage(dir);
+                Listing listing = listing(dir);
+
+                usage.bytes = listing.bytes();
+                usage.files = listing.files();
+                List<DirectoryTask> subtasks = new ArrayList<>(listing.subdirectories().length);
+                for (String name : listing.subdirectories()) {
+                    Path child = dir.resolve(name);
+                    if (pathFilter.test(new FilePath(child.toString()))) {
+                        subtasks.add(new DirectoryTask(child));
+                    }
+                }
+                invokeAll(subtasks);
+
+                for (DirectoryTask subtask : subtasks) {
+                    Usage child = subtask.join();
+                    usage.children.add(child);
+                    usage.bytes += child.bytes;
+                    usage.files += child.files;
+                    usage.directories += child.directories + 1;
+                }
+                return usage;
+            }
+        }
+
+        /**
+         * Returns the remembered listing of a directory if it is unchanged, or lists it again.
+         */
+        private Listing listing(Path dir) {
+            Path key = dir.toAbsolutePath().normalize();
+            long modified;
+            try {
+                modified = Files.readAttributes(dir, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)
+                    .lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                listings.remove(key);
+                return new Listing(-1, 0, 0, NO_NAMES);
+            }
+
+            Listing cached = refresh ? null : listings.get(key);
+            if (cached != null && cached.modified() == modified) {
+                hits.increment();
+                bytesServed.add(cached.bytes());
+                reused.increment();
+                return cached;
+            }
+
+            misses.increment();
+            listed.increment();
+            long bytes = 0;
+            long files = 0;
+            List<String> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path entry : stream) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        // Deleted while listing
+                        continue;
+                    }
+                    if (attrs.isDirectory()) {
+                        subdirectories.add(entry.getFileName().toString());
+                    } else {
+                        bytes += attrs.size();
+                        files++;
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                // Unreadable directories count as empty, like du(1) reports and moves on
+                listings.remove(key);
+                return new Listing(-1, 0, 0, NO_NAMES);
+            }
+
+            Listing listing = new Listing(modified, bytes, files, subdirectories.toArray(NO_NAMES));
+            if (startedMillis - modified >= RACY_WINDOW_MILLIS) {
+                listings.put(key, listing);
+            } else {
+                listings.remove(key);
+            }
+            return listing;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.mcp.application.port.out.CacheMetricsPort;
+import com.example.mcp.application.port.out.PathPolicyPort;
+import com.example.mcp.domain.service.PathPolicy;
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.PathRule;
+
+/**
+ * Real path policy adapter.
+ * Judges paths by where they actually lead: symbolic links and {@code ..} segments are
+ * resolved against the file system before the compiled rules are consulted, so neither
+ * can be used to reach a denied directory. Paths that do not exist yet are judged by the
+ * real path of their nearest existing ancestor, and archive entries by the archive file.
+ * Real paths of directories are cached and revalidated by the directory's file key on
+ * every use, so checking every file of a walk costs two attribute reads each; a directory
+ * swapped for a symbolic link is noticed at once, since the key then names the link's target.
+ */
+public final class RealPathPolicyAdapter implements PathPolicyPort, CacheMetricsPort {
+    private static final int MAX_CACHED_DIRECTORIES = 4096;
+    /** Same limit as the kernel's, against symbolic link loops. */
+    private static final int MAX_LINK_HOPS = 40;
+
+    private final PathPolicy policy;
+
+    private final LinkedHashMap<Path, Resolved> directories = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Resolved> eldest) {
+            return size() > MAX_CACHED_DIRECTORIES;
+        }
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record Resolved(Path real, Object fileKey) {}
+
+    /**
+     * @param rules The rules in order of precedence, lowest first; their paths are resolved once, here
+     */
+    public RealPathPolicyAdapter(List<PathRule> rules) {
+        this.policy = PathPolicy.compile(rules, path -> {
+            try {
+                return segments(resolveFully(Paths.get(path.getValue()).toAbsolutePath(), 0));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot resolve path rule: " + path, e);
+            }
+        });
+    }
+
+    @Override
+    public boolean permits(FilePath path) {
+        try {
+            return policy.permits(segments(resolve(path.getValue())));
+        } catch (IOException | InvalidPathException e) {
+            // What cannot be resolved cannot be judged
+            return false;
+        }
+    }
+
+    @Override
+    public CacheStats cacheStats() {
+        long entries;
+        synchronized (directories) {
+            entries = directories.size();
+        }
+        return new CacheStats("path-policy", hits.sum(), misses.sum(), entries, 0, 0);
+    }
+
+    private Path resolve(String value) throws IOException {
+        String archive = ArchiveFileSystemAdapter.archiveFile(value);
+        if (archive == null) {
+            return resolve(Paths.get(value).toAbsolutePath());
+        }
+        // Entries are names inside the archive file, never links
+        Path entry = Paths.get("/" + value.substring(archive.length() + 1)).normalize();
+        Path real = resolve(Paths.get(archive).toAbsolutePath());
+        return entry.getNameCount() == 0 ? real : real.resolve(entry.getRoot().relativize(entry).toString());
+    }
+
+    /**
+     * Resolves an absolute path through the cached real path of its directory.
+     */
+    private Path resolve(Path path) throws IOException {
+        Path parent = path.getParent();
+        Path name = path.getFileName();
+        if (parent == null || name == null || name.toString().equals("..") || name.toString().equals(".")) {
+            return resolveFully(path, 0);
+        }
+
+        Path realParent = realDirectory(parent);
+        if (realParent == null) {
+            return resolveFully(path, 0);
+        }
+        Path leaf = realParent.resolve(name.toString());
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(leaf, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            return attrs.isSymbolicLink() ? resolveFully(leaf, 0) : leaf;
+        } catch (NoSuchFileException e) {
+            return leaf;
+        }
+    }
+
+    /**
+     * Returns the real path of a directory, or null if it does not exist.
+     */
+    private Path realDirectory(Path dir) throws IOException {
+        Resolved resolved;
+        synchronized (directories) {
+            resolved = directories.get(dir);
+        }
+        if (resolved != null) {
+            Object fileKey = fileKey(dir);
+            if (fileKey != null && fileKey.equals(resolved.fileKey())) {
+                hits.increment();
+                return resolved.real();
+            }
+        }
+
+        misses.increment();
+        Path real;
+        try {
+            real = dir.toRealPath();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        store(dir, new Resolved(real, fileKey(real)));
+        return real;
+    }
+
+    private void store(Path dir, Resolved resolved) {
+        synchronized (directories) {
+            directories.put(dir, resolved);
+        }
+    }
+
+    private static Object fileKey(Path dir) {
+        try {
+            return Files.readAttributes(dir, BasicFileAttributes.class).fileKey();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves a path that may not exist: the real path of its nearest existing ancestor
+     * followed by the rest, with dangling symbolic links followed to where a write would land.
+     */
+    private static Path resolveFully(Path path, int hops) throws IOException {
+        if (hops > MAX_LINK_HOPS) {
+            throw new IOException("Too many levels of symbolic links: " + path);
+        }
+        try {
+            return path.toRealPath();
+        } catch (NoSuchFileException e) {
+            Path parent = path.getParent();
+            if (parent == null || path.getFileName() == null) {
+                return path.normalize();
+            }
+            if (Files.isSymbolicLink(path)) {
+                return resolveFully(parent.resolve(Files.readSymbolicLink(path)), hops + 1);
+            }
+            // The parent is real, so a trailing ".." can be applied lexically
+            return resolveFully(parent, hops).resolve(path.getFileName().toString()).normalize();
+        }
+    }
+
+    private static List<String> segments(Path real) {
+        List<String> segments = new ArrayList<>(real.getNameCount() + 1);
+        if (real.getRoot() != null) {
+            segments.add(real.getRoot().toString());
+        }
+        for (Path name : real) {
+            segments.add(name.toString());
+        }
+        return segments;
+    }
+}
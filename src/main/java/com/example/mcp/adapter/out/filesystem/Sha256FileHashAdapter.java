@@ -0,0 +1,527 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import com.example.mcp.application.port.out.CacheMetricsPort;
+import com.example.mcp.application.port.out.FileHashPort;
+import com.example.mcp.application.port.out.FileSystemPort;
+import com.example.mcp.domain.model.FileHash;
+import com.example.mcp.domain.model.FileHashReport;
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * SHA-256 file hash adapter.
+ * Hashes files in parallel, reading large ones through {@link FileSystemPort#readRegion}
+ * so they are memory-mapped rather than copied, and remembers each digest
+ * together with the file's size and modification time. Files whose size and
+ * modification time are unchanged are answered from that index without being read,
+ * so re-hashing a tree costs a metadata walk plus reading the files that changed.
+ * The index is kept in an append-only binary file so it survives restarts: each call appends
+ * the digests it learned under a lock on the file, and the file is rewritten only once
+ * superseded records outnumber the live ones. Digests of files modified in the last couple
+ * of seconds are not remembered, since a further write within the same timestamp tick would
+ * go unnoticed. Files only the port can reach, such as archive entries, are hashed through
+ * it and never remembered.
+ */
+public final class Sha256FileHashAdapter implements FileHashPort, CacheMetricsPort {
+    private static final int INDEX_MAGIC = 0x48534832; // "HSH2"
+    private static final int DIGEST_BYTES = 32;
+    private static final int MAX_INDEX_ENTRIES = 500_000;
+    /** Superseded records tolerated in the index file before it is rewritten. */
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+    private static final long MAP_WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final long MAPPED_HASH_THRESHOLD = 1024 * 1024;
+    private static final int PORT_READ_BYTES = 1024 * 1024;
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of(".git", ".hg", ".svn");
+    /** Files modified this recently may change again within the same timestamp tick. */
+    private static final long RACY_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final FileSystemPort files;
+    private final Path indexFile;
+    private final DirectBufferPool bufferPool = new DirectBufferPool(64 * 1024, 16);
+    private final ForkJoinPool hashPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final Object saveLock = new Object();
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_INDEX_ENTRIES;
+        }
+    };
+    private final List<Map.Entry<String, Entry>> unsaved = new ArrayList<>();
+    private boolean loaded;
+    private long persistedRecords;
+    private boolean damaged;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesHashed = new LongAdder();
+
+    private record Entry(long size, long modifiedNanos, byte[] digest) {}
+
+    /**
+     * A file to hash, with the attributes it had when it was found. Files only the port can
+     * reach have no local file, key or modification time.
+     */
+    private record Candidate(FilePath path, Path file, String key, long size, long modifiedNanos) {}
+
+    /**
+     * @param files Reads the regions of large files, and all of files the local file system cannot reach
+     * @param indexFile Where the digest index is persisted; created on first save
+     */
+    public Sha256FileHashAdapter(FileSystemPort files, Path indexFile) {
+        this.files = files;
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Returns the default index location under the user's cache directory.
+     */
+    public static Path defaultIndexFile() {
+        return Paths.get(System.getProperty("user.home"), ".cache", "mcp-demo-server", "file-hashes.idx");
+    }
+
+    @Override
+    public FileHashReport hashFiles(List<FilePath> files) throws FileHashException {
+        List<Candidate> candidates = new ArrayList<>(files.size());
+        for (FilePath path : files) {
+            try {
+                candidates.add(candidate(path));
+            } catch (IOException e) {
+                throw new FileHashException("Failed to read file attributes: " + path, e);
+            }
+        }
+        try {
+            return resolve(candidates, false, false);
+        } catch (UncheckedIOException e) {
+            throw new FileHashException("Failed to hash file: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public FileHashReport hashTree(FilePath root, String glob, Predicate<FilePath> pathFilter, int limit)
+            throws FileHashException {
+        Path rootPath = Paths.get(root.getValue());
+        if (!Files.isDirectory(rootPath) && this.files.isDirectory(root)) {
+            throw new FileHashException("Hashing a directory tree inside an archive is not supported: " + root
+                + "; list its entries and hash them by path instead");
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        boolean[] limitReached = new boolean[1];
+
+        try {
+            PathMatcher matcher = rootPath.getFileSystem().getPathMatcher("glob:" + glob);
+            boolean matchFileNameOnly = !glob.contains("/");
+
+            Files.walkFileTree(rootPath, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return !dir.equals(rootPath) && SKIPPED_DIRECTORIES.contains(dir.getFileName().toString())
+                        ? FileVisitResult.SKIP_SUBTREE
+                        : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (!attrs.isRegularFile()
+                            || !matcher.matches(matchFileNameOnly ? file.getFileName() : rootPath.relativize(file))) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    FilePath path = new FilePath(file.toString());
+                    if (!pathFilter.test(path)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    if (candidates.size() == limit) {
+                        limitReached[0] = true;
+                        return FileVisitResult.TERMINATE;
+                    }
+                    candidates.add(new Candidate(path, file, key(file), attrs.size(),
+                        attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS)));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    // Unreadable entries are skipped, like find(1) does
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            throw new FileHashException("Invalid glob: " + glob, e);
+        } catch (IOException e) {
+            throw new FileHashException("Failed to walk directory: " + root, e);
+        }
+
+        candidates.sort(Comparator.comparing(c -> c.path().getValue()));
+        try {
+            return resolve(candidates, true, limitReached[0]);
+        } catch (UncheckedIOException e) {
+            throw new FileHashException("Failed to hash files under: " + root, e.getCause());
+        }
+    }
+
+    @Override
+    public CacheStats cacheStats() {
+        synchronized (entries) {
+            return new CacheStats("file-hash", hits.sum(), misses.sum(), entries.size(),
+                (long) entries.size() * (DIGEST_BYTES + 16), bytesHashed.sum());
+        }
+    }
+
+    /**
+     * Answers unchanged files from the index and hashes the rest in parallel.
+     *
+     * @param skipFailures Whether files that fail to hash are left out instead of failing the call
+     */
+    private FileHashReport resolve(List<Candidate> candidates, boolean skipFailures, boolean limitReached) {
+        byte[][] digests = new byte[candidates.size()][];
+        boolean[] cacheable = new boolean[candidates.size()];
+        List<Integer> stale = new ArrayList<>();
+
+        synchronized (entries) {
+            load();
+            for (int i = 0; i < candidates.size(); i++) {
+                Candidate c = candidates.get(i);
+                Entry entry = c.key() == null ? null : entries.get(c.key());
+                if (entry != null && entry.size() == c.size() && entry.modifiedNanos() == c.modifiedNanos()) {
+                    digests[i] = entry.digest();
+                } else {
+                    stale.add(i);
+                }
+            }
+        }
+        hits.add(candidates.size() - stale.size());
+        misses.add(stale.size());
+
+        if (!stale.isEmpty()) {
+            try {
+                hashPool.submit(() -> stale.parallelStream().forEach(i -> {
+                    Candidate c = candidates.get(i);
+                    try {
+                        if (c.file() == null) {
+                            digests[i] = digest(c.path());
+                        } else {
+                            digests[i] = digest(c.file());
+                            cacheable[i] = isSettled(c);
+                        }
+                    } catch (IOException e) {
+                        if (!skipFailures) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                })).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new IOException("Interrupted while hashing", e));
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException unchecked) {
+                    throw unchecked;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+
+            synchronized (entries) {
+                for (int i : stale) {
+                    Candidate c = candidates.get(i);
+                    if (cacheable[i]) {
+                        Entry entry = new Entry(c.size(), c.modifiedNanos(), digests[i]);
+                        entries.put(c.key(), entry);
+                        unsaved.add(Map.entry(c.key(), entry));
+                    }
+                }
+            }
+            save();
+        }
+
+        HexFormat hex = HexFormat.of();
+        List<FileHash> hashes = new ArrayList<>(candidates.size());
+        long computed = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (digests[i] != null) {
+                Candidate c = candidates.get(i);
+                hashes.add(new FileHash(c.path(), c.size(), hex.formatHex(digests[i])));
+            }
+        }
+        for (int i : stale) {
+            if (digests[i] != null) {
+                computed++;
+            }
+        }
+        return new FileHashReport(hashes, computed, limitReached);
+    }
+
+    private byte[] digest(Path file) throws IOException {
+        MessageDigest sha256 = newDigest();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAPPED_HASH_THRESHOLD) {
+                FilePath path = new FilePath(file.toString());
+                long position = 0;
+                while (position < size) {
+                    ByteBuffer region = readRegion(path, position, (int) Math.min(MAP_WINDOW_BYTES, size - position));
+                    if (!region.hasRemaining()) {
+                        break;
+                    }
+                    position += region.remaining();
+                    sha256.update(region);
+                }
+                bytesHashed.add(position);
+            } else {
+                ByteBuffer buffer = bufferPool.acquire();
+                try {
+                    long position = 0;
+                    int read;
+                    while ((read = channel.read(buffer.clear(), position)) > 0) {
+                        sha256.update(buffer.flip());
+                        position += read;
+                    }
+                    bytesHashed.add(position);
+                } finally {
+                    bufferPool.release(buffer);
+                }
+            }
+        }
+        return sha256.digest();
+    }
+
+    /**
+     * Hashes a file through the port, for files the local file system cannot open.
+     */
+    private byte[] digest(FilePath path) throws IOException {
+        MessageDigest sha256 = newDigest();
+        long position = 0;
+        while (true) {
+            ByteBuffer region = readRegion(path, position, PORT_READ_BYTES);
+            if (!region.hasRemaining()) {
+                break;
+            }
+            position += region.remaining();
+            sha256.update(region);
+        }
+        bytesHashed.add(position);
+        return sha256.digest();
+    }
+
+    private ByteBuffer readRegion(FilePath path, long position, int length) throws IOException {
+        try {
+            return files.readRegion(path, position, length);
+        } catch (FileSystemPort.FileSystemException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether a just-hashed file still has the attributes it was found with and is old enough
+     * that a later change would show up as a different modification time.
+     */
+    private static boolean isSettled(Candidate c) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(c.file(), BasicFileAttributes.class);
+            long modified = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+            long now = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+            return attrs.size() == c.size() && modified == c.modifiedNanos() && now - modified > RACY_WINDOW_NANOS;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Candidate candidate(FilePath path) throws IOException {
+        Path file = Paths.get(path.getValue());
+        if (!Files.exists(file) && files.isRegularFile(path)) {
+            try {
+                return new Candidate(path, null, null, files.getFileSize(path), -1);
+            } catch (FileSystemPort.FileSystemException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        if (!attrs.isRegularFile()) {
+            throw new IOException("Not a regular file: " + path);
+        }
+        return new Candidate(path, file, key(file), attrs.size(), attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+    }
+
+    private static String key(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Reads the persisted index once; later records supersede earlier ones for the same file.
+     * A missing index starts out empty; a damaged one keeps the records before the damage
+     * and is rewritten on the next save.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC) {
+                damaged = true;
+                return;
+            }
+            while (true) {
+                // Only an end between records is clean; one inside a record is damage
+                in.mark(1);
+                if (in.read() < 0) {
+                    break;
+                }
+                in.reset();
+                String key = in.readUTF();
+                long size = in.readLong();
+                long modified = in.readLong();
+                byte[] digest = new byte[DIGEST_BYTES];
+                in.readFully(digest);
+                entries.put(key, new Entry(size, modified, digest));
+                persistedRecords++;
+            }
+        } catch (NoSuchFileException e) {
+            // First run
+        } catch (IOException e) {
+            // A record cut short by a crash; later appends would be unreadable behind it
+            damaged = true;
+        }
+    }
+
+    /**
+     * Appends the digests learned since the last save to the index file, under a lock so that
+     * servers sharing it never interleave their records. Once superseded records outnumber
+     * the live ones, or the file is damaged, it is rewritten instead.
+     */
+    private void save() {
+        synchronized (saveLock) {
+            List<Map.Entry<String, Entry>> appended;
+            boolean compact;
+            synchronized (entries) {
+                if (unsaved.isEmpty()) {
+                    return;
+                }
+                appended = new ArrayList<>(unsaved);
+                unsaved.clear();
+                compact = damaged || persistedRecords + appended.size()
+                    > 2L * entries.size() + MIN_COMPACTION_RECORDS;
+            }
+
+            try {
+                Files.createDirectories(indexFile.toAbsolutePath().getParent());
+                if (compact) {
+                    rewrite();
+                } else {
+                    append(appended);
+                }
+            } catch (IOException | OverlappingFileLockException e) {
+                // The in-memory index is still valid; persisting is retried after the next change
+                synchronized (entries) {
+                    unsaved.addAll(0, appended);
+                }
+            }
+        }
+    }
+
+    private void append(List<Map.Entry<String, Entry>> appended) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(appended.size() * 128 + Integer.BYTES);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (Map.Entry<String, Entry> e : appended) {
+                writeRecord(out, e.getKey(), e.getValue());
+            }
+        }
+        try (FileChannel appender = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+             FileLock lock = appender.lock()) {
+            ByteBuffer records = ByteBuffer.wrap(bytes.toByteArray());
+            if (appender.size() == 0) {
+                appender.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, INDEX_MAGIC));
+            }
+            while (records.hasRemaining()) {
+                appender.write(records);
+            }
+        }
+        synchronized (entries) {
+            persistedRecords += appended.size();
+        }
+    }
+
+    /**
+     * Writes the live entries to a unique temporary sibling and renames it into place.
+     */
+    private void rewrite() throws IOException {
+        List<Map.Entry<String, Entry>> snapshot;
+        synchronized (entries) {
+            snapshot = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                snapshot.add(Map.entry(e.getKey(), e.getValue()));
+            }
+        }
+
+        Path temp = Files.createTempFile(indexFile.toAbsolutePath().getParent(), indexFile.getFileName().toString(),
+            ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(INDEX_MAGIC);
+                for (Map.Entry<String, Entry> e : snapshot) {
+                    writeRecord(out, e.getKey(), e.getValue());
+                }
+            }
+            try {
+                Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        synchronized (entries) {
+            persistedRecords = snapshot.size();
+            damaged = false;
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, String key, Entry entry) throws IOException {
+        out.writeUTF(key);
+        out.writeLong(entry.size());
+        out.writeLong(entry.modifiedNanos());
+        out.write(entry.digest());
+    }
+}
@@ -0,0 +1,549 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram posting-list index over the text files of one directory tree.
+ * Consists of an immutable segment on disk, whose posting lists are delta and varint
+ * encoded and read through a memory mapping, plus an in-memory overlay holding the
+ * trigrams of files added or changed since the segment was written. Replaced and removed
+ * files are masked out until {@link #save()} folds the overlay into a new segment.
+ * Not thread-safe; the owner serializes access.
+ */
+final class TrigramIndex {
+    private static final int MAGIC = 0x54524931; // "TRI1"
+    private static final int MIN_COMPACTION_CHANGES = 1000;
+    /** Trigrams are 24-bit values, so a set of them fits in a fixed bitmap. */
+    private static final int TRIGRAM_SPACE = 1 << 24;
+    private static final ThreadLocal<long[]> SEEN = ThreadLocal.withInitial(() -> new long[TRIGRAM_SPACE / 64]);
+
+    /**
+     * How a file takes part in searches.
+     */
+    enum Kind {
+        /** Trigrams are indexed; the file is a candidate only if it has all query trigrams. */
+        TEXT,
+        /** Too large to index; always a candidate. */
+        UNINDEXED,
+        /** Binary content; never a candidate. */
+        BINARY
+    }
+
+    record Doc(String path, long size, long modified, Kind kind) {}
+
+    private final String root;
+    private final Path file;
+
+    private MappedByteBuffer postings;
+    private int[] segmentTrigrams = new int[0];
+    private int[] segmentOffsets = new int[0];
+    private int[] segmentCounts = new int[0];
+    private int segmentDocs;
+
+    private final List<Doc> docs = new ArrayList<>();
+    /** Sorted trigrams of each doc added since the segment, indexed by id minus {@code segmentDocs}. */
+    private final List<int[]> overlay = new ArrayList<>();
+    private final BitSet removed = new BitSet();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private int changes;
+
+    private TrigramIndex(String root, Path file) {
+        this.root = root;
+        this.file = file;
+    }
+
+    /**
+     * Opens the index persisted in {@code file}, or an empty one if it is missing,
+     * damaged or was built for a different root.
+     */
+    static TrigramIndex open(Path root, Path file) {
+        TrigramIndex index = new TrigramIndex(root.toString(), file);
+        try {
+            index.load();
+        } catch (NoSuchFileException e) {
+            // Not built yet
+        } catch (IOException | RuntimeException e) {
+            index = new TrigramIndex(root.toString(), file);
+        }
+        return index;
+    }
+
+    Doc doc(String path) {
+        Integer id = ids.get(path);
+        return id != null ? docs.get(id) : null;
+    }
+
+    Doc docAt(int id) {
+        return docs.get(id);
+    }
+
+    /**
+     * Paths of all files currently in the index, relative to the root.
+     */
+    List<String> paths() {
+        return new ArrayList<>(ids.keySet());
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    /**
+     * Adds a file, replacing any previous version of it.
+     *
+     * @param trigrams The file's sorted, distinct trigrams; ignored unless the kind is {@link Kind#TEXT}
+     */
+    void put(Doc doc, int[] trigrams) {
+        remove(doc.path());
+        ids.put(doc.path(), docs.size());
+        docs.add(doc);
+        overlay.add(doc.kind() == Kind.TEXT ? trigrams : null);
+        changes++;
+    }
+
+    void remove(String path) {
+        Integer id = ids.remove(path);
+        if (id != null) {
+            removed.set(id);
+            if (id >= segmentDocs) {
+                overlay.set(id - segmentDocs, null);
+            }
+            changes++;
+        }
+    }
+
+    /**
+     * Returns the ids of files that may contain every given trigram, in ascending order.
+     * With no trigrams every searchable file is a candidate.
+     */
+    int[] candidates(int[] trigrams) {
+        IntList result = new IntList();
+        if (trigrams.length > 0 && segmentDocs > 0) {
+            List<int[]> lists = new ArrayList<>(trigrams.length);
+            for (int trigram : trigrams) {
+                lists.add(segmentList(trigram));
+            }
+            // Intersect the shortest lists first so the working set shrinks quickly
+            lists.sort((a, b) -> Integer.compare(a.length, b.length));
+            int[] current = lists.get(0);
+            for (int i = 1; i < lists.size() && current.length > 0; i++) {
+                current = intersect(current, lists.get(i));
+            }
+            for (int id : current) {
+                if (!removed.get(id)) {
+                    result.add(id);
+                }
+            }
+        }
+
+        // Unindexed files always qualify; overlay files are checked against their own trigrams
+        for (int id = 0; id < docs.size(); id++) {
+            if (removed.get(id)) {
+                continue;
+            }
+            Kind kind = docs.get(id).kind();
+            if (kind == Kind.UNINDEXED
+                    || (kind == Kind.TEXT && trigrams.length == 0)
+                    || (kind == Kind.TEXT && id >= segmentDocs && containsAll(overlay.get(id - segmentDocs), trigrams))) {
+                result.add(id);
+            }
+        }
+        int[] merged = result.toArray();
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /**
+     * Whether any file changed since the segment was written.
+     */
+    boolean hasChanges() {
+        return changes > 0;
+    }
+
+    /**
+     * Whether enough files changed since the segment was written that it should be rewritten.
+     */
+    boolean needsCompaction() {
+        return changes > Math.max(MIN_COMPACTION_CHANGES, ids.size() / 4);
+    }
+
+    /**
+     * Folds the overlay into a new segment, written to a temporary file and renamed over the old one.
+     */
+    void save() throws IOException {
+        int[] remap = new int[docs.size()];
+        List<Doc> live = new ArrayList<>(ids.size());
+        for (int id = 0; id < docs.size(); id++) {
+            if (removed.get(id)) {
+                remap[id] = -1;
+            } else {
+                remap[id] = live.size();
+                live.add(docs.get(id));
+            }
+        }
+
+        // Invert the overlay into per-trigram runs of new ids, ascending within each run
+        long[] present = new long[TRIGRAM_SPACE / 64];
+        for (int trigram : segmentTrigrams) {
+            present[trigram >>> 6] |= 1L << trigram;
+        }
+        for (int[] docTrigrams : overlay) {
+            if (docTrigrams != null) {
+                for (int trigram : docTrigrams) {
+                    present[trigram >>> 6] |= 1L << trigram;
+                }
+            }
+        }
+        int[] rank = new int[present.length];
+        int distinct = 0;
+        for (int w = 0; w < present.length; w++) {
+            rank[w] = distinct;
+            distinct += Long.bitCount(present[w]);
+        }
+        int[] trigrams = new int[distinct];
+        for (int w = 0, n = 0; w < present.length; w++) {
+            for (long bits = present[w]; bits != 0; bits &= bits - 1) {
+                trigrams[n++] = (w << 6) | Long.numberOfTrailingZeros(bits);
+            }
+        }
+        int[] runStart = new int[distinct + 1];
+        for (int[] docTrigrams : overlay) {
+            if (docTrigrams != null) {
+                for (int trigram : docTrigrams) {
+                    runStart[slot(present, rank, trigram) + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < distinct; i++) {
+            runStart[i + 1] += runStart[i];
+        }
+        int[] runIds = new int[runStart[distinct]];
+        int[] fill = Arrays.copyOf(runStart, distinct);
+        for (int k = 0; k < overlay.size(); k++) {
+            int[] docTrigrams = overlay.get(k);
+            if (docTrigrams != null) {
+                int newId = remap[segmentDocs + k];
+                for (int trigram : docTrigrams) {
+                    runIds[fill[slot(present, rank, trigram)]++] = newId;
+                }
+            }
+        }
+
+        int[] offsets = new int[distinct];
+        int[] counts = new int[distinct];
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        // A unique name, so that servers sharing the cache directory never write the same file
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        long postingsStart;
+        try {
+            try (CountingOutputStream counter = new CountingOutputStream(
+                     new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16));
+                 DataOutputStream out = new DataOutputStream(counter)) {
+                out.writeInt(MAGIC);
+                out.writeUTF(root);
+                out.writeInt(live.size());
+                for (Doc doc : live) {
+                    out.writeUTF(doc.path());
+                    out.writeLong(doc.size());
+                    out.writeLong(doc.modified());
+                    out.writeByte(doc.kind().ordinal());
+                }
+                out.writeInt(distinct);
+                out.flush();
+                // The directory goes between the doc table and the postings; it is filled in afterwards
+                postingsStart = counter.count + (long) distinct * 12;
+                out.write(new byte[distinct * 12]);
+
+                IntList merged = new IntList();
+                byte[] encoded = new byte[64];
+                int segmentSlot = 0;
+                for (int i = 0; i < distinct; i++) {
+                    merged.size = 0;
+                    while (segmentSlot < segmentTrigrams.length && segmentTrigrams[segmentSlot] < trigrams[i]) {
+                        segmentSlot++;
+                    }
+                    if (segmentSlot < segmentTrigrams.length && segmentTrigrams[segmentSlot] == trigrams[i]) {
+                        for (int id : segmentListAt(segmentSlot)) {
+                            if (remap[id] >= 0) {
+                                merged.add(remap[id]);
+                            }
+                        }
+                    }
+                    for (int k = runStart[i]; k < runStart[i + 1]; k++) {
+                        merged.add(runIds[k]);
+                    }
+
+                    long offset = counter.count - postingsStart;
+                    if (offset > Integer.MAX_VALUE) {
+                        throw new IOException("Index too large");
+                    }
+                    offsets[i] = (int) offset;
+                    counts[i] = merged.size;
+                    if (encoded.length < merged.size * 5) {
+                        encoded = new byte[merged.size * 5];
+                    }
+                    int length = 0;
+                    int previous = 0;
+                    for (int k = 0; k < merged.size; k++) {
+                        int delta = merged.values[k] - previous;
+                        previous = merged.values[k];
+                        while ((delta & ~0x7f) != 0) {
+                            encoded[length++] = (byte) ((delta & 0x7f) | 0x80);
+                            delta >>>= 7;
+                        }
+                        encoded[length++] = (byte) delta;
+                    }
+                    out.write(encoded, 0, length);
+                }
+            }
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer directory = ByteBuffer.allocate(distinct * 12);
+                for (int i = 0; i < distinct; i++) {
+                    directory.putInt(trigrams[i]).putInt(offsets[i]).putInt(counts[i]);
+                }
+                directory.flip();
+                long position = postingsStart - directory.remaining();
+                while (directory.hasRemaining()) {
+                    position += channel.write(directory, position);
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        docs.clear();
+        docs.addAll(live);
+        ids.clear();
+        for (int id = 0; id < live.size(); id++) {
+            ids.put(live.get(id).path(), id);
+        }
+        segmentDocs = live.size();
+        overlay.clear();
+        removed.clear();
+        changes = 0;
+        segmentTrigrams = trigrams;
+        segmentOffsets = offsets;
+        segmentCounts = counts;
+        postings = mapPostings(postingsStart);
+    }
+
+    private void load() throws IOException {
+        long postingsStart;
+        try (CountingInputStream counter = new CountingInputStream(
+                 new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+             DataInputStream in = new DataInputStream(counter)) {
+            if (in.readInt() != MAGIC || !in.readUTF().equals(root)) {
+                throw new IOException("Index belongs to a different root or format");
+            }
+            int docCount = in.readInt();
+            for (int id = 0; id < docCount; id++) {
+                Doc doc = new Doc(in.readUTF(), in.readLong(), in.readLong(), Kind.values()[in.readByte()]);
+                docs.add(doc);
+                ids.put(doc.path(), id);
+            }
+            segmentDocs = docCount;
+            int trigramCount = in.readInt();
+            byte[] directory = in.readNBytes(trigramCount * 12);
+            ByteBuffer entries = ByteBuffer.wrap(directory);
+            segmentTrigrams = new int[trigramCount];
+            segmentOffsets = new int[trigramCount];
+            segmentCounts = new int[trigramCount];
+            for (int i = 0; i < trigramCount; i++) {
+                segmentTrigrams[i] = entries.getInt();
+                segmentOffsets[i] = entries.getInt();
+                segmentCounts[i] = entries.getInt();
+            }
+            postingsStart = counter.count;
+        }
+        postings = mapPostings(postingsStart);
+    }
+
+    private MappedByteBuffer mapPostings(long start) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, channel.size() - start);
+        }
+    }
+
+    private int[] segmentList(int trigram) {
+        int slot = Arrays.binarySearch(segmentTrigrams, trigram);
+        return slot < 0 ? new int[0] : segmentListAt(slot);
+    }
+
+    private int[] segmentListAt(int slot) {
+        int[] list = new int[segmentCounts[slot]];
+        int position = segmentOffsets[slot];
+        int previous = 0;
+        for (int k = 0; k < list.length; k++) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = postings.get(position++);
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += value;
+            list[k] = previous;
+        }
+        return list;
+    }
+
+    private static int slot(long[] present, int[] rank, int trigram) {
+        int word = trigram >>> 6;
+        return rank[word] + Long.bitCount(present[word] & ((1L << trigram) - 1));
+    }
+
+    private static boolean containsAll(int[] docTrigrams, int[] required) {
+        if (docTrigrams == null) {
+            return false;
+        }
+        for (int trigram : required) {
+            if (Arrays.binarySearch(docTrigrams, trigram) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Extracts the sorted, distinct trigrams of a text, skipping those that span a line break.
+     */
+    static int[] trigramsOf(byte[] content) {
+        if (content.length < 3) {
+            return new int[0];
+        }
+        // Deduplicate through a bitmap, then sort only the distinct values
+        long[] seen = SEEN.get();
+        int[] distinct = new int[Math.min(content.length - 2, 4096)];
+        int n = 0;
+        for (int i = 0; i + 2 < content.length; i++) {
+            if (content[i] != '\n' && content[i + 1] != '\n' && content[i + 2] != '\n') {
+                int trigram = TrigramQuery.trigram(content[i], content[i + 1], content[i + 2]);
+                long bit = 1L << trigram;
+                if ((seen[trigram >>> 6] & bit) == 0) {
+                    seen[trigram >>> 6] |= bit;
+                    if (n == distinct.length) {
+                        distinct = Arrays.copyOf(distinct, n * 2);
+                    }
+                    distinct[n++] = trigram;
+                }
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            seen[distinct[k] >>> 6] = 0;
+        }
+        int[] result = Arrays.copyOf(distinct, n);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
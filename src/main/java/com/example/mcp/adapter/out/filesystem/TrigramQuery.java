@@ -0,0 +1,261 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.util.Arrays;
+
+/**
+ * Derives the trigrams every match of a regular expression must contain.
+ * Only literal runs outside groups, classes and optional elements are used, so the
+ * result is a safe over-approximation: a file lacking any of the trigrams cannot match,
+ * while a file containing all of them still has to be verified with the real pattern.
+ * Trigrams are taken over ASCII-lowercased bytes to match how {@link TrigramIndex} stores them.
+ */
+final class TrigramQuery {
+
+    private TrigramQuery() {
+        // Utility class
+    }
+
+    /**
+     * Returns the sorted, distinct trigrams required by a pattern, or an empty array if the
+     * pattern gives no usable constraint (for example a top-level alternation).
+     */
+    static int[] requiredTrigrams(String regex) {
+        if (hasAlternation(regex) || hasUnsafeFlags(regex)) {
+            return new int[0];
+        }
+
+        int[] trigrams = new int[16];
+        int count = 0;
+        StringBuilder run = new StringBuilder();
+        int depth = 0;
+        int i = 0;
+        int n = regex.length();
+
+        while (i < n) {
+            char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < n) {
+                char next = regex.charAt(i + 1);
+                if (next == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    String quoted = regex.substring(i + 2, end < 0 ? n : end);
+                    for (int k = 0; k < quoted.length(); k++) {
+                        appendLiteral(run, quoted.charAt(k), depth);
+                    }
+                    i = end < 0 ? n : end + 2;
+                    continue;
+                }
+                if (Character.isLetterOrDigit(next)) {
+                    // Character classes, anchors, back-references and control escapes
+                    count = flush(run, trigrams, count);
+                    trigrams = grow(trigrams, count);
+                    i = skipEscape(regex, i + 1);
+                } else {
+                    appendLiteral(run, next, depth);
+                    i += 2;
+                }
+            } else if (c == '[') {
+                count = flush(run, trigrams, count);
+                trigrams = grow(trigrams, count);
+                i = skipClass(regex, i);
+            } else if (c == '(') {
+                count = flush(run, trigrams, count);
+                trigrams = grow(trigrams, count);
+                depth++;
+                i++;
+            } else if (c == ')') {
+                count = flush(run, trigrams, count);
+                trigrams = grow(trigrams, count);
+                depth = Math.max(0, depth - 1);
+                i = skipQuantifier(regex, i + 1);
+            } else if (c == '*' || c == '?' || c == '{') {
+                // The preceding character is optional
+                if (run.length() > 0) {
+                    run.setLength(run.length() - 1);
+                }
+                count = flush(run, trigrams, count);
+                trigrams = grow(trigrams, count);
+                i = skipQuantifier(regex, i);
+            } else if (c == '+') {
+                count = flush(run, trigrams, count);
+                trigrams = grow(trigrams, count);
+                i = skipQuantifier(regex, i);
+            } else if (c == '.' || c == '^' || c == '$') {
+                count = flush(run, trigrams, count);
+                trigrams = grow(trigrams, count);
+                i++;
+            } else {
+                appendLiteral(run, c, depth);
+                i++;
+            }
+        }
+        count = flush(run, trigrams, count);
+
+        int[] result = Arrays.copyOf(trigrams, count);
+        Arrays.sort(result);
+        int distinct = 0;
+        for (int k = 0; k < result.length; k++) {
+            if (k == 0 || result[k] != result[k - 1]) {
+                result[distinct++] = result[k];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    /**
+     * Packs three bytes into a trigram, folding ASCII letters to lower case.
+     */
+    static int trigram(int b0, int b1, int b2) {
+        return (fold(b0) << 16) | (fold(b1) << 8) | fold(b2);
+    }
+
+    private static int fold(int b) {
+        b &= 0xff;
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+
+    private static void appendLiteral(StringBuilder run, char c, int depth) {
+        // Group contents may be optional or repeated zero times, and non-ASCII case folding
+        // does not map byte-for-byte, so neither contributes required trigrams
+        if (depth > 0 || c > 0x7f || c == '\n' || c == '\r') {
+            run.append('\0');
+        } else {
+            run.append(c);
+        }
+    }
+
+    private static int flush(StringBuilder run, int[] trigrams, int count) {
+        int start = 0;
+        for (int k = 0; k <= run.length(); k++) {
+            if (k == run.length() || run.charAt(k) == '\0') {
+                for (int j = start; j + 3 <= k; j++) {
+                    if (count == trigrams.length) {
+                        return count;
+                    }
+                    trigrams[count++] = trigram(run.charAt(j), run.charAt(j + 1), run.charAt(j + 2));
+                }
+                start = k + 1;
+            }
+        }
+        run.setLength(0);
+        return count;
+    }
+
+    private static int[] grow(int[] trigrams, int count) {
+        return count + 64 > trigrams.length ? Arrays.copyOf(trigrams, trigrams.length * 2 + 64) : trigrams;
+    }
+
+    /**
+     * Whether an inline flag group such as {@code (?x)}, {@code (?ix:...)} or {@code (?-i)}
+     * turns on comments mode, where whitespace and {@code #} stop being literal, or turns a
+     * flag off, which the literal scan does not track.
+     */
+    private static boolean hasUnsafeFlags(String regex) {
+        int from = 0;
+        int at;
+        while ((at = regex.indexOf("(?", from)) >= 0) {
+            int i = at + 2;
+            boolean unsafe = false;
+            while (i < regex.length() && (Character.isLetter(regex.charAt(i)) || regex.charAt(i) == '-')) {
+                char flag = regex.charAt(i);
+                unsafe |= flag == 'x' || flag == '-';
+                i++;
+            }
+            if (unsafe && i < regex.length() && (regex.charAt(i) == ')' || regex.charAt(i) == ':')) {
+                return true;
+            }
+            from = at + 2;
+        }
+        return false;
+    }
+
+    private static boolean hasAlternation(String regex) {
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i) - 1;
+            } else if (c == '|') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index just past an escape whose letter is at {@code i}, including its arguments.
+     */
+    private static int skipEscape(String regex, int i) {
+        int n = regex.length();
+        char kind = regex.charAt(i++);
+        int fixed = switch (kind) {
+            case 'x' -> 2;
+            case 'u' -> 4;
+            case 'c' -> 1;
+            default -> 0;
+        };
+        if (i < n && regex.charAt(i) == '{' && (kind == 'x' || kind == 'p' || kind == 'P' || kind == 'N')) {
+            int end = regex.indexOf('}', i);
+            return end < 0 ? n : end + 1;
+        }
+        if (i < n && regex.charAt(i) == '<' && kind == 'k') {
+            int end = regex.indexOf('>', i);
+            return end < 0 ? n : end + 1;
+        }
+        if (kind == 'p' || kind == 'P') {
+            fixed = 1;
+        }
+        if (Character.isDigit(kind)) {
+            // Octal escapes and multi-digit back-references
+            while (i < n && Character.isDigit(regex.charAt(i))) {
+                i++;
+            }
+        }
+        return Math.min(n, i + fixed);
+    }
+
+    /**
+     * Returns the index just past a character class starting at {@code start}.
+     */
+    private static int skipClass(String regex, int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        int depth = 1;
+        while (i < regex.length() && depth > 0) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Skips a quantifier and any lazy or possessive suffix starting at {@code i}.
+     */
+    private static int skipQuantifier(String regex, int i) {
+        int n = regex.length();
+        if (i < n && regex.charAt(i) == '{') {
+            int end = regex.indexOf('}', i);
+            i = end < 0 ? n : end + 1;
+        } else if (i < n && (regex.charAt(i) == '*' || regex.charAt(i) == '+' || regex.charAt(i) == '?')) {
+            i++;
+        } else {
+            return i;
+        }
+        if (i < n && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,562 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.mcp.application.port.out.DirectoryWatchPort;
+import com.example.mcp.domain.model.DirectoryChange;
+import com.example.mcp.domain.model.DirectoryChanges;
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.WatchCursor;
+
+/**
+ * Directory watch adapter based on {@link WatchService}.
+ * A single watcher thread serves every watched directory. Raw events only mark paths
+ * as dirty; once a directory has been quiet for the debounce window (or a burst has
+ * lasted too long) the dirty paths are compared against a snapshot of the tree and the
+ * differences are appended to the directory's change feed. A create followed by a
+ * delete therefore cancels out, and many writes to one file become one change.
+ * When the kernel drops events, the whole tree is rescanned once against the snapshot.
+ */
+public final class WatchServiceDirectoryWatchAdapter implements DirectoryWatchPort, AutoCloseable {
+    private static final long DEFAULT_DEBOUNCE_MILLIS = 250;
+    /** A burst that never goes quiet is still published this often. */
+    private static final long MAX_DEBOUNCE_DELAY_MILLIS = 2000;
+    private static final int MAX_WATCHES = 16;
+    private static final int MAX_WATCHED_DIRECTORIES = 4096;
+    private static final int MAX_TRACKED_ENTRIES = 200_000;
+    /** Beyond this many dirty paths a single rescan is cheaper than checking each one. */
+    private static final int MAX_DIRTY_PATHS = 10_000;
+    private static final int MAX_RETAINED_CHANGES = 10_000;
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of(".git", ".hg", ".svn");
+
+    private final long debounceNanos;
+    /** Distinguishes cursors of this process from those handed out before a restart. */
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong watchCounter = new AtomicLong();
+
+    private final LinkedHashMap<String, Watch> watches = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Watch> eldest) {
+            if (size() > MAX_WATCHES) {
+                cancel(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final Map<WatchKey, Watch> keys = new ConcurrentHashMap<>();
+    /** Watches with unpublished events; only touched by the watcher thread. */
+    private final Set<Watch> pending = new LinkedHashSet<>();
+    private WatchService watchService;
+    private volatile boolean closed;
+
+    private record Stamp(long size, long modified, boolean directory) {
+        static Stamp of(BasicFileAttributes attrs) {
+            return new Stamp(attrs.size(), attrs.lastModifiedTime().toMillis(), attrs.isDirectory());
+        }
+    }
+
+    private record Change(Path relative, DirectoryChange.Kind kind, boolean directory) {}
+
+    /**
+     * One watched directory and its change feed. All state is guarded by the watch's monitor.
+     */
+    private static final class Watch {
+        private final String id;
+        private final Path root;
+        private final boolean recursive;
+        private final Map<Path, Stamp> entries = new HashMap<>();
+        private final Set<WatchKey> watchKeys = new HashSet<>();
+        private final Set<Path> dirty = new LinkedHashSet<>();
+        private boolean overflowed;
+        private long firstEventNanos;
+        private long lastEventNanos;
+        private final List<Change> feed = new ArrayList<>();
+        private long firstSequence;
+        private boolean cancelled;
+
+        Watch(String id, Path root, boolean recursive) {
+            this.id = id;
+            this.root = root;
+            this.recursive = recursive;
+        }
+
+        long nextSequence() {
+            return firstSequence + feed.size();
+        }
+    }
+
+    public WatchServiceDirectoryWatchAdapter() {
+        this(DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * @param debounceMillis How long a directory must be quiet before its changes are published
+     */
+    public WatchServiceDirectoryWatchAdapter(long debounceMillis) {
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("Debounce window cannot be negative: " + debounceMillis);
+        }
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+    }
+
+    @Override
+    public DirectoryChanges changes(FilePath directory, boolean recursive, WatchCursor since,
+                                    int maxChanges, long waitMillis) throws DirectoryWatchException {
+        Path given;
+        Path real;
+        try {
+            given = Paths.get(directory.getValue());
+            real = given.toRealPath();
+        } catch (IOException | InvalidPathException e) {
+            throw new DirectoryWatchException("Directory not found: " + directory, e);
+        }
+        if (!Files.isDirectory(real)) {
+            throw new DirectoryWatchException("Not a directory: " + directory);
+        }
+
+        Watch watch = watch(real, recursive);
+        synchronized (watch) {
+            long from = watch.nextSequence();
+            boolean resync = false;
+            if (since != null) {
+                if (since.getWatchId().equals(watch.id)
+                        && since.getSequence() >= watch.firstSequence
+                        && since.getSequence() <= watch.nextSequence()) {
+                    from = since.getSequence();
+                } else {
+                    resync = true;
+                }
+            }
+
+            // A caller that must resync gets its answer right away
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+            while (!resync && !watch.cancelled && from == watch.nextSequence()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(watch, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            if (from < watch.firstSequence) {
+                // The feed was trimmed past the cursor while waiting
+                resync = true;
+            }
+            if (resync) {
+                from = watch.nextSequence();
+            }
+
+            long end = Math.min(watch.nextSequence(), from + Math.max(1, maxChanges));
+            List<DirectoryChange> changes = new ArrayList<>((int) (end - from));
+            for (long sequence = from; sequence < end; sequence++) {
+                Change change = watch.feed.get((int) (sequence - watch.firstSequence));
+                changes.add(new DirectoryChange(new FilePath(given.resolve(change.relative()).toString()),
+                    change.kind(), change.directory()));
+            }
+            return new DirectoryChanges(directory, changes, new WatchCursor(end, watch.id),
+                resync, end < watch.nextSequence());
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (watches) {
+            for (Watch watch : watches.values()) {
+                cancel(watch);
+            }
+            watches.clear();
+        }
+        synchronized (this) {
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the watch of a directory, starting one with a fresh snapshot if there is none.
+     */
+    private Watch watch(Path real, boolean recursive) throws DirectoryWatchException {
+        String key = (recursive ? "tree:" : "dir:") + real;
+        synchronized (watches) {
+            Watch existing = watches.get(key);
+            if (existing != null) {
+                return existing;
+            }
+
+            Watch watch = new Watch(instanceId + "-" + watchCounter.incrementAndGet(), real, recursive);
+            synchronized (watch) {
+                try {
+                    snapshot(watch, real, watch.entries, null);
+                } catch (IOException | RuntimeException e) {
+                    cancel(watch);
+                    throw new DirectoryWatchException("Failed to watch directory: " + e.getMessage(), e);
+                }
+                if (watch.entries.size() > MAX_TRACKED_ENTRIES || watch.watchKeys.size() > MAX_WATCHED_DIRECTORIES) {
+                    cancel(watch);
+                    throw new DirectoryWatchException("Too many entries to watch below " + real
+                        + (recursive ? "; watch a subdirectory or non-recursively" : ""));
+                }
+            }
+            watches.put(key, watch);
+            return watch;
+        }
+    }
+
+    /**
+     * Records the entries below {@code start} in {@code into}, registering each directory
+     * visited, and reports those not present in the watch's current snapshot as created.
+     *
+     * @param created Receives created entries, or null not to report them
+     */
+    private void snapshot(Watch watch, Path start, Map<Path, Stamp> into, List<Change> created) throws IOException {
+        if (!watch.recursive) {
+            register(watch, watch.root);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(watch.root)) {
+                for (Path entry : stream) {
+                    BasicFileAttributes attrs = attributes(entry);
+                    if (attrs != null) {
+                        record(watch, entry, Stamp.of(attrs), into, created);
+                    }
+                }
+            } catch (DirectoryIteratorException e) {
+                throw e.getCause();
+            }
+            return;
+        }
+
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(watch.root)) {
+                    if (SKIPPED_DIRECTORIES.contains(dir.getFileName().toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    record(watch, dir, Stamp.of(attrs), into, created);
+                }
+                register(watch, dir);
+                return into.size() > MAX_TRACKED_ENTRIES ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                record(watch, file, Stamp.of(attrs), into, created);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void record(Watch watch, Path path, Stamp stamp, Map<Path, Stamp> into, List<Change> created) {
+        Path relative = watch.root.relativize(path);
+        boolean known = watch.entries.containsKey(relative);
+        into.put(relative, stamp);
+        if (created != null && !known) {
+            created.add(new Change(relative, DirectoryChange.Kind.CREATED, stamp.directory()));
+        }
+    }
+
+    private void register(Watch watch, Path dir) {
+        if (closed || watch.watchKeys.size() > MAX_WATCHED_DIRECTORIES) {
+            return;
+        }
+        try {
+            WatchKey key = dir.register(watchService(),
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+            watch.watchKeys.add(key);
+            keys.put(key, watch);
+        } catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+            // The directory vanished or cannot be watched; its parent's events still cover it
+        }
+    }
+
+    private void cancel(Watch watch) {
+        synchronized (watch) {
+            watch.cancelled = true;
+            for (WatchKey key : watch.watchKeys) {
+                key.cancel();
+                keys.remove(key);
+            }
+            watch.watchKeys.clear();
+            watch.notifyAll();
+        }
+    }
+
+    private synchronized WatchService watchService() throws IOException {
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+            Thread watcher = new Thread(this::processEvents, "directory-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        return watchService;
+    }
+
+    private void processEvents() {
+        while (!closed) {
+            WatchKey key;
+            try {
+                long delay = nextPublishDelay();
+                key = delay == Long.MAX_VALUE
+                    ? watchService.take()
+                    : watchService.poll(delay, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            if (key != null) {
+                collect(key);
+            }
+            publishDue();
+        }
+    }
+
+    /**
+     * Marks the paths named by a key's events as dirty without looking at them yet.
+     */
+    private void collect(WatchKey key) {
+        Watch watch = keys.get(key);
+        Path dir = (Path) key.watchable();
+        List<WatchEvent<?>> events = key.pollEvents();
+        boolean valid = key.reset();
+        if (watch == null) {
+            return;
+        }
+
+        synchronized (watch) {
+            if (watch.cancelled) {
+                return;
+            }
+            for (WatchEvent<?> event : events) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    watch.overflowed = true;
+                } else {
+                    watch.dirty.add(dir.resolve((Path) event.context()));
+                }
+            }
+            if (!valid) {
+                keys.remove(key);
+                watch.watchKeys.remove(key);
+                watch.dirty.add(dir);
+            }
+            if (watch.dirty.size() > MAX_DIRTY_PATHS) {
+                watch.overflowed = true;
+                watch.dirty.clear();
+            }
+            long now = System.nanoTime();
+            if (pending.add(watch)) {
+                watch.firstEventNanos = now;
+            }
+            watch.lastEventNanos = now;
+        }
+    }
+
+    private long nextPublishDelay() {
+        long delay = Long.MAX_VALUE;
+        long now = System.nanoTime();
+        for (Watch watch : pending) {
+            synchronized (watch) {
+                delay = Math.min(delay, Math.max(0, publishTime(watch) - now));
+            }
+        }
+        return delay;
+    }
+
+    private long publishTime(Watch watch) {
+        return Math.min(watch.lastEventNanos + debounceNanos,
+            watch.firstEventNanos + TimeUnit.MILLISECONDS.toNanos(MAX_DEBOUNCE_DELAY_MILLIS));
+    }
+
+    private void publishDue() {
+        long now = System.nanoTime();
+        for (Iterator<Watch> it = pending.iterator(); it.hasNext(); ) {
+            Watch watch = it.next();
+            synchronized (watch) {
+                if (watch.cancelled) {
+                    it.remove();
+                } else if (publishTime(watch) - now <= 0) {
+                    it.remove();
+                    publish(watch);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the dirty paths, or after an overflow the whole tree, against the snapshot
+     * and appends the differences to the feed. Called with the watch locked.
+     */
+    private void publish(Watch watch) {
+        List<Change> changes = new ArrayList<>();
+        if (watch.overflowed) {
+            rescan(watch, changes);
+        } else {
+            for (Path path : watch.dirty) {
+                reconcile(watch, path, changes);
+            }
+        }
+        watch.dirty.clear();
+        watch.overflowed = false;
+
+        if (!changes.isEmpty()) {
+            watch.feed.addAll(changes);
+            if (watch.feed.size() > 2 * MAX_RETAINED_CHANGES) {
+                int dropped = watch.feed.size() - MAX_RETAINED_CHANGES;
+                watch.feed.subList(0, dropped).clear();
+                watch.firstSequence += dropped;
+            }
+            watch.notifyAll();
+        }
+    }
+
+    private void rescan(Watch watch, List<Change> changes) {
+        Map<Path, Stamp> current = new HashMap<>();
+        try {
+            snapshot(watch, watch.root, current, changes);
+        } catch (IOException e) {
+            // The root itself is gone: everything below it was deleted
+        }
+        for (Map.Entry<Path, Stamp> entry : watch.entries.entrySet()) {
+            Stamp now = current.get(entry.getKey());
+            if (now == null) {
+                changes.add(new Change(entry.getKey(), DirectoryChange.Kind.DELETED, entry.getValue().directory()));
+            } else if (!now.directory() && !now.equals(entry.getValue())) {
+                changes.add(new Change(entry.getKey(), DirectoryChange.Kind.MODIFIED, false));
+            }
+        }
+        watch.entries.clear();
+        watch.entries.putAll(current);
+    }
+
+    /**
+     * Works out what happened to one dirty path by comparing it with the snapshot.
+     */
+    private void reconcile(Watch watch, Path path, List<Change> changes) {
+        if (!path.startsWith(watch.root)) {
+            return;
+        }
+        Path relative = watch.root.relativize(path);
+        if (relative.toString().isEmpty()) {
+            if (!Files.isDirectory(watch.root)) {
+                rescan(watch, changes);
+            }
+            return;
+        }
+        if (!watch.recursive && relative.getNameCount() > 1) {
+            return;
+        }
+        for (Path part : relative) {
+            if (SKIPPED_DIRECTORIES.contains(part.toString())) {
+                return;
+            }
+        }
+
+        Stamp old = watch.entries.get(relative);
+        BasicFileAttributes attrs = attributes(path);
+        Stamp now = attrs != null ? Stamp.of(attrs) : null;
+
+        if (old != null && (now == null || old.directory() != now.directory())) {
+            removeTree(watch, relative, old, changes);
+            old = null;
+        }
+        if (now == null) {
+            return;
+        }
+        if (old == null) {
+            watch.entries.put(relative, now);
+            changes.add(new Change(relative, DirectoryChange.Kind.CREATED, now.directory()));
+            if (now.directory() && watch.recursive) {
+                // Entries may have been created before the new directory was registered
+                try {
+                    snapshot(watch, path, watch.entries, changes);
+                } catch (IOException e) {
+                    // Gone again; a later event reports that
+                }
+            }
+        } else if (!now.directory() && !now.equals(old)) {
+            watch.entries.put(relative, now);
+            changes.add(new Change(relative, DirectoryChange.Kind.MODIFIED, false));
+        }
+    }
+
+    /**
+     * Reports an entry and, for a directory, everything below it as deleted.
+     */
+    private void removeTree(Watch watch, Path relative, Stamp old, List<Change> changes) {
+        watch.entries.remove(relative);
+        changes.add(new Change(relative, DirectoryChange.Kind.DELETED, old.directory()));
+        if (!old.directory()) {
+            return;
+        }
+        for (Iterator<Map.Entry<Path, Stamp>> it = watch.entries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Path, Stamp> entry = it.next();
+            if (entry.getKey().startsWith(relative)) {
+                changes.add(new Change(entry.getKey(), DirectoryChange.Kind.DELETED, entry.getValue().directory()));
+                it.remove();
+            }
+        }
+        // Keys follow a moved directory, so drop them rather than report events under the old name
+        Path absolute = watch.root.resolve(relative);
+        for (Iterator<WatchKey> it = watch.watchKeys.iterator(); it.hasNext(); ) {
+            WatchKey key = it.next();
+            if (((Path) key.watchable()).startsWith(absolute)) {
+                key.cancel();
+                keys.remove(key);
+                it.remove();
+            }
+        }
+    }
+
+    private static BasicFileAttributes attributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.mcp.adapter.out.filesystem;
+
+/**
+ * How far the file system adapter goes to make completed writes survive a crash.
+ */
+public enum WriteDurability {
+    /** Writes are atomic but left to the operating system to flush. */
+    NONE,
+    /** File data and the directory entry are forced to disk before a write returns. */
+    FSYNC
+}
@@ -0,0 +1,312 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.mcp.application.port.out.CacheMetricsPort;
+import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.model.Forecast;
+import com.example.mcp.domain.valueobject.CityName;
+import com.example.mcp.domain.valueobject.Coordinates;
+
+/**
+ * Caching decorator for geocoding.
+ * A place's coordinates do not change, so geocoding answers are kept in two tiers keyed
+ * by the normalized city name: an in-memory LRU of decoded results, and an append-only
+ * log on disk of which only the record offsets are held in memory, so a restarted server
+ * is answered without a request. The log is shared by all servers of a user, so every
+ * append and every repair of it is made under an exclusive lock on the file. Unknown
+ * cities are remembered in memory for a few minutes only, since the upstream gazetteer
+ * may learn them. Weather lookups pass through.
+ */
+public final class CachingGeocodeAdapter implements WeatherServicePort, CacheMetricsPort {
+    private static final int MAX_MEMORY_ENTRIES = 1024;
+    /** Past this many places the log stops growing; older places are still served from it. */
+    private static final int MAX_PERSISTED_ENTRIES = 100_000;
+    private static final long NOT_FOUND_TTL_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final int LOG_MAGIC = 0x47454f31;
+    /** A name of 100 characters encodes to at most 300 bytes, and so does a country. */
+    private static final int MAX_RECORD_BYTES = 1024;
+
+    private final WeatherServicePort delegate;
+    private final Path logFile;
+
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_MEMORY_ENTRIES;
+        }
+    };
+
+    private final Object logLock = new Object();
+    private final Map<String, Long> offsets = new HashMap<>();
+    private FileChannel reader;
+    private FileChannel appender;
+    private boolean opened;
+    private long logBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * A remembered answer: a result, or the message of a lookup that found nothing.
+     */
+    private record Entry(GeocodeResult result, String notFound, long storedNanos) {}
+
+    /**
+     * @param delegate The service answering misses
+     * @param logFile Where places are persisted; created on first use
+     */
+    public CachingGeocodeAdapter(WeatherServicePort delegate, Path logFile) {
+        this.delegate = delegate;
+        this.logFile = logFile;
+    }
+
+    /**
+     * Returns the log location shared by all servers of the current user.
+     */
+    public static Path defaultLogFile() {
+        return Paths.get(System.getProperty("user.home"), ".cache", "mcp-demo-server", "geocode.log");
+    }
+
+    @Override
+    public CompletableFuture<GeocodeResult> geocodeAsync(CityName city, Duration timeout) {
+        String key = city.normalized();
+
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+            if (entry != null && entry.result() == null && System.nanoTime() - entry.storedNanos() >= NOT_FOUND_TTL_NANOS) {
+                memory.remove(key);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            hits.increment();
+            if (entry.result() == null) {
+                return CompletableFuture.failedFuture(new CityNotFoundException(entry.notFound()));
+            }
+            return CompletableFuture.completedFuture(entry.result());
+        }
+
+        GeocodeResult persisted = readPersisted(key);
+        if (persisted != null) {
+            hits.increment();
+            remember(key, new Entry(persisted, null, 0));
+            return CompletableFuture.completedFuture(persisted);
+        }
+
+        misses.increment();
+        return delegate.geocodeAsync(city, timeout).whenComplete((result, failure) -> {
+            if (failure == null) {
+                remember(key, new Entry(result, null, 0));
+                persist(key, result);
+            } else if (WeatherServiceException.from(failure) instanceof CityNotFoundException notFound) {
+                remember(key, new Entry(null, notFound.getMessage(), System.nanoTime()));
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> getCurrentWeatherAsync(Coordinates coordinates, Duration timeout) {
+        return delegate.getCurrentWeatherAsync(coordinates, timeout);
+    }
+
+    @Override
+    public CompletableFuture<List<WeatherData>> getCurrentWeatherBatchAsync(List<Coordinates> coordinates,
+                                                                          Duration timeout) {
+        return delegate.getCurrentWeatherBatchAsync(coordinates, timeout);
+    }
+
+    @Override
+    public CompletableFuture<Forecast> getForecastAsync(Coordinates coordinates, int days, Duration timeout) {
+        return delegate.getForecastAsync(coordinates, days, timeout);
+    }
+
+    @Override
+    public CacheStats cacheStats() {
+        long entries;
+        synchronized (memory) {
+            entries = memory.size();
+        }
+        long sizeBytes;
+        synchronized (logLock) {
+            sizeBytes = logBytes;
+        }
+        return new CacheStats("geocode", hits.sum(), misses.sum(), entries, sizeBytes, 0);
+    }
+
+    private void remember(String key, Entry entry) {
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+    }
+
+    /**
+     * Reads a place from the log, or returns null if it was never persisted.
+     */
+    private GeocodeResult readPersisted(String key) {
+        synchronized (logLock) {
+            open();
+            Long offset = offsets.get(key);
+            if (reader == null || offset == null) {
+                return null;
+            }
+            try {
+                ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+                readFully(length, offset);
+                int recordBytes = length.flip().getInt();
+                if (recordBytes <= 0 || recordBytes > MAX_RECORD_BYTES) {
+                    throw new IOException("Damaged geocode log record");
+                }
+                ByteBuffer record = ByteBuffer.allocate(recordBytes);
+                readFully(record, offset + Integer.BYTES);
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.array()));
+                if (!in.readUTF().equals(key)) {
+                    // Another server appended at the same time; ask upstream again
+                    offsets.remove(key);
+                    return null;
+                }
+                Coordinates coordinates = new Coordinates(in.readDouble(), in.readDouble());
+                return new GeocodeResult(coordinates, in.readUTF());
+            } catch (IOException | IllegalArgumentException e) {
+                offsets.remove(key);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Appends a place to the log. Failing to persist only costs a lookup after a restart.
+     */
+    private void persist(String key, GeocodeResult result) {
+        synchronized (logLock) {
+            open();
+            if (appender == null || offsets.containsKey(key) || offsets.size() >= MAX_PERSISTED_ENTRIES) {
+                return;
+            }
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(0);
+                out.writeUTF(key);
+                out.writeDouble(result.coordinates().getLatitude());
+                out.writeDouble(result.coordinates().getLongitude());
+                out.writeUTF(result.countryName());
+                ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+                record.putInt(0, record.remaining() - Integer.BYTES);
+
+                // Locked so that no other server appends within this record or repairs the log under it
+                try (FileLock lock = appender.lock()) {
+                    long start = appender.size();
+                    while (record.hasRemaining()) {
+                        appender.write(record);
+                    }
+                    offsets.put(key, start);
+                    logBytes = start + record.capacity();
+                }
+            } catch (IOException | OverlappingFileLockException e) {
+                // The memory tier still has the place
+            }
+        }
+    }
+
+    /**
+     * Opens the log on first use and indexes its records. A record cut short by a crash
+     * ends the index and is cut off; a damaged log is started afresh. Both repairs are made
+     * under the file lock that appends take, so they never cut into another server's record.
+     */
+    private void open() {
+        if (opened) {
+            return;
+        }
+        opened = true;
+        try {
+            Files.createDirectories(logFile.toAbsolutePath().getParent());
+            appender = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            reader = FileChannel.open(logFile, StandardOpenOption.READ);
+            try (FileLock lock = appender.lock()) {
+                index();
+            }
+        } catch (IOException | OverlappingFileLockException e) {
+            // Without a log the memory tier still works
+            offsets.clear();
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Indexes the log and repairs it. Called with the file lock held.
+     */
+    private void index() throws IOException {
+        byte[] content = Files.readAllBytes(logFile);
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        if (content.length < Integer.BYTES || buffer.getInt() != LOG_MAGIC) {
+            appender.truncate(0);
+            appender.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, LOG_MAGIC));
+            logBytes = Integer.BYTES;
+            return;
+        }
+        int valid = buffer.position();
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES || length > buffer.remaining()) {
+                break;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(content, buffer.position(), length));
+            try {
+                offsets.put(in.readUTF(), (long) valid);
+            } catch (IOException e) {
+                break;
+            }
+            buffer.position(buffer.position() + length);
+            valid = buffer.position();
+        }
+        if (valid < content.length) {
+            // Drop the torn tail so that later records stay reachable
+            appender.truncate(valid);
+        }
+        logBytes = valid;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (reader.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of geocode log");
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        for (FileChannel channel : new FileChannel[] {reader, appender}) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+        reader = null;
+        appender = null;
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.mcp.application.port.out.CacheMetricsPort;
+import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.model.Forecast;
+import com.example.mcp.domain.valueobject.CityName;
+import com.example.mcp.domain.valueobject.Coordinates;
+
+/**
+ * Caching decorator for current weather.
+ * Conditions are remembered per point of the API's grid for a time to live. For as long
+ * again past it, a remembered value is still answered at once while a background refresh
+ * fetches the next one, so a frequently asked point never waits for the upstream. If the
+ * upstream fails, values up to four times the time to live old are answered instead of
+ * the error. Hourly forecasts are kept per grid point and number of days for the same
+ * time to live, with the same fallback on failure, but are not refreshed in the background.
+ * Geocoding passes through.
+ */
+public final class CachingWeatherAdapter implements WeatherServicePort, CacheMetricsPort {
+    private static final int MAX_ENTRIES = 4096;
+    /** A two-week forecast is some 20 KB of series. */
+    private static final int MAX_FORECASTS = 256;
+    /** Nobody waits for a refresh, so it gets the upstream's usual time. */
+    private static final Duration REFRESH_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WeatherServicePort delegate;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<Coordinates, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Coordinates, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final LinkedHashMap<ForecastKey, ForecastEntry> forecasts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ForecastKey, ForecastEntry> eldest) {
+            return size() > MAX_FORECASTS;
+        }
+    };
+    private final Set<Coordinates> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record Entry(WeatherData data, long fetchedNanos) {}
+
+    private record ForecastKey(Coordinates point, int days) {}
+
+    private record ForecastEntry(Forecast forecast, long fetchedNanos) {}
+
+    /**
+     * @param delegate The service answering misses and refreshes
+     * @param ttl How long fetched conditions are answered without asking the upstream
+     */
+    public CachingWeatherAdapter(WeatherServicePort delegate, Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Weather TTL must be positive, got: " + ttl);
+        }
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public CompletableFuture<GeocodeResult> geocodeAsync(CityName city, Duration timeout) {
+        return delegate.geocodeAsync(city, timeout);
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> getCurrentWeatherAsync(Coordinates coordinates, Duration timeout) {
+        Coordinates key = coordinates.roundedToGrid();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        long age = entry == null ? Long.MAX_VALUE : System.nanoTime() - entry.fetchedNanos();
+        if (age < ttlNanos) {
+            hits.increment();
+            return CompletableFuture.completedFuture(entry.data());
+        }
+        if (age < 2 * ttlNanos) {
+            hits.increment();
+            refreshInBackground(key);
+            return CompletableFuture.completedFuture(entry.data());
+        }
+
+        misses.increment();
+        return fetch(key, timeout).handle((data, failure) -> {
+            if (failure == null) {
+                return data;
+            }
+            if (age < 4 * ttlNanos) {
+                return entry.data();
+            }
+            throw new CompletionException(WeatherServiceException.from(failure));
+        });
+    }
+
+    /**
+     * Answers the points it has and asks the upstream for the rest in one batch.
+     */
+    @Override
+    public CompletableFuture<List<WeatherData>> getCurrentWeatherBatchAsync(List<Coordinates> coordinates,
+                                                                          Duration timeout) {
+        int count = coordinates.size();
+        WeatherData[] answers = new WeatherData[count];
+        WeatherData[] fallbacks = new WeatherData[count];
+        List<Coordinates> missing = new ArrayList<>();
+        List<Integer> missingAt = new ArrayList<>();
+        List<Coordinates> stale = new ArrayList<>();
+
+        long now = System.nanoTime();
+        synchronized (entries) {
+            for (int i = 0; i < count; i++) {
+                Coordinates key = coordinates.get(i).roundedToGrid();
+                Entry entry = entries.get(key);
+                long age = entry == null ? Long.MAX_VALUE : now - entry.fetchedNanos();
+                if (age < 2 * ttlNanos) {
+                    answers[i] = entry.data();
+                    if (age >= ttlNanos) {
+                        stale.add(key);
+                    }
+                } else {
+                    missing.add(key);
+                    missingAt.add(i);
+                    fallbacks[i] = age < 4 * ttlNanos ? entry.data() : null;
+                }
+            }
+        }
+        hits.add(count - missing.size());
+        misses.add(missing.size());
+        stale.forEach(this::refreshInBackground);
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of(answers));
+        }
+
+        return delegate.getCurrentWeatherBatchAsync(missing, timeout).handle((fetched, failure) -> {
+            for (int j = 0; j < missingAt.size(); j++) {
+                int i = missingAt.get(j);
+                if (failure == null) {
+                    answers[i] = fetched.get(j);
+                } else if (fallbacks[i] != null) {
+                    answers[i] = fallbacks[i];
+                } else {
+                    throw new CompletionException(WeatherServiceException.from(failure));
+                }
+            }
+            if (failure == null) {
+                long fetchedNanos = System.nanoTime();
+                synchronized (entries) {
+                    for (int j = 0; j < missing.size(); j++) {
+                        entries.put(missing.get(j), new Entry(fetched.get(j), fetchedNanos));
+                    }
+                }
+            }
+            return List.of(answers);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Forecast> getForecastAsync(Coordinates coordinates, int days, Duration timeout) {
+        ForecastKey key = new ForecastKey(coordinates.roundedToGrid(), days);
+        ForecastEntry entry;
+        synchronized (forecasts) {
+            entry = forecasts.get(key);
+        }
+
+        long age = entry == null ? Long.MAX_VALUE : System.nanoTime() - entry.fetchedNanos();
+        if (age < ttlNanos) {
+            hits.increment();
+            return CompletableFuture.completedFuture(entry.forecast());
+        }
+
+        misses.increment();
+        return delegate.getForecastAsync(key.point(), days, timeout).handle((forecast, failure) -> {
+            if (failure == null) {
+                synchronized (forecasts) {
+                    forecasts.put(key, new ForecastEntry(forecast, System.nanoTime()));
+                }
+                return forecast;
+            }
+            if (age < 4 * ttlNanos) {
+                return entry.forecast();
+            }
+            throw new CompletionException(WeatherServiceException.from(failure));
+        });
+    }
+
+    @Override
+    public CacheStats cacheStats() {
+        long size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        synchronized (forecasts) {
+            size += forecasts.size();
+        }
+        return new CacheStats("weather", hits.sum(), misses.sum(), size, 0, 0);
+    }
+
+    private CompletableFuture<WeatherData> fetch(Coordinates key, Duration timeout) {
+        return delegate.getCurrentWeatherAsync(key, timeout).thenApply(data -> {
+            synchronized (entries) {
+                entries.put(key, new Entry(data, System.nanoTime()));
+            }
+            return data;
+        });
+    }
+
+    /**
+     * Starts fetching a point again unless a refresh of it is already running.
+     * A failed refresh keeps the stale value; the next request past the time to live tries again.
+     */
+    private void refreshInBackground(Coordinates key) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        fetch(key, REFRESH_TIMEOUT).whenComplete((data, failure) -> refreshing.remove(key));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.example.mcp.application.port.out.CacheMetricsPort;
+import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.model.Forecast;
+import com.example.mcp.domain.valueobject.CityName;
+import com.example.mcp.domain.valueobject.Coordinates;
+
+/**
+ * Request coalescing decorator.
+ * Keeps a table of the requests in flight, keyed like the caches in front of it: by
+ * normalized city name and by grid point. The first caller of a key sends the request;
+ * callers arriving while it runs are handed the same future instead of sending the same
+ * request again. The entry is removed as soon as the request completes, so neither
+ * results nor failures outlive it; a failure reaches every caller that waited for it,
+ * and the next caller tries again. Joined requests are reported
+ * as hits and requests sent upstream as misses.
+ */
+public final class CoalescingWeatherAdapter implements WeatherServicePort, CacheMetricsPort {
+    private final WeatherServicePort delegate;
+
+    private final ConcurrentHashMap<String, CompletableFuture<GeocodeResult>> geocodes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Coordinates, CompletableFuture<WeatherData>> forecasts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ForecastKey, CompletableFuture<Forecast>> hourlyForecasts =
+        new ConcurrentHashMap<>();
+
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+
+    /** A forecast request: a grid point and the number of days. */
+    private record ForecastKey(Coordinates point, int days) {}
+
+    public CoalescingWeatherAdapter(WeatherServicePort delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableFuture<GeocodeResult> geocodeAsync(CityName city, Duration timeout) {
+        return coalesce(geocodes, city.normalized(), () -> delegate.geocodeAsync(city, timeout));
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> getCurrentWeatherAsync(Coordinates coordinates, Duration timeout) {
+        Coordinates key = coordinates.roundedToGrid();
+        return coalesce(forecasts, key, () -> delegate.getCurrentWeatherAsync(key, timeout));
+    }
+
+    /**
+     * Batches are sent as they are; the caches in front have already narrowed them to the points nobody has.
+     */
+    @Override
+    public CompletableFuture<List<WeatherData>> getCurrentWeatherBatchAsync(List<Coordinates> coordinates,
+                                                                          Duration timeout) {
+        sent.increment();
+        return delegate.getCurrentWeatherBatchAsync(coordinates, timeout);
+    }
+
+    @Override
+    public CompletableFuture<Forecast> getForecastAsync(Coordinates coordinates, int days, Duration timeout) {
+        Coordinates key = coordinates.roundedToGrid();
+        return coalesce(hourlyForecasts, new ForecastKey(key, days),
+            () -> delegate.getForecastAsync(key, days, timeout));
+    }
+
+    @Override
+    public CacheStats cacheStats() {
+        return new CacheStats("weather-inflight", joined.sum(), sent.sum(),
+            geocodes.size() + forecasts.size() + hourlyForecasts.size(), 0, 0);
+    }
+
+    /**
+     * Returns a view of the request in flight for a key, sending it first if there is none.
+     * Each caller gets its own copy, so that one caller's cancellation or timeout leaves the others waiting.
+     */
+    private <K, V> CompletableFuture<V> coalesce(ConcurrentHashMap<K, CompletableFuture<V>> inFlight, K key,
+                                                 Supplier<CompletableFuture<V>> request) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> shared = inFlight.putIfAbsent(key, own);
+        if (shared != null) {
+            joined.increment();
+            return shared.copy();
+        }
+
+        sent.increment();
+        CompletableFuture<V> response;
+        try {
+            response = request.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((result, failure) -> {
+            // Removed before completing, so that nobody joins a request that has already answered
+            inFlight.remove(key, own);
+            if (failure == null) {
+                own.complete(result);
+            } else {
+                // Unwrapped, so that callers can still tell an unknown city from a failure
+                own.completeExceptionally(WeatherServiceException.from(failure));
+            }
+        });
+        return own.copy();
+    }
+}
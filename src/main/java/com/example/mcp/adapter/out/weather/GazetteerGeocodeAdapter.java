@@ -0,0 +1,248 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import com.example.mcp.application.port.out.CacheMetricsPort;
+import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.model.Forecast;
+import com.example.mcp.domain.valueobject.CityName;
+import com.example.mcp.domain.valueobject.Coordinates;
+
+/**
+ * Offline geocoding decorator.
+ * Resolves city names from a local gazetteer: the bundled list of major cities, or a
+ * GeoNames cities dump (plain or zipped) given as source. On first use the source is
+ * compiled into a {@link GazetteerIndex} next to the other caches, named after the
+ * source's checksum so that an unchanged source is never compiled twice, and from then on
+ * memory-mapped. A name shared by several places resolves to the most populous one, unless
+ * a country follows it after a comma ("Paris, US" or "Paris, United States"). Names the
+ * gazetteer does not know go to the delegate if falling back is enabled; otherwise they
+ * are reported not found, with the closest known names as suggestions. Weather lookups
+ * pass through. Names resolved offline are reported as hits, the others as misses.
+ */
+public final class GazetteerGeocodeAdapter implements WeatherServicePort, CacheMetricsPort {
+    private static final String BUNDLED_SOURCE = "/gazetteer/cities.tsv";
+    private static final int SUGGESTIONS = 3;
+    /** English country names by ISO code. */
+    private static final Map<String, String> COUNTRY_NAMES = countryNames();
+    /** ISO codes by folded English country name, for qualifiers spelled out. */
+    private static final Map<String, String> COUNTRY_CODES = countryCodes();
+
+    private final WeatherServicePort delegate;
+    private final Path source;
+    private final Path indexDirectory;
+    private final boolean fallback;
+
+    private final Object indexLock = new Object();
+    private volatile GazetteerIndex index;
+    private volatile boolean loaded;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param delegate The service answering forecasts and, if {@code fallback}, unknown names
+     * @param source A GeoNames cities dump, or null for the bundled list of major cities
+     * @param indexDirectory Where the compiled index is kept; created on first use
+     * @param fallback Whether names missing from the gazetteer are geocoded by the delegate
+     */
+    public GazetteerGeocodeAdapter(WeatherServicePort delegate, Path source, Path indexDirectory, boolean fallback) {
+        this.delegate = delegate;
+        this.source = source;
+        this.indexDirectory = indexDirectory;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Returns the index location shared by all servers of the current user.
+     */
+    public static Path defaultIndexDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".cache", "mcp-demo-server");
+    }
+
+    @Override
+    public CompletableFuture<GeocodeResult> geocodeAsync(CityName city, Duration timeout) {
+        GazetteerIndex gazetteer = index();
+        GazetteerIndex.Place place = gazetteer == null ? null : resolve(gazetteer, city.getValue());
+        if (place != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(new GeocodeResult(
+                new Coordinates(place.latitude(), place.longitude()), countryName(place.countryCode())));
+        }
+
+        misses.increment();
+        if (fallback || gazetteer == null) {
+            return delegate.geocodeAsync(city, timeout);
+        }
+        String message = "City not found: " + city.getValue();
+        List<GazetteerIndex.Place> similar = gazetteer.search(city.getValue(), SUGGESTIONS);
+        if (!similar.isEmpty()) {
+            message += " (did you mean " + similar.stream()
+                .map(GazetteerIndex.Place::name)
+                .distinct()
+                .collect(Collectors.joining(", ")) + "?)";
+        }
+        return CompletableFuture.failedFuture(new CityNotFoundException(message));
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> getCurrentWeatherAsync(Coordinates coordinates, Duration timeout) {
+        return delegate.getCurrentWeatherAsync(coordinates, timeout);
+    }
+
+    @Override
+    public CompletableFuture<List<WeatherData>> getCurrentWeatherBatchAsync(List<Coordinates> coordinates,
+                                                                          Duration timeout) {
+        return delegate.getCurrentWeatherBatchAsync(coordinates, timeout);
+    }
+
+    @Override
+    public CompletableFuture<Forecast> getForecastAsync(Coordinates coordinates, int days, Duration timeout) {
+        return delegate.getForecastAsync(coordinates, days, timeout);
+    }
+
+    @Override
+    public CacheStats cacheStats() {
+        GazetteerIndex gazetteer = index;
+        return new CacheStats("gazetteer", hits.sum(), misses.sum(),
+            gazetteer == null ? 0 : gazetteer.placeCount(), gazetteer == null ? 0 : gazetteer.sizeBytes(), 0);
+    }
+
+    /**
+     * Looks a name up, reading a trailing ", country" as a restriction when it names one.
+     */
+    private static GazetteerIndex.Place resolve(GazetteerIndex gazetteer, String query) {
+        int comma = query.lastIndexOf(',');
+        if (comma > 0) {
+            String qualifier = query.substring(comma + 1).trim();
+            byte[] folded = GazetteerIndex.fold(qualifier);
+            String country = folded == null ? null
+                : COUNTRY_NAMES.containsKey(qualifier.toUpperCase(Locale.ROOT)) ? qualifier.toUpperCase(Locale.ROOT)
+                : COUNTRY_CODES.get(new String(folded, StandardCharsets.US_ASCII));
+            if (country != null) {
+                return gazetteer.lookup(query.substring(0, comma), country);
+            }
+        }
+        return gazetteer.lookup(query, null);
+    }
+
+    private static String countryName(String countryCode) {
+        return COUNTRY_NAMES.getOrDefault(countryCode, "Unknown");
+    }
+
+    private static Map<String, String> countryNames() {
+        Map<String, String> names = new HashMap<>();
+        for (String code : Locale.getISOCountries()) {
+            String name = Locale.of("", code).getDisplayCountry(Locale.ENGLISH);
+            if (!name.isEmpty()) {
+                names.put(code, name);
+            }
+        }
+        return names;
+    }
+
+    private static Map<String, String> countryCodes() {
+        Map<String, String> codes = new HashMap<>();
+        for (Map.Entry<String, String> country : COUNTRY_NAMES.entrySet()) {
+            byte[] folded = GazetteerIndex.fold(country.getValue());
+            if (folded != null) {
+                codes.put(new String(folded, StandardCharsets.US_ASCII), country.getKey());
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Opens the index on first use, compiling it from the source if needed.
+     * Without an index every name is left to the delegate.
+     */
+    private GazetteerIndex index() {
+        if (loaded) {
+            return index;
+        }
+        synchronized (indexLock) {
+            if (!loaded) {
+                try {
+                    index = load();
+                } catch (IOException | RuntimeException e) {
+                    index = null;
+                }
+                loaded = true;
+            }
+            return index;
+        }
+    }
+
+    private GazetteerIndex load() throws IOException {
+        Path indexFile = indexDirectory.resolve("gazetteer-" + Long.toHexString(fingerprint()) + ".idx");
+        if (Files.isRegularFile(indexFile)) {
+            try {
+                return GazetteerIndex.open(indexFile);
+            } catch (IOException e) {
+                // Damaged; compiled again below
+            }
+        }
+        try (InputStream in = openSource()) {
+            GazetteerIndex.build(in, indexFile);
+        }
+        return GazetteerIndex.open(indexFile);
+    }
+
+    /**
+     * Checksums the bundled list, or a dump's path, size and modification time.
+     */
+    private long fingerprint() throws IOException {
+        CRC32 checksum = new CRC32();
+        if (source == null) {
+            try (InputStream in = openSource()) {
+                checksum.update(in.readAllBytes());
+            }
+        } else {
+            BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            checksum.update((source.toAbsolutePath() + "|" + attributes.size() + "|"
+                + attributes.lastModifiedTime().toMillis()).getBytes(StandardCharsets.UTF_8));
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * Opens the source text: the bundled list, a dump, or the first text file of a zipped dump.
+     */
+    private InputStream openSource() throws IOException {
+        if (source == null) {
+            InputStream bundled = GazetteerGeocodeAdapter.class.getResourceAsStream(BUNDLED_SOURCE);
+            if (bundled == null) {
+                throw new IOException("Bundled gazetteer missing: " + BUNDLED_SOURCE);
+            }
+            return bundled;
+        }
+        if (!source.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip")) {
+            return Files.newInputStream(source);
+        }
+        ZipInputStream zip = new ZipInputStream(Files.newInputStream(source));
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+            if (!entry.isDirectory() && entry.getName().endsWith(".txt")) {
+                return zip;
+            }
+        }
+        zip.close();
+        throw new IOException("No .txt file in " + source);
+    }
+}
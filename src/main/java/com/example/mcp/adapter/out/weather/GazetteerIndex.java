@@ -0,0 +1,371 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only place name index in a compact binary file.
+ * The file holds a fixed-width table of places (coordinates, population, country), a
+ * table of name entries sorted by folded name and, for equal names, by falling
+ * population, and a blob of the name strings. It is memory-mapped and searched in place:
+ * exact lookups and prefix searches are binary searches over the entry table, so opening
+ * an index costs no parsing and a lookup touches a few dozen bytes.
+ * <p>
+ * Names are folded to lowercase ASCII letters, digits and single spaces, with accents and
+ * punctuation dropped, so that "Umea" finds "Umeå"; names that do not fold to ASCII are
+ * not indexed.
+ */
+final class GazetteerIndex {
+    private static final int MAGIC = 0x47415a32;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    /** Coordinates are stored as integers in units of 1e-5 degrees, the precision of GeoNames. */
+    private static final double UNITS_PER_DEGREE = 100_000;
+    /** Latitude, longitude, population, country code and display name offset. */
+    private static final int PLACE_BYTES = 20;
+    /** Name offset and place number. */
+    private static final int ENTRY_BYTES = 8;
+    private static final int MAX_NAME_BYTES = 255;
+    /** Prefix searches look at no more entries than this before ranking. */
+    private static final int MAX_PREFIX_SCAN = 4096;
+    /** Columns of a GeoNames cities dump; fewer columns are read as the bundled seed format. */
+    private static final int GEONAMES_COLUMNS = 19;
+
+    /**
+     * One indexed place.
+     *
+     * @param name Display name as given by the source
+     * @param countryCode ISO 3166 alpha-2 code, or an empty string if unknown
+     */
+    record Place(String name, double latitude, double longitude, String countryCode, long population) {}
+
+    private final ByteBuffer buffer;
+    private final int placeCount;
+    private final int entryCount;
+    private final int entriesStart;
+    private final int blobStart;
+
+    private GazetteerIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a gazetteer index");
+        }
+        this.placeCount = buffer.getInt(4);
+        this.entryCount = buffer.getInt(8);
+        int blobBytes = buffer.getInt(12);
+        // In long, so that damaged counts cannot overflow into offsets that pass the size check
+        long entries = HEADER_BYTES + (long) placeCount * PLACE_BYTES;
+        long blob = entries + (long) entryCount * ENTRY_BYTES;
+        if (placeCount < 0 || entryCount < 0 || blobBytes < 0 || blob + blobBytes != buffer.capacity()) {
+            throw new IOException("Damaged gazetteer index");
+        }
+        this.entriesStart = (int) entries;
+        this.blobStart = (int) blob;
+    }
+
+    /**
+     * Maps an index file written by {@link #build}.
+     */
+    static GazetteerIndex open(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new GazetteerIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    int placeCount() {
+        return placeCount;
+    }
+
+    long sizeBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Returns the most populous place of a name, optionally restricted to a country,
+     * or null if there is none.
+     *
+     * @param countryCode ISO alpha-2 code to restrict to, or null for any country
+     */
+    Place lookup(String name, String countryCode) {
+        byte[] key = fold(name);
+        if (key == null) {
+            return null;
+        }
+        for (int i = lowerBound(key); i < entryCount && compareName(i, key, false) == 0; i++) {
+            int place = buffer.getInt(entriesStart + i * ENTRY_BYTES + Integer.BYTES);
+            if (countryCode == null || countryCode.equalsIgnoreCase(countryCode(place))) {
+                return place(place);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns up to {@code limit} distinct places with a name starting with the prefix, most populous first.
+     */
+    List<Place> search(String prefix, int limit) {
+        byte[] key = fold(prefix);
+        if (key == null || key.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        Set<Integer> places = new LinkedHashSet<>();
+        int start = lowerBound(key);
+        int end = Math.min(entryCount, start + MAX_PREFIX_SCAN);
+        for (int i = start; i < end && compareName(i, key, true) == 0; i++) {
+            places.add(buffer.getInt(entriesStart + i * ENTRY_BYTES + Integer.BYTES));
+        }
+        return places.stream()
+            .map(this::place)
+            .sorted(Comparator.comparingLong(Place::population).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareName(mid, key, false) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares the name of an entry with a key, or only its first key-length bytes if {@code prefix}.
+     */
+    private int compareName(int entry, byte[] key, boolean prefix) {
+        int offset = blobStart + buffer.getInt(entriesStart + entry * ENTRY_BYTES);
+        int length = Short.toUnsignedInt(buffer.getShort(offset));
+        if (prefix) {
+            length = Math.min(length, key.length);
+        }
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int difference = buffer.get(offset + 2 + i) - key[i];
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+
+    private Place place(int place) {
+        int offset = HEADER_BYTES + place * PLACE_BYTES;
+        return new Place(string(buffer.getInt(offset + 16)),
+            buffer.getInt(offset) / UNITS_PER_DEGREE, buffer.getInt(offset + 4) / UNITS_PER_DEGREE,
+            countryCode(place), Integer.toUnsignedLong(buffer.getInt(offset + 8)));
+    }
+
+    private String countryCode(int place) {
+        int offset = HEADER_BYTES + place * PLACE_BYTES + 12;
+        char first = buffer.getChar(offset);
+        return first == 0 ? "" : new String(new char[] {first, buffer.getChar(offset + 2)});
+    }
+
+    private String string(int blobOffset) {
+        int offset = blobStart + blobOffset;
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(offset))];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Folds a name to the indexed form, or returns null if it does not fold to ASCII.
+     */
+    static byte[] fold(String name) {
+        boolean ascii = true;
+        for (int i = 0; i < name.length() && ascii; i++) {
+            ascii = name.charAt(i) < 0x80;
+        }
+        String decomposed = ascii ? name : Normalizer.normalize(name, Normalizer.Form.NFKD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = Character.toLowerCase(decomposed.charAt(i));
+            String letters = switch (c) {
+                case 'ø' -> "o";
+                case 'æ' -> "ae";
+                case 'œ' -> "oe";
+                case 'ß' -> "ss";
+                case 'ł' -> "l";
+                case 'đ' -> "d";
+                case 'þ' -> "th";
+                case 'ı' -> "i";
+                default -> null;
+            };
+            if (letters != null) {
+                folded.append(letters);
+                space = false;
+            } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                folded.append(c);
+                space = false;
+            } else if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                // Accents of decomposed letters
+            } else if (Character.isWhitespace(c) || c == '-' || c == '\'' || c == '’' || c == '.') {
+                if (!space) {
+                    folded.append(' ');
+                    space = true;
+                }
+            } else {
+                return null;
+            }
+        }
+        int length = folded.length();
+        if (length > 0 && folded.charAt(length - 1) == ' ') {
+            folded.setLength(length - 1);
+        }
+        return folded.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads a cities list and writes its index, replacing the target atomically.
+     * Lines starting with '#' are comments. A line is either a GeoNames dump line
+     * (name, ASCII name and alternate names in columns 2 to 4, coordinates in 5 and 6,
+     * country in 9, population in 15) or a seed line of name, alternate names, latitude,
+     * longitude, country and population.
+     */
+    static void build(InputStream source, Path indexFile) throws IOException {
+        List<int[]> coordinates = new ArrayList<>();
+        List<Integer> populations = new ArrayList<>();
+        List<String> countries = new ArrayList<>();
+        List<String> displayNames = new ArrayList<>();
+        List<Object[]> entries = new ArrayList<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(source, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t", -1);
+            List<String> names;
+            int latitude;
+            int country;
+            int population;
+            if (columns.length >= GEONAMES_COLUMNS) {
+                names = new ArrayList<>(List.of(columns[1], columns[2]));
+                names.addAll(Arrays.asList(columns[3].split(",")));
+                latitude = 4;
+                country = 8;
+                population = 14;
+            } else if (columns.length == 6) {
+                names = new ArrayList<>(List.of(columns[0]));
+                names.addAll(Arrays.asList(columns[1].split(",")));
+                latitude = 2;
+                country = 4;
+                population = 5;
+            } else {
+                throw new IOException("Unexpected gazetteer line: " + line);
+            }
+
+            int place = coordinates.size();
+            try {
+                coordinates.add(new int[] {
+                    (int) Math.round(Double.parseDouble(columns[latitude]) * UNITS_PER_DEGREE),
+                    (int) Math.round(Double.parseDouble(columns[latitude + 1]) * UNITS_PER_DEGREE)});
+                populations.add(columns[population].isEmpty() ? 0 : (int) Math.min(Long.parseLong(columns[population]), 0xffffffffL));
+            } catch (NumberFormatException e) {
+                throw new IOException("Unexpected gazetteer line: " + line, e);
+            }
+            countries.add(columns[country].length() == 2 ? columns[country].toUpperCase(Locale.ROOT) : "");
+            displayNames.add(columns[latitude == 4 ? 1 : 0]);
+
+            Set<String> folded = new LinkedHashSet<>();
+            for (String name : names) {
+                byte[] key = fold(name.trim());
+                if (key != null && key.length > 0 && key.length <= MAX_NAME_BYTES) {
+                    folded.add(new String(key, StandardCharsets.US_ASCII));
+                }
+            }
+            for (String name : folded) {
+                entries.add(new Object[] {name, place});
+            }
+        }
+
+        entries.sort(Comparator.<Object[], String>comparing(entry -> (String) entry[0])
+            .thenComparing(entry -> Integer.toUnsignedLong(populations.get((Integer) entry[1])),
+                Comparator.reverseOrder()));
+
+        ByteArrayOutputStream blob = new ByteArrayOutputStream();
+        DataOutputStream blobOut = new DataOutputStream(blob);
+        Map<String, Integer> offsets = new HashMap<>();
+        int[] displayOffsets = new int[displayNames.size()];
+        for (int i = 0; i < displayNames.size(); i++) {
+            displayOffsets[i] = intern(displayNames.get(i), offsets, blob, blobOut);
+        }
+        int[] nameOffsets = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            nameOffsets[i] = intern((String) entries.get(i)[0], offsets, blob, blobOut);
+        }
+
+        ByteBuffer tables = ByteBuffer.allocate(HEADER_BYTES + coordinates.size() * PLACE_BYTES
+            + entries.size() * ENTRY_BYTES);
+        tables.putInt(MAGIC).putInt(coordinates.size()).putInt(entries.size()).putInt(blob.size());
+        for (int i = 0; i < coordinates.size(); i++) {
+            String country = countries.get(i);
+            tables.putInt(coordinates.get(i)[0]).putInt(coordinates.get(i)[1]).putInt(populations.get(i))
+                .putChar(country.isEmpty() ? 0 : country.charAt(0)).putChar(country.isEmpty() ? 0 : country.charAt(1))
+                .putInt(displayOffsets[i]);
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            tables.putInt(nameOffsets[i]).putInt((Integer) entries.get(i)[1]);
+        }
+
+        Files.createDirectories(indexFile.toAbsolutePath().getParent());
+        Path temporary = Files.createTempFile(indexFile.toAbsolutePath().getParent(), "gazetteer", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                out.write(tables.array());
+                blob.writeTo(out);
+            }
+            Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Appends a length-prefixed string to the blob once and returns its offset.
+     */
+    private static int intern(String value, Map<String, Integer> offsets, ByteArrayOutputStream blob,
+                              DataOutputStream out) throws IOException {
+        Integer known = offsets.get(value);
+        if (known != null) {
+            return known;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_NAME_BYTES);
+        int offset = blob.size();
+        out.writeShort(length);
+        out.write(bytes, 0, length);
+        offsets.put(value, offset);
+        return offset;
+    }
+}
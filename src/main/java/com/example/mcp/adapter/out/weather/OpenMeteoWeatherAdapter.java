@@ -1,117 +1,465 @@
 package com.example.mcp.adapter.out.weather;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.channels.Channels;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
 
 import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.model.Forecast;
 import com.example.mcp.domain.valueobject.CityName;
 import com.example.mcp.domain.valueobject.Coordinates;
 import com.example.mcp.domain.valueobject.Temperature;
 import com.example.mcp.domain.valueobject.WindSpeed;
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 
 /**
  * Open-Meteo weather service adapter.
  * Implements weather service port using Open-Meteo public API.
+ * Requests are sent asynchronously, so no thread waits for a response to start. Answers
+ * are requested gzipped and received as compressed bytes, then read as a stream: only the
+ * fields used are pulled out with a {@link JsonReader} while decompressing, and everything
+ * else, such as hourly series, is skipped instead of being held as a string and a document tree.
  */
 public final class OpenMeteoWeatherAdapter implements WeatherServicePort {
     private static final String GEOCODING_API = "https://geocoding-api.open-meteo.com/v1/search";
     private static final String WEATHER_API = "https://api.open-meteo.com/v1/forecast";
-    private static final Duration TIMEOUT = Duration.ofSeconds(10);
     
+    private static final int DECODER_BUFFER_BYTES = 1024;
+
     private final HttpClient client = HttpClient.newHttpClient();
-    private final Gson gson = new Gson();
+    private final String geocodingApi;
+    private final String weatherApi;
+
+    public OpenMeteoWeatherAdapter() {
+        this(GEOCODING_API, WEATHER_API);
+    }
+
+    /**
+     * @param geocodingApi The URL of the geocoding search endpoint
+     * @param weatherApi The URL of the forecast endpoint
+     */
+    public OpenMeteoWeatherAdapter(String geocodingApi, String weatherApi) {
+        this.geocodingApi = geocodingApi;
+        this.weatherApi = weatherApi;
+    }
 
     @Override
-    public GeocodeResult geocode(CityName city) throws WeatherServiceException {
-        try {
-            String encodedCity = URLEncoder.encode(city.getValue(), StandardCharsets.UTF_8);
-            String url = GEOCODING_API + "?name=" + encodedCity + "&count=1&language=en&format=json";
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .timeout(TIMEOUT)
-                .build();
-            
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            
-            if (response.statusCode() != 200) {
-                throw new WeatherServiceException("Geocoding service returned HTTP " + response.statusCode());
-            }
-            
-            JsonObject data = gson.fromJson(response.body(), JsonObject.class);
-            JsonElement resultsElem = data.get("results");
-            
-            if (resultsElem == null || !resultsElem.isJsonArray() || resultsElem.getAsJsonArray().size() == 0) {
-                throw new WeatherServiceException("City not found: " + city.getValue());
-            }
-            
-            JsonObject cityInfo = resultsElem.getAsJsonArray().get(0).getAsJsonObject();
-            double latitude = cityInfo.get("latitude").getAsDouble();
-            double longitude = cityInfo.get("longitude").getAsDouble();
-            String countryName = cityInfo.has("country") ? cityInfo.get("country").getAsString() : "Unknown";
-            
-            Coordinates coordinates = new Coordinates(latitude, longitude);
-            return new GeocodeResult(coordinates, countryName);
-            
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new WeatherServiceException("Geocoding request interrupted", e);
-        } catch (IOException e) {
-            throw new WeatherServiceException("Network error during geocoding", e);
-        } catch (Exception e) {
-            throw new WeatherServiceException("Failed to geocode city: " + city.getValue(), e);
+    public CompletableFuture<GeocodeResult> geocodeAsync(CityName city, Duration timeout) {
+        String encodedCity = URLEncoder.encode(city.getValue(), StandardCharsets.UTF_8);
+        String url = geocodingApi + "?name=" + encodedCity + "&count=1&language=en&format=json";
+
+        return send(url, timeout, "Geocoding", response -> {
+            GeocodeResult result = read(response, "Geocoding", "Failed to geocode city: " + city.getValue(),
+                OpenMeteoWeatherAdapter::readGeocodeResult);
+            if (result == null) {
+                throw new CompletionException(new CityNotFoundException("City not found: " + city.getValue()));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> getCurrentWeatherAsync(Coordinates coordinates, Duration timeout) {
+        return getCurrentWeatherBatchAsync(List.of(coordinates), timeout).thenApply(data -> data.get(0));
+    }
+
+    /**
+     * Fetches all points with one request, listing their latitudes and longitudes comma-separated.
+     * The API answers a single point with an object and several with an array of them.
+     */
+    @Override
+    public CompletableFuture<List<WeatherData>> getCurrentWeatherBatchAsync(List<Coordinates> coordinates,
+                                                                          Duration timeout) {
+        if (coordinates.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
         }
+        StringJoiner latitudes = new StringJoiner(",");
+        StringJoiner longitudes = new StringJoiner(",");
+        for (Coordinates point : coordinates) {
+            latitudes.add(String.format(Locale.US, "%.2f", point.getLatitude()));
+            longitudes.add(String.format(Locale.US, "%.2f", point.getLongitude()));
+        }
+        String url = weatherApi + "?latitude=" + latitudes + "&longitude=" + longitudes
+            + "&current=temperature_2m,weather_code,wind_speed_10m&temperature_unit=celsius";
+
+        return send(url, timeout, "Weather", response -> {
+            List<WeatherData> weather = read(response, "Weather", "Failed to fetch weather data",
+                OpenMeteoWeatherAdapter::readCurrentWeather);
+            if (weather.size() != coordinates.size()) {
+                throw new CompletionException(new WeatherServiceException("Weather service answered "
+                    + weather.size() + " locations for " + coordinates.size()));
+            }
+            return weather;
+        });
     }
 
+    /**
+     * Fetches hourly and daily series with times as epoch seconds, in the location's time zone.
+     */
     @Override
-    public WeatherData getCurrentWeather(Coordinates coordinates) throws WeatherServiceException {
-        try {
-            String url = String.format(java.util.Locale.US,
-                "%s?latitude=%.2f&longitude=%.2f&current=temperature_2m,weather_code,wind_speed_10m&temperature_unit=celsius",
-                WEATHER_API, coordinates.getLatitude(), coordinates.getLongitude());
-            
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .timeout(TIMEOUT)
-                .build();
-            
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            
-            if (response.statusCode() != 200) {
-                throw new WeatherServiceException("Weather service returned HTTP " + response.statusCode());
-            }
-            
-            JsonObject data = gson.fromJson(response.body(), JsonObject.class);
-            JsonObject current = data.getAsJsonObject("current");
-            
-            double temp = current.get("temperature_2m").getAsDouble();
-            int weatherCode = current.get("weather_code").getAsInt();
-            double windSpeedValue = current.get("wind_speed_10m").getAsDouble();
-            
-            return new WeatherData(
-                Temperature.celsius(temp),
-                weatherCode,
-                WindSpeed.kmPerHour(windSpeedValue)
-            );
-            
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new WeatherServiceException("Weather request interrupted", e);
+    public CompletableFuture<Forecast> getForecastAsync(Coordinates coordinates, int days, Duration timeout) {
+        String url = String.format(Locale.US, "%s?latitude=%.2f&longitude=%.2f", weatherApi,
+                coordinates.getLatitude(), coordinates.getLongitude())
+            + "&hourly=temperature_2m,precipitation,weather_code,wind_speed_10m"
+            + "&daily=weather_code,temperature_2m_max,temperature_2m_min,precipitation_sum"
+            + "&timezone=auto&timeformat=unixtime&forecast_days=" + days;
+
+        return send(url, timeout, "Weather", response ->
+            read(response, "Weather", "Failed to fetch forecast", reader -> readForecast(reader, days)));
+    }
+
+    /**
+     * Reads the first result of a geocoding answer, or returns null if there is none.
+     */
+    static GeocodeResult readGeocodeResult(JsonReader reader) throws IOException {
+        GeocodeResult result = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("results") || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            if (reader.hasNext()) {
+                result = readPlace(reader);
+            }
+            while (reader.hasNext()) {
+                reader.skipValue();
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        return result;
+    }
+
+    private static GeocodeResult readPlace(JsonReader reader) throws IOException {
+        Double latitude = null;
+        Double longitude = null;
+        String countryName = "Unknown";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "latitude" -> latitude = reader.nextDouble();
+                case "longitude" -> longitude = reader.nextDouble();
+                case "country" -> countryName = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (latitude == null || longitude == null) {
+            throw new IllegalStateException("Geocoding result without coordinates");
+        }
+        return new GeocodeResult(new Coordinates(latitude, longitude), countryName);
+    }
+
+    /**
+     * Reads the current conditions of a forecast answer for one location or an array of them.
+     */
+    static List<WeatherData> readCurrentWeather(JsonReader reader) throws IOException {
+        List<WeatherData> weather = new ArrayList<>();
+        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                weather.add(readLocation(reader));
+            }
+            reader.endArray();
+        } else {
+            weather.add(readLocation(reader));
+        }
+        return weather;
+    }
+
+    private static WeatherData readLocation(JsonReader reader) throws IOException {
+        WeatherData weather = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("current")) {
+                weather = readCurrent(reader);
+            } else {
+                // Hourly and daily series are skipped without being materialized
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (weather == null) {
+            throw new IllegalStateException("Forecast without current conditions");
+        }
+        return weather;
+    }
+
+    private static WeatherData readCurrent(JsonReader reader) throws IOException {
+        Double temperature = null;
+        Integer weatherCode = null;
+        Double windSpeed = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "temperature_2m" -> temperature = reader.nextDouble();
+                case "weather_code" -> weatherCode = reader.nextInt();
+                case "wind_speed_10m" -> windSpeed = reader.nextDouble();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (temperature == null || weatherCode == null || windSpeed == null) {
+            throw new IllegalStateException("Incomplete current conditions");
+        }
+        return new WeatherData(Temperature.celsius(temperature), weatherCode, WindSpeed.kmPerHour(windSpeed));
+    }
+
+    /**
+     * Reads a forecast answer, each series straight into a primitive array.
+     */
+    static Forecast readForecast(JsonReader reader, int days) throws IOException {
+        String timezone = "GMT";
+        int utcOffsetSeconds = 0;
+        Forecast.Hourly hourly = null;
+        Forecast.Daily daily = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "timezone" -> timezone = reader.nextString();
+                case "utc_offset_seconds" -> utcOffsetSeconds = reader.nextInt();
+                case "hourly" -> hourly = readHourly(reader, days * 24);
+                case "daily" -> daily = readDaily(reader, days);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (hourly == null || daily == null) {
+            throw new IllegalStateException("Forecast without hourly or daily series");
+        }
+        return new Forecast(timezone, utcOffsetSeconds, hourly, daily);
+    }
+
+    private static Forecast.Hourly readHourly(JsonReader reader, int expected) throws IOException {
+        long[] times = null;
+        double[] temperature = null;
+        double[] precipitation = null;
+        int[] weatherCode = null;
+        double[] windSpeed = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "time" -> times = readLongs(reader, expected);
+                case "temperature_2m" -> temperature = readDoubles(reader, expected);
+                case "precipitation" -> precipitation = readDoubles(reader, expected);
+                case "weather_code" -> weatherCode = readInts(reader, expected);
+                case "wind_speed_10m" -> windSpeed = readDoubles(reader, expected);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (times == null || temperature == null || precipitation == null || weatherCode == null
+                || windSpeed == null) {
+            throw new IllegalStateException("Incomplete hourly series");
+        }
+        return new Forecast.Hourly(times, temperature, precipitation, weatherCode, windSpeed);
+    }
+
+    private static Forecast.Daily readDaily(JsonReader reader, int expected) throws IOException {
+        long[] times = null;
+        int[] weatherCode = null;
+        double[] temperatureMax = null;
+        double[] temperatureMin = null;
+        double[] precipitationSum = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "time" -> times = readLongs(reader, expected);
+                case "weather_code" -> weatherCode = readInts(reader, expected);
+                case "temperature_2m_max" -> temperatureMax = readDoubles(reader, expected);
+                case "temperature_2m_min" -> temperatureMin = readDoubles(reader, expected);
+                case "precipitation_sum" -> precipitationSum = readDoubles(reader, expected);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (times == null || weatherCode == null || temperatureMax == null || temperatureMin == null
+                || precipitationSum == null) {
+            throw new IllegalStateException("Incomplete daily series");
+        }
+        return new Forecast.Daily(times, weatherCode, temperatureMax, temperatureMin, precipitationSum);
+    }
+
+    private static long[] readLongs(JsonReader reader, int expected) throws IOException {
+        long[] values = new long[expected];
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, Math.max(16, count * 2));
+            }
+            values[count++] = reader.nextLong();
+        }
+        reader.endArray();
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Reads an array of numbers, missing ones as NaN.
+     */
+    private static double[] readDoubles(JsonReader reader, int expected) throws IOException {
+        double[] values = new double[expected];
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, Math.max(16, count * 2));
+            }
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                values[count++] = Double.NaN;
+            } else {
+                values[count++] = reader.nextDouble();
+            }
+        }
+        reader.endArray();
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Reads an array of weather codes, missing ones as -1.
+     */
+    private static int[] readInts(JsonReader reader, int expected) throws IOException {
+        int[] values = new int[expected];
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, Math.max(16, count * 2));
+            }
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                values[count++] = -1;
+            } else {
+                values[count++] = reader.nextInt();
+            }
+        }
+        reader.endArray();
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Reads the fields of interest from a received body, decompressing it as it is parsed if it is
+     * gzipped. A body that is not the expected JSON fails with {@code failure}; one cut short, as unavailable.
+     */
+    private static <T> T read(HttpResponse<byte[]> response, String service, String failure,
+                              BodyParser<T> parser) {
+        try (InputStream body = decoded(response);
+             JsonReader reader = new JsonReader(utf8Reader(body))) {
+            return parser.parse(reader);
+        } catch (MalformedJsonException | IllegalStateException | IllegalArgumentException e) {
+            throw new CompletionException(new WeatherServiceException(failure, e));
         } catch (IOException e) {
-            throw new WeatherServiceException("Network error fetching weather", e);
-        } catch (Exception e) {
-            throw new WeatherServiceException("Failed to fetch weather data", e);
+            throw new CompletionException(new WeatherUnavailableException(
+                "Network error during " + service.toLowerCase(Locale.ROOT) + " request", e));
         }
     }
+
+    /**
+     * Decodes through a buffer sized like the JSON reader's own rather than an InputStreamReader's 8 KB,
+     * which would dominate the allocation of a typical answer.
+     */
+    static Reader utf8Reader(InputStream in) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        return Channels.newReader(Channels.newChannel(in), decoder, DECODER_BUFFER_BYTES);
+    }
+
+    private static InputStream decoded(HttpResponse<byte[]> response) throws IOException {
+        InputStream body = new ByteArrayInputStream(response.body());
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+            .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+            .orElse(false);
+        return gzip ? new GZIPInputStream(body) : body;
+    }
+
+    /**
+     * Pulls a value out of a JSON body.
+     */
+    @FunctionalInterface
+    interface BodyParser<T> {
+        T parse(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Sends a GET request asking for a gzipped answer and completes with what {@code reader} makes
+     * of the response of a successful request once its body has been received. The client collects
+     * the body without holding a thread, so parsing it never waits on the network; and since the
+     * request timeout only bounds the wait for the headers, the whole exchange is given
+     * {@code timeout} as well, so that a body that stalls is abandoned. Cancelling the returned
+     * future aborts the exchange.
+     */
+    private <T> CompletableFuture<T> send(String url, Duration timeout, String service,
+                                          Function<HttpResponse<byte[]>, T> reader) {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .header("Accept-Encoding", "gzip")
+            .GET()
+            .timeout(timeout)
+            .build();
+
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        // Timed out on a copy, so that the exchange itself can still be cancelled
+        CompletableFuture<HttpResponse<byte[]>> bounded =
+            exchange.copy().orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        CompletableFuture<T> result = bounded.handle((response, failure) -> {
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+                if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+                    exchange.cancel(true);
+                    throw new CompletionException(new WeatherUnavailableException(service + " request timed out", cause));
+                }
+                if (cause instanceof IOException) {
+                    throw new CompletionException(new WeatherUnavailableException(
+                        "Network error during " + service.toLowerCase(Locale.ROOT) + " request", cause));
+                }
+                throw new CompletionException(new WeatherServiceException(service + " request failed", cause));
+            }
+            int status = response.statusCode();
+            if (status == 429 || status >= 500) {
+                throw new CompletionException(
+                    new WeatherUnavailableException(service + " service returned HTTP " + status));
+            }
+            if (status != 200) {
+                throw new CompletionException(new WeatherServiceException(service + " service returned HTTP " + status));
+            }
+            return response;
+        }).thenApply(reader);
+        result.whenComplete((value, failure) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
 }
@@ -0,0 +1,367 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.model.Forecast;
+import com.example.mcp.domain.valueobject.CityName;
+import com.example.mcp.domain.valueobject.Coordinates;
+
+/**
+ * Resilience decorator for the upstream weather service.
+ * Each attempt gets a bounded slice of the caller's timeout. Failures that say the service
+ * could not answer now ({@link WeatherUnavailableException}) are retried after a jittered,
+ * exponentially growing pause while the deadline allows; answers such as an unknown city
+ * are not. Geocoding and forecasts have a circuit breaker each: after a run of such
+ * failures it fails requests at once for a while, then lets a single probe through and
+ * closes again if the probe succeeds. A bulkhead bounds the requests in flight, and
+ * optionally a request still unanswered after the 95th percentile of recent latencies is
+ * hedged with a second one, the first answer winning and the other being cancelled.
+ * Requests the bulkhead or an open circuit turn away fail at once, without retries, since
+ * asking again within the same deadline would only be turned away again. Nothing here
+ * holds a thread while waiting.
+ */
+public final class ResilientWeatherAdapter implements WeatherServicePort {
+    /** Attempts with less time left than this are not started. */
+    private static final long MIN_ATTEMPT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * Tunables of the resilience layer.
+     *
+     * @param maxAttempts Attempts per request, including the first
+     * @param initialBackoff Upper bound of the pause before the first retry; doubles per retry
+     * @param maxBackoff Upper bound of any pause
+     * @param attemptTimeout Longest a single attempt may take
+     * @param failureThreshold Consecutive failures that open a circuit
+     * @param openDuration How long an open circuit fails requests before probing
+     * @param maxConcurrent Requests in flight at once; further ones fail at once
+     * @param hedging Whether slow requests are hedged with a second one
+     */
+    public record Policy(
+        int maxAttempts,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        Duration attemptTimeout,
+        int failureThreshold,
+        Duration openDuration,
+        int maxConcurrent,
+        boolean hedging
+    ) {
+        public Policy {
+            if (maxAttempts < 1 || failureThreshold < 1 || maxConcurrent < 1) {
+                throw new IllegalArgumentException("Attempts, failure threshold and concurrency must be positive");
+            }
+        }
+
+        public static Policy defaults() {
+            return new Policy(3, Duration.ofMillis(200), Duration.ofSeconds(2), Duration.ofSeconds(4),
+                5, Duration.ofSeconds(30), 16, false);
+        }
+
+        public Policy withHedging(boolean hedging) {
+            return new Policy(maxAttempts, initialBackoff, maxBackoff, attemptTimeout,
+                failureThreshold, openDuration, maxConcurrent, hedging);
+        }
+    }
+
+    private final WeatherServicePort delegate;
+    private final Policy policy;
+    private final Semaphore bulkhead;
+    private final Upstream geocoding;
+    private final Upstream forecast;
+
+    public ResilientWeatherAdapter(WeatherServicePort delegate, Policy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.bulkhead = new Semaphore(policy.maxConcurrent());
+        this.geocoding = new Upstream("Geocoding", new CircuitBreaker(policy.failureThreshold(), policy.openDuration()));
+        this.forecast = new Upstream("Weather", new CircuitBreaker(policy.failureThreshold(), policy.openDuration()));
+    }
+
+    @Override
+    public CompletableFuture<GeocodeResult> geocodeAsync(CityName city, Duration timeout) {
+        return call(geocoding, attemptTimeout -> delegate.geocodeAsync(city, attemptTimeout), timeout);
+    }
+
+    @Override
+    public CompletableFuture<WeatherData> getCurrentWeatherAsync(Coordinates coordinates, Duration timeout) {
+        return call(forecast, attemptTimeout -> delegate.getCurrentWeatherAsync(coordinates, attemptTimeout), timeout);
+    }
+
+    @Override
+    public CompletableFuture<List<WeatherData>> getCurrentWeatherBatchAsync(List<Coordinates> coordinates,
+                                                                          Duration timeout) {
+        return call(forecast, attemptTimeout -> delegate.getCurrentWeatherBatchAsync(coordinates, attemptTimeout),
+            timeout);
+    }
+
+    @Override
+    public CompletableFuture<Forecast> getForecastAsync(Coordinates coordinates, int days, Duration timeout) {
+        return call(forecast, attemptTimeout -> delegate.getForecastAsync(coordinates, days, attemptTimeout), timeout);
+    }
+
+    /**
+     * One of the upstream services, with its own circuit and latency history.
+     */
+    private record Upstream(String name, CircuitBreaker breaker, LatencyWindow latency) {
+        Upstream(String name, CircuitBreaker breaker) {
+            this(name, breaker, new LatencyWindow());
+        }
+    }
+
+    private <T> CompletableFuture<T> call(Upstream upstream, Function<Duration, CompletableFuture<T>> request,
+                                          Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(upstream, request, System.nanoTime() + timeout.toNanos(), 1, result);
+        return result;
+    }
+
+    private <T> void attempt(Upstream upstream, Function<Duration, CompletableFuture<T>> request, long deadline,
+                             int attempt, CompletableFuture<T> result) {
+        long remaining = Math.max(deadline - System.nanoTime(), MIN_ATTEMPT_NANOS);
+        Duration timeout = Duration.ofNanos(Math.min(remaining, policy.attemptTimeout().toNanos()));
+        hedged(upstream, request, timeout).whenComplete((value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+                return;
+            }
+            WeatherServiceException error = WeatherServiceException.from(failure);
+            long backoff = backoff(attempt);
+            boolean retry = error instanceof WeatherUnavailableException
+                && !(error instanceof RejectedException)
+                && attempt < policy.maxAttempts()
+                && !upstream.breaker().isOpen()
+                && deadline - System.nanoTime() - backoff >= MIN_ATTEMPT_NANOS;
+            if (!retry) {
+                result.completeExceptionally(error);
+                return;
+            }
+            CompletableFuture.delayedExecutor(backoff, TimeUnit.NANOSECONDS)
+                .execute(() -> attempt(upstream, request, deadline, attempt + 1, result));
+        });
+    }
+
+    /**
+     * Full jitter: a pause drawn uniformly below an exponentially growing bound.
+     */
+    private long backoff(int attempt) {
+        long bound = policy.initialBackoff().toNanos() << Math.min(attempt - 1, 20);
+        bound = Math.min(bound, policy.maxBackoff().toNanos());
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound);
+    }
+
+    /**
+     * Sends a request and, if hedging is on and it is slower than usual, a second one.
+     * Completes with the first success, or with the last failure once every request sent has failed.
+     * Whichever request is still running when the first succeeds is cancelled, which gives back its
+     * place in the bulkhead.
+     */
+    private <T> CompletableFuture<T> hedged(Upstream upstream, Function<Duration, CompletableFuture<T>> request,
+                                            Duration timeout) {
+        CompletableFuture<T> primary = send(upstream, request, timeout);
+        long delay = policy.hedging() ? upstream.latency().percentile95() : -1;
+        if (delay < 0 || primary.isDone() || timeout.toNanos() - delay < MIN_ATTEMPT_NANOS) {
+            return primary;
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<T>> hedge = new AtomicReference<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        BiConsumer<T, Throwable> settle = (value, failure) -> {
+            if (failure == null) {
+                // The loser gives its place back before the caller hears the answer
+                primary.cancel(true);
+                CompletableFuture<T> second = hedge.get();
+                if (second != null) {
+                    second.cancel(true);
+                }
+                result.complete(value);
+            } else if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(failure);
+            }
+        };
+        primary.whenComplete(settle);
+        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+            if (result.isDone() || outstanding.getAndIncrement() == 0) {
+                return;
+            }
+            CompletableFuture<T> second = send(upstream, request, timeout.minusNanos(delay));
+            hedge.set(second);
+            second.whenComplete(settle);
+            if (result.isDone()) {
+                second.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sends one request if the bulkhead and the circuit let it through, and records how it went.
+     * Cancelling the returned future cancels the request; that says nothing about the service,
+     * so the circuit is left as it is. A probe is never cancelled: while it runs the circuit
+     * turns every other request away, so it is never the slower of a hedged pair.
+     */
+    private <T> CompletableFuture<T> send(Upstream upstream, Function<Duration, CompletableFuture<T>> request,
+                                          Duration timeout) {
+        if (!bulkhead.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedException(
+                "Too many concurrent " + upstream.name().toLowerCase(Locale.ROOT) + " requests"));
+        }
+        if (!upstream.breaker().allowRequest()) {
+            bulkhead.release();
+            long remaining = upstream.breaker().remainingOpenNanos();
+            return CompletableFuture.failedFuture(new RejectedException(upstream.name() + " service is failing; "
+                + (remaining > 0
+                    ? "not asked again for " + ceilSeconds(remaining) + " s"
+                    : "not asked again until a probe request succeeds")));
+        }
+
+        long started = System.nanoTime();
+        CompletableFuture<T> response;
+        try {
+            response = request.apply(timeout);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        // Settled from a stage of its own, so that the bookkeeping is done even if the caller cancels
+        CompletableFuture<T> sent = response;
+        CompletableFuture<T> outcome = new CompletableFuture<>();
+        sent.whenComplete((value, failure) -> {
+            bulkhead.release();
+            if (failure instanceof CancellationException) {
+                outcome.completeExceptionally(failure);
+                return;
+            }
+            if (failure == null) {
+                upstream.latency().record(System.nanoTime() - started);
+                upstream.breaker().onSuccess();
+                outcome.complete(value);
+                return;
+            }
+            if (WeatherServiceException.from(failure) instanceof WeatherUnavailableException) {
+                upstream.breaker().onFailure();
+            } else {
+                // The service answered, if with an error
+                upstream.breaker().onSuccess();
+            }
+            outcome.completeExceptionally(failure);
+        });
+        outcome.whenComplete((value, failure) -> {
+            if (outcome.isCancelled()) {
+                sent.cancel(true);
+            }
+        });
+        return outcome;
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * A request turned away by the bulkhead or an open circuit without being sent.
+     * Still a sign the service cannot answer now, but not one a retry could overcome.
+     */
+    private static final class RejectedException extends WeatherUnavailableException {
+        RejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Consecutive-failure circuit breaker: closed, open for a while, then half open with one probe.
+     */
+    private static final class CircuitBreaker {
+        private enum State { CLOSED, OPEN, HALF_OPEN }
+
+        private final int failureThreshold;
+        private final long openNanos;
+        private State state = State.CLOSED;
+        private int failures;
+        private long openedNanos;
+
+        CircuitBreaker(int failureThreshold, Duration openDuration) {
+            this.failureThreshold = failureThreshold;
+            this.openNanos = openDuration.toNanos();
+        }
+
+        synchronized boolean allowRequest() {
+            return switch (state) {
+                case CLOSED -> true;
+                case HALF_OPEN -> false;
+                case OPEN -> {
+                    if (System.nanoTime() - openedNanos < openNanos) {
+                        yield false;
+                    }
+                    // Let this request probe; others wait for its outcome
+                    state = State.HALF_OPEN;
+                    yield true;
+                }
+            };
+        }
+
+        synchronized boolean isOpen() {
+            return state == State.OPEN && System.nanoTime() - openedNanos < openNanos;
+        }
+
+        synchronized long remainingOpenNanos() {
+            return state == State.OPEN ? Math.max(0, openNanos - (System.nanoTime() - openedNanos)) : 0;
+        }
+
+        synchronized void onSuccess() {
+            failures = 0;
+            state = State.CLOSED;
+        }
+
+        synchronized void onFailure() {
+            failures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+                state = State.OPEN;
+                openedNanos = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * The latencies of the most recent successful requests.
+     */
+    private static final class LatencyWindow {
+        private static final int SIZE = 128;
+        /** Fewer samples than this say too little to hedge by. */
+        private static final int MIN_SAMPLES = 20;
+
+        private final long[] samples = new long[SIZE];
+        private int count;
+        private int next;
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % SIZE;
+            count = Math.min(count + 1, SIZE);
+        }
+
+        /**
+         * Returns the 95th percentile in nanoseconds, or -1 if there are too few samples.
+         */
+        synchronized long percentile95() {
+            if (count < MIN_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(count * 0.95) - 1];
+        }
+    }
+}
@@ -2,8 +2,22 @@ package com.example.mcp.application.port.in;
 
 import java.util.List;
 
+import com.example.mcp.domain.model.DirectoryChanges;
+import com.example.mcp.domain.model.DirectoryListing;
+import com.example.mcp.domain.model.DiskUsageReport;
+import com.example.mcp.domain.model.FileChunk;
+import com.example.mcp.domain.model.FileHashReport;
 import com.example.mcp.domain.model.FileMetadata;
+import com.example.mcp.domain.model.FileSearchResult;
+import com.example.mcp.domain.model.FileTail;
 import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.ListingCursor;
+import com.example.mcp.domain.valueobject.ListingSort;
+import com.example.mcp.domain.valueobject.ReadCursor;
+import com.example.mcp.domain.valueobject.ReadRange;
+import com.example.mcp.domain.valueobject.TailCursor;
+import com.example.mcp.domain.valueobject.WatchCursor;
+import com.example.mcp.domain.valueobject.WriteMode;
 
 /**
  * Input port (use case interface) for file system operations.
@@ -11,6 +25,27 @@ import com.example.mcp.domain.valueobject.FilePath;
  */
 public interface FileOperationUseCase {
     
+    /**
+     * Outcome of reading one file in a batch: either a chunk or an error message.
+     */
+    record FileReadResult(
+        FilePath path,
+        FileChunk chunk,
+        String error
+    ) {
+        public boolean isError() {
+            return error != null;
+        }
+    }
+
+    /**
+     * Summary of a copy: how many files and bytes were transferred.
+     */
+    record CopyResult(
+        long files,
+        long bytes
+    ) {}
+    
     /**
      * Reads the contents of a text file.
      * 
@@ -19,6 +54,70 @@ public interface FileOperationUseCase {
      * @throws FileOperationException if the file cannot be read
      */
     String readFile(FilePath path) throws FileOperationException;
+
+    /**
+     * Reads a range of a text file as a bounded page.
+     * If the range extends past the page size, the returned chunk carries a
+     * continuation cursor for the next page.
+     *
+     * @param path The file path
+     * @param range The byte or line range to read
+     * @return The decoded page of content
+     * @throws FileOperationException if the file cannot be read
+     */
+    FileChunk readFile(FilePath path, ReadRange range) throws FileOperationException;
+
+    /**
+     * Continues a paged read from a cursor returned by a previous chunk.
+     *
+     * @param path The file path
+     * @param cursor The continuation cursor
+     * @return The next page of content
+     * @throws FileOperationException if the file cannot be read
+     */
+    FileChunk readFile(FilePath path, ReadCursor cursor) throws FileOperationException;
+
+    /**
+     * Reads the last lines of a text file.
+     *
+     * @param path The file path
+     * @param lines The number of trailing lines to return
+     * @return The tail, with a cursor for following later appends
+     * @throws FileOperationException if the file cannot be read
+     */
+    FileTail tailFile(FilePath path, int lines) throws FileOperationException;
+
+    /**
+     * Reads what was appended to a file since a previous tail.
+     * If the file was truncated or replaced in the meantime, reading starts over at its beginning.
+     *
+     * @param path The file path
+     * @param cursor The cursor returned by the previous tail
+     * @return The new content, possibly empty, with a cursor for the next call
+     * @throws FileOperationException if the file cannot be read
+     */
+    FileTail tailFile(FilePath path, TailCursor cursor) throws FileOperationException;
+    
+    /**
+     * Reads several files concurrently within a shared byte budget.
+     * Failures are reported per file instead of failing the batch.
+     * 
+     * @param paths The files to read
+     * @param byteBudget The total number of bytes to return across all files
+     * @return One result per path, in the same order
+     */
+    List<FileReadResult> readFiles(List<FilePath> paths, long byteBudget);
+
+    /**
+     * Reads every file under a directory that matches a glob, concurrently.
+     * 
+     * @param root The directory to search (null for current directory)
+     * @param glob The glob selecting files
+     * @param byteBudget The total number of bytes to return across all files
+     * @return One result per matching file, ordered by path
+     * @throws FileOperationException if the directory cannot be searched
+     */
+    List<FileReadResult> readFiles(FilePath root, String glob, long byteBudget) throws FileOperationException;
     
     /**
      * Writes content to a file (creates or overwrites).
@@ -28,6 +127,87 @@ public interface FileOperationUseCase {
      * @throws FileOperationException if the file cannot be written
      */
     void writeFile(FilePath path, String content) throws FileOperationException;
+
+    /**
+     * Writes content to a file using the given mode.
+     * Overwrites and new files become visible atomically.
+     * 
+     * @param path The file path
+     * @param content The content to write
+     * @param mode Whether to overwrite, append to, or only create the file
+     * @return The number of bytes written
+     * @throws FileOperationException if the file cannot be written
+     */
+    long writeFile(FilePath path, String content, WriteMode mode) throws FileOperationException;
+
+    /**
+     * Copies a file or a directory tree. File contents are copied by the kernel,
+     * so binary files are preserved and nothing is decoded.
+     * 
+     * @param source The file or directory to copy
+     * @param target The path of the copy
+     * @param overwrite Whether an existing target file may be replaced
+     * @return The number of files and bytes copied
+     * @throws FileOperationException if the copy fails
+     */
+    CopyResult copyFile(FilePath source, FilePath target, boolean overwrite) throws FileOperationException;
+
+    /**
+     * Moves or renames a file or directory.
+     * 
+     * @param source The file or directory to move
+     * @param target The new path
+     * @param overwrite Whether an existing target file may be replaced
+     * @throws FileOperationException if the move fails
+     */
+    void moveFile(FilePath source, FilePath target, boolean overwrite) throws FileOperationException;
+
+    /**
+     * Computes SHA-256 digests of the given files.
+     * Files unchanged since they were last hashed are not read again.
+     * 
+     * @param paths The files to hash
+     * @return One hash per file, in the same order
+     * @throws FileOperationException if a file cannot be hashed
+     */
+    FileHashReport hashFiles(List<FilePath> paths) throws FileOperationException;
+
+    /**
+     * Computes SHA-256 digests of every file under a directory that matches a glob.
+     * 
+     * @param root The directory to hash (null for current directory)
+     * @param glob The glob selecting files
+     * @param limit The maximum number of files to hash
+     * @return The hashes ordered by path
+     * @throws FileOperationException if the directory cannot be hashed
+     */
+    FileHashReport hashFiles(FilePath root, String glob, int limit) throws FileOperationException;
+
+    /**
+     * Measures the disk space used below a directory and finds its largest subtrees.
+     * Directories unchanged since they were last measured are not listed again.
+     * 
+     * @param root The directory to measure (null for current directory)
+     * @param top How many of the largest subtrees to report
+     * @param refresh Whether to list every directory again, to pick up files that grew in place
+     * @return The totals of the directory and its largest subtrees
+     * @throws FileOperationException if the directory cannot be measured
+     */
+    DiskUsageReport diskUsage(FilePath root, int top, boolean refresh) throws FileOperationException;
+
+    /**
+     * Returns what changed in a directory since a cursor, starting to watch it on the first call.
+     * Bursts of events are coalesced, so each changed path is reported once per batch.
+     * 
+     * @param path The directory to watch
+     * @param recursive Whether to include changes in subdirectories
+     * @param cursor The cursor of a previous call, or null to start watching from now
+     * @param waitMillis How long to wait for a change if none is pending, or 0 not to wait
+     * @return The changes after the cursor and the cursor to continue from
+     * @throws FileOperationException if the directory cannot be watched
+     */
+    DirectoryChanges watchDirectory(FilePath path, boolean recursive, WatchCursor cursor, long waitMillis)
+        throws FileOperationException;
     
     /**
      * Lists all files and directories in a directory.
@@ -37,6 +217,48 @@ public interface FileOperationUseCase {
      * @throws FileOperationException if the directory cannot be listed
      */
     List<FileMetadata> listDirectory(FilePath path) throws FileOperationException;
+
+    /**
+     * Lists one sorted page of a directory.
+     * Only the requested page is kept in memory, however large the directory.
+     *
+     * @param path The directory path (null for current directory)
+     * @param sort The sort order
+     * @param descending Whether to sort in descending order
+     * @param limit The maximum number of entries on the page
+     * @param cursor The cursor of the previous page, or null for the first page; overrides sort and descending
+     * @return The page of entries and a cursor for the next page
+     * @throws FileOperationException if the directory cannot be listed
+     */
+    DirectoryListing listDirectory(FilePath path, ListingSort sort, boolean descending,
+                                   int limit, ListingCursor cursor) throws FileOperationException;
+    
+    /**
+     * Recursively searches a directory tree for files matching a glob and,
+     * optionally, lines matching a regular expression.
+     * 
+     * @param root The directory to search (null for current directory)
+     * @param glob The glob selecting files
+     * @param regex The regular expression to search contents for, or null to match paths only
+     * @param limit The maximum number of matches to return; the search stops once it is reached
+     * @return The matches, ordered by path and line
+     * @throws FileOperationException if the directory cannot be searched
+     */
+    FileSearchResult searchFiles(FilePath root, String glob, String regex, int limit) throws FileOperationException;
+
+    /**
+     * Searches file contents like {@link #searchFiles}, using a trigram index of the tree
+     * to skip files that cannot match. The first search of a tree builds the index;
+     * later ones only re-read files that changed in between.
+     * 
+     * @param root The directory to search (null for current directory)
+     * @param glob The glob selecting files
+     * @param regex The regular expression to search contents for
+     * @param limit The maximum number of matches to return; the search stops once it is reached
+     * @return The matches, ordered by path and line
+     * @throws FileOperationException if the directory cannot be searched
+     */
+    FileSearchResult indexedSearch(FilePath root, String glob, String regex, int limit) throws FileOperationException;
     
     /**
      * Exception thrown when file operations encounter an error.
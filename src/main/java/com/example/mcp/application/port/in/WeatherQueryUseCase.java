@@ -1,5 +1,9 @@
 package com.example.mcp.application.port.in;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.example.mcp.domain.model.Forecast;
 import com.example.mcp.domain.model.Weather;
 import com.example.mcp.domain.valueobject.CityName;
 
@@ -8,6 +12,36 @@ import com.example.mcp.domain.valueobject.CityName;
  * This defines what the application can do with weather data.
  */
 public interface WeatherQueryUseCase {
+
+    /**
+     * Outcome of querying one city of a batch: either its weather or an error message.
+     */
+    record CityWeatherResult(
+        CityName city,
+        Weather weather,
+        String error
+    ) {
+        public boolean isError() {
+            return error != null;
+        }
+    }
+    
+    /**
+     * A city's hourly and daily forecast.
+     */
+    record CityForecast(
+        CityName city,
+        String countryName,
+        Forecast forecast
+    ) {
+        /**
+         * Summarizes the forecast from the hour containing {@code now}, in epoch seconds, on.
+         */
+        public String format(long now, int windowHours) {
+            return String.format("Forecast for %s (%s), %d days, times in %s:\n%s", city.getValue(), countryName,
+                forecast.getDays(), forecast.getTimezone(), forecast.format(now, windowHours));
+        }
+    }
     
     /**
      * Retrieves current weather information for a city.
@@ -17,6 +51,36 @@ public interface WeatherQueryUseCase {
      * @throws WeatherServiceException if the city is not found or the service is unavailable
      */
     Weather getWeatherForCity(CityName city) throws WeatherServiceException;
+
+    /**
+     * Retrieves current weather information for a city without blocking the caller.
+     * 
+     * @param city The city to get weather for
+     * @return Weather information; fails with {@link WeatherServiceException} if the city
+     *         is not found, the service is unavailable or the lookup takes too long
+     */
+    CompletableFuture<Weather> getWeatherForCityAsync(CityName city);
+
+    /**
+     * Retrieves current weather information for many cities without blocking the caller.
+     * A city that cannot be found or fetched is reported as an error without failing the others.
+     * 
+     * @param cities The cities to get weather for
+     * @return One result per city, in the same order
+     * @throws IllegalArgumentException if too many cities are given
+     */
+    CompletableFuture<List<CityWeatherResult>> getWeatherForCitiesAsync(List<CityName> cities);
+
+    /**
+     * Retrieves the hourly and daily forecast for a city without blocking the caller.
+     * 
+     * @param city The city to get the forecast for
+     * @param days Number of days to forecast, today included
+     * @return The forecast; fails with {@link WeatherServiceException} if the city is not
+     *         found, the service is unavailable or the lookup takes too long
+     * @throws IllegalArgumentException if the number of days is out of range
+     */
+    CompletableFuture<CityForecast> getForecastForCityAsync(CityName city, int days);
     
     /**
      * Exception thrown when weather service encounters an error.
@@ -0,0 +1,32 @@
+package com.example.mcp.application.port.out;
+
+/**
+ * Output port (service interface) for reading cache statistics.
+ * Implemented by caching adapters so their effectiveness can be reported.
+ */
+public interface CacheMetricsPort {
+
+    /**
+     * Point-in-time statistics of a cache.
+     */
+    record CacheStats(
+        String name,
+        long hits,
+        long misses,
+        long entries,
+        long sizeBytes,
+        long bytesServed
+    ) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * Returns the current statistics of the cache.
+     *
+     * @return Cache statistics
+     */
+    CacheStats cacheStats();
+}
@@ -0,0 +1,41 @@
+package com.example.mcp.application.port.out;
+
+import com.example.mcp.domain.model.DirectoryChanges;
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.WatchCursor;
+
+/**
+ * Output port (service interface) for observing changes to directories.
+ * Implementations keep a feed of changes per watched directory, folding bursts of
+ * raw events into one change per path, and may drop watches that go unused.
+ */
+public interface DirectoryWatchPort {
+
+    /**
+     * Returns the changes in a directory after a cursor, starting to watch it if needed.
+     * If nothing has changed yet, waits up to {@code waitMillis} for the next batch.
+     *
+     * @param directory The directory to watch
+     * @param recursive Whether changes in subdirectories are included
+     * @param since The cursor returned by a previous call, or null to start from now
+     * @param maxChanges The maximum number of changes to return
+     * @param waitMillis How long to wait for a change if none is pending, or 0 not to wait
+     * @return The changes and the cursor to continue from
+     * @throws DirectoryWatchException if the directory cannot be watched
+     */
+    DirectoryChanges changes(FilePath directory, boolean recursive, WatchCursor since,
+                             int maxChanges, long waitMillis) throws DirectoryWatchException;
+
+    /**
+     * Exception thrown when a directory cannot be watched.
+     */
+    class DirectoryWatchException extends Exception {
+        public DirectoryWatchException(String message) {
+            super(message);
+        }
+
+        public DirectoryWatchException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.mcp.application.port.out;
+
+import java.util.function.Predicate;
+
+import com.example.mcp.domain.model.DiskUsageReport;
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Output port (service interface) for measuring the disk space used by directory trees.
+ * Implementations may remember the totals of directories that have not changed since they were last walked.
+ */
+public interface DiskUsagePort {
+
+    /**
+     * Sums the sizes and counts the files of every directory below a root.
+     * Symbolic links are counted but not followed; unreadable directories count as empty.
+     *
+     * @param root The directory to measure
+     * @param top How many of the largest subtrees to report
+     * @param pathFilter Decides which subdirectories are included
+     * @param refresh Whether to list every directory again instead of trusting remembered totals
+     * @return The totals of the root and its largest subtrees
+     * @throws DiskUsageException if the root cannot be read
+     */
+    DiskUsageReport usage(FilePath root, int top, Predicate<FilePath> pathFilter, boolean refresh)
+        throws DiskUsageException;
+
+    /**
+     * Exception thrown when measuring disk usage fails.
+     */
+    class DiskUsageException extends Exception {
+        public DiskUsageException(String message) {
+            super(message);
+        }
+
+        public DiskUsageException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.mcp.application.port.out;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.example.mcp.domain.model.FileHashReport;
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Output port (service interface) for hashing file contents.
+ * Implementations may remember digests of files that have not changed since they were last hashed.
+ */
+public interface FileHashPort {
+
+    /**
+     * Hashes the given regular files.
+     *
+     * @param files The files to hash
+     * @return One hash per file, in the same order
+     * @throws FileHashException if a file cannot be read
+     */
+    FileHashReport hashFiles(List<FilePath> files) throws FileHashException;
+
+    /**
+     * Hashes every regular file below a directory whose name, or relative path if the
+     * glob contains '/', matches the glob. Unreadable files are skipped.
+     *
+     * @param root The directory to walk
+     * @param glob The glob selecting files
+     * @param pathFilter Decides which files may be hashed
+     * @param limit The maximum number of files to hash
+     * @return The hashes ordered by path
+     * @throws FileHashException if the directory cannot be walked
+     */
+    FileHashReport hashTree(FilePath root, String glob, Predicate<FilePath> pathFilter, int limit)
+        throws FileHashException;
+
+    /**
+     * Exception thrown when hashing fails.
+     */
+    class FileHashException extends Exception {
+        public FileHashException(String message) {
+            super(message);
+        }
+
+        public FileHashException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -1,16 +1,51 @@
 package com.example.mcp.application.port.out;
 
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import com.example.mcp.domain.model.FileMetadata;
+import com.example.mcp.domain.model.SearchMatch;
 import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.WriteMode;
 
 /**
  * Output port (service interface) for file system operations.
  * This defines what the application needs from a file system.
  */
 public interface FileSystemPort {
-    
+
+    /**
+     * A decoded slice of a text file.
+     * {@code start} and {@code end} are byte offsets on UTF-8 character boundaries.
+     */
+    record TextChunk(
+        String text,
+        long start,
+        long end,
+        long fileSize,
+        long lines
+    ) {}
+
+    /**
+     * Identity and size of a file at one point in time.
+     * {@code fileId} changes when the path is replaced by a different file, for example on log rotation.
+     */
+    record FileState(
+        String fileId,
+        long size
+    ) {}
+
+    /**
+     * What a copy transferred.
+     */
+    record CopyResult(
+        long files,
+        long bytes
+    ) {}
+
     /**
      * Checks if a file or directory exists.
      * 
@@ -43,15 +78,117 @@ public interface FileSystemPort {
      * @throws FileSystemException if the file cannot be read
      */
     byte[] readAllBytes(FilePath path) throws FileSystemException;
-    
+
+    /**
+     * Returns a read-only view of a region of a file.
+     * Large regions are memory-mapped rather than copied onto the heap, so callers
+     * that hash, search or stream the data should consume the buffer directly.
+     * The region is clipped to the end of the file.
+     *
+     * @param path The file path
+     * @param position The byte offset of the region
+     * @param length The maximum number of bytes in the region
+     * @return A read-only buffer positioned at the start of the region
+     * @throws FileSystemException if the file cannot be read or mapped
+     */
+    ByteBuffer readRegion(FilePath path, long position, int length) throws FileSystemException;
+
+    /**
+     * Reads and decodes a bounded slice of a UTF-8 text file.
+     * The start position is moved forward to the next character boundary and the
+     * slice never ends inside a multi-byte character.
+     *
+     * @param path The file path
+     * @param position The byte offset to start reading from
+     * @param maxBytes The maximum number of bytes to consume
+     * @param maxLines The maximum number of lines to consume, or 0 for no line limit
+     * @return The decoded text and the byte range it was decoded from
+     * @throws FileSystemException if the file cannot be read
+     */
+    TextChunk readText(FilePath path, long position, int maxBytes, long maxLines) throws FileSystemException;
+
+    /**
+     * Finds the byte offset just past the given number of line terminators.
+     *
+     * @param path The file path
+     * @param position The byte offset to start scanning from
+     * @param lines The number of lines to skip
+     * @return The byte offset of the first byte after the skipped lines, or the file size if the file has fewer lines
+     * @throws FileSystemException if the file cannot be read
+     */
+    long skipLines(FilePath path, long position, long lines) throws FileSystemException;
+
+    /**
+     * Finds where the last lines of a file start by scanning backwards from the end.
+     * A line terminator at the very end of the file does not start an extra empty line.
+     *
+     * @param path The file path
+     * @param lines The number of trailing lines wanted
+     * @return The byte offset of the first of those lines, or 0 if the file has fewer lines
+     * @throws FileSystemException if the file cannot be read
+     */
+    long findLastLines(FilePath path, long lines) throws FileSystemException;
+
+    /**
+     * Reads the identity and current size of a file.
+     *
+     * @param path The file path
+     * @return The file's identity and size
+     * @throws FileSystemException if the file attributes cannot be read
+     */
+    FileState fileState(FilePath path) throws FileSystemException;
+
     /**
      * Writes bytes to a file (creates or overwrites).
+     * Readers see either the old or the new content, never a partial write.
      * 
      * @param path The file path
      * @param content The content to write
      * @throws FileSystemException if the file cannot be written
      */
     void writeAllBytes(FilePath path, byte[] content) throws FileSystemException;
+
+    /**
+     * Encodes text as UTF-8 and writes it to a file, streaming instead of building a byte array.
+     * Overwrites and new files are published atomically; appends extend the file in place.
+     *
+     * @param path The file path
+     * @param content The text to write
+     * @param mode Whether to overwrite, append to, or only create the file
+     * @return The number of bytes written
+     * @throws FileSystemException if the file cannot be written, or already exists in create-new mode
+     */
+    long writeText(FilePath path, CharSequence content, WriteMode mode) throws FileSystemException;
+    
+    /**
+     * Copies a file or a directory tree without loading file contents onto the heap.
+     * A copied file is published atomically at the target; a directory is only copied
+     * to a target that does not exist yet. Missing parent directories are created.
+     * A directory containing an entry the filter rejects is refused before anything is copied.
+     *
+     * @param source The file or directory to copy
+     * @param target The path of the copy
+     * @param overwrite Whether an existing target file may be replaced
+     * @param pathFilter Decides whether each entry inside a copied directory may be read
+     * @return The number of files and bytes copied
+     * @throws FileSystemException if the copy fails or the target exists and may not be replaced
+     */
+    CopyResult copy(FilePath source, FilePath target, boolean overwrite, Predicate<FilePath> pathFilter)
+        throws FileSystemException;
+
+    /**
+     * Moves a file or directory, atomically when source and target are on the same file store.
+     * Across file stores the source is copied and then deleted. A directory containing an
+     * entry the filter rejects is refused before anything is moved.
+     *
+     * @param source The file or directory to move
+     * @param target The new path
+     * @param overwrite Whether an existing target file may be replaced
+     * @param pathFilter Decides whether each entry inside a moved directory may be touched
+     * @throws FileSystemException if the move fails or the target exists and may not be replaced
+     */
+    void move(FilePath source, FilePath target, boolean overwrite, Predicate<FilePath> pathFilter)
+        throws FileSystemException;
     
     /**
      * Lists all entries in a directory.
@@ -61,7 +198,48 @@ public interface FileSystemPort {
      * @throws FileSystemException if the directory cannot be listed
      */
     List<FileMetadata> listDirectory(FilePath path) throws FileSystemException;
+
+    /**
+     * Streams the entries of a directory to a visitor without collecting them.
+     * Each entry's attributes are fetched in a single call.
+     *
+     * @param path The directory path
+     * @param visitor Receives the metadata of each entry, in no particular order
+     * @throws FileSystemException if the directory cannot be listed
+     */
+    void scanDirectory(FilePath path, Consumer<FileMetadata> visitor) throws FileSystemException;
     
+    /**
+     * Recursively searches a directory tree in parallel.
+     * Files are selected by a glob (matched against the file name, or against the path
+     * relative to the root when it contains '/'), then optionally scanned line by line.
+     * Binary files and version-control directories are skipped; symbolic links are not followed.
+     *
+     * @param root The directory to search
+     * @param glob The glob selecting files
+     * @param contentPattern The pattern to search file contents for, or null to report matching paths only
+     * @param pathFilter Decides whether a file may be opened at all
+     * @param sink Receives matches, possibly from several threads at once; returning false stops the search
+     * @throws FileSystemException if the root cannot be searched
+     */
+    void searchFiles(FilePath root, String glob, Pattern contentPattern,
+                     Predicate<FilePath> pathFilter, Predicate<SearchMatch> sink) throws FileSystemException;
+
+    /**
+     * Searches file contents like {@link #searchFiles}, but may consult a content index
+     * to skip files that cannot match. Reports the same matches as a full search;
+     * implementations without an index simply perform one.
+     *
+     * @param root The directory to search
+     * @param glob The glob selecting files
+     * @param contentPattern The pattern to search file contents for
+     * @param pathFilter Decides whether a file may be opened at all
+     * @param sink Receives matches, possibly from several threads at once; returning false stops the search
+     * @throws FileSystemException if the root cannot be searched
+     */
+    void indexedSearch(FilePath root, String glob, Pattern contentPattern,
+                       Predicate<FilePath> pathFilter, Predicate<SearchMatch> sink) throws FileSystemException;
+
     /**
      * Gets the size of a file in bytes.
      * 
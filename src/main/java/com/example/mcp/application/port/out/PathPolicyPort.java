@@ -0,0 +1,20 @@
+package com.example.mcp.application.port.out;
+
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Output port (service interface) for deciding which paths may be accessed.
+ * Implementations judge the path a file operation would actually reach, after
+ * symbolic links and relative segments are resolved, not the string as given.
+ */
+public interface PathPolicyPort {
+
+    /**
+     * Decides whether a path may be accessed.
+     * Cheap enough to be called for every entry of a directory walk.
+     *
+     * @param path The path to check; it need not exist
+     * @return true if the path may be accessed
+     */
+    boolean permits(FilePath path);
+}
@@ -1,5 +1,12 @@
 package com.example.mcp.application.port.out;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import com.example.mcp.domain.model.Forecast;
 import com.example.mcp.domain.valueobject.CityName;
 import com.example.mcp.domain.valueobject.Coordinates;
 import com.example.mcp.domain.valueobject.Temperature;
@@ -8,8 +15,15 @@ import com.example.mcp.domain.valueobject.WindSpeed;
 /**
  * Output port (service interface) for fetching weather data.
  * This defines what the application needs from a weather service.
+ * Lookups are asynchronous: implementations complete the returned future when the answer
+ * arrives, failing it with a {@link WeatherServiceException}, and hold no thread meanwhile.
  */
 public interface WeatherServicePort {
+
+    /**
+     * How long the blocking variants wait for an answer.
+     */
+    Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
     
     /**
      * Result of a geocoding query.
@@ -32,19 +46,73 @@ public interface WeatherServicePort {
      * Converts a city name to geographical coordinates.
      * 
      * @param city The city name
-     * @return Geocoding result with coordinates and country
-     * @throws WeatherServiceException if the city cannot be found
+     * @param timeout How long the lookup may take
+     * @return Geocoding result with coordinates and country; fails with
+     *         {@link CityNotFoundException} if no place of that name exists
      */
-    GeocodeResult geocode(CityName city) throws WeatherServiceException;
+    CompletableFuture<GeocodeResult> geocodeAsync(CityName city, Duration timeout);
     
     /**
      * Fetches current weather data for the given coordinates.
      * 
      * @param coordinates The geographical coordinates
+     * @param timeout How long the lookup may take
+     * @return Current weather data
+     */
+    CompletableFuture<WeatherData> getCurrentWeatherAsync(Coordinates coordinates, Duration timeout);
+
+    /**
+     * Fetches current weather data for many coordinates at once.
+     * 
+     * @param coordinates The geographical coordinates
+     * @param timeout How long the lookup may take
+     * @return Current weather data for each of the coordinates, in the same order
+     */
+    CompletableFuture<List<WeatherData>> getCurrentWeatherBatchAsync(List<Coordinates> coordinates, Duration timeout);
+
+    /**
+     * Fetches the hourly and daily forecast for the given coordinates, starting today.
+     * 
+     * @param coordinates The geographical coordinates
+     * @param days Number of days to forecast, today included
+     * @param timeout How long the lookup may take
+     * @return The forecast, its times in the location's time zone
+     */
+    CompletableFuture<Forecast> getForecastAsync(Coordinates coordinates, int days, Duration timeout);
+
+    /**
+     * Converts a city name to geographical coordinates, waiting for the answer.
+     * 
+     * @param city The city name
+     * @return Geocoding result with coordinates and country
+     * @throws CityNotFoundException if no place of that name exists
+     * @throws WeatherServiceException if the city cannot be looked up
+     */
+    default GeocodeResult geocode(CityName city) throws WeatherServiceException {
+        return await(geocodeAsync(city, DEFAULT_TIMEOUT));
+    }
+    
+    /**
+     * Fetches current weather data for the given coordinates, waiting for the answer.
+     * 
+     * @param coordinates The geographical coordinates
      * @return Current weather data
      * @throws WeatherServiceException if weather data cannot be fetched
      */
-    WeatherData getCurrentWeather(Coordinates coordinates) throws WeatherServiceException;
+    default WeatherData getCurrentWeather(Coordinates coordinates) throws WeatherServiceException {
+        return await(getCurrentWeatherAsync(coordinates, DEFAULT_TIMEOUT));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws WeatherServiceException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WeatherServiceException("Weather request interrupted", e);
+        } catch (ExecutionException e) {
+            throw WeatherServiceException.from(e);
+        }
+    }
     
     /**
      * Exception thrown when the weather service encounters an error.
@@ -57,5 +125,47 @@ public interface WeatherServicePort {
         public WeatherServiceException(String message, Throwable cause) {
             super(message, cause);
         }
+
+        /**
+         * Recovers the failure a future was completed with.
+         *
+         * @param failure The failure as reported by a future, possibly wrapped
+         * @return The weather service failure, or a new one wrapping any other failure
+         */
+        public static WeatherServiceException from(Throwable failure) {
+            while ((failure instanceof CompletionException || failure instanceof ExecutionException)
+                    && failure.getCause() != null) {
+                failure = failure.getCause();
+            }
+            if (failure instanceof WeatherServiceException weatherFailure) {
+                return weatherFailure;
+            }
+            return new WeatherServiceException("Weather request failed: " + failure.getMessage(), failure);
+        }
+    }
+    
+    /**
+     * Exception thrown when the weather service could not answer at the moment: it timed
+     * out, could not be reached, was overloaded or failed internally. Asking again later
+     * may succeed, unlike for a request the service answered with an error.
+     */
+    class WeatherUnavailableException extends WeatherServiceException {
+        public WeatherUnavailableException(String message) {
+            super(message);
+        }
+
+        public WeatherUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+    
+    /**
+     * Exception thrown when the weather service knows no place of the given name.
+     * Unlike other failures this is an answer, not an error, and may be remembered.
+     */
+    class CityNotFoundException extends WeatherServiceException {
+        public CityNotFoundException(String message) {
+            super(message);
+        }
     }
 }
@@ -1,26 +1,81 @@
 package com.example.mcp.application.service;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import com.example.mcp.application.port.in.FileOperationUseCase;
+import com.example.mcp.application.port.out.DirectoryWatchPort;
+import com.example.mcp.application.port.out.DiskUsagePort;
+import com.example.mcp.application.port.out.FileHashPort;
 import com.example.mcp.application.port.out.FileSystemPort;
 import com.example.mcp.application.port.out.LoggingPort;
+import com.example.mcp.application.port.out.PathPolicyPort;
+import com.example.mcp.domain.model.DirectoryChange;
+import com.example.mcp.domain.model.DirectoryChanges;
+import com.example.mcp.domain.model.DirectoryListing;
+import com.example.mcp.domain.model.DiskUsageReport;
+import com.example.mcp.domain.model.FileChunk;
+import com.example.mcp.domain.model.FileHashReport;
 import com.example.mcp.domain.model.FileMetadata;
-import com.example.mcp.domain.service.FilePathValidator;
+import com.example.mcp.domain.model.FileSearchResult;
+import com.example.mcp.domain.model.FileTail;
+import com.example.mcp.domain.model.SearchMatch;
 import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.ListingCursor;
+import com.example.mcp.domain.valueobject.ListingSort;
+import com.example.mcp.domain.valueobject.ReadCursor;
+import com.example.mcp.domain.valueobject.ReadRange;
+import com.example.mcp.domain.valueobject.TailCursor;
+import com.example.mcp.domain.valueobject.WatchCursor;
+import com.example.mcp.domain.valueobject.WriteMode;
 
 /**
  * Application service implementing file operation use case.
  * Contains pure business logic with no infrastructure dependencies.
  */
 public final class FileService implements FileOperationUseCase {
+    /** Upper bound on the bytes returned by a single paged read. */
+    private static final int MAX_PAGE_BYTES = 256 * 1024;
+    /** Upper bound on the entries returned by a single directory listing page. */
+    private static final int MAX_LISTING_PAGE = 10_000;
+    /** Upper bound on the matches returned by a single search. */
+    private static final int MAX_SEARCH_MATCHES = 10_000;
+    private static final int MAX_TAIL_LINES = 10_000;
+    /** Upper bound on the files hashed by a single call. */
+    private static final int MAX_HASH_FILES = 100_000;
+    /** Upper bound on the number of files read by a single batch. */
+    private static final int MAX_BATCH_FILES = 100;
+    /** Upper bound on the directory changes returned by a single call. */
+    private static final int MAX_WATCH_CHANGES = 1000;
+    /** Upper bound on the subtrees reported by a single disk usage call. */
+    private static final int MAX_USAGE_SUBTREES = 100;
+
     private final FileSystemPort fileSystem;
+    private final FileHashPort fileHashes;
+    private final DirectoryWatchPort directoryWatch;
+    private final DiskUsagePort diskUsage;
+    private final PathPolicyPort pathPolicy;
     private final LoggingPort logger;
 
-    public FileService(FileSystemPort fileSystem, LoggingPort logger) {
+    public FileService(FileSystemPort fileSystem, FileHashPort fileHashes, DirectoryWatchPort directoryWatch,
+                       DiskUsagePort diskUsage, PathPolicyPort pathPolicy, LoggingPort logger) {
         this.fileSystem = fileSystem;
+        this.fileHashes = fileHashes;
+        this.directoryWatch = directoryWatch;
+        this.diskUsage = diskUsage;
+        this.pathPolicy = pathPolicy;
         this.logger = logger;
     }
 
@@ -28,17 +83,11 @@ public final class FileService implements FileOperationUseCase {
     public String readFile(FilePath path) throws FileOperationException {
         logger.info("Reading file: " + path);
         
-        // Validate path using domain service
-        FilePathValidator.validateSafePath(path);
+        // Check the path against the access policy
+        checkAccess(path);
         
         try {
-            if (!fileSystem.exists(path)) {
-                throw new FileOperationException("File not found: " + path);
-            }
-            
-            if (!fileSystem.isRegularFile(path)) {
-                throw new FileOperationException("Not a regular file: " + path);
-            }
+            ensureRegularFile(path);
             
             byte[] bytes = fileSystem.readAllBytes(path);
             String content = new String(bytes, StandardCharsets.UTF_8);
@@ -52,25 +101,400 @@ public final class FileService implements FileOperationUseCase {
         }
     }
 
+    @Override
+    public FileChunk readFile(FilePath path, ReadRange range) throws FileOperationException {
+        logger.info("Reading " + range + " of file: " + path);
+
+        checkAccess(path);
+
+        try {
+            ensureRegularFile(path);
+
+            long position = range.getUnit() == ReadRange.Unit.LINES
+                ? fileSystem.skipLines(path, 0, range.getOffset())
+                : range.getOffset();
+
+            return readPage(path, new ReadCursor(range.getUnit(), position, range.getLength()), MAX_PAGE_BYTES);
+
+        } catch (FileSystemPort.FileSystemException e) {
+            logger.error("Error reading file: " + e.getMessage());
+            throw new FileOperationException("Error reading file: " + path, e);
+        }
+    }
+
+    @Override
+    public FileChunk readFile(FilePath path, ReadCursor cursor) throws FileOperationException {
+        logger.info("Continuing read of file: " + path + " at " + cursor);
+
+        checkAccess(path);
+
+        try {
+            ensureRegularFile(path);
+            return readPage(path, cursor, MAX_PAGE_BYTES);
+
+        } catch (FileSystemPort.FileSystemException e) {
+            logger.error("Error reading file: " + e.getMessage());
+            throw new FileOperationException("Error reading file: " + path, e);
+        }
+    }
+
+    @Override
+    public FileTail tailFile(FilePath path, int lines) throws FileOperationException {
+        logger.info("Reading last " + lines + " lines of file: " + path);
+
+        checkAccess(path);
+        if (lines <= 0 || lines > MAX_TAIL_LINES) {
+            throw new IllegalArgumentException("Line count must be between 1 and " + MAX_TAIL_LINES + ": " + lines);
+        }
+
+        try {
+            ensureRegularFile(path);
+            FileSystemPort.FileState state = fileSystem.fileState(path);
+            // Keep the page bounded; very long lines are cut from the front
+            long start = Math.max(fileSystem.findLastLines(path, lines), state.size() - MAX_PAGE_BYTES);
+            return readTail(path, state, start, false);
+
+        } catch (FileSystemPort.FileSystemException e) {
+            logger.error("Error reading file: " + e.getMessage());
+            throw new FileOperationException("Error reading file: " + path, e);
+        }
+    }
+
+    @Override
+    public FileTail tailFile(FilePath path, TailCursor cursor) throws FileOperationException {
+        checkAccess(path);
+
+        try {
+            ensureRegularFile(path);
+            FileSystemPort.FileState state = fileSystem.fileState(path);
+            boolean restarted = !state.fileId().equals(cursor.getFileId()) || state.size() < cursor.getPosition();
+            if (restarted) {
+                logger.info("File was truncated or replaced since " + cursor + ": " + path);
+                return readTail(path, state, 0, true);
+            }
+            if (state.size() == cursor.getPosition()) {
+                return new FileTail(path, "", cursor.getPosition(), cursor.getPosition(), cursor, false);
+            }
+            return readTail(path, state, cursor.getPosition(), false);
+
+        } catch (FileSystemPort.FileSystemException e) {
+            logger.error("Error reading file: " + e.getMessage());
+            throw new FileOperationException("Error reading file: " + path, e);
+        }
+    }
+
+    private FileTail readTail(FilePath path, FileSystemPort.FileState state, long start, boolean restarted)
+            throws FileSystemPort.FileSystemException {
+        FileSystemPort.TextChunk chunk = fileSystem.readText(path, start, MAX_PAGE_BYTES, 0);
+        TailCursor next = new TailCursor(chunk.end(), state.fileId());
+        logger.info("Read tail bytes " + chunk.start() + "-" + chunk.end() + " from: " + path);
+        return new FileTail(path, chunk.text(), chunk.start(), chunk.end(), next, restarted);
+    }
+
+    private FileChunk readPage(FilePath path, ReadCursor cursor, int pageBytes)
+            throws FileSystemPort.FileSystemException {
+        boolean byLines = cursor.getUnit() == ReadRange.Unit.LINES;
+
+        if (cursor.isBounded() && cursor.getRemaining() == 0) {
+            long fileSize = fileSystem.getFileSize(path);
+            long position = Math.min(cursor.getPosition(), fileSize);
+            return new FileChunk(path, "", position, position, fileSize, null);
+        }
+
+        int maxBytes = !byLines && cursor.isBounded()
+            ? (int) Math.min(cursor.getRemaining(), pageBytes)
+            : pageBytes;
+        long maxLines = byLines && cursor.isBounded() ? cursor.getRemaining() : 0;
+
+        FileSystemPort.TextChunk chunk = fileSystem.readText(path, cursor.getPosition(), maxBytes, maxLines);
+
+        long consumed = byLines ? chunk.lines() : chunk.end() - chunk.start();
+        long remaining = cursor.isBounded() ? Math.max(0, cursor.getRemaining() - consumed) : ReadRange.UNBOUNDED;
+        ReadCursor next = chunk.end() < chunk.fileSize() && remaining != 0
+            ? new ReadCursor(cursor.getUnit(), chunk.end(), remaining)
+            : null;
+
+        logger.info("Read bytes " + chunk.start() + "-" + chunk.end() + " of " + chunk.fileSize() + " from: " + path);
+        return new FileChunk(path, chunk.text(), chunk.start(), chunk.end(), chunk.fileSize(), next);
+    }
+
+    @Override
+    public List<FileReadResult> readFiles(List<FilePath> paths, long byteBudget) {
+        if (paths.size() > MAX_BATCH_FILES) {
+            throw new IllegalArgumentException("Cannot read more than " + MAX_BATCH_FILES + " files at once");
+        }
+        if (paths.isEmpty()) {
+            return List.of();
+        }
+
+        // Split the budget evenly; truncated files come back with a cursor for the rest
+        int perFile = (int) Math.max(1, Math.min(byteBudget / paths.size(), MAX_PAGE_BYTES));
+        logger.info("Reading " + paths.size() + " files concurrently (" + perFile + " bytes each)");
+
+        List<Future<FileReadResult>> futures = new ArrayList<>(paths.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (FilePath path : paths) {
+                futures.add(executor.submit(() -> readOne(path, perFile)));
+            }
+        }
+
+        List<FileReadResult> results = new ArrayList<>(futures.size());
+        for (Future<FileReadResult> future : futures) {
+            results.add(future.resultNow());
+        }
+        return results;
+    }
+
+    @Override
+    public List<FileReadResult> readFiles(FilePath root, String glob, long byteBudget)
+            throws FileOperationException {
+        FileSearchResult found = searchFiles(root, glob, null, MAX_BATCH_FILES);
+        List<FilePath> paths = new ArrayList<>(found.getMatches().size());
+        for (SearchMatch match : found.getMatches()) {
+            paths.add(match.getPath());
+        }
+        return readFiles(paths, byteBudget);
+    }
+
+    private FileReadResult readOne(FilePath path, int pageBytes) {
+        try {
+            checkAccess(path);
+            ensureRegularFile(path);
+            FileChunk chunk = readPage(path, new ReadCursor(ReadRange.Unit.BYTES, 0, ReadRange.UNBOUNDED), pageBytes);
+            return new FileReadResult(path, chunk, null);
+        } catch (FileOperationException | IllegalArgumentException e) {
+            return new FileReadResult(path, null, e.getMessage());
+        } catch (FileSystemPort.FileSystemException e) {
+            logger.error("Error reading file: " + e.getMessage());
+            return new FileReadResult(path, null, "Error reading file: " + path);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the path policy does not allow the path
+     */
+    private void checkAccess(FilePath path) {
+        if (!pathPolicy.permits(path)) {
+            throw new IllegalArgumentException("Access is not allowed by the path policy: " + path.getValue());
+        }
+    }
+
+    private void ensureRegularFile(FilePath path) throws FileOperationException {
+        if (!fileSystem.exists(path)) {
+            throw new FileOperationException("File not found: " + path);
+        }
+
+        if (!fileSystem.isRegularFile(path)) {
+            throw new FileOperationException("Not a regular file: " + path);
+        }
+    }
+
     @Override
     public void writeFile(FilePath path, String content) throws FileOperationException {
-        logger.info("Writing to file: " + path + " (" + content.length() + " bytes)");
+        writeFile(path, content, WriteMode.OVERWRITE);
+    }
+
+    @Override
+    public long writeFile(FilePath path, String content, WriteMode mode) throws FileOperationException {
+        logger.info("Writing to file: " + path + " (" + content.length() + " chars, mode " + mode.getName() + ")");
         
-        // Validate path using domain service
-        FilePathValidator.validateSafePath(path);
+        // Check the path against the access policy
+        checkAccess(path);
         
         try {
-            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
-            fileSystem.writeAllBytes(path, bytes);
+            long bytes = fileSystem.writeText(path, content, mode);
             
-            logger.info("Successfully wrote " + bytes.length + " bytes to: " + path);
+            logger.info("Successfully wrote " + bytes + " bytes to: " + path);
+            return bytes;
             
         } catch (FileSystemPort.FileSystemException e) {
             logger.error("Error writing file: " + e.getMessage());
-            throw new FileOperationException("Error writing file: " + path, e);
+            throw new FileOperationException("Error writing file: " + path + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    @Override
+    public CopyResult copyFile(FilePath source, FilePath target, boolean overwrite) throws FileOperationException {
+        logger.info("Copying " + source + " to " + target);
+
+        checkAccess(source);
+        checkAccess(target);
+
+        if (!fileSystem.exists(source)) {
+            throw new FileOperationException("File not found: " + source);
+        }
+
+        try {
+            FileSystemPort.CopyResult copied = fileSystem.copy(source, target, overwrite, pathPolicy::permits);
+
+            logger.info("Copied " + copied.files() + " files (" + copied.bytes() + " bytes) to: " + target);
+            return new CopyResult(copied.files(), copied.bytes());
+
+        } catch (FileSystemPort.FileSystemException e) {
+            logger.error("Error copying file: " + e.getMessage());
+            throw new FileOperationException("Error copying " + source + " to " + target + " (" + describe(e) + ")", e);
+        }
+    }
+
+    @Override
+    public void moveFile(FilePath source, FilePath target, boolean overwrite) throws FileOperationException {
+        logger.info("Moving " + source + " to " + target);
+
+        checkAccess(source);
+        checkAccess(target);
+
+        if (!fileSystem.exists(source)) {
+            throw new FileOperationException("File not found: " + source);
+        }
+
+        try {
+            fileSystem.move(source, target, overwrite, pathPolicy::permits);
+            logger.info("Moved " + source + " to " + target);
+
+        } catch (FileSystemPort.FileSystemException e) {
+            logger.error("Error moving file: " + e.getMessage());
+            throw new FileOperationException("Error moving " + source + " to " + target + " (" + describe(e) + ")", e);
+        }
+    }
+
+    @Override
+    public FileHashReport hashFiles(List<FilePath> paths) throws FileOperationException {
+        logger.info("Hashing " + paths.size() + " files");
+
+        if (paths.size() > MAX_HASH_FILES) {
+            throw new IllegalArgumentException("Cannot hash more than " + MAX_HASH_FILES + " files at once");
+        }
+        for (FilePath path : paths) {
+            checkAccess(path);
+            ensureRegularFile(path);
+        }
+
+        try {
+            FileHashReport report = fileHashes.hashFiles(paths);
+            logger.info("Hashed " + report.getComputed() + " of " + paths.size() + " files, rest unchanged");
+            return report;
+
+        } catch (FileHashPort.FileHashException e) {
+            logger.error("Error hashing files: " + e.getMessage());
+            throw new FileOperationException("Error hashing files: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public FileHashReport hashFiles(FilePath root, String glob, int limit) throws FileOperationException {
+        FilePath rootPath = root != null ? root : new FilePath(".");
+        int maxFiles = Math.max(1, Math.min(limit, MAX_HASH_FILES));
+
+        logger.info("Hashing files under " + rootPath + " matching '" + glob + "'");
+
+        checkAccess(rootPath);
+
+        if (!fileSystem.exists(rootPath)) {
+            throw new FileOperationException("Directory not found: " + rootPath);
+        }
+
+        if (!fileSystem.isDirectory(rootPath)) {
+            throw new FileOperationException("Not a directory: " + rootPath);
+        }
+
+        try {
+            FileHashReport report = fileHashes.hashTree(rootPath, glob, pathPolicy::permits, maxFiles);
+            logger.info("Hashed " + report.getComputed() + " of " + report.getHashes().size()
+                + " files under " + rootPath + ", rest unchanged");
+            return report;
+
+        } catch (FileHashPort.FileHashException e) {
+            logger.error("Error hashing directory: " + e.getMessage());
+            throw new FileOperationException("Error hashing directory: " + rootPath, e);
+        }
+    }
+
+    @Override
+    public DiskUsageReport diskUsage(FilePath root, int top, boolean refresh) throws FileOperationException {
+        FilePath rootPath = root != null ? root : new FilePath(".");
+        int subtrees = Math.max(0, Math.min(top, MAX_USAGE_SUBTREES));
+
+        logger.info("Measuring disk usage under " + rootPath + (refresh ? " (refresh)" : ""));
+
+        checkAccess(rootPath);
+
+        if (!fileSystem.exists(rootPath)) {
+            throw new FileOperationException("Directory not found: " + rootPath);
+        }
+
+        if (!fileSystem.isDirectory(rootPath)) {
+            throw new FileOperationException("Not a directory: " + rootPath);
+        }
+
+        try {
+            DiskUsageReport report = diskUsage.usage(rootPath, subtrees, pathPolicy::permits, refresh);
+            logger.info("Measured " + report.getTotal().getSize().format() + " under " + rootPath + ": "
+                + report.getListed() + " directories listed, " + report.getReused() + " unchanged");
+            return report;
+
+        } catch (DiskUsagePort.DiskUsageException e) {
+            logger.error("Error measuring disk usage: " + e.getMessage());
+            throw new FileOperationException("Error measuring disk usage: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public DirectoryChanges watchDirectory(FilePath path, boolean recursive, WatchCursor cursor, long waitMillis)
+            throws FileOperationException {
+        checkAccess(path);
+
+        if (!fileSystem.exists(path)) {
+            throw new FileOperationException("Directory not found: " + path);
+        }
+
+        if (!fileSystem.isDirectory(path)) {
+            throw new FileOperationException("Not a directory: " + path);
+        }
+
+        try {
+            DirectoryChanges changes = permitted(directoryWatch.changes(path, recursive, cursor,
+                MAX_WATCH_CHANGES, Math.max(0, waitMillis)));
+            if (!changes.isEmpty() || changes.isResync()) {
+                logger.info(changes.getChanges().size() + " changes in " + path
+                    + (changes.isResync() ? " (cursor expired)" : ""));
+            }
+            return changes;
+
+        } catch (DirectoryWatchPort.DirectoryWatchException e) {
+            logger.error("Error watching directory: " + e.getMessage());
+            throw new FileOperationException("Error watching directory: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Drops the changes to entries the path policy denies, so that a recursive watch does not
+     * name the files of a denied subtree.
+     */
+    private DirectoryChanges permitted(DirectoryChanges changes) {
+        List<DirectoryChange> kept = new ArrayList<>(changes.getChanges().size());
+        for (DirectoryChange change : changes.getChanges()) {
+            if (pathPolicy.permits(change.getPath())) {
+                kept.add(change);
+            }
+        }
+        if (kept.size() == changes.getChanges().size()) {
+            return changes;
+        }
+        return new DirectoryChanges(changes.getDirectory(), kept, changes.getCursor(),
+            changes.isResync(), changes.hasMore());
+    }
+
+    /**
+     * Names the underlying I/O failure, e.g. an existing target, rather than the port's generic message.
+     */
+    private static String describe(FileSystemPort.FileSystemException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof java.nio.file.FileAlreadyExistsException) {
+            return "target already exists";
+        }
+        return cause != null && cause.getMessage() != null ? cause.getMessage() : e.getMessage();
+    }
+
     @Override
     public List<FileMetadata> listDirectory(FilePath path) throws FileOperationException {
         // Use current directory if path is null
@@ -78,6 +502,9 @@ public final class FileService implements FileOperationUseCase {
         
         logger.info("Listing directory: " + dirPath);
         
+        // Check the path against the access policy
+        checkAccess(dirPath);
+
         try {
             if (!fileSystem.exists(dirPath)) {
                 throw new FileOperationException("Directory not found: " + dirPath);
@@ -98,4 +525,124 @@ public final class FileService implements FileOperationUseCase {
             throw new FileOperationException("Error listing directory: " + dirPath, e);
         }
     }
+
+    @Override
+    public DirectoryListing listDirectory(FilePath path, ListingSort sort, boolean descending,
+                                          int limit, ListingCursor cursor) throws FileOperationException {
+        FilePath dirPath = path != null ? path : new FilePath(".");
+        ListingSort order = cursor != null ? cursor.getSort() : sort;
+        boolean desc = cursor != null ? cursor.isDescending() : descending;
+        int pageSize = Math.max(1, Math.min(limit, MAX_LISTING_PAGE));
+
+        logger.info("Listing directory: " + dirPath + " (sort " + order.getName() + ", limit " + pageSize + ")");
+
+        // Check the path against the access policy
+        checkAccess(dirPath);
+
+        try {
+            if (!fileSystem.exists(dirPath)) {
+                throw new FileOperationException("Directory not found: " + dirPath);
+            }
+
+            if (!fileSystem.isDirectory(dirPath)) {
+                throw new FileOperationException("Not a directory: " + dirPath);
+            }
+
+            // Bounded max-heap: the head is the entry that would be dropped first
+            Comparator<FileMetadata> comparator = order.comparator(desc);
+            PriorityQueue<FileMetadata> page = new PriorityQueue<>(pageSize + 1, comparator.reversed());
+            long[] counts = new long[2]; // [all entries, entries after the cursor]
+
+            fileSystem.scanDirectory(dirPath, entry -> {
+                counts[0]++;
+                if (cursor != null && !cursor.isBefore(entry)) {
+                    return;
+                }
+                counts[1]++;
+                if (page.size() < pageSize) {
+                    page.add(entry);
+                } else if (comparator.compare(entry, page.peek()) < 0) {
+                    page.poll();
+                    page.add(entry);
+                }
+            });
+
+            List<FileMetadata> entries = new ArrayList<>(page);
+            entries.sort(comparator);
+
+            ListingCursor next = counts[1] > entries.size()
+                ? ListingCursor.after(entries.get(entries.size() - 1), order, desc)
+                : null;
+
+            logger.info("Found " + counts[0] + " entries in: " + dirPath + ", returning " + entries.size());
+            return new DirectoryListing(dirPath, entries, counts[0], next);
+
+        } catch (FileSystemPort.FileSystemException e) {
+            logger.error("Error listing directory: " + e.getMessage());
+            throw new FileOperationException("Error listing directory: " + dirPath, e);
+        }
+    }
+
+    @Override
+    public FileSearchResult searchFiles(FilePath root, String glob, String regex, int limit)
+            throws FileOperationException {
+        return search(root, glob, regex, limit, false);
+    }
+
+    @Override
+    public FileSearchResult indexedSearch(FilePath root, String glob, String regex, int limit)
+            throws FileOperationException {
+        return search(root, glob, regex, limit, true);
+    }
+
+    private FileSearchResult search(FilePath root, String glob, String regex, int limit, boolean indexed)
+            throws FileOperationException {
+        FilePath rootPath = root != null ? root : new FilePath(".");
+        int maxMatches = Math.max(1, Math.min(limit, MAX_SEARCH_MATCHES));
+
+        logger.info((indexed ? "Index-searching " : "Searching ") + rootPath + " for '" + glob + "'" + (regex != null ? " containing /" + regex + "/" : ""));
+
+        checkAccess(rootPath);
+        Pattern pattern = regex != null ? Pattern.compile(regex, Pattern.MULTILINE) : null;
+
+        try {
+            if (!fileSystem.exists(rootPath)) {
+                throw new FileOperationException("Directory not found: " + rootPath);
+            }
+
+            if (!fileSystem.isDirectory(rootPath)) {
+                throw new FileOperationException("Not a directory: " + rootPath);
+            }
+
+            Queue<SearchMatch> matches = new ConcurrentLinkedQueue<>();
+            AtomicInteger accepted = new AtomicInteger();
+            AtomicBoolean rejected = new AtomicBoolean();
+
+            // The search goes on past the limit until one more match shows that it was reached
+            Predicate<SearchMatch> sink = match -> {
+                if (accepted.incrementAndGet() > maxMatches) {
+                    rejected.set(true);
+                    return false;
+                }
+                matches.add(match);
+                return true;
+            };
+            if (indexed) {
+                fileSystem.indexedSearch(rootPath, glob, pattern, pathPolicy::permits, sink);
+            } else {
+                fileSystem.searchFiles(rootPath, glob, pattern, pathPolicy::permits, sink);
+            }
+
+            List<SearchMatch> sorted = new ArrayList<>(matches);
+            sorted.sort(Comparator.comparing((SearchMatch m) -> m.getPath().getValue())
+                .thenComparingLong(SearchMatch::getLineNumber));
+
+            logger.info("Found " + sorted.size() + " matches under: " + rootPath);
+            return new FileSearchResult(rootPath, sorted, rejected.get());
+
+        } catch (FileSystemPort.FileSystemException e) {
+            logger.error("Error searching directory: " + e.getMessage());
+            throw new FileOperationException("Error searching directory: " + rootPath, e);
+        }
+    }
 }
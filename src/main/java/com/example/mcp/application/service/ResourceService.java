@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.example.mcp.application.port.in.ResourceQueryUseCase;
+import com.example.mcp.application.port.out.CacheMetricsPort;
 import com.example.mcp.application.port.out.NoteRepository;
 import com.example.mcp.domain.model.Note;
 import com.example.mcp.domain.valueobject.NoteId;
@@ -16,10 +17,16 @@ import com.google.gson.JsonObject;
  */
 public final class ResourceService implements ResourceQueryUseCase {
     private final NoteRepository noteRepository;
+    private final List<CacheMetricsPort> caches;
     private final Gson gson = new Gson();
 
     public ResourceService(NoteRepository noteRepository) {
+        this(noteRepository, List.of());
+    }
+
+    public ResourceService(NoteRepository noteRepository, List<CacheMetricsPort> caches) {
         this.noteRepository = noteRepository;
+        this.caches = List.copyOf(caches);
     }
 
     @Override
@@ -41,6 +48,13 @@ public final class ResourceService implements ResourceQueryUseCase {
             "Overview of MCP protocol capabilities"
         ));
         
+        resources.add(new Resource(
+            "demo://cache-stats",
+            "application/json",
+            "Cache Statistics",
+            "Hit rates and sizes of the server's caches"
+        ));
+        
         // Dynamic note resources
         for (Note note : noteRepository.findAll()) {
             resources.add(new Resource(
@@ -79,6 +93,23 @@ public final class ResourceService implements ResourceQueryUseCase {
             return new ResourceContent(uri, "application/json", gson.toJson(capabilities));
         }
         
+        if ("demo://cache-stats".equals(uri)) {
+            JsonObject stats = new JsonObject();
+            for (CacheMetricsPort cache : caches) {
+                CacheMetricsPort.CacheStats cacheStats = cache.cacheStats();
+                JsonObject entry = new JsonObject();
+                entry.addProperty("hits", cacheStats.hits());
+                entry.addProperty("misses", cacheStats.misses());
+                entry.addProperty("hitRate", cacheStats.hitRate());
+                entry.addProperty("entries", cacheStats.entries());
+                entry.addProperty("sizeBytes", cacheStats.sizeBytes());
+                entry.addProperty("bytesServed", cacheStats.bytesServed());
+                stats.add(cacheStats.name(), entry);
+            }
+            
+            return new ResourceContent(uri, "application/json", gson.toJson(stats));
+        }
+        
         if (uri.startsWith("note://")) {
             int id = Integer.parseInt(uri.substring(7));
             Note note = noteRepository.findById(new NoteId(id))
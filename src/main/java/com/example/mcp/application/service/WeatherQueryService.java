@@ -1,5 +1,16 @@
 package com.example.mcp.application.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import com.example.mcp.application.port.in.WeatherQueryUseCase;
 import com.example.mcp.application.port.out.LoggingPort;
 import com.example.mcp.application.port.out.WeatherServicePort;
@@ -11,8 +22,19 @@ import com.example.mcp.domain.valueobject.Coordinates;
 /**
  * Application service implementing weather query use case.
  * Contains pure business logic with no infrastructure dependencies.
+ * A query has one deadline for geocoding and forecast together; the forecast gets
+ * whatever time geocoding left. A batch geocodes its cities concurrently and then asks
+ * for the weather of all of them with a single forecast request.
  */
 public final class WeatherQueryService implements WeatherQueryUseCase {
+    private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(10);
+    /** Below this a request is not worth sending; the deadline fails the query instead. */
+    private static final Duration MIN_REQUEST_TIMEOUT = Duration.ofMillis(1);
+    /** Upper bound on the cities queried by a single batch. */
+    private static final int MAX_BATCH_CITIES = 100;
+    /** The furthest ahead the forecast service looks. */
+    private static final int MAX_FORECAST_DAYS = 16;
+
     private final WeatherServicePort weatherService;
     private final LoggingPort logger;
 
@@ -23,37 +45,170 @@ public final class WeatherQueryService implements WeatherQueryUseCase {
 
     @Override
     public Weather getWeatherForCity(CityName city) throws WeatherServiceException {
-        logger.info("Fetching weather for city: " + city.getValue());
-        
         try {
-            // Step 1: Geocode city to coordinates
-            WeatherServicePort.GeocodeResult geocode = weatherService.geocode(city);
-            Coordinates coords = geocode.coordinates();
-            String country = geocode.countryName();
-            
-            logger.info("City located at coordinates: " + coords);
-            
-            // Step 2: Fetch weather data
-            WeatherServicePort.WeatherData weatherData = weatherService.getCurrentWeather(coords);
-            
-            // Step 3: Interpret weather code using domain service
-            String condition = WeatherConditionInterpreter.interpret(weatherData.weatherCode());
-            
-            // Step 4: Create domain model
-            Weather weather = new Weather(
-                city,
-                country,
-                weatherData.temperature(),
-                condition,
-                weatherData.windSpeed()
-            );
-            
-            logger.info("Successfully fetched weather for " + city.getValue());
-            return weather;
-            
-        } catch (WeatherServicePort.WeatherServiceException e) {
-            logger.error("Weather service error for " + city.getValue() + ": " + e.getMessage());
-            throw new WeatherServiceException("Failed to fetch weather for " + city.getValue(), e);
+            return getWeatherForCityAsync(city).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WeatherServiceException("Interrupted while fetching weather for " + city.getValue(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof WeatherServiceException failure) {
+                throw failure;
+            }
+            throw new WeatherServiceException("Failed to fetch weather for " + city.getValue(), e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Weather> getWeatherForCityAsync(CityName city) {
+        logger.info("Fetching weather for city: " + city.getValue());
+        long deadline = System.nanoTime() + LOOKUP_TIMEOUT.toNanos();
+
+        // Step 1: Geocode city to coordinates
+        return weatherService.geocodeAsync(city, LOOKUP_TIMEOUT)
+            .thenCompose(geocode -> {
+                Coordinates coords = geocode.coordinates();
+                logger.info("City located at coordinates: " + coords);
+
+                // Step 2: Fetch weather data
+                return weatherService.getCurrentWeatherAsync(coords, remaining(deadline)).thenApply(weatherData -> {
+                    // Step 3: Interpret weather code using domain service
+                    String condition = WeatherConditionInterpreter.interpret(weatherData.weatherCode());
+
+                    // Step 4: Create domain model
+                    return new Weather(
+                        city,
+                        geocode.countryName(),
+                        weatherData.temperature(),
+                        condition,
+                        weatherData.windSpeed()
+                    );
+                });
+            })
+            .orTimeout(LOOKUP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+            .handle((weather, failure) -> {
+                if (failure == null) {
+                    logger.info("Successfully fetched weather for " + city.getValue());
+                    return weather;
+                }
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+                logger.error("Weather service error for " + city.getValue() + ": " + reason(cause));
+                throw new CompletionException(
+                    new WeatherServiceException("Failed to fetch weather for " + city.getValue(), cause));
+            });
+    }
+
+    @Override
+    public CompletableFuture<List<CityWeatherResult>> getWeatherForCitiesAsync(List<CityName> cities) {
+        if (cities.size() > MAX_BATCH_CITIES) {
+            throw new IllegalArgumentException("Cannot query more than " + MAX_BATCH_CITIES + " cities at once");
         }
+        if (cities.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        logger.info("Fetching weather for " + cities.size() + " cities");
+        long deadline = System.nanoTime() + LOOKUP_TIMEOUT.toNanos();
+
+        // Step 1: Geocode all cities at once, each failing on its own
+        List<CompletableFuture<WeatherServicePort.GeocodeResult>> geocodes = new ArrayList<>(cities.size());
+        for (CityName city : cities) {
+            geocodes.add(weatherService.geocodeAsync(city, LOOKUP_TIMEOUT));
+        }
+
+        // Step 2: Fetch the weather of every distinct point found with one request
+        List<Coordinates> points = new ArrayList<>();
+        Map<Coordinates, Integer> pointIndex = new HashMap<>();
+        CompletableFuture<List<WeatherServicePort.WeatherData>> forecasts = CompletableFuture
+            .allOf(geocodes.toArray(CompletableFuture[]::new))
+            .handle((ignored, failure) -> null)
+            .thenCompose(ignored -> {
+                for (CompletableFuture<WeatherServicePort.GeocodeResult> geocode : geocodes) {
+                    if (!geocode.isCompletedExceptionally()) {
+                        Coordinates point = geocode.join().coordinates().roundedToGrid();
+                        if (pointIndex.putIfAbsent(point, points.size()) == null) {
+                            points.add(point);
+                        }
+                    }
+                }
+                return points.isEmpty()
+                    ? CompletableFuture.completedFuture(List.of())
+                    : weatherService.getCurrentWeatherBatchAsync(points, remaining(deadline));
+            })
+            .orTimeout(LOOKUP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        // Steps 3 and 4: Interpret and assemble per city
+        return forecasts.handle((weatherData, failure) -> {
+            List<CityWeatherResult> results = new ArrayList<>(cities.size());
+            int failed = 0;
+            for (int i = 0; i < cities.size(); i++) {
+                CityName city = cities.get(i);
+                CompletableFuture<WeatherServicePort.GeocodeResult> geocode = geocodes.get(i);
+                String error = null;
+                Weather weather = null;
+                if (!geocode.isDone()) {
+                    error = reason(new TimeoutException());
+                } else if (geocode.isCompletedExceptionally()) {
+                    error = reason(geocode.handle((value, geocodeFailure) -> geocodeFailure).join());
+                } else if (failure != null) {
+                    error = reason(failure);
+                } else {
+                    WeatherServicePort.GeocodeResult found = geocode.join();
+                    WeatherServicePort.WeatherData data =
+                        weatherData.get(pointIndex.get(found.coordinates().roundedToGrid()));
+                    weather = new Weather(
+                        city,
+                        found.countryName(),
+                        data.temperature(),
+                        WeatherConditionInterpreter.interpret(data.weatherCode()),
+                        data.windSpeed()
+                    );
+                }
+                if (error != null) {
+                    failed++;
+                }
+                results.add(new CityWeatherResult(city, weather, error));
+            }
+            logger.info("Fetched weather for " + (cities.size() - failed) + " of " + cities.size() + " cities");
+            return results;
+        });
+    }
+
+    @Override
+    public CompletableFuture<CityForecast> getForecastForCityAsync(CityName city, int days) {
+        if (days < 1 || days > MAX_FORECAST_DAYS) {
+            throw new IllegalArgumentException("Forecast days must be between 1 and " + MAX_FORECAST_DAYS
+                + ", got: " + days);
+        }
+        logger.info("Fetching " + days + " day forecast for city: " + city.getValue());
+        long deadline = System.nanoTime() + LOOKUP_TIMEOUT.toNanos();
+
+        return weatherService.geocodeAsync(city, LOOKUP_TIMEOUT)
+            .thenCompose(geocode -> weatherService.getForecastAsync(geocode.coordinates(), days, remaining(deadline))
+                .thenApply(forecast -> new CityForecast(city, geocode.countryName(), forecast)))
+            .orTimeout(LOOKUP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+            .handle((forecast, failure) -> {
+                if (failure == null) {
+                    logger.info("Successfully fetched forecast for " + city.getValue());
+                    return forecast;
+                }
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+                logger.error("Forecast error for " + city.getValue() + ": " + reason(cause));
+                throw new CompletionException(
+                    new WeatherServiceException("Failed to fetch forecast for " + city.getValue(), cause));
+            });
+    }
+
+    private static String reason(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+            ? failure.getCause() : failure;
+        return cause instanceof TimeoutException
+            ? "No answer within " + LOOKUP_TIMEOUT.toSeconds() + " s"
+            : cause.getMessage();
+    }
+
+    private static Duration remaining(long deadline) {
+        Duration left = Duration.ofNanos(deadline - System.nanoTime());
+        return left.compareTo(MIN_REQUEST_TIMEOUT) < 0 ? MIN_REQUEST_TIMEOUT : left;
     }
 }
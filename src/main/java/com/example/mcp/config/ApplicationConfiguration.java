@@ -1,25 +1,41 @@
 package com.example.mcp.config;
 
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
 import com.example.mcp.adapter.in.mcp.McpServer;
 import com.example.mcp.adapter.in.mcp.handler.McpPromptHandler;
 import com.example.mcp.adapter.in.mcp.handler.McpResourceHandler;
 import com.example.mcp.adapter.in.mcp.handler.McpToolHandler;
+import com.example.mcp.adapter.out.filesystem.ArchiveFileSystemAdapter;
+import com.example.mcp.adapter.out.filesystem.CachingFileSystemAdapter;
+import com.example.mcp.adapter.out.filesystem.IndexedFileSystemAdapter;
 import com.example.mcp.adapter.out.filesystem.JavaNioFileSystemAdapter;
+import com.example.mcp.adapter.out.filesystem.ParallelDiskUsageAdapter;
+import com.example.mcp.adapter.out.filesystem.RealPathPolicyAdapter;
+import com.example.mcp.adapter.out.filesystem.Sha256FileHashAdapter;
+import com.example.mcp.adapter.out.filesystem.WatchServiceDirectoryWatchAdapter;
 import com.example.mcp.adapter.out.logging.Slf4jLoggingAdapter;
 import com.example.mcp.adapter.out.persistence.InMemoryNoteRepository;
 import com.example.mcp.adapter.out.time.SystemTimeProvider;
+import com.example.mcp.adapter.out.weather.CachingGeocodeAdapter;
+import com.example.mcp.adapter.out.weather.CachingWeatherAdapter;
+import com.example.mcp.adapter.out.weather.CoalescingWeatherAdapter;
+import com.example.mcp.adapter.out.weather.GazetteerGeocodeAdapter;
 import com.example.mcp.adapter.out.weather.OpenMeteoWeatherAdapter;
-import com.example.mcp.application.port.out.FileSystemPort;
+import com.example.mcp.adapter.out.weather.ResilientWeatherAdapter;
+import com.example.mcp.application.port.out.DirectoryWatchPort;
 import com.example.mcp.application.port.out.LoggingPort;
 import com.example.mcp.application.port.out.NoteRepository;
 import com.example.mcp.application.port.out.TimeProvider;
-import com.example.mcp.application.port.out.WeatherServicePort;
 import com.example.mcp.application.service.CalculationService;
 import com.example.mcp.application.service.FileService;
 import com.example.mcp.application.service.NoteService;
 import com.example.mcp.application.service.PromptService;
 import com.example.mcp.application.service.ResourceService;
 import com.example.mcp.application.service.WeatherQueryService;
+import com.example.mcp.domain.valueobject.PathRule;
 
 /**
  * Application configuration class that wires all dependencies together.
@@ -27,6 +43,18 @@ import com.example.mcp.application.service.WeatherQueryService;
  * replaced with Spring, Guice, or Dagger.
  */
 public final class ApplicationConfiguration {
+    /** System property holding the path access rules, e.g. {@code deny:/,allow:/home/me/project}. */
+    public static final String PATH_RULES_PROPERTY = "mcp.path.rules";
+    private static final String DEFAULT_PATH_RULES = "deny:/etc,deny:/sys,deny:/proc";
+    /** System property holding how many seconds current weather is answered from the cache. */
+    public static final String WEATHER_TTL_PROPERTY = "mcp.weather.ttl.seconds";
+    private static final long DEFAULT_WEATHER_TTL_SECONDS = 900;
+    /** System property enabling hedged weather requests, e.g. {@code -Dmcp.weather.hedging=true}. */
+    public static final String WEATHER_HEDGING_PROPERTY = "mcp.weather.hedging";
+    /** System property holding a GeoNames cities dump to geocode from instead of the bundled major cities. */
+    public static final String GAZETTEER_FILE_PROPERTY = "mcp.gazetteer.file";
+    /** System property that, set to {@code false}, keeps geocoding offline for names the gazetteer lacks. */
+    public static final String GEOCODING_FALLBACK_PROPERTY = "mcp.geocoding.fallback";
 
     /**
      * Creates and configures the complete MCP server with all dependencies wired.
@@ -37,8 +65,27 @@ public final class ApplicationConfiguration {
         // === Infrastructure Layer (Driven Adapters / Output Ports) ===
         
         NoteRepository noteRepository = new InMemoryNoteRepository();
-        WeatherServicePort weatherService = new OpenMeteoWeatherAdapter();
-        FileSystemPort fileSystem = new JavaNioFileSystemAdapter();
+        ResilientWeatherAdapter weatherUpstream = new ResilientWeatherAdapter(new OpenMeteoWeatherAdapter(),
+            ResilientWeatherAdapter.Policy.defaults().withHedging(Boolean.getBoolean(WEATHER_HEDGING_PROPERTY)));
+        CoalescingWeatherAdapter weatherRequests = new CoalescingWeatherAdapter(weatherUpstream);
+        CachingWeatherAdapter weatherCache = new CachingWeatherAdapter(weatherRequests,
+            Duration.ofSeconds(Long.getLong(WEATHER_TTL_PROPERTY, DEFAULT_WEATHER_TTL_SECONDS)));
+        CachingGeocodeAdapter geocodeCache =
+            new CachingGeocodeAdapter(weatherCache, CachingGeocodeAdapter.defaultLogFile());
+        String gazetteerFile = System.getProperty(GAZETTEER_FILE_PROPERTY);
+        GazetteerGeocodeAdapter weatherService = new GazetteerGeocodeAdapter(geocodeCache,
+            gazetteerFile == null ? null : Paths.get(gazetteerFile), GazetteerGeocodeAdapter.defaultIndexDirectory(),
+            Boolean.parseBoolean(System.getProperty(GEOCODING_FALLBACK_PROPERTY, "true")));
+        JavaNioFileSystemAdapter localFiles = new JavaNioFileSystemAdapter();
+        ArchiveFileSystemAdapter archives = new ArchiveFileSystemAdapter(localFiles);
+        CachingFileSystemAdapter fileCache = new CachingFileSystemAdapter(archives);
+        IndexedFileSystemAdapter fileSystem =
+            new IndexedFileSystemAdapter(fileCache, IndexedFileSystemAdapter.defaultIndexDirectory());
+        Sha256FileHashAdapter fileHashes = new Sha256FileHashAdapter(archives, Sha256FileHashAdapter.defaultIndexFile());
+        DirectoryWatchPort directoryWatch = new WatchServiceDirectoryWatchAdapter();
+        ParallelDiskUsageAdapter diskUsage = new ParallelDiskUsageAdapter();
+        RealPathPolicyAdapter pathPolicy =
+            new RealPathPolicyAdapter(PathRule.parseList(System.getProperty(PATH_RULES_PROPERTY, DEFAULT_PATH_RULES)));
         LoggingPort logger = new Slf4jLoggingAdapter();
         TimeProvider timeProvider = new SystemTimeProvider();
 
@@ -47,8 +94,9 @@ public final class ApplicationConfiguration {
         CalculationService calculationService = new CalculationService(logger);
         NoteService noteService = new NoteService(noteRepository, timeProvider, logger);
         WeatherQueryService weatherQueryService = new WeatherQueryService(weatherService, logger);
-        FileService fileService = new FileService(fileSystem, logger);
-        ResourceService resourceService = new ResourceService(noteRepository);
+        FileService fileService = new FileService(fileSystem, fileHashes, directoryWatch, diskUsage, pathPolicy, logger);
+        ResourceService resourceService = new ResourceService(noteRepository, List.of(fileCache, fileSystem, archives,
+            fileHashes, diskUsage, pathPolicy, weatherService, geocodeCache, weatherCache, weatherRequests));
         PromptService promptService = new PromptService(noteRepository);
 
         // === Presentation Layer (Driving Adapters / Input Ports) ===
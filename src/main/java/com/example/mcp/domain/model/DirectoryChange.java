@@ -0,0 +1,74 @@
+package com.example.mcp.domain.model;
+
+import java.util.Objects;
+
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Domain entity representing one change observed in a watched directory.
+ * Bursts of raw events on the same path are already folded into a single change.
+ */
+public final class DirectoryChange {
+
+    public enum Kind {
+        CREATED("+"),
+        MODIFIED("~"),
+        DELETED("-");
+
+        private final String symbol;
+
+        Kind(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+    }
+
+    private final FilePath path;
+    private final Kind kind;
+    private final boolean directory;
+
+    public DirectoryChange(FilePath path, Kind kind, boolean directory) {
+        this.path = Objects.requireNonNull(path, "Path cannot be null");
+        this.kind = Objects.requireNonNull(kind, "Kind cannot be null");
+        this.directory = directory;
+    }
+
+    public FilePath getPath() {
+        return path;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isDirectory() {
+        return directory;
+    }
+
+    public String format() {
+        return kind.getSymbol() + " " + path.getValue() + (directory ? "/" : "");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DirectoryChange)) return false;
+        DirectoryChange that = (DirectoryChange) o;
+        return directory == that.directory &&
+               kind == that.kind &&
+               Objects.equals(path, that.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, kind, directory);
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
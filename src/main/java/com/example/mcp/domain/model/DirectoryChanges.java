@@ -0,0 +1,105 @@
+package com.example.mcp.domain.model;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.WatchCursor;
+
+/**
+ * Domain entity representing the changes in a watched directory after a cursor.
+ */
+public final class DirectoryChanges {
+    private final FilePath directory;
+    private final List<DirectoryChange> changes;
+    private final WatchCursor cursor;
+    private final boolean resync;
+    private final boolean more;
+
+    /**
+     * @param resync Whether changes after the previous cursor are no longer known, because the
+     *               cursor belongs to a watch that was dropped or is too old, so the caller
+     *               should list the directory afresh
+     * @param more Whether further changes are already waiting after the returned cursor
+     */
+    public DirectoryChanges(FilePath directory, List<DirectoryChange> changes, WatchCursor cursor,
+                            boolean resync, boolean more) {
+        this.directory = Objects.requireNonNull(directory, "Directory cannot be null");
+        this.changes = List.copyOf(Objects.requireNonNull(changes, "Changes cannot be null"));
+        this.cursor = Objects.requireNonNull(cursor, "Cursor cannot be null");
+        this.resync = resync;
+        this.more = more;
+    }
+
+    public FilePath getDirectory() {
+        return directory;
+    }
+
+    public List<DirectoryChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Position to pass back to get the changes after these.
+     */
+    public WatchCursor getCursor() {
+        return cursor;
+    }
+
+    public boolean isResync() {
+        return resync;
+    }
+
+    public boolean hasMore() {
+        return more;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        if (resync) {
+            sb.append("Earlier changes in ").append(directory)
+              .append(" are no longer available; list the directory again.\n\n");
+        }
+        if (changes.isEmpty()) {
+            sb.append("No changes in ").append(directory).append(".\n");
+        } else {
+            sb.append(changes.size()).append(changes.size() == 1 ? " change" : " changes")
+              .append(" in ").append(directory).append(":\n");
+            for (DirectoryChange change : changes) {
+                sb.append(change.format()).append('\n');
+            }
+            if (more) {
+                sb.append("(more changes are waiting)\n");
+            }
+        }
+        sb.append("\n[Call watch_directory again with cursor \"").append(cursor.encode())
+          .append("\" to get the changes after this point.]");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DirectoryChanges)) return false;
+        DirectoryChanges that = (DirectoryChanges) o;
+        return resync == that.resync &&
+               more == that.more &&
+               Objects.equals(directory, that.directory) &&
+               Objects.equals(changes, that.changes) &&
+               Objects.equals(cursor, that.cursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(directory, changes, cursor, resync, more);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + changes.size() + " changes in " + directory + " up to " + cursor + "]";
+    }
+}
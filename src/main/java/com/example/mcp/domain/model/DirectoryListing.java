@@ -0,0 +1,85 @@
+package com.example.mcp.domain.model;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.ListingCursor;
+
+/**
+ * Domain entity representing one sorted page of a directory listing.
+ */
+public final class DirectoryListing {
+    private final FilePath path;
+    private final List<FileMetadata> entries;
+    private final long totalEntries;
+    private final ListingCursor nextCursor;
+
+    public DirectoryListing(FilePath path, List<FileMetadata> entries, long totalEntries, ListingCursor nextCursor) {
+        this.path = Objects.requireNonNull(path, "Path cannot be null");
+        this.entries = List.copyOf(Objects.requireNonNull(entries, "Entries cannot be null"));
+        this.totalEntries = totalEntries;
+        this.nextCursor = nextCursor;
+    }
+
+    public FilePath getPath() {
+        return path;
+    }
+
+    public List<FileMetadata> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Number of entries in the whole directory, not just this page.
+     */
+    public long getTotalEntries() {
+        return totalEntries;
+    }
+
+    public Optional<ListingCursor> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder("Contents of ").append(path);
+        if (entries.size() != totalEntries) {
+            sb.append(" (").append(entries.size()).append(" of ").append(totalEntries).append(" entries)");
+        }
+        sb.append(":\n\n");
+        for (FileMetadata entry : entries) {
+            sb.append(entry.formatListEntry()).append("\n");
+        }
+        if (nextCursor != null) {
+            sb.append("\n[More entries available. Call list_directory again with cursor \"")
+              .append(nextCursor.encode()).append("\" to continue.]\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DirectoryListing)) return false;
+        DirectoryListing that = (DirectoryListing) o;
+        return totalEntries == that.totalEntries &&
+               Objects.equals(path, that.path) &&
+               Objects.equals(entries, that.entries) &&
+               Objects.equals(nextCursor, that.nextCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, entries, totalEntries, nextCursor);
+    }
+
+    @Override
+    public String toString() {
+        return path + " [" + entries.size() + " of " + totalEntries + "]";
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.mcp.domain.model;
+
+import java.util.Objects;
+
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.FileSize;
+
+/**
+ * Domain entity representing the disk space used by a directory tree.
+ * Sizes are apparent sizes, the sum of the lengths of the files below the directory.
+ */
+public final class DirectoryUsage {
+    private final FilePath path;
+    private final FileSize size;
+    private final long files;
+    private final long directories;
+
+    public DirectoryUsage(FilePath path, FileSize size, long files, long directories) {
+        this.path = Objects.requireNonNull(path, "Path cannot be null");
+        this.size = Objects.requireNonNull(size, "Size cannot be null");
+        if (files < 0 || directories < 0) {
+            throw new IllegalArgumentException("Counts cannot be negative: " + files + " files, " + directories + " directories");
+        }
+        this.files = files;
+        this.directories = directories;
+    }
+
+    public FilePath getPath() {
+        return path;
+    }
+
+    public FileSize getSize() {
+        return size;
+    }
+
+    /**
+     * Number of files anywhere below the directory.
+     */
+    public long getFiles() {
+        return files;
+    }
+
+    /**
+     * Number of directories anywhere below the directory, not counting itself.
+     */
+    public long getDirectories() {
+        return directories;
+    }
+
+    public String format() {
+        return String.format("%10s  %8d files  %s", size.format(), files, path.getValue());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DirectoryUsage)) return false;
+        DirectoryUsage that = (DirectoryUsage) o;
+        return files == that.files &&
+               directories == that.directories &&
+               Objects.equals(path, that.path) &&
+               Objects.equals(size, that.size);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, size, files, directories);
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
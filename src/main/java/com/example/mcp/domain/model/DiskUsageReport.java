@@ -0,0 +1,91 @@
+package com.example.mcp.domain.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Domain entity representing the disk usage of a directory tree and its largest subtrees.
+ * Records how many directories had to be listed; the rest were unchanged since last walked.
+ */
+public final class DiskUsageReport {
+    private final DirectoryUsage total;
+    private final List<DirectoryUsage> largest;
+    private final long listed;
+    private final long reused;
+
+    public DiskUsageReport(DirectoryUsage total, List<DirectoryUsage> largest, long listed, long reused) {
+        this.total = Objects.requireNonNull(total, "Total cannot be null");
+        this.largest = List.copyOf(Objects.requireNonNull(largest, "Largest subtrees cannot be null"));
+        if (listed < 0 || reused < 0) {
+            throw new IllegalArgumentException("Directory counts cannot be negative: " + listed + " listed, " + reused + " reused");
+        }
+        this.listed = listed;
+        this.reused = reused;
+    }
+
+    public DirectoryUsage getTotal() {
+        return total;
+    }
+
+    /**
+     * The largest subtrees below the root, largest first.
+     */
+    public List<DirectoryUsage> getLargest() {
+        return largest;
+    }
+
+    /**
+     * Number of directories whose entries were read, as opposed to served from the cache.
+     */
+    public long getListed() {
+        return listed;
+    }
+
+    /**
+     * Number of directories served from the cache because they had not changed.
+     */
+    public long getReused() {
+        return reused;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Disk usage of ").append(total.getPath().getValue()).append(": ")
+          .append(total.getSize().format()).append(" in ").append(total.getFiles())
+          .append(total.getFiles() == 1 ? " file" : " files").append(" and ").append(total.getDirectories())
+          .append(total.getDirectories() == 1 ? " directory" : " directories").append("\n\n");
+
+        if (largest.isEmpty()) {
+            sb.append("No subdirectories\n");
+        } else {
+            sb.append("Largest subtrees:\n");
+            for (DirectoryUsage usage : largest) {
+                sb.append(usage.format()).append("\n");
+            }
+        }
+        sb.append("\n(").append(listed).append(" directories listed, ").append(reused)
+          .append(" unchanged since last walked)\n");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DiskUsageReport)) return false;
+        DiskUsageReport that = (DiskUsageReport) o;
+        return listed == that.listed &&
+               reused == that.reused &&
+               Objects.equals(total, that.total) &&
+               Objects.equals(largest, that.largest);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(total, largest, listed, reused);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + total.format().strip() + ", " + listed + " listed, " + reused + " reused]";
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.mcp.domain.model;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.ReadCursor;
+
+/**
+ * Domain entity representing one page of decoded file content.
+ * Byte offsets always fall on character boundaries.
+ */
+public final class FileChunk {
+    private final FilePath path;
+    private final String content;
+    private final long startOffset;
+    private final long endOffset;
+    private final long fileSize;
+    private final ReadCursor continuation;
+
+    public FileChunk(FilePath path, String content, long startOffset, long endOffset,
+                     long fileSize, ReadCursor continuation) {
+        this.path = Objects.requireNonNull(path, "Path cannot be null");
+        this.content = Objects.requireNonNull(content, "Content cannot be null");
+        if (startOffset < 0 || endOffset < startOffset) {
+            throw new IllegalArgumentException("Invalid chunk bounds: " + startOffset + "-" + endOffset);
+        }
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.fileSize = fileSize;
+        this.continuation = continuation;
+    }
+
+    public FilePath getPath() {
+        return path;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public long getStartOffset() {
+        return startOffset;
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public Optional<ReadCursor> getContinuation() {
+        return Optional.ofNullable(continuation);
+    }
+
+    public boolean hasMore() {
+        return continuation != null;
+    }
+
+    /**
+     * Whether this chunk holds the complete file.
+     */
+    public boolean isWholeFile() {
+        return startOffset == 0 && endOffset == fileSize;
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder("File contents of ").append(path);
+        if (!isWholeFile()) {
+            sb.append(" (bytes ").append(startOffset).append('-').append(endOffset)
+              .append(" of ").append(fileSize).append(')');
+        }
+        sb.append(":\n\n").append(content);
+        if (continuation != null) {
+            sb.append("\n\n[More content available. Call read_file again with cursor \"")
+              .append(continuation.encode()).append("\" to continue.]");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FileChunk)) return false;
+        FileChunk that = (FileChunk) o;
+        return startOffset == that.startOffset &&
+               endOffset == that.endOffset &&
+               fileSize == that.fileSize &&
+               Objects.equals(path, that.path) &&
+               Objects.equals(content, that.content) &&
+               Objects.equals(continuation, that.continuation);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, content, startOffset, endOffset, fileSize, continuation);
+    }
+
+    @Override
+    public String toString() {
+        return path + " [" + startOffset + "-" + endOffset + " of " + fileSize + "]";
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.mcp.domain.model;
+
+import java.util.Objects;
+
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Domain entity representing the SHA-256 digest of a file's content.
+ */
+public final class FileHash {
+    private final FilePath path;
+    private final long size;
+    private final String sha256;
+
+    public FileHash(FilePath path, long size, String sha256) {
+        this.path = Objects.requireNonNull(path, "Path cannot be null");
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be negative: " + size);
+        }
+        this.size = size;
+        this.sha256 = Objects.requireNonNull(sha256, "Digest cannot be null");
+    }
+
+    public FilePath getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Lower-case hexadecimal SHA-256 digest.
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+    /**
+     * Formats the hash like sha256sum output, so results can be diffed or checked with standard tools.
+     */
+    public String format() {
+        return sha256 + "  " + path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FileHash)) return false;
+        FileHash that = (FileHash) o;
+        return size == that.size &&
+               Objects.equals(path, that.path) &&
+               Objects.equals(sha256, that.sha256);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, size, sha256);
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.mcp.domain.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Domain entity representing the hashes of a set of files.
+ * Records how many files actually had to be read; the rest were unchanged since last hashed.
+ */
+public final class FileHashReport {
+    private final List<FileHash> hashes;
+    private final long computed;
+    private final boolean limitReached;
+
+    public FileHashReport(List<FileHash> hashes, long computed, boolean limitReached) {
+        this.hashes = List.copyOf(Objects.requireNonNull(hashes, "Hashes cannot be null"));
+        if (computed < 0) {
+            throw new IllegalArgumentException("Computed count cannot be negative: " + computed);
+        }
+        this.computed = computed;
+        this.limitReached = limitReached;
+    }
+
+    public List<FileHash> getHashes() {
+        return hashes;
+    }
+
+    /**
+     * Number of files whose content was read and hashed, as opposed to served from the cache.
+     */
+    public long getComputed() {
+        return computed;
+    }
+
+    /**
+     * Whether more files matched than were hashed.
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    public String format() {
+        if (hashes.isEmpty()) {
+            return "No files to hash";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (FileHash hash : hashes) {
+            sb.append(hash.format()).append("\n");
+        }
+        sb.append("\n").append(hashes.size()).append(hashes.size() == 1 ? " file" : " files")
+          .append(" (").append(computed).append(" hashed, ").append(hashes.size() - computed)
+          .append(" unchanged since last hashed)");
+        if (limitReached) {
+            sb.append("; limit reached, more files matched");
+        }
+        return sb.append("\n").toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FileHashReport)) return false;
+        FileHashReport that = (FileHashReport) o;
+        return computed == that.computed &&
+               limitReached == that.limitReached &&
+               Objects.equals(hashes, that.hashes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hashes, computed, limitReached);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + hashes.size() + " hashes, " + computed + " computed]";
+    }
+}
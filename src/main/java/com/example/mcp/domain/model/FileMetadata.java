@@ -1,5 +1,6 @@
 package com.example.mcp.domain.model;
 
+import java.time.Instant;
 import java.util.Objects;
 
 import com.example.mcp.domain.valueobject.FilePath;
@@ -13,12 +14,18 @@ public final class FileMetadata {
     private final String name;
     private final FileSize size;
     private final boolean isDirectory;
+    private final Instant lastModified;
 
     public FileMetadata(FilePath path, String name, FileSize size, boolean isDirectory) {
+        this(path, name, size, isDirectory, Instant.EPOCH);
+    }
+
+    public FileMetadata(FilePath path, String name, FileSize size, boolean isDirectory, Instant lastModified) {
         this.path = Objects.requireNonNull(path, "Path cannot be null");
         this.name = Objects.requireNonNull(name, "Name cannot be null");
         this.size = Objects.requireNonNull(size, "Size cannot be null");
         this.isDirectory = isDirectory;
+        this.lastModified = Objects.requireNonNull(lastModified, "Last modified time cannot be null");
     }
 
     public FilePath getPath() {
@@ -37,6 +44,10 @@ public final class FileMetadata {
         return isDirectory;
     }
 
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
     public String formatListEntry() {
         if (isDirectory) {
             return "[DIR]  " + name;
@@ -53,12 +64,13 @@ public final class FileMetadata {
         return isDirectory == that.isDirectory &&
                Objects.equals(path, that.path) &&
                Objects.equals(name, that.name) &&
-               Objects.equals(size, that.size);
+               Objects.equals(size, that.size) &&
+               Objects.equals(lastModified, that.lastModified);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(path, name, size, isDirectory);
+        return Objects.hash(path, name, size, isDirectory, lastModified);
     }
 
     @Override
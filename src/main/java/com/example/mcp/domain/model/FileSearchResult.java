@@ -0,0 +1,72 @@
+package com.example.mcp.domain.model;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Domain entity representing the outcome of a recursive file search.
+ */
+public final class FileSearchResult {
+    private final FilePath root;
+    private final List<SearchMatch> matches;
+    private final boolean limitReached;
+
+    public FileSearchResult(FilePath root, List<SearchMatch> matches, boolean limitReached) {
+        this.root = Objects.requireNonNull(root, "Root cannot be null");
+        this.matches = List.copyOf(Objects.requireNonNull(matches, "Matches cannot be null"));
+        this.limitReached = limitReached;
+    }
+
+    public FilePath getRoot() {
+        return root;
+    }
+
+    public List<SearchMatch> getMatches() {
+        return matches;
+    }
+
+    /**
+     * Whether the search stopped early because the match limit was reached.
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    public String format() {
+        if (matches.isEmpty()) {
+            return "No matches found under " + root;
+        }
+        StringBuilder sb = new StringBuilder("Found ").append(matches.size())
+            .append(matches.size() == 1 ? " match" : " matches").append(" under ").append(root);
+        if (limitReached) {
+            sb.append(" (limit reached, search stopped early)");
+        }
+        sb.append(":\n\n");
+        for (SearchMatch match : matches) {
+            sb.append(match.format()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FileSearchResult)) return false;
+        FileSearchResult that = (FileSearchResult) o;
+        return limitReached == that.limitReached &&
+               Objects.equals(root, that.root) &&
+               Objects.equals(matches, that.matches);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(root, matches, limitReached);
+    }
+
+    @Override
+    public String toString() {
+        return root + " [" + matches.size() + " matches]";
+    }
+}
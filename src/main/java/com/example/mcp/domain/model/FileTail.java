@@ -0,0 +1,105 @@
+package com.example.mcp.domain.model;
+
+import java.util.Objects;
+
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.TailCursor;
+
+/**
+ * Domain entity representing the end of a file, or what was appended to it since a cursor.
+ */
+public final class FileTail {
+    private final FilePath path;
+    private final String content;
+    private final long startOffset;
+    private final long endOffset;
+    private final TailCursor cursor;
+    private final boolean restarted;
+
+    /**
+     * @param restarted Whether the file was truncated or replaced since the previous cursor,
+     *                  so the content starts over at the beginning of the file
+     */
+    public FileTail(FilePath path, String content, long startOffset, long endOffset,
+                    TailCursor cursor, boolean restarted) {
+        this.path = Objects.requireNonNull(path, "Path cannot be null");
+        this.content = Objects.requireNonNull(content, "Content cannot be null");
+        if (startOffset < 0 || endOffset < startOffset) {
+            throw new IllegalArgumentException("Invalid tail bounds: " + startOffset + "-" + endOffset);
+        }
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.cursor = Objects.requireNonNull(cursor, "Cursor cannot be null");
+        this.restarted = restarted;
+    }
+
+    public FilePath getPath() {
+        return path;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public long getStartOffset() {
+        return startOffset;
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Position to pass back to pick up content appended after this tail.
+     */
+    public TailCursor getCursor() {
+        return cursor;
+    }
+
+    public boolean isRestarted() {
+        return restarted;
+    }
+
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        if (restarted) {
+            sb.append("File ").append(path).append(" was truncated or replaced; reading from the start.\n\n");
+        }
+        if (content.isEmpty()) {
+            sb.append("No new content in ").append(path).append('.');
+        } else {
+            sb.append("Tail of ").append(path).append(" (bytes ").append(startOffset).append('-')
+              .append(endOffset).append("):\n\n").append(content);
+        }
+        sb.append("\n\n[Call tail_file again with cursor \"").append(cursor.encode())
+          .append("\" to get content appended after this point.]");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FileTail)) return false;
+        FileTail that = (FileTail) o;
+        return startOffset == that.startOffset &&
+               endOffset == that.endOffset &&
+               restarted == that.restarted &&
+               Objects.equals(path, that.path) &&
+               Objects.equals(content, that.content) &&
+               Objects.equals(cursor, that.cursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, content, startOffset, endOffset, cursor, restarted);
+    }
+
+    @Override
+    public String toString() {
+        return path + " [" + startOffset + "-" + endOffset + (restarted ? ", restarted" : "") + "]";
+    }
+}
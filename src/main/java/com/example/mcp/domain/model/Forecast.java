@@ -0,0 +1,223 @@
+package com.example.mcp.domain.model;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+import com.example.mcp.domain.service.WeatherConditionInterpreter;
+
+/**
+ * Domain entity representing an hourly and daily weather forecast for a location.
+ * The series are stored by column, one primitive array per variable indexed like the
+ * array of timestamps, rather than as one object per hour: a two-week forecast is a
+ * handful of arrays, and aggregations over a time window are loops over a slice of one.
+ * Missing values are NaN. The arrays are not copied and must not be modified once passed in.
+ */
+public final class Forecast {
+    /** Hourly precipitation from which an hour counts as rainy. */
+    public static final double RAIN_THRESHOLD_MM = 0.1;
+    private static final long HOUR_SECONDS = 3600;
+
+    /**
+     * The hourly variables that can be aggregated.
+     */
+    public enum Variable { TEMPERATURE, PRECIPITATION, WIND_SPEED }
+
+    /**
+     * Hourly series.
+     *
+     * @param times Start of each hour, in epoch seconds, ascending
+     * @param temperature Air temperature at 2 m in °C
+     * @param precipitation Precipitation over the hour in mm
+     * @param weatherCode WMO weather code, or -1 if missing
+     * @param windSpeed Wind speed at 10 m in km/h
+     */
+    public record Hourly(long[] times, double[] temperature, double[] precipitation, int[] weatherCode,
+                         double[] windSpeed) {
+        public Hourly {
+            int hours = times.length;
+            if (temperature.length != hours || precipitation.length != hours || weatherCode.length != hours
+                    || windSpeed.length != hours) {
+                throw new IllegalArgumentException("Hourly series must all have " + hours + " values");
+            }
+        }
+    }
+
+    /**
+     * Daily series.
+     *
+     * @param times Start of each local day, in epoch seconds, ascending
+     * @param weatherCode Most severe WMO weather code of the day, or -1 if missing
+     * @param temperatureMax Highest temperature at 2 m in °C
+     * @param temperatureMin Lowest temperature at 2 m in °C
+     * @param precipitationSum Precipitation over the day in mm
+     */
+    public record Daily(long[] times, int[] weatherCode, double[] temperatureMax, double[] temperatureMin,
+                        double[] precipitationSum) {
+        public Daily {
+            int days = times.length;
+            if (weatherCode.length != days || temperatureMax.length != days || temperatureMin.length != days
+                    || precipitationSum.length != days) {
+                throw new IllegalArgumentException("Daily series must all have " + days + " values");
+            }
+        }
+    }
+
+    /**
+     * Aggregate of one variable over a window; NaN throughout if the window has no values.
+     *
+     * @param hours Number of hours with a value
+     */
+    public record Stats(double min, double max, double mean, double sum, int hours) {}
+
+    private final String timezone;
+    private final ZoneOffset utcOffset;
+    private final Hourly hourly;
+    private final Daily daily;
+
+    /**
+     * @param timezone Name of the location's time zone
+     * @param utcOffsetSeconds Offset of the location's local time from UTC
+     */
+    public Forecast(String timezone, int utcOffsetSeconds, Hourly hourly, Daily daily) {
+        this.timezone = Objects.requireNonNull(timezone, "Time zone cannot be null");
+        this.utcOffset = ZoneOffset.ofTotalSeconds(utcOffsetSeconds);
+        this.hourly = Objects.requireNonNull(hourly, "Hourly series cannot be null");
+        this.daily = Objects.requireNonNull(daily, "Daily series cannot be null");
+    }
+
+    public String getTimezone() {
+        return timezone;
+    }
+
+    public ZoneOffset getUtcOffset() {
+        return utcOffset;
+    }
+
+    public Hourly getHourly() {
+        return hourly;
+    }
+
+    public Daily getDaily() {
+        return daily;
+    }
+
+    public int getDays() {
+        return daily.times().length;
+    }
+
+    /**
+     * Aggregates an hourly variable over the hours starting in [from, to), in epoch seconds.
+     */
+    public Stats stats(Variable variable, long from, long to) {
+        double[] values = switch (variable) {
+            case TEMPERATURE -> hourly.temperature();
+            case PRECIPITATION -> hourly.precipitation();
+            case WIND_SPEED -> hourly.windSpeed();
+        };
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        int hours = 0;
+        for (int i = firstHourAtOrAfter(from), end = firstHourAtOrAfter(to); i < end; i++) {
+            double value = values[i];
+            if (!Double.isNaN(value)) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                sum += value;
+                hours++;
+            }
+        }
+        return hours == 0
+            ? new Stats(Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0)
+            : new Stats(min, max, sum / hours, sum, hours);
+    }
+
+    /**
+     * Returns the start of the first hour at or after {@code from} with at least
+     * {@link #RAIN_THRESHOLD_MM} of precipitation, or nothing if the forecast has none.
+     */
+    public OptionalLong firstHourOfRain(long from) {
+        double[] precipitation = hourly.precipitation();
+        for (int i = firstHourAtOrAfter(from); i < precipitation.length; i++) {
+            if (precipitation[i] >= RAIN_THRESHOLD_MM) {
+                return OptionalLong.of(hourly.times()[i]);
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    private int firstHourAtOrAfter(long time) {
+        int index = Arrays.binarySearch(hourly.times(), time);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Summarizes the forecast from the hour containing {@code now} on: when precipitation starts,
+     * the next 24 hours, each day, and windows of {@code windowHours}, in local time.
+     */
+    public String format(long now, int windowHours) {
+        if (windowHours < 1) {
+            throw new IllegalArgumentException("Window must be at least one hour, got: " + windowHours);
+        }
+        DateTimeFormatter day = DateTimeFormatter.ofPattern("EEE yyyy-MM-dd", Locale.ENGLISH).withZone(utcOffset);
+        DateTimeFormatter hour = DateTimeFormatter.ofPattern("EEE HH:mm", Locale.ENGLISH).withZone(utcOffset);
+        long start = Math.floorDiv(now, HOUR_SECONDS) * HOUR_SECONDS;
+        long end = hourly.times().length == 0 ? start : hourly.times()[hourly.times().length - 1] + HOUR_SECONDS;
+
+        StringBuilder sb = new StringBuilder();
+        OptionalLong rain = firstHourOfRain(start);
+        sb.append(rain.isPresent() ? "Precipitation from " + hour.format(Instant.ofEpochSecond(rain.getAsLong()))
+            : "No precipitation expected").append('\n');
+        sb.append("Next 24 h: ").append(formatWindow(start, Math.min(start + 24 * HOUR_SECONDS, end)))
+          .append("\n\n");
+
+        sb.append("Daily:\n");
+        for (int i = 0; i < getDays(); i++) {
+            sb.append(day.format(Instant.ofEpochSecond(daily.times()[i]))).append(": ")
+              .append(WeatherConditionInterpreter.interpret(daily.weatherCode()[i])).append(", ")
+              .append(range(daily.temperatureMin()[i], daily.temperatureMax()[i], "°C")).append(", ")
+              .append(amount(daily.precipitationSum()[i])).append('\n');
+        }
+
+        sb.append("\nEvery ").append(windowHours).append(" h:\n");
+        long window = windowHours * HOUR_SECONDS;
+        for (long from = start; from < end; from += window) {
+            sb.append(hour.format(Instant.ofEpochSecond(from))).append(": ")
+              .append(formatWindow(from, Math.min(from + window, end))).append('\n');
+        }
+        return sb.toString().trim();
+    }
+
+    private String formatWindow(long from, long to) {
+        Stats temperature = stats(Variable.TEMPERATURE, from, to);
+        if (temperature.hours() == 0) {
+            return "no data";
+        }
+        Stats wind = stats(Variable.WIND_SPEED, from, to);
+        Stats precipitation = stats(Variable.PRECIPITATION, from, to);
+        return range(temperature.min(), temperature.max(), "°C")
+            + String.format(Locale.US, " (mean %.1f)", temperature.mean())
+            + (wind.hours() == 0 ? "" : String.format(Locale.US, ", wind up to %.0f km/h", wind.max()))
+            + ", " + amount(precipitation.sum());
+    }
+
+    private static String range(double min, double max, String unit) {
+        return String.format(Locale.US, "%.1f to %.1f %s", min, max, unit);
+    }
+
+    private static String amount(double millimetres) {
+        return Double.isNaN(millimetres) ? "precipitation unknown"
+            : millimetres < RAIN_THRESHOLD_MM ? "dry"
+            : String.format(Locale.US, "%.1f mm", millimetres);
+    }
+
+    @Override
+    public String toString() {
+        return "Forecast[" + timezone + ", " + getDays() + " days, " + hourly.times().length + " hours]";
+    }
+}
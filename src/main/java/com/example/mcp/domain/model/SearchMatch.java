@@ -0,0 +1,68 @@
+package com.example.mcp.domain.model;
+
+import java.util.Objects;
+
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Domain entity representing a single file search hit.
+ * Matches on the file path alone carry line number 0 and no snippet.
+ */
+public final class SearchMatch {
+    private final FilePath path;
+    private final long lineNumber;
+    private final String snippet;
+
+    public SearchMatch(FilePath path, long lineNumber, String snippet) {
+        this.path = Objects.requireNonNull(path, "Path cannot be null");
+        if (lineNumber < 0) {
+            throw new IllegalArgumentException("Line number cannot be negative: " + lineNumber);
+        }
+        this.lineNumber = lineNumber;
+        this.snippet = Objects.requireNonNull(snippet, "Snippet cannot be null");
+    }
+
+    public static SearchMatch ofPath(FilePath path) {
+        return new SearchMatch(path, 0, "");
+    }
+
+    public FilePath getPath() {
+        return path;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public boolean isPathMatch() {
+        return lineNumber == 0;
+    }
+
+    public String format() {
+        return isPathMatch() ? path.getValue() : path.getValue() + ":" + lineNumber + ":" + snippet;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SearchMatch)) return false;
+        SearchMatch that = (SearchMatch) o;
+        return lineNumber == that.lineNumber &&
+               Objects.equals(path, that.path) &&
+               Objects.equals(snippet, that.snippet);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, lineNumber, snippet);
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
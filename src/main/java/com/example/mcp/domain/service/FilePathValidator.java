@@ -3,8 +3,9 @@ package com.example.mcp.domain.service;
 import com.example.mcp.domain.valueobject.FilePath;
 
 /**
- * Domain service for validating file paths.
+ * Domain service for classifying file paths.
  * This contains domain logic that doesn't belong to the FilePath value object itself.
+ * Which paths may be accessed at all is decided by {@link PathPolicy}.
  */
 public final class FilePathValidator {
 
@@ -12,27 +13,6 @@ public final class FilePathValidator {
         // Utility class
     }
 
-    /**
-     * Validates that a file path doesn't contain potentially dangerous patterns.
-     * 
-     * @param path The file path to validate
-     * @throws IllegalArgumentException if the path contains dangerous patterns
-     */
-    public static void validateSafePath(FilePath path) {
-        String value = path.getValue();
-        
-        // Check for path traversal attempts
-        if (value.contains("..")) {
-            throw new IllegalArgumentException("Path traversal is not allowed: " + value);
-        }
-        
-        // Check for absolute paths that might be dangerous
-        // This is a simple check - in production you'd want more sophisticated validation
-        if (value.startsWith("/etc") || value.startsWith("/sys") || value.startsWith("/proc")) {
-            throw new IllegalArgumentException("Access to system directories is not allowed: " + value);
-        }
-    }
-
     /**
      * Checks if a file path appears to be a text file based on extension.
      * 
@@ -0,0 +1,70 @@
+package com.example.mcp.domain.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.PathRule;
+
+/**
+ * Domain service deciding which paths may be accessed.
+ * Rules are compiled into a trie over path segments; a path is judged by the most specific
+ * rule on its way down, so evaluating it costs one map lookup per segment however many
+ * rules there are. A path no rule covers is allowed. Of two rules for the same directory
+ * the later one wins.
+ */
+public final class PathPolicy {
+    private final Node root;
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>(4);
+        private PathRule.Effect effect;
+    }
+
+    private PathPolicy(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles rules into a policy.
+     *
+     * @param rules The rules in order of precedence, lowest first
+     * @param segments Splits a rule's path into the segments paths are evaluated by,
+     *                 starting with the file system root
+     * @return The compiled policy
+     */
+    public static PathPolicy compile(List<PathRule> rules, Function<FilePath, List<String>> segments) {
+        Node root = new Node();
+        for (PathRule rule : rules) {
+            Node node = root;
+            for (String segment : segments.apply(rule.getPath())) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            node.effect = rule.getEffect();
+        }
+        return new PathPolicy(root);
+    }
+
+    /**
+     * Decides whether a path may be accessed.
+     *
+     * @param segments The segments of the resolved path, starting with the file system root
+     * @return true if the most specific rule covering the path allows it, or no rule covers it
+     */
+    public boolean permits(Iterable<String> segments) {
+        PathRule.Effect effect = root.effect;
+        Node node = root;
+        for (String segment : segments) {
+            node = node.children.get(segment);
+            if (node == null) {
+                break;
+            }
+            if (node.effect != null) {
+                effect = node.effect;
+            }
+        }
+        return effect != PathRule.Effect.DENY;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.mcp.domain.valueobject;
 
+import java.text.Normalizer;
+import java.util.Locale;
 import java.util.Objects;
 
 /**
@@ -24,6 +26,32 @@ public final class CityName {
         return value;
     }
 
+    /**
+     * Returns the name in a form that is equal for names differing only in case,
+     * runs of whitespace or Unicode composition, e.g. {@code "new  YORK"} and {@code "New York"}.
+     *
+     * @return The normalized name
+     */
+    public String normalized() {
+        String composed = Normalizer.isNormalized(value, Normalizer.Form.NFKC)
+            ? value : Normalizer.normalize(value, Normalizer.Form.NFKC);
+        StringBuilder collapsed = new StringBuilder(composed.length());
+        boolean space = false;
+        for (int i = 0; i < composed.length(); i++) {
+            char c = composed.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space) {
+                collapsed.append(' ');
+                space = false;
+            }
+            collapsed.append(c);
+        }
+        return collapsed.toString().toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -36,6 +36,14 @@ public final class Coordinates {
         return String.format(Locale.US, "%.2f,%.2f", latitude, longitude);
     }
 
+    /**
+     * Returns the coordinates rounded to the two decimals of {@link #formatForApi()},
+     * so that points the API cannot tell apart are equal.
+     */
+    public Coordinates roundedToGrid() {
+        return new Coordinates(Math.round(latitude * 100) / 100.0, Math.round(longitude * 100) / 100.0);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,88 @@
+package com.example.mcp.domain.valueobject;
+
+import java.util.Objects;
+
+import com.example.mcp.domain.model.FileMetadata;
+
+/**
+ * Value object representing the position after the last entry of a listing page.
+ * The cursor records the sort order and the sort key of that entry, so the next
+ * page is every entry ordered after it, independent of how many came before.
+ */
+public final class ListingCursor {
+    private final ListingSort sort;
+    private final boolean descending;
+    private final long key;
+    private final String name;
+
+    public ListingCursor(ListingSort sort, boolean descending, long key, String name) {
+        this.sort = Objects.requireNonNull(sort, "Sort cannot be null");
+        this.descending = descending;
+        this.key = key;
+        this.name = Objects.requireNonNull(name, "Name cannot be null");
+    }
+
+    public static ListingCursor after(FileMetadata entry, ListingSort sort, boolean descending) {
+        return new ListingCursor(sort, descending, sort.key(entry), entry.getName());
+    }
+
+    /**
+     * Parses a cursor previously produced by {@link #encode()}.
+     *
+     * @param value The encoded cursor
+     * @return The decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static ListingCursor parse(String value) {
+        Objects.requireNonNull(value, "Cursor cannot be null");
+        // The entry name goes last because it may itself contain ':'
+        String[] parts = value.split(":", 4);
+        if (parts.length != 4 || !(parts[1].equals("asc") || parts[1].equals("desc"))) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            return new ListingCursor(ListingSort.fromString(parts[0]), parts[1].equals("desc"),
+                Long.parseLong(parts[2]), parts[3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    public String encode() {
+        return sort.getName() + ":" + (descending ? "desc" : "asc") + ":" + key + ":" + name;
+    }
+
+    /**
+     * Whether an entry belongs on a page after this cursor.
+     */
+    public boolean isBefore(FileMetadata entry) {
+        return sort.compare(entry, key, name, descending) > 0;
+    }
+
+    public ListingSort getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ListingCursor)) return false;
+        ListingCursor that = (ListingCursor) o;
+        return descending == that.descending && key == that.key &&
+               sort == that.sort && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sort, descending, key, name);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.mcp.domain.valueobject;
+
+import java.util.Comparator;
+
+import com.example.mcp.domain.model.FileMetadata;
+
+/**
+ * Value object representing the order of a directory listing.
+ * Every order breaks ties by name so that listings are totally ordered and can be paged.
+ * Ties are broken in ascending name order, except by the name order itself, whose key the name is.
+ */
+public enum ListingSort {
+    NAME("name", false),
+    SIZE("size", true),
+    MODIFIED("mtime", true);
+
+    private final String name;
+    private final boolean descendingByDefault;
+
+    ListingSort(String name, boolean descendingByDefault) {
+        this.name = name;
+        this.descendingByDefault = descendingByDefault;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Whether this order lists largest or newest entries first unless told otherwise.
+     */
+    public boolean isDescendingByDefault() {
+        return descendingByDefault;
+    }
+
+    /**
+     * Extracts the primary sort key of an entry. Name ordering has no numeric key.
+     */
+    public long key(FileMetadata entry) {
+        return switch (this) {
+            case NAME -> 0;
+            case SIZE -> entry.getSize().getBytes();
+            case MODIFIED -> entry.getLastModified().toEpochMilli();
+        };
+    }
+
+    /**
+     * Compares an entry against a position given by a sort key and name.
+     */
+    public int compare(FileMetadata entry, long key, String entryName, boolean descending) {
+        int result = Long.compare(key(entry), key);
+        if (result == 0) {
+            result = entry.getName().compareTo(entryName);
+            return this == NAME && descending ? -result : result;
+        }
+        return descending ? -result : result;
+    }
+
+    public Comparator<FileMetadata> comparator(boolean descending) {
+        if (this == NAME) {
+            Comparator<FileMetadata> byName = Comparator.comparing(FileMetadata::getName);
+            return descending ? byName.reversed() : byName;
+        }
+        Comparator<FileMetadata> byKey = Comparator.comparingLong(this::key);
+        if (descending) {
+            byKey = byKey.reversed();
+        }
+        return byKey.thenComparing(FileMetadata::getName);
+    }
+
+    public static ListingSort fromString(String name) {
+        for (ListingSort sort : values()) {
+            if (sort.name.equalsIgnoreCase(name)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort order: " + name);
+    }
+}
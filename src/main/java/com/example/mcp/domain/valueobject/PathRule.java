@@ -0,0 +1,119 @@
+package com.example.mcp.domain.valueobject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Value object representing one rule of a path access policy.
+ * A rule allows or denies a directory and everything below it; its string form is
+ * {@code allow:/srv/data} or {@code deny:/etc}.
+ */
+public final class PathRule {
+
+    /**
+     * Whether a rule grants or refuses access.
+     */
+    public enum Effect {
+        ALLOW("allow"),
+        DENY("deny");
+
+        private final String name;
+
+        Effect(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static Effect fromString(String name) {
+            for (Effect effect : values()) {
+                if (effect.name.equalsIgnoreCase(name)) {
+                    return effect;
+                }
+            }
+            throw new IllegalArgumentException("Unknown rule effect: " + name);
+        }
+    }
+
+    private final Effect effect;
+    private final FilePath path;
+
+    public PathRule(Effect effect, FilePath path) {
+        this.effect = Objects.requireNonNull(effect, "Effect cannot be null");
+        this.path = Objects.requireNonNull(path, "Path cannot be null");
+    }
+
+    public static PathRule allow(String path) {
+        return new PathRule(Effect.ALLOW, new FilePath(path));
+    }
+
+    public static PathRule deny(String path) {
+        return new PathRule(Effect.DENY, new FilePath(path));
+    }
+
+    /**
+     * Parses a rule previously produced by {@link #encode()}.
+     *
+     * @param value The encoded rule
+     * @return The decoded rule
+     * @throws IllegalArgumentException if the value is not a valid rule
+     */
+    public static PathRule parse(String value) {
+        Objects.requireNonNull(value, "Rule cannot be null");
+        String[] parts = value.trim().split(":", 2);
+        if (parts.length != 2 || parts[1].isBlank()) {
+            throw new IllegalArgumentException("Invalid path rule: " + value);
+        }
+        return new PathRule(Effect.fromString(parts[0].trim()), new FilePath(parts[1]));
+    }
+
+    /**
+     * Parses a comma-separated list of rules, ignoring empty items.
+     *
+     * @param value The encoded rules
+     * @return The decoded rules in order
+     * @throws IllegalArgumentException if an item is not a valid rule
+     */
+    public static List<PathRule> parseList(String value) {
+        List<PathRule> rules = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                rules.add(parse(item));
+            }
+        }
+        return rules;
+    }
+
+    public String encode() {
+        return effect.getName() + ":" + path.getValue();
+    }
+
+    public Effect getEffect() {
+        return effect;
+    }
+
+    public FilePath getPath() {
+        return path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PathRule)) return false;
+        PathRule that = (PathRule) o;
+        return effect == that.effect && path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(effect, path);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
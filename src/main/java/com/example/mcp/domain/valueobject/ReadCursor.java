@@ -0,0 +1,86 @@
+package com.example.mcp.domain.valueobject;
+
+import java.util.Objects;
+
+/**
+ * Value object representing the continuation point of a paged file read.
+ * A cursor always points at a byte position, remembers the unit of the original
+ * request and how much of the requested length is still outstanding.
+ * Its string form is opaque to clients and is only meant to be passed back.
+ */
+public final class ReadCursor {
+    private final ReadRange.Unit unit;
+    private final long position;
+    private final long remaining;
+
+    public ReadCursor(ReadRange.Unit unit, long position, long remaining) {
+        this.unit = Objects.requireNonNull(unit, "Unit cannot be null");
+        if (position < 0) {
+            throw new IllegalArgumentException("Cursor position cannot be negative: " + position);
+        }
+        if (remaining < 0 && remaining != ReadRange.UNBOUNDED) {
+            throw new IllegalArgumentException("Cursor remaining length cannot be negative: " + remaining);
+        }
+        this.position = position;
+        this.remaining = remaining;
+    }
+
+    /**
+     * Parses a cursor previously produced by {@link #encode()}.
+     *
+     * @param value The encoded cursor
+     * @return The decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static ReadCursor parse(String value) {
+        Objects.requireNonNull(value, "Cursor cannot be null");
+        String[] parts = value.trim().split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            ReadRange.Unit unit = ReadRange.Unit.fromString(parts[0]);
+            return new ReadCursor(unit, Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    public String encode() {
+        return unit.getName() + ":" + position + ":" + remaining;
+    }
+
+    public ReadRange.Unit getUnit() {
+        return unit;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getRemaining() {
+        return remaining;
+    }
+
+    public boolean isBounded() {
+        return remaining != ReadRange.UNBOUNDED;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ReadCursor)) return false;
+        ReadCursor that = (ReadCursor) o;
+        return unit == that.unit && position == that.position && remaining == that.remaining;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(unit, position, remaining);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
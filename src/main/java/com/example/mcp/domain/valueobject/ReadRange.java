@@ -0,0 +1,107 @@
+package com.example.mcp.domain.valueobject;
+
+import java.util.Objects;
+
+/**
+ * Value object representing the part of a file a caller wants to read.
+ * Offsets and lengths are expressed either in bytes or in lines.
+ */
+public final class ReadRange {
+
+    /**
+     * Unit in which a range offset and length are expressed.
+     */
+    public enum Unit {
+        BYTES("bytes"),
+        LINES("lines");
+
+        private final String name;
+
+        Unit(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static Unit fromString(String name) {
+            for (Unit unit : values()) {
+                if (unit.name.equalsIgnoreCase(name)) {
+                    return unit;
+                }
+            }
+            throw new IllegalArgumentException("Unknown unit: " + name);
+        }
+    }
+
+    /** Length value meaning "until the end of the file". */
+    public static final long UNBOUNDED = -1;
+
+    private final Unit unit;
+    private final long offset;
+    private final long length;
+
+    private ReadRange(Unit unit, long offset, long length) {
+        this.unit = Objects.requireNonNull(unit, "Unit cannot be null");
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative: " + offset);
+        }
+        if (length < 0 && length != UNBOUNDED) {
+            throw new IllegalArgumentException("Length cannot be negative: " + length);
+        }
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public static ReadRange of(Unit unit, long offset, long length) {
+        return new ReadRange(unit, offset, length);
+    }
+
+    public static ReadRange bytes(long offset, long length) {
+        return new ReadRange(Unit.BYTES, offset, length);
+    }
+
+    public static ReadRange lines(long offset, long length) {
+        return new ReadRange(Unit.LINES, offset, length);
+    }
+
+    public static ReadRange wholeFile() {
+        return new ReadRange(Unit.BYTES, 0, UNBOUNDED);
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public boolean isBounded() {
+        return length != UNBOUNDED;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ReadRange)) return false;
+        ReadRange that = (ReadRange) o;
+        return unit == that.unit && offset == that.offset && length == that.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(unit, offset, length);
+    }
+
+    @Override
+    public String toString() {
+        String end = isBounded() ? "+" + length : "+*";
+        return unit.getName() + " " + offset + end;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.mcp.domain.valueobject;
+
+import java.util.Objects;
+
+/**
+ * Value object representing how far a client has followed a growing file.
+ * Besides the byte position it records which file was being read, so a later
+ * call can tell whether the file was replaced (rotated) since then.
+ * Its string form is opaque to clients and is only meant to be passed back.
+ */
+public final class TailCursor {
+    private final long position;
+    private final String fileId;
+
+    public TailCursor(long position, String fileId) {
+        if (position < 0) {
+            throw new IllegalArgumentException("Cursor position cannot be negative: " + position);
+        }
+        this.position = position;
+        this.fileId = Objects.requireNonNull(fileId, "File id cannot be null");
+    }
+
+    /**
+     * Parses a cursor previously produced by {@link #encode()}.
+     *
+     * @param value The encoded cursor
+     * @return The decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static TailCursor parse(String value) {
+        Objects.requireNonNull(value, "Cursor cannot be null");
+        String[] parts = value.trim().split("@", 2);
+        if (parts.length != 2 || parts[1].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            return new TailCursor(Long.parseLong(parts[0]), parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    public String encode() {
+        return position + "@" + fileId;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public String getFileId() {
+        return fileId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TailCursor)) return false;
+        TailCursor that = (TailCursor) o;
+        return position == that.position && fileId.equals(that.fileId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(position, fileId);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.mcp.domain.valueobject;
+
+import java.util.Objects;
+
+/**
+ * Value object representing how far a client has read the change feed of a watched directory.
+ * Records the position in the feed and which watch produced it, so a cursor from a watch
+ * that has since been dropped (or from before a restart) is recognized rather than misread.
+ * Its string form is opaque to clients and is only meant to be passed back.
+ */
+public final class WatchCursor {
+    private final long sequence;
+    private final String watchId;
+
+    public WatchCursor(long sequence, String watchId) {
+        if (sequence < 0) {
+            throw new IllegalArgumentException("Cursor sequence cannot be negative: " + sequence);
+        }
+        this.sequence = sequence;
+        this.watchId = Objects.requireNonNull(watchId, "Watch id cannot be null");
+    }
+
+    /**
+     * Parses a cursor previously produced by {@link #encode()}.
+     *
+     * @param value The encoded cursor
+     * @return The decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static WatchCursor parse(String value) {
+        Objects.requireNonNull(value, "Cursor cannot be null");
+        String[] parts = value.trim().split("@", 2);
+        if (parts.length != 2 || parts[1].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            return new WatchCursor(Long.parseLong(parts[0]), parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    public String encode() {
+        return sequence + "@" + watchId;
+    }
+
+    /**
+     * Number of changes in the feed that precede this position.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getWatchId() {
+        return watchId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WatchCursor)) return false;
+        WatchCursor that = (WatchCursor) o;
+        return sequence == that.sequence && watchId.equals(that.watchId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sequence, watchId);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
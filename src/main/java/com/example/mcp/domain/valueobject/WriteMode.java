@@ -0,0 +1,29 @@
+package com.example.mcp.domain.valueobject;
+
+/**
+ * Value object representing how a write treats an existing file.
+ */
+public enum WriteMode {
+    OVERWRITE("overwrite"),
+    APPEND("append"),
+    CREATE_NEW("create_new");
+
+    private final String name;
+
+    WriteMode(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static WriteMode fromString(String name) {
+        for (WriteMode mode : values()) {
+            if (mode.name.equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown write mode: " + name);
+    }
+}
@@ -3,11 +3,16 @@ package com.example.mcp;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.example.mcp.config.ApplicationConfiguration;
 
@@ -16,6 +21,9 @@ public class IntegrationJvmTest {
     private final PrintStream originalErr = System.err;
     private final java.io.InputStream originalIn = System.in;
 
+    @TempDir
+    Path dir;
+
     private ByteArrayOutputStream outBuf;
     private ByteArrayOutputStream errBuf;
 
@@ -54,4 +62,69 @@ public class IntegrationJvmTest {
         assertTrue(stdout.contains("JUnit"), "Expected created note title in list_notes output\n" + stdout);
         assertTrue(stdout.contains("Result"), "Expected calculate result in stdout\n" + stdout);
     }
+
+    /**
+     * Runs the server over the given requests while a line is appended to a file half way
+     * through its one-second follow, and returns what the server wrote to stdout.
+     */
+    private String followWhileAppending(Path file, String... requests) throws Exception {
+        System.setIn(new ByteArrayInputStream((String.join("\n", requests) + "\n")
+            .getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+        Thread appender = new Thread(() -> {
+            try {
+                Thread.sleep(400);
+                Files.writeString(file, "appended line\n", StandardOpenOption.APPEND);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        appender.start();
+        ApplicationConfiguration.main(new String[0]);
+        appender.join();
+        return outBuf.toString("UTF-8");
+    }
+
+    private static String tailRequest(int id, Path file) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"method\":\"tools/call\",\"params\":{\"name\":\"tail_file\","
+            + "\"arguments\":{\"file_path\":\"" + file + "\",\"follow_seconds\":1}}}";
+    }
+
+    @Test
+    void followingAFileDoesNotHoldUpLaterRequests() throws Exception {
+        Path file = Files.writeString(dir.resolve("app.log"), "first line\n");
+
+        String stdout = followWhileAppending(file,
+            tailRequest(1, file),
+            "{\"jsonrpc\":\"2.0\",\"id\":2,\"method\":\"tools/call\",\"params\":{\"name\":\"calculate\",\"arguments\":{\"operation\":\"add\",\"a\":7,\"b\":8}}}");
+
+        assertTrue(stdout.contains("appended line"), "Expected the appended line as a notification\n" + stdout);
+        assertTrue(stdout.indexOf("\"id\":2") < stdout.indexOf("\"id\":1"),
+            "Expected calculate to be answered while tail_file was following\n" + stdout);
+    }
+
+    @Test
+    void logNotificationsBelowTheSetLevelAreDropped() throws Exception {
+        Path file = Files.writeString(dir.resolve("app.log"), "first line\n");
+
+        String stdout = followWhileAppending(file,
+            "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"logging/setLevel\",\"params\":{\"level\":\"warning\"}}",
+            tailRequest(2, file));
+
+        assertTrue(stdout.contains("Followed"), "Expected the tail_file result\n" + stdout);
+        assertFalse(stdout.contains("notifications/message"), "Expected info notifications to be dropped\n" + stdout);
+    }
+
+    @Test
+    void watchingADirectoryDoesNotHoldUpLaterRequests() throws Exception {
+        Path file = Files.writeString(dir.resolve("app.log"), "first line\n");
+
+        String stdout = followWhileAppending(file,
+            "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"tools/call\",\"params\":{\"name\":\"watch_directory\","
+                + "\"arguments\":{\"path\":\"" + dir + "\",\"follow_seconds\":1}}}",
+            "{\"jsonrpc\":\"2.0\",\"id\":2,\"method\":\"tools/call\",\"params\":{\"name\":\"calculate\",\"arguments\":{\"operation\":\"add\",\"a\":7,\"b\":8}}}");
+
+        assertTrue(stdout.contains("Watched"), "Expected the watch_directory result\n" + stdout);
+        assertTrue(stdout.indexOf("\"id\":2") < stdout.indexOf("\"id\":1"),
+            "Expected calculate to be answered while watch_directory was following\n" + stdout);
+    }
 }
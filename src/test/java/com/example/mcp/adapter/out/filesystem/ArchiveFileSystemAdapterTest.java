@@ -0,0 +1,142 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.mcp.domain.model.SearchMatch;
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Reads the entries of a ZIP file built in a scratch directory.
+ */
+public class ArchiveFileSystemAdapterTest {
+    private static final int LARGE_ENTRY_BYTES = 3 * 1024 * 1024;
+    /** Enough lines for the entry to span several search segments. */
+    private static final int LOG_LINES = 300_000;
+
+    @TempDir
+    Path dir;
+
+    private Path zip;
+    private byte[] large;
+    private ArchiveFileSystemAdapter archives;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        large = new byte[LARGE_ENTRY_BYTES];
+        new Random(42).nextBytes(large);
+        zip = dir.resolve("data.zip");
+        try (OutputStream file = Files.newOutputStream(zip); ZipOutputStream out = new ZipOutputStream(file)) {
+            out.putNextEntry(new ZipEntry("large.bin"));
+            out.write(large);
+            out.putNextEntry(new ZipEntry("small.txt"));
+            out.write("small entry".getBytes());
+            out.putNextEntry(new ZipEntry("log.txt"));
+            for (int line = 1; line <= LOG_LINES; line++) {
+                out.write(((line % 25_000 == 0 ? "needle " : "hay ") + line + "\n").getBytes());
+            }
+        }
+        archives = new ArchiveFileSystemAdapter(new JavaNioFileSystemAdapter());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        archives.close();
+    }
+
+    private FilePath entry(String name) {
+        return new FilePath(zip + "!/" + name);
+    }
+
+    private byte[] region(String name, long position, int length) throws Exception {
+        ByteBuffer region = archives.readRegion(entry(name), position, length);
+        byte[] bytes = new byte[region.remaining()];
+        region.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    void readsRegionsOfASmallEntry() throws Exception {
+        assertArrayEquals("entry".getBytes(), region("small.txt", 6, 100));
+        assertEquals(0, region("small.txt", 100, 10).length);
+    }
+
+    @Test
+    void pagingThroughALargeEntryInflatesItOnce() throws Exception {
+        int page = 512 * 1024;
+        assertArrayEquals(Arrays.copyOfRange(large, 0, page), region("large.bin", 0, page));
+        long streamed = archives.cacheStats().bytesServed();
+
+        for (int start = page; start < LARGE_ENTRY_BYTES; start += page) {
+            int end = Math.min(start + page, LARGE_ENTRY_BYTES);
+            assertArrayEquals(Arrays.copyOfRange(large, start, end), region("large.bin", start, page),
+                "Region at " + start);
+        }
+
+        assertEquals(streamed + LARGE_ENTRY_BYTES, archives.cacheStats().bytesServed());
+    }
+
+    @Test
+    void concurrentFirstReadsShareOneMount() throws Exception {
+        int readers = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(readers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<byte[]>> reads = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                reads.add(pool.submit(() -> {
+                    start.await();
+                    return archives.readAllBytes(entry("small.txt"));
+                }));
+            }
+            start.countDown();
+            for (Future<byte[]> read : reads) {
+                assertArrayEquals("small entry".getBytes(), read.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, archives.cacheStats().entries());
+        assertEquals(readers, archives.cacheStats().hits() + archives.cacheStats().misses());
+        assertTrue(archives.exists(entry("large.bin")));
+    }
+
+    @Test
+    void searchingALargeEntryCountsLinesAcrossSegments() throws Exception {
+        List<SearchMatch> found = new ArrayList<>();
+        archives.searchFiles(new FilePath(zip + "!/"), "log.txt", Pattern.compile("needle"), path -> true,
+            match -> found.add(match));
+
+        assertEquals(LOG_LINES / 25_000, found.size());
+        found.sort(Comparator.comparingLong(SearchMatch::getLineNumber));
+        for (int i = 0; i < found.size(); i++) {
+            long line = (i + 1) * 25_000L;
+            assertEquals(line, found.get(i).getLineNumber());
+            assertEquals("needle " + line, found.get(i).getSnippet());
+        }
+    }
+}
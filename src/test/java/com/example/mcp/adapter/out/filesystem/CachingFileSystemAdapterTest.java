@@ -0,0 +1,106 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.mcp.application.port.out.FileSystemPort;
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.WriteMode;
+
+/**
+ * Reads files through the content cache while changing them behind its back.
+ * Checks follow each change at once, before the watcher could have seen it.
+ */
+public class CachingFileSystemAdapterTest {
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private FilePath path;
+    private CachingFileSystemAdapter cache;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.writeString(dir.resolve("notes.txt"), "first");
+        path = new FilePath(file.toString());
+        cache = new CachingFileSystemAdapter(new JavaNioFileSystemAdapter());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cache.close();
+    }
+
+    private String read() throws FileSystemPort.FileSystemException {
+        return cache.readText(path, 0, 1024, 0).text();
+    }
+
+    @Test
+    void servesRepeatedReadsFromTheCache() throws Exception {
+        assertEquals("first", read());
+        assertEquals("first", read());
+
+        assertEquals(1, cache.cacheStats().hits());
+        assertEquals(1, cache.cacheStats().misses());
+        assertEquals(1, cache.cacheStats().entries());
+    }
+
+    @Test
+    void seesAnExternalChangeOfSize() throws Exception {
+        read();
+        Files.writeString(file, "second version");
+
+        assertEquals("second version", read());
+    }
+
+    @Test
+    void seesAnExternalChangeOfTheSameSize() throws Exception {
+        read();
+        FileTime modified = Files.getLastModifiedTime(file);
+        Files.writeString(file, "fifth");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 1000));
+
+        assertEquals("fifth", read());
+    }
+
+    @Test
+    void seesAFileReplacedByARename() throws Exception {
+        read();
+        FileTime modified = Files.getLastModifiedTime(file);
+        Path replacement = Files.writeString(dir.resolve("notes.tmp"), "fifth");
+        Files.setLastModifiedTime(replacement, modified);
+        Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        assertEquals("fifth", read());
+    }
+
+    @Test
+    void seesADeletedFile() throws Exception {
+        read();
+        Files.delete(file);
+
+        assertFalse(cache.exists(path));
+        assertFalse(cache.isRegularFile(path));
+        assertThrows(FileSystemPort.FileSystemException.class, this::read);
+    }
+
+    @Test
+    void writesThroughTheCacheInvalidateIt() throws Exception {
+        read();
+        cache.writeText(path, "-appended", WriteMode.APPEND);
+
+        assertEquals("first-appended", read());
+        assertEquals(0, cache.cacheStats().hits());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Syncs from many threads at once with a slow, counting flush action.
+ */
+public class GroupCommitSyncerTest {
+    private static final int WRITERS = 32;
+
+    private final GroupCommitSyncer syncer = new GroupCommitSyncer();
+    private final ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private List<Future<?>> syncAll(int callers, int keys, GroupCommitSyncer.SyncAction action) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            Path key = Paths.get("/data/file-" + (i % keys));
+            calls.add(pool.submit(() -> {
+                start.await();
+                syncer.sync(key, action);
+                return null;
+            }));
+        }
+        start.countDown();
+        return calls;
+    }
+
+    @Test
+    void concurrentWritersToOneFileShareFlushes() throws Exception {
+        AtomicInteger flushes = new AtomicInteger();
+        for (Future<?> call : syncAll(WRITERS, 1, () -> {
+            flushes.incrementAndGet();
+            sleep(50);
+        })) {
+            call.get();
+        }
+
+        assertTrue(flushes.get() <= WRITERS / 4, WRITERS + " writers cost " + flushes.get() + " flushes");
+        assertEquals(0, syncer.activeKeys());
+    }
+
+    @Test
+    void failedFlushIsReportedToEveryoneItCovered() throws Exception {
+        List<Future<?>> calls = syncAll(WRITERS, 1, () -> {
+            sleep(20);
+            throw new IOException("disk gone");
+        });
+        for (Future<?> call : calls) {
+            Exception e = assertThrows(Exception.class, call::get);
+            assertTrue(e.getCause() instanceof IOException, e.toString());
+        }
+        assertEquals(0, syncer.activeKeys());
+    }
+
+    @Test
+    void backToBackFailuresAreEachReportedToTheirOwnCallers() throws Exception {
+        AtomicInteger unreported = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            calls.add(pool.submit(() -> {
+                start.await();
+                for (int round = 0; round < 200; round++) {
+                    try {
+                        syncer.sync(Paths.get("/data/file"), () -> {
+                            Thread.yield();
+                            throw new IOException("disk gone");
+                        });
+                        unreported.incrementAndGet();
+                    } catch (IOException e) {
+                        // Expected for every call
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> call : calls) {
+            call.get();
+        }
+
+        assertEquals(0, unreported.get());
+        assertEquals(0, syncer.activeKeys());
+    }
+
+    @Test
+    void forgetsKeysOnceTheirCallersAreDone() throws Exception {
+        for (Future<?> call : syncAll(WRITERS * 4, WRITERS * 2, () -> sleep(1))) {
+            call.get();
+        }
+
+        assertEquals(0, syncer.activeKeys());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.mcp.domain.model.SearchMatch;
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Searches a scratch tree through the trigram index, persisting it to a scratch cache directory.
+ */
+public class IndexedFileSystemAdapterTest {
+    @TempDir
+    Path dir;
+
+    @TempDir
+    Path cache;
+
+    private Path tree;
+    private IndexedFileSystemAdapter indexed;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tree = Files.createDirectories(dir.resolve("tree"));
+        Files.writeString(tree.resolve("open.txt"), "needle in the open");
+        Files.createDirectories(tree.resolve("secrets"));
+        Files.writeString(tree.resolve("secrets/key.pem"), "needle in the secret");
+        indexed = new IndexedFileSystemAdapter(new JavaNioFileSystemAdapter(), cache);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        indexed.close();
+    }
+
+    private List<String> search(Path root, Predicate<FilePath> pathFilter) throws Exception {
+        List<String> found = new ArrayList<>();
+        indexed.indexedSearch(new FilePath(root.toString()), "*", Pattern.compile("needle"), pathFilter,
+            (SearchMatch match) -> found.add(match.getPath().getValue()));
+        return found;
+    }
+
+    private String persisted() throws IOException {
+        StringBuilder all = new StringBuilder();
+        try (Stream<Path> files = Files.list(cache)) {
+            for (Path file : files.toList()) {
+                all.append(new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1));
+            }
+        }
+        return all.toString();
+    }
+
+    @Test
+    void deniedFilesAreNeitherFoundNorIndexed() throws Exception {
+        Predicate<FilePath> notSecret = path -> !path.getValue().contains("secrets");
+
+        assertEquals(List.of(tree.resolve("open.txt").toString()), search(tree, notSecret));
+
+        assertEquals(1, indexed.cacheStats().entries());
+        assertTrue(persisted().contains("open.txt"));
+        assertFalse(persisted().contains("key.pem"));
+    }
+
+    @Test
+    void aFileDeniedAfterIndexingIsDroppedFromTheIndex() throws Exception {
+        assertEquals(2, search(tree, path -> true).size());
+
+        Files.writeString(tree.resolve("secrets/key.pem"), "needle in the changed secret");
+        Predicate<FilePath> notSecret = path -> !path.getValue().contains("secrets");
+        try (IndexedFileSystemAdapter restarted = new IndexedFileSystemAdapter(new JavaNioFileSystemAdapter(), cache)) {
+            List<String> found = new ArrayList<>();
+            restarted.indexedSearch(new FilePath(tree.toString()), "*", Pattern.compile("needle"), notSecret,
+                match -> found.add(match.getPath().getValue()));
+
+            assertEquals(List.of(tree.resolve("open.txt").toString()), found);
+            assertEquals(1, restarted.cacheStats().entries());
+        }
+        assertFalse(persisted().contains("key.pem"));
+    }
+
+    @Test
+    void theHomeDirectoryIsSearchedWithoutAnIndex() throws Exception {
+        String home = System.getProperty("user.home");
+        System.setProperty("user.home", tree.toString());
+        try {
+            assertEquals(2, search(tree, path -> true).size());
+        } finally {
+            System.setProperty("user.home", home);
+        }
+
+        assertEquals(0, indexed.cacheStats().entries());
+        try (Stream<Path> files = Files.list(cache)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.mcp.application.port.out.FileSystemPort;
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.WriteMode;
+
+/**
+ * Exercises the local file system adapter in a scratch directory.
+ */
+public class JavaNioFileSystemAdapterTest {
+    @TempDir
+    Path dir;
+
+    private final JavaNioFileSystemAdapter files =
+        new JavaNioFileSystemAdapter(1024 * 1024, WriteDurability.FSYNC);
+
+    private FilePath path(String name) {
+        return new FilePath(dir.resolve(name).toString());
+    }
+
+    private List<String> directoryEntries() throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries.map(p -> p.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @Test
+    void overwritesReplaceTheFileWholeAndLeaveNoTemporaryFiles() throws Exception {
+        FilePath target = path("data.txt");
+        files.writeText(target, "old", WriteMode.OVERWRITE);
+        files.writeText(target, "new content", WriteMode.OVERWRITE);
+        files.writeText(target, "-more", WriteMode.APPEND);
+
+        assertEquals("new content-more", Files.readString(dir.resolve("data.txt")));
+        assertEquals(List.of("data.txt"), directoryEntries());
+    }
+
+    @Test
+    void readersNeverSeeAPartialOverwrite() throws Exception {
+        FilePath target = path("data.txt");
+        String a = "a".repeat(256 * 1024);
+        String b = "b".repeat(128 * 1024);
+        files.writeText(target, a, WriteMode.OVERWRITE);
+
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 20; i++) {
+                    files.writeText(target, i % 2 == 0 ? b : a, WriteMode.OVERWRITE);
+                }
+            } catch (FileSystemPort.FileSystemException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                done.set(true);
+            }
+        });
+        writer.start();
+        while (!done.get()) {
+            String seen = Files.readString(dir.resolve("data.txt"));
+            assertTrue(seen.equals(a) || seen.equals(b), "Partial content of " + seen.length() + " chars");
+        }
+        writer.join();
+        assertEquals(List.of("data.txt"), directoryEntries());
+    }
+
+    @Test
+    void createNewRefusesAnExistingFile() throws Exception {
+        FilePath target = path("data.txt");
+        files.writeText(target, "first", WriteMode.CREATE_NEW);
+
+        assertThrows(FileSystemPort.FileSystemException.class,
+            () -> files.writeText(target, "second", WriteMode.CREATE_NEW));
+        assertEquals("first", Files.readString(dir.resolve("data.txt")));
+    }
+
+    @Test
+    void overwritesKeepThePermissionsOfTheFileReplaced() throws Exception {
+        Path target = Files.writeString(dir.resolve("script.sh"), "#!/bin/sh\n");
+        Set<PosixFilePermission> executable = PosixFilePermissions.fromString("rwxr-x---");
+        try {
+            Files.setPosixFilePermissions(target, executable);
+        } catch (UnsupportedOperationException e) {
+            assumeTrue(false, "No POSIX permissions here");
+        }
+
+        files.writeText(path("script.sh"), "#!/bin/sh\necho hi\n", WriteMode.OVERWRITE);
+
+        assertEquals(executable, Files.getPosixFilePermissions(target));
+    }
+
+    @Test
+    void writesCreateMissingParentDirectories() throws Exception {
+        files.writeText(path("a/b/c.txt"), "deep", WriteMode.OVERWRITE);
+
+        assertEquals("deep", Files.readString(dir.resolve("a/b/c.txt")));
+    }
+}
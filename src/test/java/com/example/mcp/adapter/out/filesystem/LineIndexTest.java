@@ -0,0 +1,111 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Builds line indexes over files of lines of varying length, and checks line skipping
+ * through the index against a plain scan.
+ */
+public class LineIndexTest {
+    private static final int LINES = 5000;
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private byte[] content;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            text.append("line ").append(i).append(" ").append("é".repeat(i % 7)).append('\n');
+        }
+        text.append("last line without terminator");
+        content = text.toString().getBytes(StandardCharsets.UTF_8);
+        file = Files.write(dir.resolve("lines.txt"), content);
+    }
+
+    /** The offset just past {@code lines} terminators from {@code position}, found by brute force. */
+    private long expectedSkip(long position, long lines) {
+        long pos = position;
+        for (long remaining = lines; remaining > 0 && pos < content.length; pos++) {
+            if (content[(int) pos] == '\n') {
+                remaining--;
+            }
+        }
+        return pos;
+    }
+
+    private long lineStart(long line) {
+        return expectedSkip(0, line);
+    }
+
+    private LineIndex build(int stride) throws Exception {
+        return LineIndex.build(new JavaNioFileSystemAdapter(), new FilePath(file.toString()),
+            Files.readAttributes(file, BasicFileAttributes.class), stride);
+    }
+
+    @Test
+    void checkpointsEveryStrideLines() throws Exception {
+        LineIndex index = build(100);
+
+        assertEquals(0, index.offsetOf(0));
+        assertEquals(lineStart(100), index.offsetOf(100));
+        assertEquals(lineStart(4900), index.offsetOf(4900));
+        assertEquals(4200, index.checkpointLine(4250));
+        assertEquals(5000, index.checkpointLine(999_999));
+    }
+
+    @Test
+    void findsTheCheckpointBeforeAnOffset() throws Exception {
+        LineIndex index = build(100);
+
+        assertEquals(0, index.checkpointLineAtOrBefore(0));
+        assertEquals(300, index.checkpointLineAtOrBefore(lineStart(300)));
+        assertEquals(300, index.checkpointLineAtOrBefore(lineStart(399) + 2));
+        assertEquals(5000, index.checkpointLineAtOrBefore(content.length));
+    }
+
+    @Test
+    void isNoLongerCurrentOnceTheFileChanges() throws Exception {
+        LineIndex index = build(100);
+        assertTrue(index.isCurrent(Files.readAttributes(file, BasicFileAttributes.class)));
+
+        Files.writeString(file, "appended\n", StandardOpenOption.APPEND);
+
+        assertFalse(index.isCurrent(Files.readAttributes(file, BasicFileAttributes.class)));
+    }
+
+    @Test
+    void skippingThroughTheIndexMatchesAScan() throws Exception {
+        // A threshold of one byte sends every long hop through the index
+        JavaNioFileSystemAdapter files = new JavaNioFileSystemAdapter(1);
+        FilePath path = new FilePath(file.toString());
+
+        long[][] hops = {{0, 1025}, {0, 4999}, {0, 5000}, {0, 10_000}, {lineStart(17) + 3, 2048}, {lineStart(1024), 1025}};
+        for (long[] hop : hops) {
+            assertEquals(expectedSkip(hop[0], hop[1]), files.skipLines(path, hop[0], hop[1]),
+                "Skipping " + hop[1] + " lines from " + hop[0]);
+        }
+
+        // The cached index is rebuilt after a change
+        Files.writeString(file, "\nmore\n", StandardOpenOption.APPEND);
+        content = Files.readAllBytes(file);
+        assertEquals(expectedSkip(0, 5001), files.skipLines(path, 0, 5001));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.mcp.domain.model.DiskUsageReport;
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Measures a scratch tree whose directories are dated in the past, so that their listings
+ * are remembered, and changes parts of it between queries.
+ */
+public class ParallelDiskUsageAdapterTest {
+    @TempDir
+    Path dir;
+
+    private Path root;
+    private final ParallelDiskUsageAdapter usage = new ParallelDiskUsageAdapter();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        root = Files.createDirectory(dir.resolve("root"));
+        Files.writeString(Files.createDirectories(root.resolve("a/b")).resolve("b.bin"), "x".repeat(300));
+        Files.writeString(root.resolve("a/a.bin"), "x".repeat(200));
+        Files.writeString(Files.createDirectory(root.resolve("c")).resolve("c.bin"), "x".repeat(100));
+        for (Path directory : new Path[] {root.resolve("a/b"), root.resolve("a"), root.resolve("c"), root}) {
+            settle(directory, 60);
+        }
+    }
+
+    private static void settle(Path directory, long secondsAgo) throws IOException {
+        Files.setLastModifiedTime(directory, FileTime.from(Instant.now().minusSeconds(secondsAgo)));
+    }
+
+    private DiskUsageReport measure(boolean refresh) throws Exception {
+        return usage.usage(new FilePath(root.toString()), 10, path -> true, refresh);
+    }
+
+    @Test
+    void aRepeatQueryReusesEveryUnchangedDirectory() throws Exception {
+        DiskUsageReport first = measure(false);
+        assertEquals(4, first.getListed());
+        assertEquals(0, first.getReused());
+        assertEquals(600, first.getTotal().getSize().getBytes());
+        assertEquals(3, first.getTotal().getFiles());
+        assertEquals(3, first.getTotal().getDirectories());
+
+        DiskUsageReport second = measure(false);
+
+        assertEquals(0, second.getListed());
+        assertEquals(4, second.getReused());
+        assertEquals(first.getTotal(), second.getTotal());
+        assertEquals(first.getLargest(), second.getLargest());
+    }
+
+    @Test
+    void onlyTheChangedDirectoryIsListedAgain() throws Exception {
+        measure(false);
+        Files.writeString(root.resolve("c/new.bin"), "x".repeat(1000));
+        settle(root.resolve("c"), 30);
+
+        DiskUsageReport report = measure(false);
+
+        assertEquals(1, report.getListed());
+        assertEquals(3, report.getReused());
+        assertEquals(1600, report.getTotal().getSize().getBytes());
+        assertEquals(root.resolve("c").toString(), report.getLargest().get(0).getPath().getValue());
+    }
+
+    @Test
+    void aRecentlyModifiedDirectoryIsNotRemembered() throws Exception {
+        Files.writeString(root.resolve("c/new.bin"), "x");
+
+        measure(false);
+        DiskUsageReport report = measure(false);
+
+        assertEquals(1, report.getListed());
+        assertEquals(3, report.getReused());
+    }
+
+    @Test
+    void aRefreshListsEverythingAgain() throws Exception {
+        measure(false);
+
+        DiskUsageReport report = measure(true);
+
+        assertEquals(4, report.getListed());
+        assertEquals(0, report.getReused());
+    }
+
+    @Test
+    void filteredSubtreesAreLeftOut() throws Exception {
+        DiskUsageReport report = usage.usage(new FilePath(root.toString()), 10,
+            path -> !path.getValue().endsWith("/a"), false);
+
+        assertEquals(100, report.getTotal().getSize().getBytes());
+        assertEquals(1, report.getTotal().getDirectories());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.PathRule;
+
+/**
+ * Judges paths in a scratch tree where only {@code allowed} may be reached and
+ * {@code secret} sits next to it.
+ */
+public class RealPathPolicyAdapterTest {
+    @TempDir
+    Path root;
+
+    private Path allowed;
+    private Path secret;
+    private RealPathPolicyAdapter policy;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        allowed = root.resolve("allowed");
+        Files.createDirectories(allowed.resolve("sub"));
+        secret = Files.createDirectories(root.resolve("secret"));
+        Files.writeString(secret.resolve("key"), "k");
+        Files.writeString(allowed.resolve("notes.txt"), "n");
+        policy = new RealPathPolicyAdapter(List.of(
+            PathRule.deny(root.toString()), PathRule.allow(allowed.toString())));
+    }
+
+    private boolean permits(Path path) {
+        return permits(path.toString());
+    }
+
+    private boolean permits(String path) {
+        return policy.permits(new FilePath(path));
+    }
+
+    @Test
+    void allowsFilesUnderAnAllowedRootAndDeniesTheRest() {
+        assertTrue(permits(allowed.resolve("notes.txt")));
+        assertTrue(permits(allowed.resolve("sub")));
+        assertFalse(permits(secret.resolve("key")));
+        assertFalse(permits(root));
+    }
+
+    @Test
+    void dotDotCannotClimbOutOfAnAllowedRoot() {
+        assertFalse(permits(allowed + "/sub/../../secret/key"));
+        assertTrue(permits(allowed + "/sub/../notes.txt"));
+    }
+
+    @Test
+    void symbolicLinksAreJudgedByTheirTarget() throws IOException {
+        Path escape = Files.createSymbolicLink(allowed.resolve("escape"), secret);
+        Path file = Files.createSymbolicLink(allowed.resolve("key-link"), secret.resolve("key"));
+        Path inward = Files.createSymbolicLink(root.resolve("inward"), allowed);
+
+        assertFalse(permits(escape));
+        assertFalse(permits(escape.resolve("key")));
+        assertFalse(permits(file));
+        assertTrue(permits(inward.resolve("notes.txt")));
+    }
+
+    @Test
+    void pathsThatDoNotExistYetAreJudgedByTheirNearestExistingAncestor() throws IOException {
+        Files.createSymbolicLink(allowed.resolve("escape"), secret);
+
+        assertTrue(permits(allowed.resolve("new/dir/file.txt")));
+        assertFalse(permits(secret.resolve("new.txt")));
+        assertFalse(permits(allowed.resolve("escape/new/file.txt")));
+    }
+
+    @Test
+    void danglingLinksAreJudgedByWhereAWriteWouldLand() throws IOException {
+        Path dangling = Files.createSymbolicLink(allowed.resolve("dangling"), secret.resolve("created-later"));
+
+        assertFalse(permits(dangling));
+    }
+
+    @Test
+    void archiveEntriesAreJudgedByTheArchiveFile() throws IOException {
+        Path inside = Files.createFile(allowed.resolve("bundle.zip"));
+        Path outside = Files.createFile(secret.resolve("bundle.zip"));
+
+        assertTrue(permits(inside + "!/docs/readme.txt"));
+        assertTrue(permits(inside + "!/../../secret/key"));
+        assertFalse(permits(outside + "!/docs/readme.txt"));
+        assertFalse(permits(allowed + "/escape.zip/../../secret/bundle.zip!/x"));
+    }
+
+    @Test
+    void aDirectorySwappedForALinkIsNoticedAtOnce() throws IOException {
+        Path swapped = Files.createDirectory(allowed.resolve("swapped"));
+        assertTrue(permits(swapped.resolve("file.txt")));
+
+        Files.delete(swapped);
+        Files.createSymbolicLink(swapped, secret);
+
+        assertFalse(permits(swapped.resolve("key")));
+    }
+}
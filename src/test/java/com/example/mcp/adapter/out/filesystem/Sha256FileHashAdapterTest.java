@@ -0,0 +1,128 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.mcp.application.port.out.FileHashPort;
+import com.example.mcp.domain.model.FileHashReport;
+import com.example.mcp.domain.valueobject.FilePath;
+
+/**
+ * Hashes files in a scratch directory through adapters sharing one index file,
+ * standing in for restarted servers.
+ */
+public class Sha256FileHashAdapterTest {
+    @TempDir
+    Path dir;
+
+    private Path index;
+    private ArchiveFileSystemAdapter files;
+
+    @BeforeEach
+    public void setUp() {
+        index = dir.resolve("cache/hashes.idx");
+        files = new ArchiveFileSystemAdapter(new JavaNioFileSystemAdapter());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        files.close();
+    }
+
+    private Sha256FileHashAdapter server() {
+        return new Sha256FileHashAdapter(files, index);
+    }
+
+    /** Writes a file old enough for its digest to be remembered. */
+    private FilePath settled(String name, String content) throws IOException {
+        Path file = Files.writeString(dir.resolve(name), content);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minusSeconds(60)));
+        return new FilePath(file.toString());
+    }
+
+    private static String sha256(String content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+            .digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void restartedServersAnswerUnchangedFilesFromTheIndex() throws Exception {
+        FilePath a = settled("a.txt", "alpha");
+        FilePath b = settled("b.txt", "beta");
+        assertEquals(1, server().hashFiles(List.of(a)).getComputed());
+        assertEquals(1, server().hashFiles(List.of(a, b)).getComputed());
+
+        FileHashReport report = server().hashFiles(List.of(a, b));
+
+        assertEquals(0, report.getComputed());
+        assertEquals(sha256("alpha"), report.getHashes().get(0).getSha256());
+        assertEquals(sha256("beta"), report.getHashes().get(1).getSha256());
+    }
+
+    @Test
+    void newDigestsAreAppendedRatherThanRewritten() throws Exception {
+        server().hashFiles(List.of(settled("a.txt", "alpha")));
+        byte[] first = Files.readAllBytes(index);
+
+        server().hashFiles(List.of(settled("b.txt", "beta")));
+        byte[] second = Files.readAllBytes(index);
+
+        assertTrue(second.length > first.length);
+        for (int i = 0; i < first.length; i++) {
+            assertEquals(first[i], second[i], "Byte " + i + " of the index changed");
+        }
+    }
+
+    @Test
+    void aTornRecordIsRewrittenSoLaterDigestsStayReachable() throws Exception {
+        FilePath a = settled("a.txt", "alpha");
+        FilePath b = settled("b.txt", "beta");
+        server().hashFiles(List.of(a));
+        // A record whose body a crash cut short
+        Files.write(index, new byte[] {0, 40, 'x'}, StandardOpenOption.APPEND);
+
+        assertEquals(1, server().hashFiles(List.of(a, b)).getComputed());
+
+        assertEquals(0, server().hashFiles(List.of(a, b)).getComputed());
+    }
+
+    @Test
+    void archiveEntriesAreHashedThroughThePort() throws Exception {
+        Path zip = dir.resolve("data.zip");
+        try (OutputStream file = Files.newOutputStream(zip); ZipOutputStream out = new ZipOutputStream(file)) {
+            out.putNextEntry(new ZipEntry("dir/entry.txt"));
+            out.write("archived".getBytes(StandardCharsets.UTF_8));
+        }
+        FilePath entry = new FilePath(zip + "!/dir/entry.txt");
+
+        FileHashReport report = server().hashFiles(List.of(entry));
+
+        assertEquals(sha256("archived"), report.getHashes().get(0).getSha256());
+        assertEquals(8, report.getHashes().get(0).getSize());
+        // Archive entries are never remembered
+        assertEquals(1, server().hashFiles(List.of(entry)).getComputed());
+
+        FileHashPort.FileHashException e = assertThrows(FileHashPort.FileHashException.class,
+            () -> server().hashTree(new FilePath(zip + "!/dir"), "*", path -> true, 10));
+        assertTrue(e.getMessage().contains("inside an archive"), e.getMessage());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Builds a trigram index of a few documents and asks it for the candidates of queries,
+ * both from the in-memory overlay and from the persisted segment.
+ */
+public class TrigramIndexTest {
+    @TempDir
+    Path dir;
+
+    private Path root;
+    private Path indexFile;
+    private TrigramIndex index;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        root = Files.createDirectory(dir.resolve("tree"));
+        indexFile = dir.resolve("index.tri");
+        index = TrigramIndex.open(root, indexFile);
+        put("a.txt", "the quick brown fox");
+        put("b.txt", "jumps over the lazy dog");
+        put("c.txt", "QUICK silver");
+        index.put(new TrigramIndex.Doc("big.log", 1L << 40, 0, TrigramIndex.Kind.UNINDEXED), null);
+        index.put(new TrigramIndex.Doc("image.png", 100, 0, TrigramIndex.Kind.BINARY), null);
+    }
+
+    private void put(String path, String text) {
+        byte[] content = text.getBytes(StandardCharsets.UTF_8);
+        index.put(new TrigramIndex.Doc(path, content.length, 0, TrigramIndex.Kind.TEXT),
+            TrigramIndex.trigramsOf(content));
+    }
+
+    private List<String> candidates(String regex) {
+        List<String> paths = new ArrayList<>();
+        for (int id : index.candidates(TrigramQuery.requiredTrigrams(regex))) {
+            paths.add(index.docAt(id).path());
+        }
+        paths.sort(null);
+        return paths;
+    }
+
+    private void assertCandidates() {
+        assertEquals(List.of("a.txt", "big.log", "c.txt"), candidates("quick"));
+        assertEquals(List.of("a.txt", "b.txt", "big.log"), candidates("the"));
+        assertEquals(List.of("big.log"), candidates("absent"));
+        assertEquals(List.of("a.txt", "b.txt", "big.log", "c.txt"), candidates("x|y"));
+    }
+
+    @Test
+    void findsCandidatesInTheOverlay() {
+        assertCandidates();
+    }
+
+    @Test
+    void findsTheSameCandidatesAfterSavingAndReopening() throws Exception {
+        assertTrue(index.hasChanges());
+        index.save();
+        assertFalse(index.hasChanges());
+        assertCandidates();
+
+        index = TrigramIndex.open(root, indexFile);
+        assertEquals(5, index.size());
+        assertCandidates();
+    }
+
+    @Test
+    void replacedAndRemovedFilesStopBeingCandidates() throws Exception {
+        index.save();
+        put("a.txt", "slow red fox");
+        index.remove("c.txt");
+
+        assertEquals(List.of("big.log"), candidates("quick"));
+        assertEquals(List.of("a.txt", "big.log"), candidates("red fox"));
+
+        index.save();
+        index = TrigramIndex.open(root, indexFile);
+        assertEquals(List.of("big.log"), candidates("quick"));
+        assertEquals(List.of("a.txt", "big.log"), candidates("red fox"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void anIndexOfAnotherRootIsNotReused() throws Exception {
+        index.save();
+
+        TrigramIndex other = TrigramIndex.open(Files.createDirectory(dir.resolve("other")), indexFile);
+
+        assertEquals(0, other.size());
+    }
+}
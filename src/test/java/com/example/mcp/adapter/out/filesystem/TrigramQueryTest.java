@@ -0,0 +1,82 @@
+package com.example.mcp.adapter.out.filesystem;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Derives required trigrams from patterns, and checks that every text a pattern matches
+ * contains them all, since the index relies on that to skip files.
+ */
+public class TrigramQueryTest {
+
+    private static int[] trigrams(String literal) {
+        return TrigramIndex.trigramsOf(literal.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void literalsRequireAllTheirTrigrams() {
+        assertArrayEquals(trigrams("hello"), TrigramQuery.requiredTrigrams("hello"));
+        assertArrayEquals(trigrams("hello"), TrigramQuery.requiredTrigrams("HeLLo"));
+        assertArrayEquals(trigrams("a.b*c"), TrigramQuery.requiredTrigrams("\\Qa.b*c\\E"));
+        assertArrayEquals(trigrams("x.y"), TrigramQuery.requiredTrigrams("x\\.y"));
+    }
+
+    @Test
+    void optionalAndVariablePartsRequireNothing() {
+        assertArrayEquals(trigrams("bar"), TrigramQuery.requiredTrigrams("foo?bar"));
+        assertArrayEquals(trigrams("bar"), TrigramQuery.requiredTrigrams("fo*bar"));
+        assertArrayEquals(trigrams("abc"), TrigramQuery.requiredTrigrams("abc(def)?gh"));
+        assertArrayEquals(trigrams("abc"), TrigramQuery.requiredTrigrams("abc[xyz]de"));
+        assertArrayEquals(trigrams("abc"), TrigramQuery.requiredTrigrams("abc\\d+de"));
+        assertEquals(0, TrigramQuery.requiredTrigrams("foo|bar").length);
+        assertEquals(0, TrigramQuery.requiredTrigrams("(?x) f o o").length);
+        assertEquals(0, TrigramQuery.requiredTrigrams("ab.cd").length);
+    }
+
+    @Test
+    void anyInlineGroupTurningOnCommentsModeRequiresNothing() {
+        assertEquals(0, TrigramQuery.requiredTrigrams("(?ix)foo bar").length);
+        assertEquals(0, TrigramQuery.requiredTrigrams("(?sx)foo bar").length);
+        assertEquals(0, TrigramQuery.requiredTrigrams("hello(?xi: w o r l d)").length);
+        assertEquals(0, TrigramQuery.requiredTrigrams("(?i-s)hello").length);
+        assertArrayEquals(trigrams("hello"), TrigramQuery.requiredTrigrams("(?is)hello"));
+        assertArrayEquals(trigrams("hello"), TrigramQuery.requiredTrigrams("(?:x)hello"));
+    }
+
+    @Test
+    void everyMatchContainsTheRequiredTrigrams() {
+        String[][] cases = {
+            {"hello", "say hello world"},
+            {"(?i)ERROR: \\w+", "error: disk full"},
+            {"foo?bar", "fobar"},
+            {"colou?r", "color"},
+            {"a{0}bcd", "bcd"},
+            {"x(abc)*yzw", "xyzw"},
+            {"[|]abc", "|abc"},
+            {"ab\\Q|\\Ecd", "ab|cd"},
+            {"café bar", "café bar"},
+            {"start.*end", "start of the end"},
+            {"line\\nnext", "line\nnext"},
+            {"\\bword\\b", "a word here"},
+            {"ab+cde", "abbbcde"},
+            {"(?ix)hel lo # comment", "HELLO"},
+            {"(?u)café", "CAFÉ café"},
+        };
+        for (String[] c : cases) {
+            Matcher m = Pattern.compile(c[0]).matcher(c[1]);
+            assertTrue(m.find(), c[0] + " should match " + c[1]);
+            int[] text = TrigramIndex.trigramsOf(c[1].getBytes(StandardCharsets.UTF_8));
+            for (int required : TrigramQuery.requiredTrigrams(c[0])) {
+                assertTrue(Arrays.binarySearch(text, required) >= 0,
+                    c[0] + " requires a trigram that its match in \"" + c[1] + "\" lacks");
+            }
+        }
+    }
+}
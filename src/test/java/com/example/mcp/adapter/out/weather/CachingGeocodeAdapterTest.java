@@ -0,0 +1,105 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.model.Forecast;
+import com.example.mcp.domain.valueobject.CityName;
+import com.example.mcp.domain.valueobject.Coordinates;
+
+/**
+ * Geocodes through caches sharing one log file, standing in for servers that share it.
+ */
+public class CachingGeocodeAdapterTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    /** Answers every city with coordinates derived from its name, counting the lookups. */
+    private final WeatherServicePort upstream = new WeatherServicePort() {
+        @Override
+        public CompletableFuture<GeocodeResult> geocodeAsync(CityName city, Duration timeout) {
+            lookups.incrementAndGet();
+            double latitude = city.normalized().length();
+            return CompletableFuture.completedFuture(new GeocodeResult(new Coordinates(latitude, 10), "Sweden"));
+        }
+
+        @Override
+        public CompletableFuture<WeatherData> getCurrentWeatherAsync(Coordinates coordinates, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<List<WeatherData>> getCurrentWeatherBatchAsync(List<Coordinates> coordinates,
+                                                                              Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<Forecast> getForecastAsync(Coordinates coordinates, int days, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private CachingGeocodeAdapter server() {
+        return new CachingGeocodeAdapter(upstream, dir.resolve("geocode.log"));
+    }
+
+    private static double latitude(CachingGeocodeAdapter cache, String city) {
+        return cache.geocodeAsync(new CityName(city), TIMEOUT).join().coordinates().getLatitude();
+    }
+
+    @Test
+    void restartedServersAnswerFromTheLog() {
+        latitude(server(), "Umea");
+        latitude(server(), "Lulea");
+
+        assertEquals(4, latitude(server(), "Umea"));
+        assertEquals(5, latitude(server(), "Lulea"));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void serversAppendingInTurnFindEachOthersPlaces() {
+        CachingGeocodeAdapter first = server();
+        CachingGeocodeAdapter second = server();
+        latitude(first, "Kiruna");
+        latitude(second, "Umea");
+        latitude(first, "Lulea");
+        latitude(second, "Boden");
+
+        CachingGeocodeAdapter third = server();
+        assertEquals(6, latitude(third, "Kiruna"));
+        assertEquals(4, latitude(third, "Umea"));
+        assertEquals(5, latitude(third, "Lulea"));
+        assertEquals(5, latitude(third, "Boden"));
+        assertEquals(4, lookups.get());
+    }
+
+    @Test
+    void aTornRecordIsCutOffSoLaterRecordsStayReachable() throws Exception {
+        latitude(server(), "Umea");
+        // The length of a record whose body a crash cut short
+        Files.write(dir.resolve("geocode.log"), new byte[] {0, 0, 0, 40, 0, 4}, StandardOpenOption.APPEND);
+
+        latitude(server(), "Lulea");
+
+        CachingGeocodeAdapter restarted = server();
+        assertEquals(4, latitude(restarted, "Umea"));
+        assertEquals(5, latitude(restarted, "Lulea"));
+        assertEquals(2, lookups.get());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.model.Forecast;
+import com.example.mcp.domain.valueobject.CityName;
+import com.example.mcp.domain.valueobject.Coordinates;
+import com.example.mcp.domain.valueobject.Temperature;
+import com.example.mcp.domain.valueobject.WindSpeed;
+
+/**
+ * Asks the cache for one point as its entry ages through the fresh, stale and fallback windows
+ * of a short time to live. Each upstream answer carries the number of the call as its temperature.
+ */
+public class CachingWeatherAdapterTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final long TTL_MILLIS = 300;
+    private static final Coordinates UMEA = new Coordinates(63.83, 20.26);
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile boolean down;
+
+    /** Answers at once with the call number, or fails while the upstream is down. */
+    private final WeatherServicePort upstream = new WeatherServicePort() {
+        @Override
+        public CompletableFuture<GeocodeResult> geocodeAsync(CityName city, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<WeatherData> getCurrentWeatherAsync(Coordinates coordinates, Duration timeout) {
+            int call = calls.incrementAndGet();
+            if (down) {
+                return CompletableFuture.failedFuture(new WeatherServiceException("upstream down"));
+            }
+            return CompletableFuture.completedFuture(weather(call));
+        }
+
+        @Override
+        public CompletableFuture<List<WeatherData>> getCurrentWeatherBatchAsync(List<Coordinates> coordinates,
+                                                                              Duration timeout) {
+            int call = calls.incrementAndGet();
+            if (down) {
+                return CompletableFuture.failedFuture(new WeatherServiceException("upstream down"));
+            }
+            return CompletableFuture.completedFuture(coordinates.stream().map(c -> weather(call)).toList());
+        }
+
+        @Override
+        public CompletableFuture<Forecast> getForecastAsync(Coordinates coordinates, int days, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private final CachingWeatherAdapter cache = new CachingWeatherAdapter(upstream, Duration.ofMillis(TTL_MILLIS));
+
+    private static WeatherServicePort.WeatherData weather(int call) {
+        return new WeatherServicePort.WeatherData(Temperature.celsius(call), 0, WindSpeed.kmPerHour(1));
+    }
+
+    private double current() throws Exception {
+        return cache.getCurrentWeatherAsync(UMEA, TIMEOUT).get().temperature().getCelsius();
+    }
+
+    @Test
+    void freshValuesAreAnsweredWithoutAskingTheUpstream() throws Exception {
+        assertEquals(1, current());
+        assertEquals(1, current());
+        assertEquals(1, cache.getCurrentWeatherAsync(new Coordinates(63.8261, 20.2631), TIMEOUT).get()
+            .temperature().getCelsius());
+
+        assertEquals(1, calls.get());
+        assertEquals(2, cache.cacheStats().hits());
+    }
+
+    @Test
+    void aStaleValueIsAnsweredWhileItIsRefreshed() throws Exception {
+        current();
+        Thread.sleep(TTL_MILLIS + TTL_MILLIS / 3);
+
+        assertEquals(1, current());
+        assertEquals(2, calls.get());
+        assertEquals(2, current());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void anOldValueStandsInForAFailedUpstream() throws Exception {
+        current();
+        down = true;
+        Thread.sleep(2 * TTL_MILLIS + TTL_MILLIS / 3);
+
+        assertEquals(1, current());
+        assertEquals(1, cache.getCurrentWeatherBatchAsync(List.of(UMEA), TIMEOUT).get().get(0)
+            .temperature().getCelsius());
+    }
+
+    @Test
+    void pastFourTimesTheTtlTheFailureIsReported() throws Exception {
+        current();
+        down = true;
+        Thread.sleep(4 * TTL_MILLIS + TTL_MILLIS / 3);
+
+        ExecutionException e = assertThrows(ExecutionException.class, this::current);
+        assertInstanceOf(WeatherServicePort.WeatherServiceException.class, e.getCause());
+        assertThrows(ExecutionException.class,
+            () -> cache.getCurrentWeatherBatchAsync(List.of(UMEA), TIMEOUT).get());
+    }
+
+    @Test
+    void aBatchAsksTheUpstreamOnlyForPointsItLacks() throws Exception {
+        current();
+        Coordinates lulea = new Coordinates(65.58, 22.15);
+
+        List<WeatherServicePort.WeatherData> batch =
+            cache.getCurrentWeatherBatchAsync(List.of(UMEA, lulea), TIMEOUT).get();
+
+        assertEquals(1, batch.get(0).temperature().getCelsius());
+        assertEquals(2, batch.get(1).temperature().getCelsius());
+        assertEquals(2, calls.get());
+        assertEquals(2, cache.getCurrentWeatherAsync(lulea, TIMEOUT).get().temperature().getCelsius());
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.model.Forecast;
+import com.example.mcp.domain.valueobject.CityName;
+import com.example.mcp.domain.valueobject.Coordinates;
+
+/**
+ * Sends concurrent requests through the coalescing layer to an upstream whose answers
+ * the test completes by hand.
+ */
+public class CoalescingWeatherAdapterTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final int CALLERS = 32;
+    private static final WeatherServicePort.GeocodeResult UMEA =
+        new WeatherServicePort.GeocodeResult(new Coordinates(63.83, 20.26), "Sweden");
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Queue<CompletableFuture<Object>> pending = new ConcurrentLinkedQueue<>();
+    private final ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+
+    /** Answers nothing until the test completes the futures it handed out. */
+    @SuppressWarnings("unchecked")
+    private final WeatherServicePort upstream = new WeatherServicePort() {
+        private <T> CompletableFuture<T> call() {
+            upstreamCalls.incrementAndGet();
+            CompletableFuture<Object> answer = new CompletableFuture<>();
+            pending.add(answer);
+            return (CompletableFuture<T>) answer;
+        }
+
+        @Override
+        public CompletableFuture<GeocodeResult> geocodeAsync(CityName city, Duration timeout) {
+            return call();
+        }
+
+        @Override
+        public CompletableFuture<WeatherData> getCurrentWeatherAsync(Coordinates coordinates, Duration timeout) {
+            return call();
+        }
+
+        @Override
+        public CompletableFuture<List<WeatherData>> getCurrentWeatherBatchAsync(List<Coordinates> coordinates,
+                                                                              Duration timeout) {
+            return call();
+        }
+
+        @Override
+        public CompletableFuture<Forecast> getForecastAsync(Coordinates coordinates, int days, Duration timeout) {
+            return call();
+        }
+    };
+
+    private final CoalescingWeatherAdapter coalescing = new CoalescingWeatherAdapter(upstream);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Starts all callers at once and returns the futures they were handed.
+     */
+    private List<CompletableFuture<WeatherServicePort.GeocodeResult>> geocodeConcurrently(String city)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<WeatherServicePort.GeocodeResult>>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            calls.add(pool.submit(() -> {
+                start.await();
+                return coalescing.geocodeAsync(new CityName(city), TIMEOUT);
+            }));
+        }
+        start.countDown();
+        List<CompletableFuture<WeatherServicePort.GeocodeResult>> results = new ArrayList<>();
+        for (Future<CompletableFuture<WeatherServicePort.GeocodeResult>> call : calls) {
+            results.add(call.get());
+        }
+        return results;
+    }
+
+    @Test
+    void concurrentCallersShareOneUpstreamRequest() throws Exception {
+        List<CompletableFuture<WeatherServicePort.GeocodeResult>> results = geocodeConcurrently("Umea");
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, coalescing.cacheStats().entries());
+        pending.poll().complete(UMEA);
+        for (CompletableFuture<WeatherServicePort.GeocodeResult> result : results) {
+            assertSame(UMEA, result.get());
+        }
+        assertEquals(CALLERS - 1, coalescing.cacheStats().hits());
+        assertEquals(0, coalescing.cacheStats().entries());
+
+        // A completed request is not reused
+        coalescing.geocodeAsync(new CityName("Umea"), TIMEOUT);
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void aFailureReachesEveryWaitingCallerAndIsNotRemembered() throws Exception {
+        List<CompletableFuture<WeatherServicePort.GeocodeResult>> results = geocodeConcurrently("Nowhere");
+
+        pending.poll().completeExceptionally(new WeatherServicePort.CityNotFoundException("City not found: Nowhere"));
+        for (CompletableFuture<WeatherServicePort.GeocodeResult> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(WeatherServicePort.CityNotFoundException.class, e.getCause());
+        }
+
+        CompletableFuture<WeatherServicePort.GeocodeResult> retry = coalescing.geocodeAsync(new CityName("Nowhere"), TIMEOUT);
+        assertEquals(2, upstreamCalls.get());
+        pending.poll().complete(UMEA);
+        assertSame(UMEA, retry.get());
+    }
+
+    @Test
+    void oneCallerCancellingLeavesTheOthersWaiting() throws Exception {
+        CompletableFuture<WeatherServicePort.GeocodeResult> first = coalescing.geocodeAsync(new CityName("Umea"), TIMEOUT);
+        CompletableFuture<WeatherServicePort.GeocodeResult> second = coalescing.geocodeAsync(new CityName("umea"), TIMEOUT);
+
+        first.cancel(true);
+        pending.poll().complete(UMEA);
+
+        assertEquals(1, upstreamCalls.get());
+        assertSame(UMEA, second.get());
+    }
+
+    @Test
+    void nearbyPointsShareTheRequestForTheirGridPoint() throws Exception {
+        CompletableFuture<WeatherServicePort.WeatherData> a =
+            coalescing.getCurrentWeatherAsync(new Coordinates(63.8261, 20.2631), TIMEOUT);
+        CompletableFuture<WeatherServicePort.WeatherData> b =
+            coalescing.getCurrentWeatherAsync(new Coordinates(63.8349, 20.2599), TIMEOUT);
+        coalescing.getCurrentWeatherAsync(new Coordinates(63.84, 20.26), TIMEOUT);
+
+        assertEquals(2, upstreamCalls.get());
+        pending.poll().complete(null);
+        a.get();
+        b.get();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Builds an index from a few seed lines in a scratch directory and searches it.
+ */
+public class GazetteerIndexTest {
+    private static final String SEED = String.join("\n",
+        "# name, alternate names, latitude, longitude, country, population",
+        "Umeå\tUmea,Uumaja\t63.82842\t20.25972\tSE\t83249",
+        "Portland\t\t45.52345\t-122.67621\tUS\t652503",
+        "Portland\t\t43.66147\t-70.25533\tUS\t66881",
+        "Portland\t\t-38.34174\t141.60436\tAU\t9712",
+        "Porto\tOporto\t41.14961\t-8.61099\tPT\t249633",
+        "Port Louis\t\t-20.16194\t57.49889\tMU\t155226",
+        "São Paulo\tSao Paulo\t-23.5475\t-46.63611\tBR\t10021295",
+        "北京\tBeijing,Peking\t39.9075\t116.39723\tCN\t18960744",
+        "");
+
+    @TempDir
+    Path dir;
+
+    private GazetteerIndex index;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Path file = dir.resolve("gazetteer.idx");
+        GazetteerIndex.build(new ByteArrayInputStream(SEED.getBytes(StandardCharsets.UTF_8)), file);
+        index = GazetteerIndex.open(file);
+    }
+
+    private static String folded(String name) {
+        byte[] key = GazetteerIndex.fold(name);
+        return key == null ? null : new String(key, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void namesFoldToLowercaseAscii() {
+        assertEquals("umea", folded("Umeå"));
+        assertEquals("saint etienne", folded("  Saint-Étienne. "));
+        assertEquals("aeroskobing", folded("Ærøskøbing"));
+        assertEquals("o brien", folded("O'Brien"));
+        assertEquals("koln", folded("KÖLN"));
+        assertNull(folded("北京"));
+        assertArrayEquals(new byte[0], GazetteerIndex.fold(" - "));
+    }
+
+    @Test
+    void aLookupFindsTheMostPopulousPlaceOfAName() {
+        assertEquals(8, index.placeCount());
+        assertEquals(45.52345, index.lookup("portland", null).latitude());
+        assertEquals(-38.34174, index.lookup("PORTLAND", "au").latitude());
+        assertNull(index.lookup("Portland", "SE"));
+        assertNull(index.lookup("Portlan", null));
+    }
+
+    @Test
+    void alternateNamesFindThePlaceUnderItsDisplayName() {
+        GazetteerIndex.Place umea = index.lookup("Umea", null);
+        assertEquals("Umeå", umea.name());
+        assertEquals("SE", umea.countryCode());
+        assertEquals(83249, umea.population());
+        assertEquals("北京", index.lookup("Peking", null).name());
+        assertEquals("São Paulo", index.lookup("sao-paulo", "BR").name());
+    }
+
+    @Test
+    void aPrefixSearchRanksDistinctPlacesByPopulation() {
+        List<String> found = index.search("Port", 10).stream()
+            .map(place -> place.name() + "/" + place.countryCode())
+            .toList();
+
+        assertEquals(List.of("Portland/US", "Porto/PT", "Port Louis/MU", "Portland/US", "Portland/AU"), found);
+        assertEquals(2, index.search("port", 2).size());
+        assertEquals(List.of(), index.search("", 10));
+        assertEquals(List.of(), index.search("xyz", 10));
+    }
+
+    @Test
+    void countsThatWouldOverflowTheOffsetsAreRejected() throws IOException {
+        // 2^29 entries of 8 bytes wrap around to an entry table of no bytes in int arithmetic
+        Path damaged = Files.write(dir.resolve("damaged.idx"),
+            ByteBuffer.allocate(16).putInt(0x47415a32).putInt(0).putInt(1 << 29).putInt(0).array());
+
+        assertThrows(IOException.class, () -> GazetteerIndex.open(damaged));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.valueobject.Coordinates;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Fetches current weather from a local stub of the forecast API that records the query
+ * it was sent and answers with a canned body.
+ */
+public class OpenMeteoWeatherAdapterTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private HttpServer server;
+    private OpenMeteoWeatherAdapter adapter;
+    private volatile String body;
+    private volatile String query;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/forecast", this::answer);
+        server.start();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        adapter = new OpenMeteoWeatherAdapter(base + "/search", base + "/forecast");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        query = exchange.getRequestURI().getQuery();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String location(double temperature, int code, double wind) {
+        return "{\"latitude\":1,\"hourly\":{\"time\":[1,2,3]},\"current\":{\"temperature_2m\":" + temperature
+            + ",\"weather_code\":" + code + ",\"wind_speed_10m\":" + wind + "}}";
+    }
+
+    @Test
+    void aBatchIsOneRequestAnsweredInOrder() throws Exception {
+        body = "[" + location(-3.5, 71, 12) + "," + location(4.25, 0, 3) + "]";
+
+        List<WeatherServicePort.WeatherData> weather = adapter.getCurrentWeatherBatchAsync(
+            List.of(new Coordinates(63.8261, 20.2631), new Coordinates(65.58, 22.15)), TIMEOUT).get();
+
+        assertTrue(query.startsWith("latitude=63.83,65.58&longitude=20.26,22.15&"), query);
+        assertEquals(2, weather.size());
+        assertEquals(-3.5, weather.get(0).temperature().getCelsius());
+        assertEquals(71, weather.get(0).weatherCode());
+        assertEquals(4.25, weather.get(1).temperature().getCelsius());
+        assertEquals(3, weather.get(1).windSpeed().getKmPerHour());
+    }
+
+    @Test
+    void aSinglePointIsAnsweredWithAnObject() throws Exception {
+        body = location(10, 3, 5);
+
+        WeatherServicePort.WeatherData weather =
+            adapter.getCurrentWeatherAsync(new Coordinates(59.33, 18.07), TIMEOUT).get();
+
+        assertTrue(query.startsWith("latitude=59.33&longitude=18.07&"), query);
+        assertEquals(10, weather.temperature().getCelsius());
+    }
+
+    @Test
+    void anAnswerForTheWrongNumberOfPointsFails() {
+        body = location(10, 3, 5);
+
+        Exception e = assertThrows(Exception.class, () -> adapter.getCurrentWeatherBatchAsync(
+            List.of(new Coordinates(1, 1), new Coordinates(2, 2)), TIMEOUT).get());
+        assertInstanceOf(WeatherServicePort.WeatherServiceException.class,
+            WeatherServicePort.WeatherServiceException.from(e));
+        assertTrue(WeatherServicePort.WeatherServiceException.from(e).getMessage().contains("1 locations for 2"));
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.mcp.adapter.out.weather;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.valueobject.CityName;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs the resilience layer over the Open-Meteo adapter against a local stub server
+ * that answers from a script of injected latencies and errors.
+ */
+public class ResilientWeatherAdapterTest {
+    private static final String FOUND = "{\"results\":[{\"latitude\":63.83,\"longitude\":20.26,\"country\":\"Sweden\"}]}";
+    private static final String NOT_FOUND = "{\"generationtime_ms\":0.1}";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    /** One scripted answer of the stub. */
+    private record Reply(int status, String body, long delayMillis) {}
+
+    private final Queue<Reply> script = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Reply fallback = new Reply(200, FOUND, 0);
+    private HttpServer server;
+    private OpenMeteoWeatherAdapter upstream;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/search", this::answer);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        upstream = new OpenMeteoWeatherAdapter(base + "/search", base + "/forecast");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Reply reply = script.poll();
+        if (reply == null) {
+            reply = fallback;
+        }
+        try {
+            Thread.sleep(reply.delayMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = reply.body().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(reply.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static ResilientWeatherAdapter.Policy policy(int maxAttempts, int failureThreshold,
+                                                         Duration openDuration, int maxConcurrent, boolean hedging) {
+        return new ResilientWeatherAdapter.Policy(maxAttempts, Duration.ofMillis(20), Duration.ofMillis(100),
+            Duration.ofSeconds(2), failureThreshold, openDuration, maxConcurrent, hedging);
+    }
+
+    private static WeatherServicePort.WeatherServiceException failure(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        return WeatherServicePort.WeatherServiceException.from(e);
+    }
+
+    @Test
+    void retriesUnavailableServiceUntilItAnswers() throws Exception {
+        ResilientWeatherAdapter weather = new ResilientWeatherAdapter(upstream,
+            policy(3, 10, Duration.ofSeconds(30), 4, false));
+        script.add(new Reply(503, "", 0));
+        script.add(new Reply(503, "", 0));
+
+        WeatherServicePort.GeocodeResult result = weather.geocodeAsync(new CityName("Umea"), TIMEOUT).get();
+
+        assertEquals("Sweden", result.countryName());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void doesNotRetryAnswers() {
+        ResilientWeatherAdapter weather = new ResilientWeatherAdapter(upstream,
+            policy(3, 10, Duration.ofSeconds(30), 4, false));
+        script.add(new Reply(200, NOT_FOUND, 0));
+        script.add(new Reply(400, "", 0));
+
+        assertInstanceOf(WeatherServicePort.CityNotFoundException.class,
+            failure(weather.geocodeAsync(new CityName("Atlantis"), TIMEOUT)));
+        assertInstanceOf(WeatherServicePort.WeatherServiceException.class,
+            failure(weather.geocodeAsync(new CityName("Umea"), TIMEOUT)));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedFailuresAndClosesAfterProbe() throws Exception {
+        ResilientWeatherAdapter weather = new ResilientWeatherAdapter(upstream,
+            policy(1, 3, Duration.ofMillis(300), 4, false));
+        fallback = new Reply(500, "", 0);
+        for (int i = 0; i < 3; i++) {
+            failure(weather.geocodeAsync(new CityName("Umea"), TIMEOUT));
+        }
+
+        WeatherServicePort.WeatherServiceException open = failure(weather.geocodeAsync(new CityName("Umea"), TIMEOUT));
+        assertTrue(open.getMessage().contains("not asked again"), open.getMessage());
+        assertEquals(3, requests.get());
+
+        fallback = new Reply(200, FOUND, 0);
+        Thread.sleep(400);
+        assertEquals("Sweden", weather.geocodeAsync(new CityName("Umea"), TIMEOUT).get().countryName());
+        assertEquals("Sweden", weather.geocodeAsync(new CityName("Umea"), TIMEOUT).get().countryName());
+        assertEquals(5, requests.get());
+    }
+
+    @Test
+    void failedProbeOpensCircuitAgain() throws Exception {
+        ResilientWeatherAdapter weather = new ResilientWeatherAdapter(upstream,
+            policy(1, 1, Duration.ofMillis(200), 4, false));
+        fallback = new Reply(500, "", 0);
+        failure(weather.geocodeAsync(new CityName("Umea"), TIMEOUT));
+        Thread.sleep(300);
+
+        failure(weather.geocodeAsync(new CityName("Umea"), TIMEOUT));
+        WeatherServicePort.WeatherServiceException open = failure(weather.geocodeAsync(new CityName("Umea"), TIMEOUT));
+        assertTrue(open.getMessage().contains("not asked again"), open.getMessage());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void bulkheadRejectsRequestsBeyondItsLimit() throws Exception {
+        ResilientWeatherAdapter weather = new ResilientWeatherAdapter(upstream,
+            policy(1, 10, Duration.ofSeconds(30), 1, false));
+        fallback = new Reply(200, FOUND, 300);
+
+        CompletableFuture<WeatherServicePort.GeocodeResult> first = weather.geocodeAsync(new CityName("Umea"), TIMEOUT);
+        WeatherServicePort.WeatherServiceException rejected = failure(weather.geocodeAsync(new CityName("Oslo"), TIMEOUT));
+
+        assertTrue(rejected.getMessage().contains("Too many concurrent"), rejected.getMessage());
+        assertEquals("Sweden", first.get().countryName());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void hedgesRequestsSlowerThanUsual() throws Exception {
+        ResilientWeatherAdapter weather = new ResilientWeatherAdapter(upstream,
+            policy(1, 10, Duration.ofSeconds(30), 4, true));
+        for (int i = 0; i < 20; i++) {
+            weather.geocodeAsync(new CityName("Umea"), TIMEOUT).get();
+        }
+
+        script.add(new Reply(200, FOUND, 1500));
+        long started = System.nanoTime();
+        assertEquals("Sweden", weather.geocodeAsync(new CityName("Umea"), TIMEOUT).get().countryName());
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertTrue(elapsedMillis < 1000, "Hedge should have answered first, took " + elapsedMillis + " ms");
+        assertEquals(22, requests.get());
+    }
+
+    @Test
+    void defaultPolicyFailsRejectedRequestsWithoutRetrying() throws Exception {
+        ResilientWeatherAdapter.Policy defaults = ResilientWeatherAdapter.Policy.defaults();
+        ResilientWeatherAdapter weather = new ResilientWeatherAdapter(upstream, defaults);
+        fallback = new Reply(200, FOUND, 500);
+        List<CompletableFuture<WeatherServicePort.GeocodeResult>> running = new ArrayList<>();
+        for (int i = 0; i < defaults.maxConcurrent(); i++) {
+            running.add(weather.geocodeAsync(new CityName("Umea"), TIMEOUT));
+        }
+
+        CompletableFuture<WeatherServicePort.GeocodeResult> rejected = weather.geocodeAsync(new CityName("Oslo"), TIMEOUT);
+        assertTrue(rejected.isCompletedExceptionally(), "Rejection should not wait for a retry");
+        assertTrue(failure(rejected).getMessage().contains("Too many concurrent"));
+        for (CompletableFuture<WeatherServicePort.GeocodeResult> request : running) {
+            assertEquals("Sweden", request.get().countryName());
+        }
+        assertEquals(defaults.maxConcurrent(), requests.get());
+
+        fallback = new Reply(503, "", 0);
+        int failures = 0;
+        while (failures < defaults.failureThreshold()) {
+            failure(weather.geocodeAsync(new CityName("Umea"), TIMEOUT));
+            failures = requests.get() - defaults.maxConcurrent();
+        }
+        CompletableFuture<WeatherServicePort.GeocodeResult> open = weather.geocodeAsync(new CityName("Umea"), TIMEOUT);
+        assertTrue(open.isCompletedExceptionally(), "Rejection should not wait for a retry");
+        assertTrue(failure(open).getMessage().contains("not asked again for 30 s"), failure(open).getMessage());
+        assertEquals(defaults.maxConcurrent() + defaults.failureThreshold(), requests.get());
+    }
+
+    @Test
+    void halfOpenCircuitRejectsOthersWhileItsProbeRuns() throws Exception {
+        ResilientWeatherAdapter weather = new ResilientWeatherAdapter(upstream,
+            policy(3, 1, Duration.ofMillis(200), 4, false));
+        fallback = new Reply(500, "", 0);
+        failure(weather.geocodeAsync(new CityName("Umea"), TIMEOUT));
+        Thread.sleep(300);
+
+        fallback = new Reply(200, FOUND, 300);
+        CompletableFuture<WeatherServicePort.GeocodeResult> probe = weather.geocodeAsync(new CityName("Umea"), TIMEOUT);
+        CompletableFuture<WeatherServicePort.GeocodeResult> rejected = weather.geocodeAsync(new CityName("Oslo"), TIMEOUT);
+
+        assertTrue(rejected.isCompletedExceptionally(), "Rejection should not wait for a retry");
+        String message = failure(rejected).getMessage();
+        assertTrue(message.contains("until a probe request succeeds"), message);
+        assertEquals("Sweden", probe.get().countryName());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void cancelsTheSlowerOfHedgedRequests() throws Exception {
+        ResilientWeatherAdapter weather = new ResilientWeatherAdapter(upstream,
+            policy(1, 10, Duration.ofSeconds(30), 2, true));
+        // Usual latency long enough that the requests below are both sent before either is hedged
+        fallback = new Reply(200, FOUND, 50);
+        for (int i = 0; i < 20; i++) {
+            weather.geocodeAsync(new CityName("Umea"), TIMEOUT).get();
+        }
+        script.add(new Reply(200, FOUND, 1500));
+        assertEquals("Sweden", weather.geocodeAsync(new CityName("Umea"), TIMEOUT).get().countryName());
+
+        // Both places of the bulkhead are free again although the slow request is still unanswered
+        fallback = new Reply(200, FOUND, 300);
+        CompletableFuture<WeatherServicePort.GeocodeResult> first = weather.geocodeAsync(new CityName("Umea"), TIMEOUT);
+        CompletableFuture<WeatherServicePort.GeocodeResult> second = weather.geocodeAsync(new CityName("Oslo"), TIMEOUT);
+        assertEquals("Sweden", first.get().countryName());
+        assertEquals("Sweden", second.get().countryName());
+    }
+}
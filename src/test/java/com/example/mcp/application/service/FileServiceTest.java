@@ -0,0 +1,332 @@
+package com.example.mcp.application.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.mcp.adapter.out.filesystem.JavaNioFileSystemAdapter;
+import com.example.mcp.adapter.out.filesystem.RealPathPolicyAdapter;
+import com.example.mcp.adapter.out.filesystem.WatchServiceDirectoryWatchAdapter;
+import com.example.mcp.application.port.in.FileOperationUseCase.FileReadResult;
+import com.example.mcp.application.port.out.LoggingPort;
+import com.example.mcp.domain.model.DirectoryChange;
+import com.example.mcp.domain.model.DirectoryChanges;
+import com.example.mcp.domain.model.DirectoryListing;
+import com.example.mcp.domain.model.FileChunk;
+import com.example.mcp.domain.model.FileMetadata;
+import com.example.mcp.domain.model.FileSearchResult;
+import com.example.mcp.domain.model.SearchMatch;
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.ListingCursor;
+import com.example.mcp.domain.valueobject.ListingSort;
+import com.example.mcp.domain.valueobject.PathRule;
+import com.example.mcp.domain.valueobject.ReadCursor;
+import com.example.mcp.domain.valueobject.ReadRange;
+import com.example.mcp.domain.valueobject.WatchCursor;
+
+/**
+ * Runs the file use cases over the local file system in a scratch directory.
+ */
+public class FileServiceTest {
+    private static final LoggingPort SILENT = new LoggingPort() {
+        @Override
+        public void info(String message) {}
+
+        @Override
+        public void warn(String message) {}
+
+        @Override
+        public void error(String message) {}
+
+        @Override
+        public void error(String message, Throwable throwable) {}
+    };
+
+    @TempDir
+    Path root;
+
+    private Path denied;
+    private FileService service;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        denied = Files.createDirectory(root.resolve("denied"));
+        Files.writeString(denied.resolve("secret.txt"), "s");
+        Files.writeString(root.resolve("open.txt"), "o");
+        service = new FileService(new JavaNioFileSystemAdapter(), null, null, null,
+            new RealPathPolicyAdapter(List.of(PathRule.deny(denied.toString()))), SILENT);
+    }
+
+    @Test
+    void listingADeniedDirectoryIsRefused() {
+        FilePath path = new FilePath(denied.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> service.listDirectory(path));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.listDirectory(path, ListingSort.NAME, false, 10, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.listDirectory(new FilePath(root + "/open/../denied"), ListingSort.NAME, false, 10, null));
+    }
+
+    @Test
+    void listingAnAllowedDirectoryStillWorks() throws Exception {
+        assertEquals(2, service.listDirectory(new FilePath(root.toString())).size());
+    }
+
+    /**
+     * Lists a directory page by page, passing each cursor through its string form as a client
+     * would, and returns the names in the order they were listed.
+     */
+    private List<String> listAllPages(FilePath dir, ListingSort sort, boolean descending, int limit)
+            throws Exception {
+        List<String> names = new ArrayList<>();
+        ListingCursor cursor = null;
+        do {
+            DirectoryListing page = service.listDirectory(dir, sort, descending, limit, cursor);
+            assertTrue(page.getEntries().size() <= limit, "Page of " + page.getEntries().size());
+            for (FileMetadata entry : page.getEntries()) {
+                names.add(entry.getName());
+            }
+            cursor = page.getNextCursor().map(next -> ListingCursor.parse(next.encode())).orElse(null);
+        } while (cursor != null);
+        return names;
+    }
+
+    @Test
+    void listingPagesVisitEveryEntryOnceInOrder() throws Exception {
+        Path dir = Files.createDirectory(root.resolve("pages"));
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            String name = String.format("file-%02d.txt", i);
+            // Sizes repeat, so paging by size has to break ties by name
+            Files.writeString(dir.resolve(name), "x".repeat(i % 4));
+            expected.add(name);
+        }
+        FilePath path = new FilePath(dir.toString());
+
+        assertEquals(expected, listAllPages(path, ListingSort.NAME, false, 7));
+        assertEquals(expected.reversed(), listAllPages(path, ListingSort.NAME, true, 7));
+
+        List<String> bySize = listAllPages(path, ListingSort.SIZE, true, 4);
+        assertEquals(25, bySize.stream().distinct().count());
+        for (int i = 1; i < bySize.size(); i++) {
+            assertTrue(size(dir, bySize.get(i - 1)) >= size(dir, bySize.get(i)), "Out of order at " + bySize.get(i));
+        }
+    }
+
+    private static long size(Path dir, String name) throws IOException {
+        return Files.size(dir.resolve(name));
+    }
+
+    @Test
+    void readingOnByCursorReturnsTheWholeFile() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 700 * 1024; i++) {
+            text.append("line ").append(i).append(" åäö\n");
+        }
+        Path file = Files.writeString(root.resolve("big.txt"), text);
+        FilePath path = new FilePath(file.toString());
+
+        StringBuilder read = new StringBuilder();
+        FileChunk chunk = service.readFile(path, ReadRange.wholeFile());
+        int pages = 1;
+        read.append(chunk.getContent());
+        while (chunk.hasMore()) {
+            ReadCursor cursor = ReadCursor.parse(chunk.getContinuation().orElseThrow().encode());
+            assertEquals(chunk.getEndOffset(), cursor.getPosition());
+            chunk = service.readFile(path, cursor);
+            read.append(chunk.getContent());
+            pages++;
+        }
+
+        assertEquals(text.toString(), read.toString());
+        assertTrue(pages > 1, "Expected several pages");
+        assertFalse(chunk.getContinuation().isPresent());
+    }
+
+    @Test
+    void aLineRangeReadsJustThoseLines() throws Exception {
+        Path file = Files.writeString(root.resolve("lines.txt"), "zero\none\ntwo\nthree\nfour\n");
+
+        FileChunk chunk = service.readFile(new FilePath(file.toString()), ReadRange.lines(1, 2));
+
+        assertEquals("one\ntwo\n", chunk.getContent());
+        assertEquals(5, chunk.getStartOffset());
+    }
+
+    /**
+     * A service whose policy allows the scratch directory but denies {@code tree/secrets} inside it.
+     */
+    private FileService nestedPolicyService() {
+        return new FileService(new JavaNioFileSystemAdapter(), null, null, null,
+            new RealPathPolicyAdapter(List.of(PathRule.allow(root.toString()),
+                PathRule.deny(root.resolve("tree/secrets").toString()))), SILENT);
+    }
+
+    private Path treeWithSecrets() throws IOException {
+        Path tree = Files.createDirectories(root.resolve("tree/secrets"));
+        Files.writeString(tree.resolve("key.pem"), "secret");
+        return Files.writeString(root.resolve("tree/readme.txt"), "public").getParent();
+    }
+
+    @Test
+    void copyingATreeWithADeniedSubtreeIsRefused() throws Exception {
+        Path tree = treeWithSecrets();
+        FileService nested = nestedPolicyService();
+
+        Exception e = assertThrows(Exception.class, () -> nested.copyFile(
+            new FilePath(tree.toString()), new FilePath(root.resolve("copy").toString()), false));
+
+        assertTrue(e.getMessage().contains("secrets"), e.getMessage());
+        assertFalse(Files.exists(root.resolve("copy")));
+    }
+
+    @Test
+    void movingATreeWithADeniedSubtreeIsRefused() throws Exception {
+        Path tree = treeWithSecrets();
+        FileService nested = nestedPolicyService();
+
+        assertThrows(Exception.class, () -> nested.moveFile(
+            new FilePath(tree.toString()), new FilePath(root.resolve("moved").toString()), false));
+
+        assertTrue(Files.exists(tree.resolve("secrets/key.pem")));
+        assertFalse(Files.exists(root.resolve("moved")));
+    }
+
+    @Test
+    void copyingATreeWithoutDeniedEntriesStillWorks() throws Exception {
+        Path tree = treeWithSecrets();
+        FileService nested = nestedPolicyService();
+        Path open = Files.createDirectories(tree.resolve("docs"));
+        Files.writeString(open.resolve("a.txt"), "a");
+
+        assertEquals(1, nested.copyFile(new FilePath(open.toString()),
+            new FilePath(root.resolve("docs-copy").toString()), false).files());
+        assertEquals("a", Files.readString(root.resolve("docs-copy/a.txt")));
+    }
+
+    @Test
+    void aRecursiveWatchDoesNotNameFilesInADeniedSubtree() throws Exception {
+        try (WatchServiceDirectoryWatchAdapter watch = new WatchServiceDirectoryWatchAdapter(0)) {
+            FileService watching = new FileService(new JavaNioFileSystemAdapter(), null, watch, null,
+                new RealPathPolicyAdapter(List.of(PathRule.deny(denied.toString()))), SILENT);
+            FilePath path = new FilePath(root.toString());
+            WatchCursor cursor = watching.watchDirectory(path, true, null, 0).getCursor();
+
+            Files.writeString(denied.resolve("leaked.txt"), "s");
+            Files.writeString(root.resolve("seen.txt"), "o");
+
+            List<String> seen = new ArrayList<>();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!seen.contains(root.resolve("seen.txt").toString()) && System.currentTimeMillis() < deadline) {
+                DirectoryChanges changes = watching.watchDirectory(path, true, cursor, 500);
+                for (DirectoryChange change : changes.getChanges()) {
+                    seen.add(change.getPath().getValue());
+                }
+                cursor = changes.getCursor();
+            }
+            for (DirectoryChange change : watching.watchDirectory(path, true, cursor, 200).getChanges()) {
+                seen.add(change.getPath().getValue());
+            }
+
+            assertTrue(seen.contains(root.resolve("seen.txt").toString()), seen.toString());
+            assertTrue(seen.stream().noneMatch(p -> p.startsWith(denied.toString())), seen.toString());
+        }
+    }
+
+    /**
+     * Writes enough files over enough directories for the search to fork, each with a match on line 2.
+     */
+    private Path searchTree(int directories, int filesEach) throws IOException {
+        Path tree = Files.createDirectory(root.resolve("search"));
+        for (int d = 0; d < directories; d++) {
+            Path dir = Files.createDirectory(tree.resolve("dir-" + d));
+            for (int f = 0; f < filesEach; f++) {
+                Files.writeString(dir.resolve("file-" + f + ".txt"), "first\nthe needle\nlast\n");
+            }
+        }
+        return tree;
+    }
+
+    @Test
+    void aParallelSearchFindsEveryMatchInOrder() throws Exception {
+        Path tree = searchTree(12, 40);
+
+        FileSearchResult result = service.searchFiles(new FilePath(tree.toString()), "*.txt", "needle", 1000);
+
+        assertEquals(480, result.getMatches().size());
+        assertFalse(result.isLimitReached());
+        List<String> paths = new ArrayList<>();
+        for (SearchMatch match : result.getMatches()) {
+            assertEquals(2, match.getLineNumber());
+            assertEquals("the needle", match.getSnippet());
+            paths.add(match.getPath().getValue());
+        }
+        List<String> sorted = new ArrayList<>(paths);
+        sorted.sort(null);
+        assertEquals(sorted, paths);
+        assertEquals(480, paths.stream().distinct().count());
+    }
+
+    @Test
+    void theLimitIsReportedOnlyWhenAMatchWasLeftOut() throws Exception {
+        Path tree = searchTree(3, 10);
+        FilePath path = new FilePath(tree.toString());
+
+        FileSearchResult exact = service.searchFiles(path, "*.txt", "needle", 30);
+        assertEquals(30, exact.getMatches().size());
+        assertFalse(exact.isLimitReached());
+
+        FileSearchResult cut = service.searchFiles(path, "*.txt", "needle", 29);
+        assertEquals(29, cut.getMatches().size());
+        assertTrue(cut.isLimitReached());
+    }
+
+    @Test
+    void aBatchReadSplitsTheBudgetEvenlyAndKeepsTheOrder() throws Exception {
+        List<FilePath> paths = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            paths.add(new FilePath(Files.writeString(root.resolve("batch-" + i + ".txt"), String.valueOf(i).repeat(100))
+                .toString()));
+        }
+
+        List<FileReadResult> results = service.readFiles(paths, 90);
+
+        assertEquals(3, results.size());
+        for (int i = 0; i < 3; i++) {
+            FileReadResult result = results.get(i);
+            assertEquals(paths.get(i), result.path());
+            assertFalse(result.isError());
+            assertEquals(String.valueOf(i).repeat(30), result.chunk().getContent());
+            assertEquals(30, result.chunk().getContinuation().orElseThrow().getPosition());
+        }
+    }
+
+    @Test
+    void aBatchReadReportsEachFailureInline() throws Exception {
+        FilePath open = new FilePath(root.resolve("open.txt").toString());
+        List<FilePath> paths = List.of(
+            new FilePath(root.resolve("missing.txt").toString()),
+            open,
+            new FilePath(denied.resolve("secret.txt").toString()),
+            new FilePath(root.toString()));
+
+        List<FileReadResult> results = service.readFiles(paths, 1000);
+
+        assertTrue(results.get(0).error().contains("File not found"), results.get(0).error());
+        assertEquals("o", results.get(1).chunk().getContent());
+        assertTrue(results.get(1).chunk().isWholeFile());
+        assertTrue(results.get(2).error().contains("path policy"), results.get(2).error());
+        assertTrue(results.get(3).error().contains("Not a regular file"), results.get(3).error());
+    }
+}
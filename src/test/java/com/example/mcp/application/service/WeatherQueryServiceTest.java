@@ -0,0 +1,121 @@
+package com.example.mcp.application.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.mcp.application.port.in.WeatherQueryUseCase.CityWeatherResult;
+import com.example.mcp.application.port.out.LoggingPort;
+import com.example.mcp.application.port.out.WeatherServicePort;
+import com.example.mcp.domain.model.Forecast;
+import com.example.mcp.domain.valueobject.CityName;
+import com.example.mcp.domain.valueobject.Coordinates;
+import com.example.mcp.domain.valueobject.Temperature;
+import com.example.mcp.domain.valueobject.WindSpeed;
+
+/**
+ * Runs batch weather queries over a stub service that knows a few places and answers
+ * each point with its latitude as the temperature.
+ */
+public class WeatherQueryServiceTest {
+    private static final LoggingPort SILENT = new LoggingPort() {
+        @Override
+        public void info(String message) {}
+
+        @Override
+        public void warn(String message) {}
+
+        @Override
+        public void error(String message) {}
+
+        @Override
+        public void error(String message, Throwable throwable) {}
+    };
+
+    private final List<List<Coordinates>> batches = new ArrayList<>();
+    private volatile boolean weatherDown;
+
+    private final WeatherServicePort stub = new WeatherServicePort() {
+        @Override
+        public CompletableFuture<GeocodeResult> geocodeAsync(CityName city, Duration timeout) {
+            return switch (city.normalized()) {
+                case "umea" -> CompletableFuture.completedFuture(
+                    new GeocodeResult(new Coordinates(63.8261, 20.2631), "Sweden"));
+                case "umea centrum" -> CompletableFuture.completedFuture(
+                    new GeocodeResult(new Coordinates(63.8349, 20.2599), "Sweden"));
+                case "lulea" -> CompletableFuture.completedFuture(
+                    new GeocodeResult(new Coordinates(65.58, 22.15), "Sweden"));
+                default -> CompletableFuture.failedFuture(
+                    new CityNotFoundException("City not found: " + city.getValue()));
+            };
+        }
+
+        @Override
+        public CompletableFuture<WeatherData> getCurrentWeatherAsync(Coordinates coordinates, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized CompletableFuture<List<WeatherData>> getCurrentWeatherBatchAsync(
+                List<Coordinates> coordinates, Duration timeout) {
+            batches.add(coordinates);
+            if (weatherDown) {
+                return CompletableFuture.failedFuture(new WeatherServiceException("Weather service unavailable"));
+            }
+            return CompletableFuture.completedFuture(coordinates.stream()
+                .map(c -> new WeatherData(Temperature.celsius(c.getLatitude()), 0, WindSpeed.kmPerHour(1)))
+                .toList());
+        }
+
+        @Override
+        public CompletableFuture<Forecast> getForecastAsync(Coordinates coordinates, int days, Duration timeout) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private final WeatherQueryService service = new WeatherQueryService(stub, SILENT);
+
+    private static List<CityName> cities(String... names) {
+        return Arrays.stream(names).map(CityName::new).toList();
+    }
+
+    @Test
+    void citiesOnOneGridPointShareItAndAnUnknownCityFailsAlone() throws Exception {
+        List<CityWeatherResult> results =
+            service.getWeatherForCitiesAsync(cities("Umea", "Nowhere", "Umea centrum", "Lulea")).get();
+
+        assertEquals(1, batches.size());
+        assertEquals(List.of(new Coordinates(63.83, 20.26), new Coordinates(65.58, 22.15)), batches.get(0));
+        assertEquals(63.83, results.get(0).weather().getTemperature().getCelsius());
+        assertNull(results.get(0).error());
+        assertTrue(results.get(1).error().contains("City not found"), results.get(1).error());
+        assertNull(results.get(1).weather());
+        assertEquals(63.83, results.get(2).weather().getTemperature().getCelsius());
+        assertEquals(65.58, results.get(3).weather().getTemperature().getCelsius());
+    }
+
+    @Test
+    void aFailedWeatherRequestIsReportedForEveryPlaceFound() throws Exception {
+        weatherDown = true;
+
+        List<CityWeatherResult> results = service.getWeatherForCitiesAsync(cities("Umea", "Nowhere")).get();
+
+        assertEquals("Weather service unavailable", results.get(0).error());
+        assertTrue(results.get(1).error().contains("City not found"), results.get(1).error());
+    }
+
+    @Test
+    void aBatchOfUnknownCitiesSendsNoWeatherRequest() throws Exception {
+        List<CityWeatherResult> results = service.getWeatherForCitiesAsync(cities("Nowhere", "Atlantis")).get();
+
+        assertTrue(batches.isEmpty());
+        assertTrue(results.stream().allMatch(CityWeatherResult::isError));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.mcp.domain.model;
+
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Aggregates over windows of an eight-hour series with gaps.
+ */
+public class ForecastTest {
+    private static final long T0 = 1_700_000_000L / 3600 * 3600;
+    private static final double NaN = Double.NaN;
+
+    private final Forecast forecast = new Forecast("Europe/Stockholm", 3600,
+        new Forecast.Hourly(hours(8),
+            new double[] {1, NaN, 3, 4, NaN, NaN, 10, -2},
+            new double[] {0, 0.05, NaN, 0, 0.1, 2, NaN, 0},
+            new int[] {0, 0, 0, 0, 61, 63, -1, 0},
+            new double[] {5, 5, 5, 5, 5, 5, 5, 5}),
+        new Forecast.Daily(new long[] {T0}, new int[] {63}, new double[] {10}, new double[] {-2},
+            new double[] {2.1}));
+
+    private static long[] hours(int count) {
+        long[] times = new long[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = at(i);
+        }
+        return times;
+    }
+
+    private static long at(double hours) {
+        return T0 + (long) (hours * 3600);
+    }
+
+    @Test
+    void statsSkipMissingHours() {
+        Forecast.Stats all = forecast.stats(Forecast.Variable.TEMPERATURE, at(0), at(8));
+
+        assertEquals(new Forecast.Stats(-2, 10, 3.2, 16, 5), all);
+        assertEquals(new Forecast.Stats(2, 2, 2, 2, 1), forecast.stats(Forecast.Variable.PRECIPITATION, at(5), at(7)));
+    }
+
+    @Test
+    void aWindowCoversTheHoursStartingInIt() {
+        assertEquals(new Forecast.Stats(3, 3, 3, 3, 1),
+            forecast.stats(Forecast.Variable.TEMPERATURE, at(0.5), at(3)));
+        assertEquals(new Forecast.Stats(3, 4, 3.5, 7, 2),
+            forecast.stats(Forecast.Variable.TEMPERATURE, at(2), at(3.5)));
+    }
+
+    @Test
+    void aWindowWithoutValuesIsNaNThroughout() {
+        Forecast.Stats gap = forecast.stats(Forecast.Variable.TEMPERATURE, at(4), at(6));
+        assertEquals(0, gap.hours());
+        assertTrue(Double.isNaN(gap.min()) && Double.isNaN(gap.max()));
+        assertTrue(Double.isNaN(gap.mean()) && Double.isNaN(gap.sum()));
+
+        assertEquals(0, forecast.stats(Forecast.Variable.WIND_SPEED, at(-5), at(0)).hours());
+        assertEquals(0, forecast.stats(Forecast.Variable.WIND_SPEED, at(8), at(20)).hours());
+        assertEquals(0, forecast.stats(Forecast.Variable.WIND_SPEED, at(3), at(3)).hours());
+    }
+
+    @Test
+    void rainStartsAtTheFirstHourReachingTheThreshold() {
+        assertEquals(OptionalLong.of(at(4)), forecast.firstHourOfRain(at(0)));
+        assertEquals(OptionalLong.of(at(4)), forecast.firstHourOfRain(at(-3)));
+        assertEquals(OptionalLong.of(at(5)), forecast.firstHourOfRain(at(4.5)));
+        assertEquals(OptionalLong.empty(), forecast.firstHourOfRain(at(6)));
+        assertEquals(OptionalLong.empty(), forecast.firstHourOfRain(at(9)));
+    }
+
+    @Test
+    void seriesOfDifferentLengthsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Forecast.Hourly(hours(2),
+            new double[2], new double[2], new int[1], new double[2]));
+        assertThrows(IllegalArgumentException.class, () -> forecast.format(at(0), 0));
+    }
+}
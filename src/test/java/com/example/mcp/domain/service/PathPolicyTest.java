@@ -0,0 +1,72 @@
+package com.example.mcp.domain.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.mcp.domain.valueobject.FilePath;
+import com.example.mcp.domain.valueobject.PathRule;
+
+/**
+ * Evaluates compiled rules over lexical segments, independent of any file system.
+ */
+public class PathPolicyTest {
+
+    private static PathPolicy compile(PathRule... rules) {
+        return PathPolicy.compile(List.of(rules), PathPolicyTest::segments);
+    }
+
+    private static List<String> segments(FilePath path) {
+        return segments(path.getValue());
+    }
+
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        segments.add("/");
+        Arrays.stream(path.split("/")).filter(s -> !s.isEmpty()).forEach(segments::add);
+        return segments;
+    }
+
+    @Test
+    void allowsWhatNoRuleCovers() {
+        PathPolicy policy = compile(PathRule.deny("/etc"));
+
+        assertTrue(policy.permits(segments("/home/me/notes.txt")));
+        assertTrue(policy.permits(segments("/etcetera")));
+    }
+
+    @Test
+    void denyCoversTheWholeSubtree() {
+        PathPolicy policy = compile(PathRule.deny("/etc"));
+
+        assertFalse(policy.permits(segments("/etc")));
+        assertFalse(policy.permits(segments("/etc/ssh/sshd_config")));
+    }
+
+    @Test
+    void mostSpecificRuleWins() {
+        PathPolicy policy = compile(PathRule.allow("/srv/data/public"), PathRule.deny("/srv/data"));
+
+        assertFalse(policy.permits(segments("/srv/data/private/key")));
+        assertTrue(policy.permits(segments("/srv/data/public/index.html")));
+    }
+
+    @Test
+    void denyAllWithAllowedRoots() {
+        PathPolicy policy = compile(PathRule.deny("/"), PathRule.allow("/home/me/project"));
+
+        assertFalse(policy.permits(segments("/")));
+        assertFalse(policy.permits(segments("/home/me")));
+        assertTrue(policy.permits(segments("/home/me/project/src/Main.java")));
+    }
+
+    @Test
+    void laterRuleForTheSameDirectoryWins() {
+        assertTrue(compile(PathRule.deny("/tmp"), PathRule.allow("/tmp")).permits(segments("/tmp/x")));
+        assertFalse(compile(PathRule.allow("/tmp"), PathRule.deny("/tmp")).permits(segments("/tmp/x")));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.mcp.domain.valueobject;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Parses and encodes path rules.
+ */
+public class PathRuleTest {
+
+    @Test
+    void parsesEffectAndPath() {
+        PathRule rule = PathRule.parse(" DENY:/etc ");
+
+        assertEquals(PathRule.Effect.DENY, rule.getEffect());
+        assertEquals("/etc", rule.getPath().getValue());
+    }
+
+    @Test
+    void keepsColonsInsideThePath() {
+        assertEquals("C:/data", PathRule.parse("allow:C:/data").getPath().getValue());
+    }
+
+    @Test
+    void encodingRoundTrips() {
+        PathRule rule = PathRule.allow("/srv/data");
+
+        assertEquals("allow:/srv/data", rule.encode());
+        assertEquals(rule, PathRule.parse(rule.encode()));
+    }
+
+    @Test
+    void parsesListsInOrderSkippingEmptyItems() {
+        assertEquals(List.of(PathRule.deny("/"), PathRule.allow("/home/me")),
+            PathRule.parseList("deny:/,, allow:/home/me,"));
+    }
+
+    @Test
+    void rejectsMalformedRules() {
+        assertThrows(IllegalArgumentException.class, () -> PathRule.parse("/etc"));
+        assertThrows(IllegalArgumentException.class, () -> PathRule.parse("deny:  "));
+        assertThrows(IllegalArgumentException.class, () -> PathRule.parse("block:/etc"));
+    }
+}